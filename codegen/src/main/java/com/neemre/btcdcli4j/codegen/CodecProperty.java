@@ -0,0 +1,91 @@
+package com.neemre.btcdcli4j.codegen;
+
+import javax.lang.model.type.TypeMirror;
+
+/**A JSON property of a {@code @JsonCodec} entity, along with the accessors through which the
+ * generated reader sets it &amp; the generated writer gets it. A property lacking either side is
+ * only read (or only written).*/
+class CodecProperty {
+
+	private final String name;
+	private String setter;
+	private String setField;
+	private TypeMirror readType;
+	private String deserializer;
+	private String getter;
+	private String getField;
+	private TypeMirror writeType;
+
+
+	CodecProperty(String name) {
+		this.name = name;
+	}
+
+	String getName() {
+		return name;
+	}
+
+	boolean isReadable() {
+		return (setter != null) || (setField != null);
+	}
+
+	boolean isWritable() {
+		return (getter != null) || (getField != null);
+	}
+
+	/**Returns the expression assigning {@code value} to the property of {@code entity}.*/
+	String toAssignment(String entity, String value) {
+		if (setter != null) {
+			return String.format("%s.%s(%s);", entity, setter, value);
+		}
+		return String.format("%s.%s = %s;", entity, setField, value);
+	}
+
+	/**Returns the expression getting the property of {@code entity}.*/
+	String toAccess(String entity) {
+		if (getter != null) {
+			return String.format("%s.%s()", entity, getter);
+		}
+		return String.format("%s.%s", entity, getField);
+	}
+
+	void setSetter(String setter, TypeMirror readType) {
+		this.setter = setter;
+		this.setField = null;
+		this.readType = readType;
+	}
+
+	void setSetField(String setField, TypeMirror readType) {
+		this.setter = null;
+		this.setField = setField;
+		this.readType = readType;
+	}
+
+	TypeMirror getReadType() {
+		return readType;
+	}
+
+	String getDeserializer() {
+		return deserializer;
+	}
+
+	void setDeserializer(String deserializer) {
+		this.deserializer = deserializer;
+	}
+
+	void setGetter(String getter, TypeMirror writeType) {
+		this.getter = getter;
+		this.getField = null;
+		this.writeType = writeType;
+	}
+
+	void setGetField(String getField, TypeMirror writeType) {
+		this.getter = null;
+		this.getField = getField;
+		this.writeType = writeType;
+	}
+
+	TypeMirror getWriteType() {
+		return writeType;
+	}
+}
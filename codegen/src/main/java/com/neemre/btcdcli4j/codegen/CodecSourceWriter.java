@@ -0,0 +1,457 @@
+package com.neemre.btcdcli4j.codegen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.JavaFileObject;
+
+/**Writes the source of the reader &amp; writer of a single entity. Scalars, strings and lists of
+ * strings are read &amp; written inline; for nested entities (which are handled by their own
+ * generated codecs) and for any other type, the reader &amp; writer look up the deserializers
+ * &amp; serializers they delegate to once, when they are resolved by Jackson.*/
+class CodecSourceWriter {
+
+	static final String READER_SUFFIX = "JsonReader";
+	static final String WRITER_SUFFIX = "JsonWriter";
+
+	private static final String JSON_CODECS = "com.neemre.btcdcli4j.core.jsonrpc.JsonCodecs";
+
+	private final ProcessingEnvironment processingEnv;
+	private final TypeElement entity;
+	private final List<CodecProperty> properties;
+	private final boolean isIncludingNulls;
+	private final boolean isIgnoringUnknown;
+	private final String packageName;
+	private final String entityName;
+	private Map<String, String> constants;
+	private Map<String, String> delegates;
+	private Map<String, String> delegateNames;
+	private boolean isUnchecked;
+
+
+	CodecSourceWriter(ProcessingEnvironment processingEnv, TypeElement entity,
+			List<CodecProperty> properties, boolean isIncludingNulls, boolean isIgnoringUnknown) {
+		this.processingEnv = processingEnv;
+		this.entity = entity;
+		this.properties = properties;
+		this.isIncludingNulls = isIncludingNulls;
+		this.isIgnoringUnknown = isIgnoringUnknown;
+		this.packageName = processingEnv.getElementUtils().getPackageOf(entity).getQualifiedName()
+				.toString();
+		this.entityName = entity.getQualifiedName().toString();
+	}
+
+	void writeReader() throws IOException {
+		reset();
+		StringBuilder cases = new StringBuilder();
+		for (CodecProperty property : properties) {
+			if (!property.isReadable()) {
+				continue;
+			}
+			cases.append(String.format("\t\t\tcase \"%s\":%n", escape(property.getName())));
+			cases.append(String.format("\t\t\t\t%s%n", property.toAssignment("entity",
+					toReadExpression(property))));
+			cases.append(String.format("\t\t\t\tbreak;%n"));
+		}
+		cases.append(String.format("\t\t\tdefault:%n"));
+		if (isIgnoringUnknown) {
+			cases.append(String.format("\t\t\t\tparser.skipChildren();%n"));
+		} else {
+			cases.append(String.format("\t\t\t\tif (!context.handleUnknownProperty(parser, this, "
+					+ "entity, field)) {%n"));
+			cases.append(String.format("\t\t\t\t\tcontext.reportUnknownProperty(entity, field, "
+					+ "this);%n"));
+			cases.append(String.format("\t\t\t\t\tparser.skipChildren();%n"));
+			cases.append(String.format("\t\t\t\t}%n"));
+		}
+		String simpleName = entity.getSimpleName() + READER_SUFFIX;
+		StringBuilder source = new StringBuilder();
+		source.append(String.format("package %s;%n%n", packageName));
+		source.append(String.format("import java.io.IOException;%n%n"));
+		source.append(String.format("import com.fasterxml.jackson.core.JsonParser;%n"));
+		source.append(String.format("import com.fasterxml.jackson.core.JsonToken;%n"));
+		source.append(String.format("import com.fasterxml.jackson.databind"
+				+ ".DeserializationContext;%n"));
+		source.append(String.format("import com.fasterxml.jackson.databind.JsonDeserializer;%n"));
+		source.append(String.format("import com.fasterxml.jackson.databind"
+				+ ".JsonMappingException;%n"));
+		source.append(String.format("import com.fasterxml.jackson.databind.deser"
+				+ ".ResolvableDeserializer;%n"));
+		source.append(String.format("import %s;%n%n", JSON_CODECS));
+		source.append(String.format("/**Streaming reader of {@link %s}; generated by "
+				+ "{@code JsonCodecProcessor}, do not edit.*/%n", entityName));
+		source.append(String.format("public final class %s extends JsonDeserializer<%s>%n"
+				+ "\t\timplements ResolvableDeserializer {%n%n", simpleName, entityName));
+		appendMembers(source, "JsonDeserializer<Object>");
+		source.append(String.format("\t@Override%n"));
+		source.append(String.format("\tpublic void resolve(DeserializationContext context) "
+				+ "throws JsonMappingException {%n"));
+		appendResolutions(source);
+		source.append(String.format("\t}%n%n"));
+		source.append(String.format("\t@Override%n"));
+		if (isUnchecked) {
+			source.append(String.format("\t@SuppressWarnings(\"unchecked\")%n"));
+		}
+		source.append(String.format("\tpublic %s deserialize(JsonParser parser, "
+				+ "DeserializationContext context)%n\t\t\tthrows IOException {%n", entityName));
+		source.append(String.format("\t\tJsonToken token = parser.getCurrentToken();%n"));
+		source.append(String.format("\t\tif (token == JsonToken.START_OBJECT) {%n"));
+		source.append(String.format("\t\t\ttoken = parser.nextToken();%n"));
+		source.append(String.format("\t\t} else if (token != JsonToken.FIELD_NAME) {%n"));
+		source.append(String.format("\t\t\tthrow context.mappingException(%s.class, token);%n",
+				entityName));
+		source.append(String.format("\t\t}%n"));
+		source.append(String.format("\t\t%s entity = new %s();%n", entityName, entityName));
+		source.append(String.format("\t\tfor (; token == JsonToken.FIELD_NAME; "
+				+ "token = parser.nextToken()) {%n"));
+		source.append(String.format("\t\t\tString field = parser.getCurrentName();%n"));
+		source.append(String.format("\t\t\tif (parser.nextToken() == JsonToken.VALUE_NULL) {%n"));
+		source.append(String.format("\t\t\t\tcontinue;%n"));
+		source.append(String.format("\t\t\t}%n"));
+		source.append(String.format("\t\t\tswitch (field) {%n"));
+		source.append(cases);
+		source.append(String.format("\t\t\t}%n"));
+		source.append(String.format("\t\t}%n"));
+		source.append(String.format("\t\tif (token != JsonToken.END_OBJECT) {%n"));
+		source.append(String.format("\t\t\tthrow context.mappingException(%s.class, token);%n",
+				entityName));
+		source.append(String.format("\t\t}%n"));
+		source.append(String.format("\t\treturn entity;%n"));
+		source.append(String.format("\t}%n%n"));
+		appendHandledType(source);
+		source.append(String.format("}%n"));
+		write(packageName + "." + simpleName, source);
+	}
+
+	void writeWriter() throws IOException {
+		reset();
+		StringBuilder body = new StringBuilder();
+		int index = 0;
+		for (CodecProperty property : properties) {
+			if (!property.isWritable()) {
+				continue;
+			}
+			TypeMirror type = property.getWriteType();
+			String fieldName = String.format("generator.writeFieldName(\"%s\");",
+					escape(property.getName()));
+			if (type.getKind().isPrimitive()) {
+				body.append(String.format("\t\t%s%n", fieldName));
+				body.append(String.format("\t\t%s%n", toWriteStatement(property, type,
+						property.toAccess("entity"))));
+				continue;
+			}
+			String value = "value" + index++;
+			body.append(String.format("\t\t%s %s = %s;%n", type, value, property.toAccess(
+					"entity")));
+			body.append(String.format("\t\tif (%s != null) {%n", value));
+			body.append(String.format("\t\t\t%s%n", fieldName));
+			body.append(String.format("\t\t\t%s%n", toWriteStatement(property, type, value)));
+			if (isIncludingNulls) {
+				body.append(String.format("\t\t} else {%n"));
+				body.append(String.format("\t\t\t%s%n", fieldName));
+				body.append(String.format("\t\t\tgenerator.writeNull();%n"));
+			}
+			body.append(String.format("\t\t}%n"));
+		}
+		String simpleName = entity.getSimpleName() + WRITER_SUFFIX;
+		StringBuilder source = new StringBuilder();
+		source.append(String.format("package %s;%n%n", packageName));
+		source.append(String.format("import java.io.IOException;%n%n"));
+		source.append(String.format("import com.fasterxml.jackson.core.JsonGenerator;%n"));
+		source.append(String.format("import com.fasterxml.jackson.databind"
+				+ ".JsonMappingException;%n"));
+		source.append(String.format("import com.fasterxml.jackson.databind.JsonSerializer;%n"));
+		source.append(String.format("import com.fasterxml.jackson.databind.SerializerProvider;%n"));
+		source.append(String.format("import com.fasterxml.jackson.databind.ser"
+				+ ".ResolvableSerializer;%n"));
+		source.append(String.format("import %s;%n%n", JSON_CODECS));
+		source.append(String.format("/**Streaming writer of {@link %s}; generated by "
+				+ "{@code JsonCodecProcessor}, do not edit.*/%n", entityName));
+		source.append(String.format("public final class %s extends JsonSerializer<%s>%n"
+				+ "\t\timplements ResolvableSerializer {%n%n", simpleName, entityName));
+		appendMembers(source, "JsonSerializer<Object>");
+		source.append(String.format("\t@Override%n"));
+		source.append(String.format("\tpublic void resolve(SerializerProvider provider) "
+				+ "throws JsonMappingException {%n"));
+		appendResolutions(source);
+		source.append(String.format("\t}%n%n"));
+		source.append(String.format("\t@Override%n"));
+		source.append(String.format("\tpublic void serialize(%s entity, JsonGenerator generator, "
+				+ "SerializerProvider provider)%n\t\t\tthrows IOException {%n", entityName));
+		source.append(String.format("\t\tgenerator.writeStartObject();%n"));
+		source.append(body);
+		source.append(String.format("\t\tgenerator.writeEndObject();%n"));
+		source.append(String.format("\t}%n%n"));
+		appendHandledType(source);
+		source.append(String.format("}%n"));
+		write(packageName + "." + simpleName, source);
+	}
+
+	private void reset() {
+		constants = new LinkedHashMap<String, String>();
+		delegates = new LinkedHashMap<String, String>();
+		delegateNames = new LinkedHashMap<String, String>();
+		isUnchecked = false;
+	}
+
+	private String toReadExpression(CodecProperty property) {
+		if (property.getDeserializer() != null) {
+			String deserializer = property.getDeserializer();
+			return String.format("%s.deserialize(parser, context)", addConstant(deserializer,
+					deserializer.substring(deserializer.lastIndexOf('.') + 1)));
+		}
+		TypeMirror type = property.getReadType();
+		String scalarReader = toScalarReader(type);
+		if (scalarReader != null) {
+			return String.format("JsonCodecs.%s(parser, context)", scalarReader);
+		}
+		TypeMirror elementType = getListElementType(type);
+		if (elementType != null) {
+			if (isType(elementType, String.class.getName())) {
+				return "JsonCodecs.readStringList(parser, context)";
+			}
+			if (JsonCodecProcessor.isCodecEntity(elementType)) {
+				return String.format("JsonCodecs.readList(parser, context, %s, %s.class)",
+						addDelegate(elementType, property, "Reader", toReaderLookup(elementType)),
+						elementType);
+			}
+		}
+		String reader = addDelegate(type, property, "Reader", toReaderLookup(type));
+		if (!isRaw(type)) {
+			isUnchecked = true;
+		}
+		return String.format("(%s)%s.deserialize(parser, context)", boxed(type), reader);
+	}
+
+	private String toScalarReader(TypeMirror type) {
+		switch (type.getKind()) {
+		case INT:
+			return "readInteger";
+		case LONG:
+			return "readLong";
+		case BOOLEAN:
+			return "readBoolean";
+		case DOUBLE:
+			return "readDouble";
+		case DECLARED:
+			String typeName = processingEnv.getTypeUtils().erasure(type).toString();
+			if (typeName.equals(String.class.getName())) {
+				return "readString";
+			} else if (typeName.equals(Integer.class.getName())) {
+				return "readInteger";
+			} else if (typeName.equals(Long.class.getName())) {
+				return "readLong";
+			} else if (typeName.equals(Boolean.class.getName())) {
+				return "readBoolean";
+			} else if (typeName.equals(Double.class.getName())) {
+				return "readDouble";
+			} else if (typeName.equals("java.math.BigDecimal")) {
+				return "readDecimal";
+			}
+			return null;
+		default:
+			return null;
+		}
+	}
+
+	private String toReaderLookup(TypeMirror type) {
+		if (isRaw(type)) {
+			return String.format("context.findRootValueDeserializer(context.constructType(%s"
+					+ ".class))", processingEnv.getTypeUtils().erasure(type));
+		}
+		return String.format("context.findRootValueDeserializer(context.getTypeFactory()%n"
+				+ "\t\t\t\t.constructType(new com.fasterxml.jackson.core.type.TypeReference<%s>() "
+				+ "{}))", type);
+	}
+
+	private String toWriteStatement(CodecProperty property, TypeMirror type, String value) {
+		switch (type.getKind()) {
+		case INT:
+		case LONG:
+		case DOUBLE:
+			return String.format("generator.writeNumber(%s);", value);
+		case BOOLEAN:
+			return String.format("generator.writeBoolean(%s);", value);
+		default:
+			break;
+		}
+		String typeName = processingEnv.getTypeUtils().erasure(type).toString();
+		if (typeName.equals(String.class.getName())) {
+			return String.format("generator.writeString(%s);", value);
+		} else if (typeName.equals(Integer.class.getName()) || typeName.equals(
+				Long.class.getName()) || typeName.equals(Double.class.getName())
+				|| typeName.equals("java.math.BigDecimal")) {
+			return String.format("generator.writeNumber(%s);", value);
+		} else if (typeName.equals(Boolean.class.getName())) {
+			return String.format("generator.writeBoolean(%s);", value);
+		}
+		if (JsonCodecProcessor.isCodecEntity(type)) {
+			return String.format("JsonCodecs.writeEntity(generator, provider, %s, %s.class, %s);",
+					value, typeName, addDelegate(type, property, "Writer", toWriterLookup(type)));
+		}
+		TypeMirror elementType = getListElementType(type);
+		if (elementType != null) {
+			if (isType(elementType, String.class.getName())) {
+				return String.format("JsonCodecs.writeStringList(generator, %s);", value);
+			}
+			if (JsonCodecProcessor.isCodecEntity(elementType)) {
+				return String.format("JsonCodecs.writeList(generator, provider, %s, %s.class, %s);",
+						value, elementType, addDelegate(elementType, property, "Writer",
+						toWriterLookup(elementType)));
+			}
+		}
+		if (isRaw(type) && isMonomorphic(type)) {
+			return String.format("%s.serialize(%s, generator, provider);", addDelegate(type,
+					property, "Writer", toWriterLookup(type)), value);
+		}
+		// the runtime type may differ from the declared one, so the serializer is looked up anew
+		return String.format("provider.defaultSerializeValue(%s, generator);", value);
+	}
+
+	private String toWriterLookup(TypeMirror type) {
+		return String.format("provider.findValueSerializer(%s.class, null)",
+				processingEnv.getTypeUtils().erasure(type));
+	}
+
+	/**Returns the element type of {@code type} if it is a {@code java.util.List}, else null.*/
+	private TypeMirror getListElementType(TypeMirror type) {
+		if (type.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+		List<? extends TypeMirror> typeArguments = ((DeclaredType)type).getTypeArguments();
+		if (!isType(type, List.class.getName()) || (typeArguments.size() != 1)) {
+			return null;
+		}
+		return typeArguments.get(0);
+	}
+
+	private boolean isType(TypeMirror type, String typeName) {
+		return (type.getKind() == TypeKind.DECLARED) && processingEnv.getTypeUtils().erasure(type)
+				.toString().equals(typeName);
+	}
+
+	private boolean isRaw(TypeMirror type) {
+		return type.getKind().isPrimitive() || ((type.getKind() == TypeKind.DECLARED)
+				&& ((DeclaredType)type).getTypeArguments().isEmpty());
+	}
+
+	/**Tells whether values of {@code type} are always of that very type (e.g. enums).*/
+	private boolean isMonomorphic(TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			return true;
+		}
+		TypeElement typeElement = (TypeElement)((DeclaredType)type).asElement();
+		return (typeElement.getKind() == ElementKind.ENUM)
+				|| typeElement.getModifiers().contains(Modifier.FINAL);
+	}
+
+	private String boxed(TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			return processingEnv.getTypeUtils().boxedClass((PrimitiveType)type).getQualifiedName()
+					.toString();
+		}
+		return type.toString();
+	}
+
+	/**Declares a {@code private static final} instance of {@code className} (a stateless
+	 * deserializer named by {@code @JsonDeserialize}), and returns the name of the constant.*/
+	private String addConstant(String className, String simpleName) {
+		String constantName = toConstantName(simpleName);
+		constants.put(constantName, String.format("%s %s = new %s()", className, constantName,
+				className));
+		return constantName;
+	}
+
+	/**Declares a field holding the deserializer (or serializer) of {@code type}, to be looked up
+	 * when resolved, and returns the name of the field.*/
+	private String addDelegate(TypeMirror type, CodecProperty property, String suffix,
+			String lookup) {
+		String key = type.toString();
+		String fieldName = delegateNames.get(key);
+		if (fieldName != null) {
+			return fieldName;
+		}
+		String baseName = isRaw(type) ? processingEnv.getTypeUtils().erasure(type).toString()
+				: property.getName();
+		baseName = baseName.substring(baseName.lastIndexOf('.') + 1);
+		fieldName = toFieldName(baseName) + suffix;
+		while (delegates.containsKey(fieldName)) {
+			fieldName = "_" + fieldName;
+		}
+		delegateNames.put(key, fieldName);
+		delegates.put(fieldName, lookup);
+		return fieldName;
+	}
+
+	private String toConstantName(String name) {
+		StringBuilder constantName = new StringBuilder();
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (Character.isUpperCase(c) && (i > 0) && Character.isLowerCase(name.charAt(i - 1))) {
+				constantName.append('_');
+			}
+			constantName.append(Character.isJavaIdentifierPart(c) ? Character.toUpperCase(c) : '_');
+		}
+		return constantName.toString();
+	}
+
+	private String toFieldName(String name) {
+		StringBuilder fieldName = new StringBuilder();
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			fieldName.append(Character.isJavaIdentifierPart(c) ? c : '_');
+		}
+		fieldName.setCharAt(0, Character.toLowerCase(fieldName.charAt(0)));
+		return fieldName.toString();
+	}
+
+	private void appendMembers(StringBuilder source, String delegateType) {
+		for (String constant : constants.values()) {
+			source.append(String.format("\tprivate static final %s;%n", constant));
+		}
+		for (String delegate : delegates.keySet()) {
+			source.append(String.format("\tprivate %s %s;%n", delegateType, delegate));
+		}
+		if (!constants.isEmpty() || !delegates.isEmpty()) {
+			source.append(String.format("%n"));
+		}
+	}
+
+	private void appendResolutions(StringBuilder source) {
+		for (Map.Entry<String, String> delegate : delegates.entrySet()) {
+			source.append(String.format("\t\t%s = %s;%n", delegate.getKey(), delegate.getValue()));
+		}
+	}
+
+	private void appendHandledType(StringBuilder source) {
+		source.append(String.format("\t@Override%n"));
+		source.append(String.format("\tpublic Class<%s> handledType() {%n", entityName));
+		source.append(String.format("\t\treturn %s.class;%n", entityName));
+		source.append(String.format("\t}%n"));
+	}
+
+	private String escape(String name) {
+		return name.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+
+	private void write(String className, StringBuilder source) throws IOException {
+		JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(className, entity);
+		Writer writer = sourceFile.openWriter();
+		try {
+			writer.write(source.toString());
+		} finally {
+			writer.close();
+		}
+	}
+}
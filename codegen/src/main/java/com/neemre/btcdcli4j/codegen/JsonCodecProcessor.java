@@ -0,0 +1,489 @@
+package com.neemre.btcdcli4j.codegen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**Generates a streaming reader &amp; writer for every class annotated with {@code @JsonCodec}.
+ * The properties of an entity are derived from its fields (superclass fields first) and from its
+ * {@code @JsonProperty} methods, following the subset of the Jackson &amp; Lombok conventions that
+ * the domain model relies on; the annotations are matched by name, so that this module does not
+ * depend on any of the libraries involved. Entities that cannot be handled are reported as
+ * compilation errors, rather than being silently mapped differently than by Jackson.*/
+@SupportedAnnotationTypes(JsonCodecProcessor.JSON_CODEC)
+public class JsonCodecProcessor extends AbstractProcessor {
+
+	static final String JSON_CODEC = "com.neemre.btcdcli4j.core.jsonrpc.JsonCodec";
+	static final String CODEC_INDEX = "META-INF/btcdcli4j/json-codecs";
+
+	private static final String JSON_PROPERTY = "com.fasterxml.jackson.annotation.JsonProperty";
+	private static final String JSON_IGNORE = "com.fasterxml.jackson.annotation.JsonIgnore";
+	private static final String JSON_IGNORE_PROPERTIES =
+			"com.fasterxml.jackson.annotation.JsonIgnoreProperties";
+	private static final String JSON_INCLUDE = "com.fasterxml.jackson.annotation.JsonInclude";
+	private static final String JSON_DESERIALIZE =
+			"com.fasterxml.jackson.databind.annotation.JsonDeserialize";
+	private static final String JSON_SERIALIZE =
+			"com.fasterxml.jackson.databind.annotation.JsonSerialize";
+	private static final String LOMBOK_DATA = "lombok.Data";
+	private static final String LOMBOK_GETTER = "lombok.Getter";
+	private static final String LOMBOK_SETTER = "lombok.Setter";
+	private static final String LOMBOK_NO_ARGS_CONSTRUCTOR = "lombok.NoArgsConstructor";
+
+	private Set<String> entities = new TreeSet<String>();
+
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		if (roundEnv.processingOver()) {
+			writeIndex();
+			return false;
+		}
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				try {
+					TypeElement entity = checkEntity(element);
+					CodecSourceWriter writer = new CodecSourceWriter(processingEnv, entity,
+							collectProperties(entity), isIncludingNulls(entity),
+							isIgnoringUnknown(entity));
+					writer.writeReader();
+					writer.writeWriter();
+					entities.add(processingEnv.getElementUtils().getBinaryName(entity).toString());
+				} catch (InvalidEntityException e) {
+					processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, e.getMessage(),
+							e.getElement());
+				} catch (IOException e) {
+					processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format(
+							"Failed to write the JSON codecs of this entity: %s", e.getMessage()),
+							element);
+				}
+			}
+		}
+		return true;
+	}
+
+	static boolean isCodecEntity(TypeMirror type) {
+		if (type.getKind() != TypeKind.DECLARED) {
+			return false;
+		}
+		return findAnnotation(((DeclaredType)type).asElement(), JSON_CODEC) != null;
+	}
+
+	static AnnotationMirror findAnnotation(Element element, String annotationName) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			TypeElement annotationType = (TypeElement)annotation.getAnnotationType().asElement();
+			if (annotationType.getQualifiedName().contentEquals(annotationName)) {
+				return annotation;
+			}
+		}
+		return null;
+	}
+
+	private TypeElement checkEntity(Element element) throws InvalidEntityException {
+		if (element.getKind() != ElementKind.CLASS) {
+			throw new InvalidEntityException("Only classes can be annotated with @JsonCodec",
+					element);
+		}
+		TypeElement entity = (TypeElement)element;
+		if (entity.getNestingKind() != NestingKind.TOP_LEVEL) {
+			throw new InvalidEntityException("Only top-level classes can be annotated with "
+					+ "@JsonCodec", entity);
+		}
+		if (entity.getModifiers().contains(Modifier.ABSTRACT)) {
+			throw new InvalidEntityException("Abstract classes cannot be annotated with @JsonCodec",
+					entity);
+		}
+		if ((findAnnotation(entity, JSON_DESERIALIZE) != null)
+				|| (findAnnotation(entity, JSON_SERIALIZE) != null)) {
+			throw new InvalidEntityException("Entities with a custom serializer or deserializer "
+					+ "cannot be annotated with @JsonCodec", entity);
+		}
+		if (!hasNoArgsConstructor(entity)) {
+			throw new InvalidEntityException("Entities annotated with @JsonCodec need a "
+					+ "non-private no-args constructor", entity);
+		}
+		return entity;
+	}
+
+	private boolean hasNoArgsConstructor(TypeElement entity) {
+		AnnotationMirror lombokConstructor = findAnnotation(entity, LOMBOK_NO_ARGS_CONSTRUCTOR);
+		if (lombokConstructor != null) {
+			return isAccessible(getEnumValue(lombokConstructor, "access"));
+		}
+		List<ExecutableElement> constructors = ElementFilter.constructorsIn(
+				entity.getEnclosedElements());
+		if (constructors.isEmpty()) {
+			return true;
+		}
+		for (ExecutableElement constructor : constructors) {
+			if (constructor.getParameters().isEmpty()
+					&& !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**Collects the properties of {@code entity} &amp; its superclasses, in declaration order.*/
+	private List<CodecProperty> collectProperties(TypeElement entity)
+			throws InvalidEntityException {
+		List<TypeElement> hierarchy = new ArrayList<TypeElement>();
+		for (TypeElement type = entity; type != null; type = getSuperclass(type)) {
+			hierarchy.add(type);
+		}
+		Collections.reverse(hierarchy);
+		Map<String, CodecProperty> properties = new LinkedHashMap<String, CodecProperty>();
+		for (TypeElement type : hierarchy) {
+			for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+				addFieldProperty(type, field, properties);
+			}
+			for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+				if (findAnnotation(method, JSON_PROPERTY) != null) {
+					addMethodProperty(type, method, properties);
+				}
+			}
+		}
+		for (String ignoredName : getIgnoredNames(entity)) {
+			properties.remove(ignoredName);
+		}
+		return new ArrayList<CodecProperty>(properties.values());
+	}
+
+	private void addFieldProperty(TypeElement type, VariableElement field,
+			Map<String, CodecProperty> properties) {
+		Set<Modifier> modifiers = field.getModifiers();
+		if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)
+				|| (findAnnotation(field, JSON_IGNORE) != null)) {
+			return;
+		}
+		String fieldName = field.getSimpleName().toString();
+		boolean isPrivate = modifiers.contains(Modifier.PRIVATE);
+		String getterName = toGetterName(field);
+		String setterName = toSetterName(field);
+		ExecutableElement getter = findMethod(type, getterName, 0);
+		ExecutableElement setter = findMethod(type, setterName, 1);
+		// an ignored accessor (e.g. the raw satoshi getter of an amount) hides the whole property
+		if (((getter != null) && (findAnnotation(getter, JSON_IGNORE) != null))
+				|| ((setter != null) && (findAnnotation(setter, JSON_IGNORE) != null))) {
+			return;
+		}
+		boolean hasLombokGetter = (getter == null) && isLombokGenerated(type, field, LOMBOK_GETTER);
+		boolean hasLombokSetter = (setter == null) && !modifiers.contains(Modifier.FINAL)
+				&& isLombokGenerated(type, field, LOMBOK_SETTER);
+		String name = getExplicitName(field);
+		if (name == null) {
+			name = (isAccessible(getter) || hasLombokGetter || isAccessible(setter)
+					|| hasLombokSetter) ? toImplicitName(getterName) : fieldName;
+		}
+		CodecProperty property = new CodecProperty(name);
+		if (isAccessible(setter)) {
+			property.setSetter(setterName, setter.getParameters().get(0).asType());
+		} else if (hasLombokSetter) {
+			property.setSetter(setterName, field.asType());
+		} else if (!isPrivate && !modifiers.contains(Modifier.FINAL)) {
+			property.setSetField(fieldName, field.asType());
+		}
+		property.setDeserializer(getDeserializer(field));
+		if (isAccessible(getter)) {
+			property.setGetter(getterName, getter.getReturnType());
+		} else if (hasLombokGetter) {
+			property.setGetter(getterName, field.asType());
+		} else if (!isPrivate) {
+			property.setGetField(fieldName, field.asType());
+		}
+		if (property.isReadable() || property.isWritable()) {
+			properties.put(name, property);
+		}
+	}
+
+	private void addMethodProperty(TypeElement type, ExecutableElement method,
+			Map<String, CodecProperty> properties) throws InvalidEntityException {
+		String methodName = method.getSimpleName().toString();
+		int parameterCount = method.getParameters().size();
+		boolean isSetter = (parameterCount == 1);
+		boolean isGetter = (parameterCount == 0)
+				&& (method.getReturnType().getKind() != TypeKind.VOID);
+		if (method.getModifiers().contains(Modifier.STATIC) || (!isSetter && !isGetter)) {
+			throw new InvalidEntityException("@JsonProperty is only supported on getters & setters",
+					method);
+		}
+		if (method.getModifiers().contains(Modifier.PRIVATE)) {
+			throw new InvalidEntityException("Methods annotated with @JsonProperty must not be "
+					+ "private, so that the generated codecs can call them", method);
+		}
+		String name = getExplicitName(method);
+		if (name == null) {
+			name = toImplicitName(methodName);
+		}
+		CodecProperty property = properties.get(name);
+		if (property == null) {
+			property = new CodecProperty(name);
+			properties.put(name, property);
+		}
+		if (isSetter) {
+			property.setSetter(methodName, method.getParameters().get(0).asType());
+			property.setDeserializer(getDeserializer(method));
+			if (!property.isWritable()) {
+				String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+				for (String getterName : new String[] {"get" + capitalized, "is" + capitalized}) {
+					ExecutableElement getter = findMethod(type, getterName, 0);
+					if (isAccessible(getter) && (findAnnotation(getter, JSON_IGNORE) == null)) {
+						property.setGetter(getterName, getter.getReturnType());
+						break;
+					}
+				}
+			}
+		} else {
+			property.setGetter(methodName, method.getReturnType());
+		}
+	}
+
+	private TypeElement getSuperclass(TypeElement type) {
+		TypeMirror superclass = type.getSuperclass();
+		if (superclass.getKind() != TypeKind.DECLARED) {
+			return null;
+		}
+		TypeElement superElement = (TypeElement)((DeclaredType)superclass).asElement();
+		if (superElement.getQualifiedName().contentEquals(Object.class.getName())) {
+			return null;
+		}
+		return superElement;
+	}
+
+	private ExecutableElement findMethod(TypeElement type, String name, int parameterCount) {
+		for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+			if (method.getSimpleName().contentEquals(name)
+					&& (method.getParameters().size() == parameterCount)
+					&& !method.getModifiers().contains(Modifier.STATIC)) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	private boolean isAccessible(ExecutableElement method) {
+		return (method != null) && !method.getModifiers().contains(Modifier.PRIVATE);
+	}
+
+	private boolean isAccessible(String accessLevel) {
+		return (accessLevel == null) || !(accessLevel.equals("NONE")
+				|| accessLevel.equals("PRIVATE"));
+	}
+
+	/**Tells whether Lombok generates a non-private accessor for {@code field}, either due to a
+	 * field-level annotation, or to a class-level {@code @Getter}/{@code @Setter} or
+	 * {@code @Data} annotation.*/
+	private boolean isLombokGenerated(TypeElement type, VariableElement field,
+			String accessorAnnotation) {
+		AnnotationMirror accessor = findAnnotation(field, accessorAnnotation);
+		if (accessor == null) {
+			accessor = findAnnotation(type, accessorAnnotation);
+		}
+		if (accessor != null) {
+			return isAccessible(getEnumValue(accessor, "value"));
+		}
+		return findAnnotation(type, LOMBOK_DATA) != null;
+	}
+
+	private String toGetterName(VariableElement field) {
+		String fieldName = field.getSimpleName().toString();
+		if (field.asType().getKind() == TypeKind.BOOLEAN) {
+			if (fieldName.startsWith("is") && (fieldName.length() > 2)
+					&& Character.isUpperCase(fieldName.charAt(2))) {
+				return fieldName;
+			}
+			return "is" + capitalize(fieldName);
+		}
+		return "get" + capitalize(fieldName);
+	}
+
+	private String toSetterName(VariableElement field) {
+		String fieldName = field.getSimpleName().toString();
+		if ((field.asType().getKind() == TypeKind.BOOLEAN) && fieldName.startsWith("is")
+				&& (fieldName.length() > 2) && Character.isUpperCase(fieldName.charAt(2))) {
+			return "set" + fieldName.substring(2);
+		}
+		return "set" + capitalize(fieldName);
+	}
+
+	private String capitalize(String name) {
+		return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+	}
+
+	/**Derives the implicit property name of an accessor the way Jackson does, i.e. by stripping
+	 * its prefix &amp; lowercasing the leading upper case characters (so {@code getVOut} is
+	 * {@code vout}).*/
+	private String toImplicitName(String accessorName) {
+		String baseName = accessorName;
+		for (String prefix : new String[] {"get", "set", "is"}) {
+			if (accessorName.startsWith(prefix) && (accessorName.length() > prefix.length())) {
+				baseName = accessorName.substring(prefix.length());
+				break;
+			}
+		}
+		StringBuilder name = new StringBuilder(baseName);
+		for (int i = 0; i < name.length(); i++) {
+			char lowerCase = Character.toLowerCase(name.charAt(i));
+			if (lowerCase == name.charAt(i)) {
+				break;
+			}
+			name.setCharAt(i, lowerCase);
+		}
+		return name.toString();
+	}
+
+	private String getExplicitName(Element element) {
+		AnnotationMirror property = findAnnotation(element, JSON_PROPERTY);
+		if (property == null) {
+			return null;
+		}
+		Object name = getValue(property, "value");
+		return ((name == null) || name.toString().isEmpty()) ? null : name.toString();
+	}
+
+	private String getDeserializer(Element element) {
+		AnnotationMirror deserialize = findAnnotation(element, JSON_DESERIALIZE);
+		if (deserialize == null) {
+			return null;
+		}
+		Object using = getValue(deserialize, "using");
+		if ((using == null) || !(using instanceof DeclaredType)) {
+			return null;
+		}
+		String deserializer = ((TypeElement)((DeclaredType)using).asElement()).getQualifiedName()
+				.toString();
+		return deserializer.endsWith("JsonDeserializer.None") ? null : deserializer;
+	}
+
+	private boolean isIncludingNulls(TypeElement entity) throws InvalidEntityException {
+		for (TypeElement type = entity; type != null; type = getSuperclass(type)) {
+			AnnotationMirror include = findAnnotation(type, JSON_INCLUDE);
+			if (include != null) {
+				String inclusion = getEnumValue(include, "value");
+				if ((inclusion == null) || inclusion.equals("ALWAYS")) {
+					return true;
+				} else if (inclusion.equals("NON_NULL")) {
+					return false;
+				}
+				throw new InvalidEntityException(String.format("@JsonInclude(%s) is not supported "
+						+ "by @JsonCodec", inclusion), entity);
+			}
+		}
+		return true;
+	}
+
+	private boolean isIgnoringUnknown(TypeElement entity) {
+		for (TypeElement type = entity; type != null; type = getSuperclass(type)) {
+			AnnotationMirror ignoreProperties = findAnnotation(type, JSON_IGNORE_PROPERTIES);
+			if (ignoreProperties != null) {
+				return Boolean.TRUE.equals(getValue(ignoreProperties, "ignoreUnknown"));
+			}
+		}
+		return false;
+	}
+
+	private List<String> getIgnoredNames(TypeElement entity) {
+		List<String> ignoredNames = new ArrayList<String>();
+		AnnotationMirror ignoreProperties = findAnnotation(entity, JSON_IGNORE_PROPERTIES);
+		if (ignoreProperties != null) {
+			Object names = getValue(ignoreProperties, "value");
+			if (names instanceof List) {
+				for (Object name : (List<?>)names) {
+					ignoredNames.add(((AnnotationValue)name).getValue().toString());
+				}
+			}
+		}
+		return ignoredNames;
+	}
+
+	private Object getValue(AnnotationMirror annotation, String key) {
+		Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv
+				.getElementUtils().getElementValuesWithDefaults(annotation);
+		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+				values.entrySet()) {
+			if (entry.getKey().getSimpleName().contentEquals(key)) {
+				return entry.getValue().getValue();
+			}
+		}
+		return null;
+	}
+
+	private String getEnumValue(AnnotationMirror annotation, String key) {
+		Object value = getValue(annotation, key);
+		if (value instanceof VariableElement) {
+			return ((VariableElement)value).getSimpleName().toString();
+		}
+		return null;
+	}
+
+	private void writeIndex() {
+		if (entities.isEmpty()) {
+			return;
+		}
+		try {
+			FileObject index = processingEnv.getFiler().createResource(
+					StandardLocation.CLASS_OUTPUT, "", CODEC_INDEX);
+			Writer writer = index.openWriter();
+			try {
+				for (String entity : entities) {
+					writer.write(entity);
+					writer.write('\n');
+				}
+			} finally {
+				writer.close();
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format(
+					"Failed to write the JSON codec index: %s", e.getMessage()));
+		}
+	}
+
+	private static class InvalidEntityException extends Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Element element;
+
+
+		InvalidEntityException(String message, Element element) {
+			super(message);
+			this.element = element;
+		}
+
+		Element getElement() {
+			return element;
+		}
+	}
+}
@@ -36,6 +36,7 @@ public enum Commands {
 	GET_BLOCK_CHAIN_INFO("getblockchaininfo", 0, 0),
 	GET_BLOCK_COUNT("getblockcount", 0, 0),
 	GET_BLOCK_HASH("getblockhash", 1, 1),
+	GET_BLOCK_HEADER("getblockheader", 1, 2),
 	GET_CHAIN_TIPS("getchaintips", 0, 0),
 	GET_CONNECTION_COUNT("getconnectioncount", 0, 0),
 	GET_DIFFICULTY("getdifficulty", 0, 0),
@@ -17,6 +17,39 @@ public enum NodeProperties {
     RPC_USER("node.bitcoind.rpc.user", "user"),
     RPC_PASSWORD("node.bitcoind.rpc.password", "password"),
     HTTP_AUTH_SCHEME("node.bitcoind.http.auth_scheme", "Basic"),
+    HTTP_MAX_CONNECTIONS("node.bitcoind.http.max_connections", "20"),
+    HTTP_KEEP_ALIVE("node.bitcoind.http.keep_alive", "30000"),
+    HTTP_PREWARM_CONNECTIONS("node.bitcoind.http.prewarm_connections", "2"),
+    TLS_SESSION_CACHE_SIZE("node.bitcoind.tls.session_cache_size", "100"),
+    TLS_SESSION_TIMEOUT("node.bitcoind.tls.session_timeout", "86400"),
+    TLS_TRUST_STORE("node.bitcoind.tls.trust_store", ""),
+    TLS_TRUST_STORE_PASSWORD("node.bitcoind.tls.trust_store_password", ""),
+    CACHE_BLOCK_CAPACITY("node.bitcoind.cache.block.capacity", "0"),
+    CACHE_TRANSACTION_CAPACITY("node.bitcoind.cache.transaction.capacity", "0"),
+    CACHE_BLOCK_MIN_CAPACITY("node.bitcoind.cache.block.min_capacity", "-1"),
+    CACHE_TRANSACTION_MIN_CAPACITY("node.bitcoind.cache.transaction.min_capacity", "-1"),
+    CACHE_MEMORY_THRESHOLD("node.bitcoind.cache.memory_threshold", "0.8"),
+    CACHE_OFFHEAP_BLOCK_CAPACITY("node.bitcoind.cache.offheap.block.capacity", "0"),
+    CACHE_OFFHEAP_TRANSACTION_CAPACITY("node.bitcoind.cache.offheap.transaction.capacity", "0"),
+    CACHE_OFFHEAP_SLAB_SIZE("node.bitcoind.cache.offheap.slab_size", "16777216"),
+    CACHE_OFFHEAP_COMPRESSION("node.bitcoind.cache.offheap.compression", "true"),
+    CACHE_HASH_INDEX_CAPACITY("node.bitcoind.cache.hash_index.capacity", "0"),
+    CACHE_HASH_INDEX_MIN_CONFIRMATIONS("node.bitcoind.cache.hash_index.min_confirmations", "6"),
+    CACHE_TIP_TTL("node.bitcoind.cache.tip_ttl", "1000"),
+    CACHE_CHAIN_STATE_TTL("node.bitcoind.cache.chain_state.ttl", "2000"),
+    CACHE_CHAIN_STATE_ATTACHED_TTL("node.bitcoind.cache.chain_state.attached_ttl", "30000"),
+    CACHE_NEGATIVE_CAPACITY("node.bitcoind.cache.negative.capacity", "0"),
+    CACHE_NEGATIVE_TTL("node.bitcoind.cache.negative.ttl", "5000"),
+    CACHE_SNAPSHOT_FILE("node.bitcoind.cache.snapshot.file", ""),
+    CACHE_SNAPSHOT_INTERVAL("node.bitcoind.cache.snapshot.interval", "0"),
+    JSON_STRING_TABLE_CAPACITY("node.bitcoind.json.string_table.capacity", "0"),
+    JSON_BLOCK_PARALLELISM("node.bitcoind.json.block_parallelism", "1"),
+    ARCHIVE_DIR("node.bitcoind.archive.dir", ""),
+    ARCHIVE_SEGMENT_SIZE("node.bitcoind.archive.segment_size", "268435456"),
+    ARCHIVE_MIN_CONFIRMATIONS("node.bitcoind.archive.min_confirmations", "6"),
+    RESOLVER_OUTPUT_CAPACITY("node.bitcoind.resolver.output_capacity", "16777216"),
+    RESOLVER_BATCH_SIZE("node.bitcoind.resolver.batch_size", "100"),
+    RESOLVER_PARALLELISM("node.bitcoind.resolver.parallelism", "4"),
     ALERT_PORT("node.bitcoind.notification.alert.port", "5158"),
     BLOCK_PORT("node.bitcoind.notification.block.port", "5159"),
     WALLET_PORT("node.bitcoind.notification.wallet.port", "5160");
@@ -0,0 +1,370 @@
+package com.neemre.btcdcli4j.core.cache;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+import lombok.EqualsAndHashCode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.neemre.btcdcli4j.core.BitcoindException;
+import com.neemre.btcdcli4j.core.Commands;
+import com.neemre.btcdcli4j.core.CommunicationException;
+import com.neemre.btcdcli4j.core.common.Constants;
+import com.neemre.btcdcli4j.core.common.Errors;
+import com.neemre.btcdcli4j.core.domain.Sha256Hash;
+import com.neemre.btcdcli4j.core.http.HttpLayerException;
+import com.neemre.btcdcli4j.core.jsonrpc.client.JsonRpcClient;
+import com.neemre.btcdcli4j.core.util.CollectionUtils;
+
+/**A persistent, append-only store for the JSON representation of blocks, kept in memory-mapped
+ * segment files so that historical blocks survive process restarts. Every entry is laid out as
+ * {@code [length][crc32][height][verbosity][32-byte hash][payload]}; the hash &amp; height indices
+ * are rebuilt by scanning the segments on startup and a torn entry at the tail (<i>e.g.</i> after
+ * a crash) is truncated. Only blocks buried under at least {@code minConfirmations} blocks are
+ * archived, as these are (for all practical purposes) never reorganized out of the chain. Hashes
+ * are indexed as {@link Sha256Hash}es, whatever the case they are looked up or archived in.*/
+public class BlockArchive {
+
+	private static final Logger LOG = LoggerFactory.getLogger(BlockArchive.class);
+	private static final String SEGMENT_NAME_FORMAT = "blocks-%05d.dat";
+	private static final String SEGMENT_NAME_PATTERN = "blocks-\\d{5}\\.dat";
+	private static final int HEADER_SIZE = 4 + 4 + 4 + 1 + Sha256Hash.SIZE;
+
+	private JsonRpcClient rpcClient;
+	private File directory;
+	private int segmentSize;
+	private int minConfirmations;
+	private List<Segment> segments;
+	private ConcurrentMap<BlockKey, Location> blocks;
+	private ConcurrentMap<Integer, Sha256Hash> headerHashes;
+
+
+	public BlockArchive(JsonRpcClient rpcClient, String directory, long segmentSize,
+			int minConfirmations) {
+		this.rpcClient = rpcClient;
+		this.segmentSize = (int)Math.min(segmentSize, Integer.MAX_VALUE);
+		// a block at the tip has no 'nextblockhash' yet, so it must never be archived
+		this.minConfirmations = Math.max(minConfirmations, 2);
+		this.segments = new CopyOnWriteArrayList<Segment>();
+		this.blocks = new ConcurrentHashMap<BlockKey, Location>();
+		this.headerHashes = new ConcurrentHashMap<Integer, Sha256Hash>();
+		if (!directory.isEmpty()) {
+			this.directory = new File(directory);
+			open();
+		}
+	}
+
+	public boolean isEnabled() {
+		return directory != null;
+	}
+
+	public String getBlock(String headerHash, int verbosity) {
+		Location location = blocks.get(new BlockKey(Sha256Hash.parse(headerHash), verbosity));
+		if (location == null) {
+			return null;
+		}
+		ByteBuffer view = segments.get(location.segment).buffer.duplicate();
+		view.position(location.offset);
+		byte[] payload = new byte[location.length];
+		view.get(payload);
+		return new String(payload, Constants.UTF_8);
+	}
+
+	public String getBlockHash(Integer height) {
+		Sha256Hash headerHash = (height == null) ? null : headerHashes.get(height);
+		return (headerHash == null) ? null : headerHash.toHex();
+	}
+
+	public boolean containsBlock(String headerHash, int verbosity) {
+		return containsBlock(Sha256Hash.parse(headerHash), verbosity);
+	}
+
+	public void putBlock(String headerHash, int verbosity, Integer height, Integer confirmations,
+			String blockJson) {
+		Sha256Hash hash = Sha256Hash.parse(headerHash);
+		if (!isEnabled() || (hash == null) || (height == null) || (confirmations == null)
+				|| (confirmations < minConfirmations) || containsBlock(hash, verbosity)) {
+			return;
+		}
+		try {
+			append(hash, verbosity, height, blockJson.getBytes(Constants.UTF_8));
+		} catch (IOException e) {
+			LOG.warn("-- putBlock(..): failed to archive block '{}' (message: '{}')", headerHash,
+					e.getMessage());
+		}
+	}
+
+	/**Fetches every block in {@code [fromHeight, toHeight]} that is not archived yet (but buried
+	 * deep enough to be) straight into the archive, issuing up to {@code parallelism} concurrent
+	 * requests at a time, and returns the number of blocks archived.*/
+	public int warm(int fromHeight, int toHeight, final int verbosity, int parallelism)
+			throws BitcoindException, CommunicationException {
+		LOG.info(">> warm(..): warming the block archive for heights {}..{} (verbosity: '{}', "
+				+ "parallelism: '{}')", fromHeight, toHeight, verbosity, parallelism);
+		if (!isEnabled()) {
+			return 0;
+		}
+		final int tipHeight = rpcClient.getParser().parseInteger(rpcClient.execute(
+				Commands.GET_BLOCK_COUNT.getName()));
+		int lastHeight = Math.min(toHeight, tipHeight - minConfirmations + 1);
+		ExecutorService warmPool = Executors.newFixedThreadPool(parallelism);
+		try {
+			int archiveCount = 0;
+			List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>(parallelism);
+			for (int windowStart = fromHeight; windowStart <= lastHeight;
+					windowStart += parallelism) {
+				int windowEnd = (int)Math.min((long)windowStart + parallelism - 1, lastHeight);
+				for (int height = windowStart; height <= windowEnd; height++) {
+					final int blockHeight = height;
+					futures.add(warmPool.submit(new Callable<Boolean>() {
+						@Override
+						public Boolean call() throws Exception {
+							return archive(blockHeight, verbosity, tipHeight);
+						}
+					}));
+				}
+				for (Future<Boolean> future : futures) {
+					if (future.get()) {
+						archiveCount++;
+					}
+				}
+				futures.clear();
+			}
+			LOG.info("<< warm(..): archived {} block(s)", archiveCount);
+			return archiveCount;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new HttpLayerException(Errors.IO_UNKNOWN, e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof BitcoindException) {
+				throw (BitcoindException)e.getCause();
+			} else if (e.getCause() instanceof CommunicationException) {
+				throw (CommunicationException)e.getCause();
+			}
+			throw new HttpLayerException(Errors.IO_UNKNOWN, e);
+		} finally {
+			warmPool.shutdownNow();
+		}
+	}
+
+	public int getBlockCount() {
+		return blocks.size();
+	}
+
+	public synchronized void close() {
+		LOG.info(">> close(..): flushing & closing the block archive");
+		for (Segment segment : segments) {
+			segment.buffer.force();
+			try {
+				segment.channel.close();
+			} catch (IOException e) {
+				LOG.warn("-- close(..): failed to close archive segment no. {} (message: '{}')",
+						segment.number, e.getMessage());
+			}
+		}
+	}
+
+	private void open() {
+		LOG.info(">> open(..): opening the block archive at '{}' (segment size: '{}')",
+				directory.getAbsolutePath(), segmentSize);
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IllegalArgumentException(Errors.ARGS_ARCHIVE_DIR_INVALID.getDescription());
+		}
+		File[] segmentFiles = directory.listFiles(new FileFilter() {
+			@Override
+			public boolean accept(File file) {
+				return file.isFile() && file.getName().matches(SEGMENT_NAME_PATTERN);
+			}
+		});
+		Arrays.sort(segmentFiles);
+		try {
+			for (int i = 0; i < segmentFiles.length; i++) {
+				Segment segment = mapSegment(i);
+				scan(segment);
+				segments.add(segment);
+			}
+		} catch (IOException e) {
+			throw new IllegalArgumentException(Errors.ARGS_ARCHIVE_DIR_INVALID.getDescription(), e);
+		}
+		LOG.info("<< open(..): indexed {} archived block(s) in {} segment(s)", blocks.size(),
+				segments.size());
+	}
+
+	private void scan(Segment segment) {
+		ByteBuffer view = segment.buffer.duplicate();
+		int position = 0;
+		while (position + HEADER_SIZE <= view.capacity()) {
+			int length = view.getInt(position);
+			if (length == 0) {
+				break;
+			}
+			if ((length < 0) || (position + HEADER_SIZE + length > view.capacity())) {
+				truncate(segment, position);
+				break;
+			}
+			view.position(position + 4);
+			int checksum = view.getInt();
+			int height = view.getInt();
+			byte verbosity = view.get();
+			byte[] hash = new byte[Sha256Hash.SIZE];
+			view.get(hash);
+			byte[] payload = new byte[length];
+			view.get(payload);
+			if (checksum != getChecksum(height, verbosity, hash, payload)) {
+				truncate(segment, position);
+				break;
+			}
+			index(Sha256Hash.fromBytes(hash), verbosity, height, new Location(segment.number,
+					position + HEADER_SIZE, length));
+			position += HEADER_SIZE + length;
+		}
+		segment.writePosition = position;
+	}
+
+	private void truncate(Segment segment, int position) {
+		LOG.warn("-- truncate(..): discarding torn entry at offset {} of archive segment no. {}",
+				position, segment.number);
+		segment.buffer.putInt(position, 0);
+	}
+
+	private synchronized void append(Sha256Hash headerHash, int verbosity, int height,
+			byte[] payload) throws IOException {
+		if (containsBlock(headerHash, verbosity)) {
+			return;
+		}
+		int entrySize = HEADER_SIZE + payload.length;
+		if (entrySize > segmentSize) {
+			LOG.warn("-- append(..): block '{}' ({} bytes) exceeds the archive segment size, "
+					+ "skipping", headerHash, payload.length);
+			return;
+		}
+		Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+		if ((segment == null) || (segment.writePosition + entrySize > segment.buffer.capacity())) {
+			if (segment != null) {
+				segment.buffer.force();
+			}
+			segment = mapSegment(segments.size());
+			segments.add(segment);
+		}
+		byte[] hash = headerHash.getBytes();
+		int position = segment.writePosition;
+		ByteBuffer view = segment.buffer.duplicate();
+		view.position(position + 4);
+		view.putInt(getChecksum(height, (byte)verbosity, hash, payload));
+		view.putInt(height);
+		view.put((byte)verbosity);
+		view.put(hash);
+		view.put(payload);
+		// the length is written last, so that a partially written entry is detected as torn
+		view.putInt(position, payload.length);
+		segment.writePosition = position + entrySize;
+		index(headerHash, verbosity, height, new Location(segment.number, position + HEADER_SIZE,
+				payload.length));
+	}
+
+	/**Fetches the main-chain block at {@code height} &amp; archives it, unless it is archived
+	 * already. Returns {@code true} if the block was archived.*/
+	private boolean archive(int height, int verbosity, int tipHeight) throws BitcoindException,
+			CommunicationException {
+		Sha256Hash archivedHash = headerHashes.get(height);
+		if ((archivedHash != null) && containsBlock(archivedHash, verbosity)) {
+			return false;
+		}
+		String headerHash = rpcClient.getParser().parseString(rpcClient.execute(
+				Commands.GET_BLOCK_HASH.getName(), height));
+		if (containsBlock(headerHash, verbosity)) {
+			return false;
+		}
+		String blockJson = rpcClient.execute(Commands.GET_BLOCK.getName(), CollectionUtils.asList(
+				headerHash, verbosity));
+		putBlock(headerHash, verbosity, height, tipHeight - height + 1, blockJson);
+		return containsBlock(headerHash, verbosity);
+	}
+
+	private boolean containsBlock(Sha256Hash headerHash, int verbosity) {
+		return blocks.containsKey(new BlockKey(headerHash, verbosity));
+	}
+
+	private void index(Sha256Hash headerHash, int verbosity, int height, Location location) {
+		blocks.put(new BlockKey(headerHash, verbosity), location);
+		headerHashes.put(height, headerHash);
+	}
+
+	private Segment mapSegment(int number) throws IOException {
+		File segmentFile = new File(directory, String.format(SEGMENT_NAME_FORMAT, number));
+		RandomAccessFile file = new RandomAccessFile(segmentFile, "rw");
+		FileChannel channel = file.getChannel();
+		long mappedSize = Math.max(segmentSize, Math.min(channel.size(), Integer.MAX_VALUE));
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize);
+		return new Segment(number, channel, buffer);
+	}
+
+	private int getChecksum(int height, byte verbosity, byte[] hash, byte[] payload) {
+		CRC32 crc = new CRC32();
+		crc.update(ByteBuffer.allocate(5).putInt(height).put(verbosity).array());
+		crc.update(hash);
+		crc.update(payload);
+		return (int)crc.getValue();
+	}
+
+	@EqualsAndHashCode
+	private static final class BlockKey {
+
+		private final Sha256Hash headerHash;
+		private final int verbosity;
+
+
+		private BlockKey(Sha256Hash headerHash, int verbosity) {
+			this.headerHash = headerHash;
+			this.verbosity = verbosity;
+		}
+	}
+
+	private static final class Location {
+
+		private final int segment;
+		private final int offset;
+		private final int length;
+
+
+		private Location(int segment, int offset, int length) {
+			this.segment = segment;
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+	private static final class Segment {
+
+		private final int number;
+		private final FileChannel channel;
+		private final MappedByteBuffer buffer;
+		private int writePosition;
+
+
+		private Segment(int number, FileChannel channel, MappedByteBuffer buffer) {
+			this.number = number;
+			this.channel = channel;
+			this.buffer = buffer;
+		}
+	}
+}
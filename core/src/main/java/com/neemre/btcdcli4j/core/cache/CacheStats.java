@@ -0,0 +1,24 @@
+package com.neemre.btcdcli4j.core.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**A point-in-time snapshot of the counters maintained by a client-side cache. Weights are
+ * expressed in (approximate) bytes.*/
+@Data
+@AllArgsConstructor
+public class CacheStats {
+
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+	private int entryCount;
+	private long weight;
+	private long maxWeight;
+
+
+	public double getHitRate() {
+		long requestCount = hitCount + missCount;
+		return (requestCount == 0) ? 0 : ((double)hitCount / requestCount);
+	}
+}
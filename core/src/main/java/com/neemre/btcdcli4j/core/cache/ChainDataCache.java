@@ -0,0 +1,995 @@
+package com.neemre.btcdcli4j.core.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import lombok.EqualsAndHashCode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.neemre.btcdcli4j.core.BitcoindException;
+import com.neemre.btcdcli4j.core.CommunicationException;
+import com.neemre.btcdcli4j.core.client.BtcdClient;
+import com.neemre.btcdcli4j.core.codec.BinaryReader;
+import com.neemre.btcdcli4j.core.codec.BinaryWriter;
+import com.neemre.btcdcli4j.core.codec.EntityCodec;
+import com.neemre.btcdcli4j.core.common.DataFormats;
+import com.neemre.btcdcli4j.core.common.Errors;
+import com.neemre.btcdcli4j.core.domain.BlockHeader;
+import com.neemre.btcdcli4j.core.domain.Entity;
+import com.neemre.btcdcli4j.core.domain.RawBlock;
+import com.neemre.btcdcli4j.core.domain.RawTransaction;
+import com.neemre.btcdcli4j.core.domain.Sha256Hash;
+import com.neemre.btcdcli4j.core.domain.ShallowBlock;
+
+/**A client-side cache for chain data that can no longer change once it has been mined
+ * (<i>i.e.</i> blocks looked up by hash &amp; confirmed transactions looked up by txid). The
+ * volatile {@code confirmations} field of a cached entity is recomputed from the current chain
+ * tip on every hit instead of being served stale, and blocks cached while still at the tip are
+ * refetched once their successor is known. Entries of blocks that are too shallow to be safe from
+ * a reorg are checked against the main chain on every hit &amp; dropped once they have left it,
+ * so that <i>bitcoind</i> gets to report them (with {@code confirmations} of -1). Every hit
+ * returns a private copy of the cached entity, which the caller is free to modify. Entries are
+ * keyed on {@link Sha256Hash}es, so identifiers that are not well-formed hashes are simply never
+ * cached.
+ * 
+ * <p>Fetching a block with full transaction data ({@code verbosity} 2) also feeds every contained
+ * transaction into the transaction cache &amp; serves later {@link ShallowBlock} lookups of the
+ * same block, and cached blocks feed an optional height-to-hash index, so that none of these
+ * need a second round-trip. A transaction is cached at the height of its block (as remembered from
+ * blocks seen before, or fetched via {@code getblockheader}), which, unlike one derived from its
+ * {@code confirmations}, does not depend on how current the tip height is.
+ * 
+ * <p>Both tiers hold entities in serialized form, which is decoded into a fresh copy on every
+ * hit. The on-heap tier is meant to stay small &amp; hot: entries evicted from it (or too large to
+ * ever fit into it) are demoted to an optional off-heap tier, where they do not add to GC
+ * pressure.
+ * 
+ * <p>Both tiers may be snapshotted to a local file (periodically &amp; on {@link #close()}) and
+ * reloaded on the next start, so that a restarted client does not begin with a cold cache.
+ * Entries from blocks that have been reorganized out of the main chain since a snapshot was taken
+ * are dropped while loading it. Snapshots written with
+ * a different {@link EntityCodec#FORMAT_VERSION} are ignored, and any entry whose payload cannot
+ * be decoded is dropped on access &amp; fetched afresh.*/
+public class ChainDataCache {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ChainDataCache.class);
+	private static final int SHALLOW_BLOCK_VERBOSITY = 1;
+	private static final int FULL_BLOCK_VERBOSITY = 2;
+	private static final byte FORM_HEX = 0;
+	private static final byte FORM_ENTITY = 1;
+	private static final int SNAPSHOT_MAGIC = 0x42434331;
+	private static final byte SNAPSHOT_VERSION = 3;
+	private static final byte KIND_END = 0;
+	private static final byte KIND_BLOCK = 1;
+	private static final byte KIND_TRANSACTION = 2;
+	/**The depth below which blocks are no longer expected to be reorganized out of the chain.*/
+	static final int REORG_SAFE_CONFIRMATIONS = 6;
+	private static final int BLOCK_HEIGHT_CAPACITY = 1024;
+
+	private BtcdClient client;
+	private EntityCodec codec;
+	private LruCache<BlockKey, CachedEntity> blocks;
+	private LruCache<Sha256Hash, CachedEntity> transactions;
+	private OffHeapStore<BlockKey> offHeapBlocks;
+	private OffHeapStore<Sha256Hash> offHeapTransactions;
+	private long maxBlockCapacity;
+	private long maxTransactionCapacity;
+	private long minBlockCapacity;
+	private long minTransactionCapacity;
+	private Map<Integer, Sha256Hash> headerHashes;
+	private LruCache<Sha256Hash, Integer> blockHeights;
+	private int hashIndexMinConfirmations;
+	private long tipTtl;
+	private volatile int tipHeight;
+	private volatile long tipObservedAt;
+	private File snapshotFile;
+	private ScheduledExecutorService snapshotTimer;
+
+
+	public ChainDataCache(BtcdClient client, long blockCapacity, long transactionCapacity,
+			long tipTtl) {
+		LOG.info("** ChainDataCache(): initiating block & transaction cache (block capacity: '{}', "
+				+ "transaction capacity: '{}')", blockCapacity, transactionCapacity);
+		this.client = client;
+		this.codec = new EntityCodec();
+		this.blocks = new LruCache<BlockKey, CachedEntity>(blockCapacity);
+		this.transactions = new LruCache<Sha256Hash, CachedEntity>(transactionCapacity);
+		this.offHeapBlocks = new OffHeapStore<BlockKey>(0, 0, false);
+		this.offHeapTransactions = new OffHeapStore<Sha256Hash>(0, 0, false);
+		this.blockHeights = new LruCache<Sha256Hash, Integer>(BLOCK_HEIGHT_CAPACITY);
+		this.tipTtl = tipTtl;
+		this.maxBlockCapacity = blockCapacity;
+		this.maxTransactionCapacity = transactionCapacity;
+		this.minBlockCapacity = blockCapacity;
+		this.minTransactionCapacity = transactionCapacity;
+	}
+
+	/**Lets {@link #resize(double)} vary the on-heap budgets between the given minimums &amp; the
+	 * capacities this cache was created with (a negative minimum keeps that budget fixed). Returns
+	 * {@code false} if there is nothing to vary.*/
+	public boolean enableAdaptiveSizing(long minBlockCapacity, long minTransactionCapacity) {
+		this.minBlockCapacity = (minBlockCapacity < 0) ? maxBlockCapacity : Math.min(
+				minBlockCapacity, maxBlockCapacity);
+		this.minTransactionCapacity = (minTransactionCapacity < 0) ? maxTransactionCapacity
+				: Math.min(minTransactionCapacity, maxTransactionCapacity);
+		return (this.minBlockCapacity < maxBlockCapacity)
+				|| (this.minTransactionCapacity < maxTransactionCapacity);
+	}
+
+	/**Sets the on-heap budgets to the given fraction ({@code 0.0} - {@code 1.0}) of their adaptive
+	 * range. When shrinking, blocks with full transaction data are shed before anything else.
+	 * Entries evicted this way are demoted to the off-heap tier (if enabled) as usual.*/
+	public void resize(double fraction) {
+		final long blockBudget = getBudget(minBlockCapacity, maxBlockCapacity, fraction);
+		long transactionBudget = getBudget(minTransactionCapacity, maxTransactionCapacity,
+				fraction);
+		CacheStats blockStats = blocks.getStats();
+		CacheStats transactionStats = transactions.getStats();
+		if ((blockBudget != blockStats.getMaxWeight())
+				|| (transactionBudget != transactionStats.getMaxWeight())) {
+			LOG.info(">> resize(..): resizing the on-heap block budget from {} to {} bytes and the "
+					+ "transaction budget from {} to {} bytes (fraction: {})", blockStats
+					.getMaxWeight(), blockBudget, transactionStats.getMaxWeight(),
+					transactionBudget, String.format("%.2f", fraction));
+		}
+		if (maxBlockCapacity > 0) {
+			blocks.shed(new LruCache.KeyFilter<BlockKey>() {
+				@Override
+				public boolean accept(BlockKey key) {
+					return key.verbosity == FULL_BLOCK_VERBOSITY;
+				}
+			}, blockBudget);
+			blocks.setMaxWeight(blockBudget);
+		}
+		if (maxTransactionCapacity > 0) {
+			transactions.setMaxWeight(transactionBudget);
+		}
+	}
+
+	/**Enables the height-to-hash index. Since the block at a given height may still change in a
+	 * reorg, an indexed hash is only served once it has at least {@code minConfirmations}.*/
+	public void enableHashIndex(final int capacity, int minConfirmations) {
+		if (capacity <= 0) {
+			return;
+		}
+		LOG.info(">> enableHashIndex(..): indexing the hashes of cached blocks by height (capacity: "
+				+ "'{}', min. confirmations: '{}')", capacity, minConfirmations);
+		headerHashes = new LinkedHashMap<Integer, Sha256Hash>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, Sha256Hash> eldest) {
+				return size() > capacity;
+			}
+		};
+		hashIndexMinConfirmations = minConfirmations;
+	}
+
+	public void enableOffHeapTier(long blockCapacity, long transactionCapacity, int slabSize,
+			boolean isCompressed) {
+		if ((blockCapacity <= 0) && (transactionCapacity <= 0)) {
+			return;
+		}
+		LOG.info(">> enableOffHeapTier(..): demoting evicted entries off-heap (block capacity: '{}', "
+				+ "transaction capacity: '{}', compressed: '{}')", blockCapacity, transactionCapacity,
+				isCompressed);
+		offHeapBlocks = new OffHeapStore<BlockKey>(blockCapacity, slabSize, isCompressed);
+		offHeapTransactions = new OffHeapStore<Sha256Hash>(transactionCapacity, slabSize,
+				isCompressed);
+		blocks.setEvictionListener(new LruCache.EvictionListener<BlockKey, CachedEntity>() {
+			@Override
+			public void entryEvicted(BlockKey key, CachedEntity entry) {
+				demoteBlock(key, entry);
+			}
+		});
+		transactions.setEvictionListener(new LruCache.EvictionListener<Sha256Hash, CachedEntity>() {
+			@Override
+			public void entryEvicted(Sha256Hash txId, CachedEntity entry) {
+				demoteTransaction(txId, entry);
+			}
+		});
+	}
+
+	public void enableSnapshots(String snapshotPath, long interval) {
+		if ((snapshotPath == null) || snapshotPath.isEmpty()) {
+			return;
+		}
+		snapshotFile = new File(snapshotPath);
+		LOG.info(">> enableSnapshots(..): persisting cached blocks & transactions to '{}' (interval: "
+				+ "'{}')", snapshotFile.getAbsolutePath(), interval);
+		if (snapshotFile.isFile()) {
+			loadSnapshot();
+		}
+		if (interval > 0) {
+			snapshotTimer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable task) {
+					Thread thread = new Thread(task, "btcdcli4j-cache-snapshot");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			snapshotTimer.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					writeSnapshot();
+				}
+			}, interval, interval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**Writes the contents of both tiers to the snapshot file (if snapshots are enabled). The file
+	 * is written under a temporary name first &amp; then moved into place, so that a crash midway
+	 * never leaves a truncated snapshot behind. Off-heap entries are written before on-heap ones,
+	 * and the latter in least-recently-used order, so that reloading preserves their recency. No
+	 * RPCs are issued (the snapshot records the chain tip last observed by this cache), so that
+	 * {@link #close()} does not depend on the node being reachable.*/
+	public synchronized void writeSnapshot() {
+		if (snapshotFile == null) {
+			return;
+		}
+		File tmpFile = new File(snapshotFile.getPath() + ".tmp");
+		int entryCount = 0;
+		int height = tipHeight;
+		try {
+			OutputStream output = new BufferedOutputStream(new FileOutputStream(tmpFile), 65536);
+			try {
+				output.write(ByteBuffer.allocate(6).putInt(SNAPSHOT_MAGIC).put(SNAPSHOT_VERSION)
+						.put(EntityCodec.FORMAT_VERSION).array());
+				BinaryWriter writer = new BinaryWriter();
+				writer.writeVarLong(height);
+				output.write(writer.toByteArray());
+				Map<BlockKey, CachedEntity> heapBlocks = blocks.toMap();
+				Map<Sha256Hash, CachedEntity> heapTransactions = transactions.toMap();
+				for (BlockKey key : offHeapBlocks.getKeys()) {
+					byte[] payload = offHeapBlocks.peek(key);
+					if ((payload != null) && !heapBlocks.containsKey(key) && writeBlockRecord(
+							output, writer, key, decode(payload))) {
+						entryCount++;
+					}
+				}
+				for (Sha256Hash txId : offHeapTransactions.getKeys()) {
+					byte[] payload = offHeapTransactions.peek(txId);
+					if ((payload != null) && !heapTransactions.containsKey(txId)
+							&& writeTransactionRecord(output, writer, txId, decode(payload))) {
+						entryCount++;
+					}
+				}
+				for (Map.Entry<BlockKey, CachedEntity> entry : heapBlocks.entrySet()) {
+					if (writeBlockRecord(output, writer, entry.getKey(), entry.getValue())) {
+						entryCount++;
+					}
+				}
+				for (Map.Entry<Sha256Hash, CachedEntity> entry : heapTransactions.entrySet()) {
+					if (writeTransactionRecord(output, writer, entry.getKey(), entry.getValue())) {
+						entryCount++;
+					}
+				}
+				output.write(KIND_END);
+			} finally {
+				output.close();
+			}
+			Files.move(tmpFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			LOG.debug("-- writeSnapshot(..): wrote {} cached entries at height {} to '{}'",
+					entryCount, height, snapshotFile.getPath());
+		} catch (IOException e) {
+			LOG.warn("-- writeSnapshot(..): failed to write the cache snapshot (message: '{}')",
+					e.getMessage());
+			tmpFile.delete();
+		}
+	}
+
+	/**Stops the snapshot timer (if any) and writes a final snapshot.*/
+	public void close() {
+		if (snapshotTimer != null) {
+			snapshotTimer.shutdownNow();
+		}
+		writeSnapshot();
+	}
+
+	public RawBlock getBlock(String headerHash, int verbosity) throws BitcoindException,
+			CommunicationException {
+		Object entity = getBlockEntity(headerHash, verbosity);
+		if (!(entity instanceof RawBlock)) {
+			return null;
+		}
+		RawBlock rawBlock = (RawBlock)entity;
+		return isStale(rawBlock.getNextBlockHash(), rawBlock.getHeight(), headerHash, verbosity)
+				? null : rawBlock;
+	}
+
+	public void putBlock(String headerHash, int verbosity, RawBlock rawBlock) {
+		if (isBlockCacheEnabled() && isConfirmed(rawBlock.getConfirmations())
+				&& (rawBlock.getHeight() != null)) {
+			observeTip(rawBlock.getHeight(), rawBlock.getConfirmations());
+			putBlockHeight(headerHash, rawBlock.getHeight());
+			putBlockEntry(toBlockKey(headerHash, verbosity), toEntry(rawBlock,
+					rawBlock.getHeight()));
+			putBlockHash(rawBlock.getHeight(), headerHash);
+			if ((verbosity == FULL_BLOCK_VERBOSITY) && (rawBlock.getTx() != null)) {
+				putBlockTransactions(headerHash, rawBlock);
+			}
+		}
+	}
+
+	public ShallowBlock getShallowBlock(String headerHash) throws BitcoindException,
+			CommunicationException {
+		Object entity = getBlockEntity(headerHash, SHALLOW_BLOCK_VERBOSITY);
+		if (!(entity instanceof ShallowBlock)) {
+			RawBlock rawBlock = getBlock(headerHash, FULL_BLOCK_VERBOSITY);
+			return ((rawBlock == null) || (rawBlock.getTx() == null)) ? null
+					: toShallowBlock(rawBlock);
+		}
+		ShallowBlock shallowBlock = (ShallowBlock)entity;
+		return isStale(shallowBlock.getNextBlockHash(), shallowBlock.getHeight(), headerHash,
+				SHALLOW_BLOCK_VERBOSITY) ? null : shallowBlock;
+	}
+
+	public void putShallowBlock(String headerHash, ShallowBlock shallowBlock) {
+		if (isBlockCacheEnabled() && isConfirmed(shallowBlock.getConfirmations())
+				&& (shallowBlock.getHeight() != null)) {
+			observeTip(shallowBlock.getHeight(), shallowBlock.getConfirmations());
+			putBlockHeight(headerHash, shallowBlock.getHeight());
+			putBlockEntry(toBlockKey(headerHash, SHALLOW_BLOCK_VERBOSITY), toEntry(shallowBlock,
+					shallowBlock.getHeight()));
+			putBlockHash(shallowBlock.getHeight(), headerHash);
+		}
+	}
+
+	public String getBlockHex(String headerHash) {
+		CachedEntity entry = getBlockEntry(toBlockKey(headerHash, DataFormats.HEX.getCode()));
+		return (entry == null) ? null : entry.hex;
+	}
+
+	public void putBlockHex(String headerHash, String blockHex) {
+		if (isBlockCacheEnabled()) {
+			putBlockEntry(toBlockKey(headerHash, DataFormats.HEX.getCode()), toEntry(blockHex, 0));
+		}
+	}
+
+	public RawTransaction getRawTransaction(String txId) throws BitcoindException,
+			CommunicationException {
+		Sha256Hash hash = Sha256Hash.parse(txId);
+		CachedEntity entry = getTransactionEntry(hash);
+		if (entry == null) {
+			return null;
+		}
+		RawTransaction rawTransaction = (RawTransaction)toEntity(entry);
+		if (rawTransaction == null) {
+			transactions.remove(hash);
+			offHeapTransactions.remove(hash);
+			return null;
+		}
+		if (!isOnMainChain(Sha256Hash.parse(rawTransaction.getBlockHash()), entry.height)) {
+			LOG.debug("-- getRawTransaction(..): block '{}' of cached transaction '{}' has left the "
+					+ "main chain, dropping it", rawTransaction.getBlockHash(), txId);
+			transactions.remove(hash);
+			offHeapTransactions.remove(hash);
+			return null;
+		}
+		rawTransaction.setConfirmations(getConfirmations(entry.height));
+		return rawTransaction;
+	}
+
+	public String getRawTransactionHex(String txId) {
+		Sha256Hash hash = Sha256Hash.parse(txId);
+		CachedEntity entry = getTransactionEntry(hash);
+		if (entry == null) {
+			return null;
+		}
+		RawTransaction rawTransaction = (RawTransaction)toEntity(entry);
+		if (rawTransaction == null) {
+			transactions.remove(hash);
+			offHeapTransactions.remove(hash);
+			return null;
+		}
+		return rawTransaction.getHex();
+	}
+
+	public void putRawTransaction(RawTransaction rawTransaction) throws BitcoindException,
+			CommunicationException {
+		if ((transactions.isEnabled() || offHeapTransactions.isEnabled())
+				&& (rawTransaction.getBlockHash() != null)
+				&& isConfirmed(rawTransaction.getConfirmations())) {
+			Integer height = getBlockHeight(rawTransaction.getBlockHash());
+			if (height != null) {
+				putTransactionEntry(rawTransaction.getTxId(), toEntry(rawTransaction, height));
+			}
+		}
+	}
+
+	/**Returns the height of the block {@code headerHash}, as remembered from a block seen before,
+	 * or else as fetched via {@code getblockheader}. Unlike a height derived from a count of
+	 * confirmations, it does not depend on how current the tip height is.*/
+	public Integer getBlockHeight(String headerHash) throws BitcoindException,
+			CommunicationException {
+		Sha256Hash hash = Sha256Hash.parse(headerHash);
+		if (hash == null) {
+			return null;
+		}
+		Integer height = blockHeights.get(hash);
+		if (height == null) {
+			BlockHeader blockHeader = client.getBlockHeader(headerHash);
+			height = blockHeader.getHeight();
+			if ((height != null) && isConfirmed(blockHeader.getConfirmations())) {
+				observeTip(height, blockHeader.getConfirmations());
+			}
+			putBlockHeight(headerHash, height);
+		}
+		return height;
+	}
+
+	/**Returns the hash of the main-chain block at {@code height} if it is indexed &amp; buried deep
+	 * enough to be served, or {@code null} otherwise.*/
+	public String getBlockHash(int height) throws BitcoindException, CommunicationException {
+		if (headerHashes == null) {
+			return null;
+		}
+		Sha256Hash headerHash;
+		synchronized (headerHashes) {
+			headerHash = headerHashes.get(height);
+		}
+		if ((headerHash == null) || (getConfirmations(height) < hashIndexMinConfirmations)) {
+			return null;
+		}
+		return headerHash.toHex();
+	}
+
+	public void putBlockHash(int height, String headerHash) {
+		Sha256Hash hash = Sha256Hash.parse(headerHash);
+		if ((headerHashes != null) && (hash != null)) {
+			synchronized (headerHashes) {
+				headerHashes.put(height, hash);
+			}
+		}
+	}
+
+	public int getConfirmations(int height) throws BitcoindException, CommunicationException {
+		return getTipHeight() - height + 1;
+	}
+
+	/**Returns the current chain height, as refreshed at most once per tip TTL (or after
+	 * {@link #invalidateTip()}).*/
+	public int getTipHeight() throws BitcoindException, CommunicationException {
+		if ((System.currentTimeMillis() - tipObservedAt) > tipTtl) {
+			tipHeight = client.getBlockCount();
+			tipObservedAt = System.currentTimeMillis();
+		}
+		return tipHeight;
+	}
+
+	public void invalidateTip() {
+		tipObservedAt = 0;
+	}
+
+	public CacheStats getBlockStats() {
+		return blocks.getStats();
+	}
+
+	public CacheStats getTransactionStats() {
+		return transactions.getStats();
+	}
+
+	public CacheStats getOffHeapBlockStats() {
+		return offHeapBlocks.getStats();
+	}
+
+	public CacheStats getOffHeapTransactionStats() {
+		return offHeapTransactions.getStats();
+	}
+
+	public void clear() {
+		LOG.info(">> clear(..): discarding all cached blocks & transactions");
+		blocks.clear();
+		transactions.clear();
+		offHeapBlocks.clear();
+		offHeapTransactions.clear();
+		if (headerHashes != null) {
+			synchronized (headerHashes) {
+				headerHashes.clear();
+			}
+		}
+	}
+
+	private Object getBlockEntity(String headerHash, int verbosity) throws BitcoindException,
+			CommunicationException {
+		BlockKey key = toBlockKey(headerHash, verbosity);
+		CachedEntity entry = getBlockEntry(key);
+		if (entry == null) {
+			return null;
+		}
+		Object entity = toEntity(entry);
+		if (entity == null) {
+			blocks.remove(key);
+			offHeapBlocks.remove(key);
+			return null;
+		}
+		if (!isOnMainChain(key.headerHash, entry.height)) {
+			LOG.debug("-- getBlockEntity(..): cached block '{}' has left the main chain, dropping "
+					+ "it", headerHash);
+			blocks.remove(key);
+			offHeapBlocks.remove(key);
+			return null;
+		}
+		int confirmations = getConfirmations(entry.height);
+		if (entity instanceof RawBlock) {
+			((RawBlock)entity).setConfirmations(confirmations);
+		} else if (entity instanceof ShallowBlock) {
+			((ShallowBlock)entity).setConfirmations(confirmations);
+		}
+		return entity;
+	}
+
+	/**Returns {@code true} if the block {@code headerHash} at {@code height} is still part of the
+	 * main chain. Blocks with at least {@link #REORG_SAFE_CONFIRMATIONS} are taken to be, while
+	 * shallower ones are checked against the main-chain hash at their height.*/
+	private boolean isOnMainChain(Sha256Hash headerHash, int height) throws BitcoindException,
+			CommunicationException {
+		int confirmations = getConfirmations(height);
+		if (confirmations >= REORG_SAFE_CONFIRMATIONS) {
+			return true;
+		}
+		// the chain has been reorganized into a shorter one
+		if (confirmations <= 0) {
+			return false;
+		}
+		try {
+			return headerHash.equals(Sha256Hash.parse(client.getBlockHash(height)));
+		} catch (BitcoindException e) {
+			return false;
+		}
+	}
+
+	private boolean isStale(String nextBlockHash, int height, String headerHash, int verbosity)
+			throws BitcoindException, CommunicationException {
+		if ((nextBlockHash == null) && (getTipHeight() > height)) {
+			LOG.debug("-- isStale(..): block '{}' was cached at the chain tip and has a successor "
+					+ "by now, refetching", headerHash);
+			blocks.remove(toBlockKey(headerHash, verbosity));
+			offHeapBlocks.remove(toBlockKey(headerHash, verbosity));
+			return true;
+		}
+		return false;
+	}
+
+	private boolean isBlockCacheEnabled() {
+		return blocks.isEnabled() || offHeapBlocks.isEnabled();
+	}
+
+	private void putBlockEntry(BlockKey key, CachedEntity entry) {
+		if (key == null) {
+			return;
+		}
+		if (!blocks.put(key, entry, entry.getWeight())) {
+			demoteBlock(key, entry);
+		}
+	}
+
+	private long getBudget(long minCapacity, long maxCapacity, double fraction) {
+		if (maxCapacity <= 0) {
+			return 0;
+		}
+		// never drop to zero, as that would disable the tier rather than shrink it
+		long budget = minCapacity + (long)((maxCapacity - minCapacity) * fraction);
+		return Math.max(budget, 1);
+	}
+
+	private void putTransactionEntry(String txId, CachedEntity entry) {
+		Sha256Hash hash = Sha256Hash.parse(txId);
+		if (hash == null) {
+			return;
+		}
+		if (!transactions.put(hash, entry, entry.getWeight())) {
+			demoteTransaction(hash, entry);
+		}
+	}
+
+	/**Caches the transactions of a {@code verbosity} 2 block under their txids, filling in the
+	 * block-related fields that <i>bitcoind</i> omits from transactions embedded in a block.*/
+	private void putBlockTransactions(String headerHash, RawBlock rawBlock) {
+		if (!transactions.isEnabled() && !offHeapTransactions.isEnabled()) {
+			return;
+		}
+		List<RawTransaction> blockTransactions = rawBlock.getTx();
+		for (RawTransaction blockTransaction : blockTransactions) {
+			RawTransaction rawTransaction = new RawTransaction(headerHash, null, rawBlock.getTime(),
+					rawBlock.getTime(), blockTransaction.getHex());
+			rawTransaction.setTxId(blockTransaction.getTxId());
+			rawTransaction.setHash(blockTransaction.getHash());
+			rawTransaction.setSize(blockTransaction.getSize());
+			rawTransaction.setVSize(blockTransaction.getVSize());
+			rawTransaction.setWeight(blockTransaction.getWeight());
+			rawTransaction.setVersion(blockTransaction.getVersion());
+			rawTransaction.setLockTime(blockTransaction.getLockTime());
+			rawTransaction.setVIn(blockTransaction.getVIn());
+			rawTransaction.setVOut(blockTransaction.getVOut());
+			putTransactionEntry(rawTransaction.getTxId(), toEntry(rawTransaction,
+					rawBlock.getHeight()));
+		}
+		LOG.debug("-- putBlockTransactions(..): cached {} transaction(s) of block '{}'",
+				blockTransactions.size(), headerHash);
+	}
+
+	private ShallowBlock toShallowBlock(RawBlock rawBlock) {
+		List<String> txIds = new ArrayList<String>(rawBlock.getTx().size());
+		for (RawTransaction rawTransaction : rawBlock.getTx()) {
+			txIds.add(rawTransaction.getTxId());
+		}
+		return new ShallowBlock(rawBlock.getHash(), rawBlock.getConfirmations(), rawBlock.getSize(),
+				rawBlock.getHeight(), rawBlock.getVersion(), rawBlock.getMerkleRoot(), txIds,
+				rawBlock.getTime(), rawBlock.getNonce(), rawBlock.getBits(), rawBlock.getDifficulty(),
+				rawBlock.getChainWork(), rawBlock.getPreviousBlockHash(), rawBlock.getNextBlockHash());
+	}
+
+	private CachedEntity getBlockEntry(BlockKey key) {
+		if (key == null) {
+			return null;
+		}
+		CachedEntity entry = blocks.get(key);
+		if ((entry != null) || !offHeapBlocks.isEnabled()) {
+			return entry;
+		}
+		byte[] payload = offHeapBlocks.get(key);
+		if (payload == null) {
+			return null;
+		}
+		entry = decode(payload);
+		if (entry == null) {
+			offHeapBlocks.remove(key);
+			return null;
+		}
+		blocks.put(key, entry, entry.getWeight());
+		return entry;
+	}
+
+	private CachedEntity getTransactionEntry(Sha256Hash hash) {
+		if (hash == null) {
+			return null;
+		}
+		CachedEntity entry = transactions.get(hash);
+		if ((entry != null) || !offHeapTransactions.isEnabled()) {
+			return entry;
+		}
+		byte[] payload = offHeapTransactions.get(hash);
+		if (payload == null) {
+			return null;
+		}
+		entry = decode(payload);
+		if (entry == null) {
+			offHeapTransactions.remove(hash);
+			return null;
+		}
+		transactions.put(hash, entry, entry.getWeight());
+		return entry;
+	}
+
+	private void demoteBlock(BlockKey key, CachedEntity entry) {
+		if (offHeapBlocks.isEnabled() && !offHeapBlocks.contains(key)) {
+			offHeapBlocks.put(key, toPayload(entry));
+		}
+	}
+
+	private void demoteTransaction(Sha256Hash txId, CachedEntity entry) {
+		if (offHeapTransactions.isEnabled() && !offHeapTransactions.contains(txId)) {
+			offHeapTransactions.put(txId, toPayload(entry));
+		}
+	}
+
+	/**Wraps a hex string as is (strings being immutable) &amp; any other entity in encoded form, so
+	 * that the cache never holds on to an instance its caller may still modify.*/
+	private CachedEntity toEntry(Object entity, int height) {
+		if (entity instanceof String) {
+			return new CachedEntity(height, (String)entity, null);
+		}
+		BinaryWriter writer = new BinaryWriter();
+		writer.writeVarLong(height);
+		writer.writeByte(FORM_ENTITY);
+		codec.encode((Entity)entity, writer);
+		return new CachedEntity(height, null, writer.toByteArray());
+	}
+
+	/**Decodes a fresh copy of the cached entity (or returns the cached hex string), or returns
+	 * {@code null} if the payload is malformed or was encoded in another format version.*/
+	private Object toEntity(CachedEntity entry) {
+		if (entry.hex != null) {
+			return entry.hex;
+		}
+		try {
+			ByteBuffer source = ByteBuffer.wrap(entry.payload);
+			BinaryReader reader = new BinaryReader(source);
+			reader.readVarLong();
+			reader.readByte();
+			return codec.decode(source, Entity.class);
+		} catch (IllegalArgumentException | BufferUnderflowException e) {
+			LOG.warn("-- toEntity(..): failed to decode a cached entity, dropping it (message: '{}')",
+					e.getMessage());
+			return null;
+		}
+	}
+
+	private byte[] toPayload(CachedEntity entry) {
+		if (entry.payload != null) {
+			return entry.payload;
+		}
+		BinaryWriter writer = new BinaryWriter();
+		writer.writeVarLong(entry.height);
+		writer.writeByte(FORM_HEX);
+		writer.writeString(entry.hex);
+		return writer.toByteArray();
+	}
+
+	/**Wraps an off-heap payload back into an entry (only hex strings are decoded right away), or
+	 * returns {@code null} if the payload is malformed.*/
+	private CachedEntity decode(byte[] payload) {
+		try {
+			BinaryReader reader = new BinaryReader(ByteBuffer.wrap(payload));
+			int height = (int)reader.readVarLong();
+			if (reader.readByte() == FORM_HEX) {
+				return new CachedEntity(height, reader.readString(), null);
+			}
+			return new CachedEntity(height, null, payload);
+		} catch (IllegalArgumentException | BufferUnderflowException e) {
+			LOG.warn("-- decode(..): failed to decode a cached entry, dropping it (message: '{}')",
+					e.getMessage());
+			return null;
+		}
+	}
+
+	/**Writes a block record, unless {@code entry} could not be decoded.*/
+	private boolean writeBlockRecord(OutputStream output, BinaryWriter writer, BlockKey key,
+			CachedEntity entry) throws IOException {
+		if (entry == null) {
+			return false;
+		}
+		writer.reset();
+		writer.writeByte(KIND_BLOCK);
+		writer.writeHash(key.headerHash.toHex());
+		writer.writeUnsignedVarLong(key.verbosity);
+		writer.writeVarLong(entry.height);
+		writer.writeBytes(toPayload(entry));
+		output.write(writer.toByteArray());
+		return true;
+	}
+
+	/**Writes a transaction record, unless {@code entry} could not be decoded.*/
+	private boolean writeTransactionRecord(OutputStream output, BinaryWriter writer,
+			Sha256Hash txId, CachedEntity entry) throws IOException {
+		RawTransaction rawTransaction = (entry == null) ? null : (RawTransaction)toEntity(entry);
+		if (rawTransaction == null) {
+			return false;
+		}
+		writer.reset();
+		writer.writeByte(KIND_TRANSACTION);
+		writer.writeHash(txId.toHex());
+		writer.writeHash(rawTransaction.getBlockHash());
+		writer.writeVarLong(entry.height);
+		writer.writeBytes(toPayload(entry));
+		output.write(writer.toByteArray());
+		return true;
+	}
+
+	private void loadSnapshot() {
+		try {
+			RandomAccessFile file = new RandomAccessFile(snapshotFile, "r");
+			try {
+				FileChannel channel = file.getChannel();
+				ByteBuffer source = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+				if ((source.remaining() < 6) || (source.getInt() != SNAPSHOT_MAGIC)
+						|| (source.get() != SNAPSHOT_VERSION)
+						|| (source.get() != EntityCodec.FORMAT_VERSION)) {
+					LOG.warn("-- loadSnapshot(..): '{}' is not a supported cache snapshot, ignoring",
+							snapshotFile.getPath());
+					return;
+				}
+				BinaryReader reader = new BinaryReader(source);
+				int height = (int)reader.readVarLong();
+				List<SnapshotRecord> records = readRecords(reader);
+				int forkHeight = getForkHeight(records);
+				int loadedCount = 0;
+				for (SnapshotRecord record : records) {
+					if ((record.verbosity == DataFormats.HEX.getCode())
+							|| (record.height <= forkHeight)) {
+						restore(record);
+						loadedCount++;
+					}
+				}
+				LOG.info("<< loadSnapshot(..): restored {} cached entries, dropped {} from "
+						+ "reorganized blocks (snapshot height: {}, fork height: {})", loadedCount,
+						records.size() - loadedCount, height, forkHeight);
+			} finally {
+				file.close();
+			}
+		} catch (IOException | IllegalArgumentException | BufferUnderflowException e) {
+			LOG.warn("-- loadSnapshot(..): failed to read the cache snapshot, starting cold "
+					+ "(message: '{}')", e.getMessage());
+		}
+	}
+
+	private List<SnapshotRecord> readRecords(BinaryReader reader) {
+		List<SnapshotRecord> records = new ArrayList<SnapshotRecord>();
+		while (true) {
+			byte kind = reader.readByte();
+			if (kind == KIND_END) {
+				return records;
+			}
+			SnapshotRecord record = new SnapshotRecord();
+			if (kind == KIND_BLOCK) {
+				record.headerHash = reader.readHash();
+				record.verbosity = (int)reader.readUnsignedVarLong();
+				record.blockKey = toBlockKey(record.headerHash, record.verbosity);
+			} else if (kind == KIND_TRANSACTION) {
+				record.txId = Sha256Hash.parse(reader.readHash());
+				record.headerHash = reader.readHash();
+				record.verbosity = -1;
+			} else {
+				throw new IllegalArgumentException(Errors.PARSE_BINARY_MALFORMED.getDescription());
+			}
+			record.height = (int)reader.readVarLong();
+			record.payload = reader.readSlice();
+			// entries keyed on anything but a well-formed hash are no longer cached
+			if ((record.blockKey != null) || (record.txId != null)) {
+				records.add(record);
+			}
+		}
+	}
+
+	/**Returns the greatest height at which the snapshot still agrees with the current main chain.
+	 * Only the topmost snapshotted block is probed, unless it has been reorganized out of the main
+	 * chain, in which case the fork is located by a binary search over the snapshotted heights.*/
+	private int getForkHeight(List<SnapshotRecord> records) {
+		TreeMap<Integer, Set<String>> headerHashes = new TreeMap<Integer, Set<String>>();
+		for (SnapshotRecord record : records) {
+			if (record.verbosity == DataFormats.HEX.getCode()) {
+				continue;
+			}
+			Set<String> hashesAtHeight = headerHashes.get(record.height);
+			if (hashesAtHeight == null) {
+				hashesAtHeight = new HashSet<String>(2);
+				headerHashes.put(record.height, hashesAtHeight);
+			}
+			hashesAtHeight.add(record.headerHash);
+		}
+		if (headerHashes.isEmpty()) {
+			return -1;
+		}
+		List<Integer> heights = new ArrayList<Integer>(headerHashes.keySet());
+		int high = heights.size() - 1;
+		if (isOnMainChain(headerHashes, heights.get(high))) {
+			return heights.get(high);
+		}
+		int low = 0;
+		int forkHeight = -1;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (isOnMainChain(headerHashes, heights.get(middle))) {
+				forkHeight = heights.get(middle);
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return forkHeight;
+	}
+
+	private boolean isOnMainChain(Map<Integer, Set<String>> headerHashes, int height) {
+		return headerHashes.get(height).contains(getMainChainHash(height));
+	}
+
+	private String getMainChainHash(int height) {
+		try {
+			return client.getBlockHash(height);
+		} catch (BitcoindException | CommunicationException e) {
+			return null;
+		}
+	}
+
+	private void restore(SnapshotRecord record) {
+		byte[] payload = new byte[record.payload.remaining()];
+		record.payload.get(payload);
+		if (record.blockKey != null) {
+			if (offHeapBlocks.isEnabled()) {
+				offHeapBlocks.put(record.blockKey, payload);
+			} else {
+				CachedEntity entry = decode(payload);
+				if (entry != null) {
+					putBlockEntry(record.blockKey, entry);
+				}
+			}
+		} else {
+			if (offHeapTransactions.isEnabled()) {
+				offHeapTransactions.put(record.txId, payload);
+			} else {
+				CachedEntity entry = decode(payload);
+				if (entry != null) {
+					transactions.put(record.txId, entry, entry.getWeight());
+				}
+			}
+		}
+	}
+
+	private void putBlockHeight(String headerHash, Integer height) {
+		Sha256Hash hash = Sha256Hash.parse(headerHash);
+		if ((hash != null) && (height != null)) {
+			blockHeights.put(hash, height, 1);
+		}
+	}
+
+	private boolean isConfirmed(Integer confirmations) {
+		return (confirmations != null) && (confirmations > 0);
+	}
+
+	private void observeTip(int height, int confirmations) {
+		tipHeight = Math.max(tipHeight, height + confirmations - 1);
+		tipObservedAt = System.currentTimeMillis();
+	}
+
+	private static BlockKey toBlockKey(String headerHash, int verbosity) {
+		Sha256Hash hash = Sha256Hash.parse(headerHash);
+		return (hash == null) ? null : new BlockKey(hash, verbosity);
+	}
+
+	@EqualsAndHashCode
+	private static final class BlockKey {
+
+		private final Sha256Hash headerHash;
+		private final int verbosity;
+
+
+		private BlockKey(Sha256Hash headerHash, int verbosity) {
+			this.headerHash = headerHash;
+			this.verbosity = verbosity;
+		}
+	}
+
+	private static final class SnapshotRecord {
+
+		private BlockKey blockKey;
+		private Sha256Hash txId;
+		private String headerHash;
+		private int verbosity;
+		private int height;
+		private ByteBuffer payload;
+	}
+
+	/**A cached block in hex form, or any other cached entity in encoded form.*/
+	private static final class CachedEntity {
+
+		private final int height;
+		private final String hex;
+		private final byte[] payload;
+
+
+		private CachedEntity(int height, String hex, byte[] payload) {
+			this.height = height;
+			this.hex = hex;
+			this.payload = payload;
+		}
+
+		private int getWeight() {
+			return (hex != null) ? hex.length() : payload.length;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package com.neemre.btcdcli4j.core.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**A client-side cache for chain-state reads whose results only change when a new block arrives
+ * (<i>e.g.</i> {@code getblockcount}, {@code getbestblockhash}, {@code getmininginfo}). While a
+ * notification daemon is attached, entries stay valid until the next {@code BLOCK} notification
+ * (bounded by a safety TTL of 30 seconds by default, in case notifications are lost); otherwise
+ * they expire after a short TTL (2 seconds by default). A detached TTL of {@code 0} disables
+ * caching until a daemon is attached. Cached entities are shared between callers and should be
+ * treated as read-only.*/
+public class ChainStateCache {
+
+	private static final Logger LOG = LoggerFactory.getLogger(ChainStateCache.class);
+
+	private ConcurrentMap<String, Entry> entries;
+	private long ttl;
+	private long attachedTtl;
+	private volatile boolean isAttached;
+	private final AtomicLong generation = new AtomicLong();
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong invalidationCount = new AtomicLong();
+
+
+	public ChainStateCache(long ttl, long attachedTtl) {
+		LOG.info("** ChainStateCache(): initiating chain-state cache (TTL: '{}ms', TTL while "
+				+ "notification-driven: '{}ms')", ttl, attachedTtl);
+		this.entries = new ConcurrentHashMap<String, Entry>();
+		this.ttl = ttl;
+		this.attachedTtl = attachedTtl;
+	}
+
+	public Object get(String key) {
+		if (!isEnabled()) {
+			return null;
+		}
+		Entry entry = entries.get(key);
+		if ((entry == null) || ((System.currentTimeMillis() - entry.storedAt) > getEffectiveTtl())) {
+			missCount.incrementAndGet();
+			return null;
+		}
+		hitCount.incrementAndGet();
+		return entry.value;
+	}
+
+	/**Returns a token that must be passed back to {@link #put(String, Object, long)} once the
+	 * value has been loaded; values loaded across an invalidation are then silently dropped.*/
+	public long getGeneration() {
+		return generation.get();
+	}
+
+	public void put(String key, Object value, long loadGeneration) {
+		if (!isEnabled() || (value == null)) {
+			return;
+		}
+		entries.put(key, new Entry(value, System.currentTimeMillis()));
+		if (generation.get() != loadGeneration) {
+			entries.remove(key);
+		}
+	}
+
+	public void invalidate() {
+		generation.incrementAndGet();
+		entries.clear();
+		invalidationCount.incrementAndGet();
+		LOG.debug("-- invalidate(..): chain-state cache cleared (invalidation no. {})",
+				invalidationCount.get());
+	}
+
+	public void attach() {
+		LOG.info(">> attach(..): chain-state cache is now invalidated by 'BLOCK' notifications");
+		invalidate();
+		isAttached = true;
+	}
+
+	public void detach() {
+		LOG.info(">> detach(..): chain-state cache is no longer notification-driven; reverting to "
+				+ "a TTL of {}ms", ttl);
+		isAttached = false;
+		invalidate();
+	}
+
+	public boolean isAttached() {
+		return isAttached;
+	}
+
+	public long getInvalidationCount() {
+		return invalidationCount.get();
+	}
+
+	public CacheStats getStats() {
+		return new CacheStats(hitCount.get(), missCount.get(), 0, entries.size(), 0, 0);
+	}
+
+	private boolean isEnabled() {
+		return isAttached || (ttl > 0);
+	}
+
+	private long getEffectiveTtl() {
+		return isAttached ? attachedTtl : ttl;
+	}
+
+	private static final class Entry {
+
+		private final Object value;
+		private final long storedAt;
+
+
+		private Entry(Object value, long storedAt) {
+			this.value = value;
+			this.storedAt = storedAt;
+		}
+	}
+}
@@ -0,0 +1,176 @@
+package com.neemre.btcdcli4j.core.cache;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**A thread-safe, size-weighted LRU cache. Every entry carries a weight (its approximate size in
+ * bytes) and the least recently used entries are evicted for as long as the total weight exceeds
+ * the configured maximum. A maximum weight of {@code 0} disables the cache altogether.*/
+public class LruCache<K, V> {
+
+	private final LinkedHashMap<K, Node<V>> entries;
+	private long maxWeight;
+	private long weight;
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+	private EvictionListener<K, V> evictionListener;
+
+
+	public LruCache(long maxWeight) {
+		this.entries = new LinkedHashMap<K, Node<V>>(16, 0.75f, true);
+		this.maxWeight = maxWeight;
+	}
+
+	public synchronized V get(K key) {
+		Node<V> node = entries.get(key);
+		if (node == null) {
+			missCount++;
+			return null;
+		}
+		hitCount++;
+		return node.value;
+	}
+
+	public boolean put(K key, V value, int entryWeight) {
+		Map<K, V> evictedEntries;
+		synchronized (this) {
+			if (entryWeight > maxWeight) {
+				return false;
+			}
+			Node<V> oldNode = entries.put(key, new Node<V>(value, entryWeight));
+			if (oldNode != null) {
+				weight -= oldNode.weight;
+			}
+			weight += entryWeight;
+			evictedEntries = evictExcess();
+		}
+		notifyEvicted(evictedEntries);
+		return true;
+	}
+
+	public synchronized V remove(K key) {
+		Node<V> node = entries.remove(key);
+		if (node == null) {
+			return null;
+		}
+		weight -= node.weight;
+		return node.value;
+	}
+
+	/**Changes the maximum weight, evicting the least recently used entries if the cache is over
+	 * its new budget.*/
+	public void setMaxWeight(long maxWeight) {
+		Map<K, V> evictedEntries;
+		synchronized (this) {
+			this.maxWeight = maxWeight;
+			evictedEntries = evictExcess();
+		}
+		notifyEvicted(evictedEntries);
+	}
+
+	/**Evicts entries accepted by {@code filter}, least recently used first, until the total weight
+	 * drops to {@code targetWeight} (or no such entries remain). Returns the evicted weight.*/
+	public long shed(KeyFilter<K> filter, long targetWeight) {
+		Map<K, V> evictedEntries = new LinkedHashMap<K, V>();
+		long shedWeight = 0;
+		synchronized (this) {
+			Iterator<Map.Entry<K, Node<V>>> iterator = entries.entrySet().iterator();
+			while ((weight > targetWeight) && iterator.hasNext()) {
+				Map.Entry<K, Node<V>> entry = iterator.next();
+				if (filter.accept(entry.getKey())) {
+					iterator.remove();
+					weight -= entry.getValue().weight;
+					shedWeight += entry.getValue().weight;
+					evictionCount++;
+					evictedEntries.put(entry.getKey(), entry.getValue().value);
+				}
+			}
+		}
+		notifyEvicted(evictedEntries);
+		return shedWeight;
+	}
+
+	/**Returns a copy of the cached entries, ordered from least to most recently used.*/
+	public synchronized Map<K, V> toMap() {
+		Map<K, V> copy = new LinkedHashMap<K, V>(entries.size() * 2);
+		for (Map.Entry<K, Node<V>> entry : entries.entrySet()) {
+			copy.put(entry.getKey(), entry.getValue().value);
+		}
+		return copy;
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		weight = 0;
+	}
+
+	public synchronized boolean isEnabled() {
+		return maxWeight > 0;
+	}
+
+	public synchronized void setEvictionListener(EvictionListener<K, V> evictionListener) {
+		this.evictionListener = evictionListener;
+	}
+
+	public synchronized CacheStats getStats() {
+		return new CacheStats(hitCount, missCount, evictionCount, entries.size(), weight,
+				maxWeight);
+	}
+
+	private Map<K, V> evictExcess() {
+		if (weight <= maxWeight) {
+			return Collections.emptyMap();
+		}
+		Map<K, V> evictedEntries = new LinkedHashMap<K, V>();
+		Iterator<Map.Entry<K, Node<V>>> iterator = entries.entrySet().iterator();
+		while ((weight > maxWeight) && iterator.hasNext()) {
+			Map.Entry<K, Node<V>> eldest = iterator.next();
+			iterator.remove();
+			weight -= eldest.getValue().weight;
+			evictionCount++;
+			evictedEntries.put(eldest.getKey(), eldest.getValue().value);
+		}
+		return evictedEntries;
+	}
+
+	private void notifyEvicted(Map<K, V> evictedEntries) {
+		EvictionListener<K, V> listener;
+		synchronized (this) {
+			listener = evictionListener;
+		}
+		if (listener == null) {
+			return;
+		}
+		for (Map.Entry<K, V> evictedEntry : evictedEntries.entrySet()) {
+			listener.entryEvicted(evictedEntry.getKey(), evictedEntry.getValue());
+		}
+	}
+
+	/**A callback for entries that have been evicted to make room for newer ones; invoked outside
+	 * of the cache's lock.*/
+	public interface EvictionListener<K, V> {
+
+		void entryEvicted(K key, V value);
+	}
+
+	/**Selects the entries to be shed first when the cache has to shrink.*/
+	public interface KeyFilter<K> {
+
+		boolean accept(K key);
+	}
+
+	private static final class Node<V> {
+
+		private final V value;
+		private final int weight;
+
+
+		private Node(V value, int weight) {
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+}
@@ -0,0 +1,223 @@
+package com.neemre.btcdcli4j.core.cache;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**Adapts the on-heap budgets of a {@link ChainDataCache} to the memory pressure observed by the
+ * JVM. After every collection, the collection usage (<i>i.e.</i> the occupancy that remains right
+ * after a collection) of the long-lived heap pools it covered is checked against the threshold:
+ * every collection that ends above it halves the budgets, and once the occupancy has dropped well
+ * below it, the budgets are grown back gradually with every further collection.
+ * 
+ * <p>Only the pools holding long-lived objects (<i>e.g.</i> the tenured generation) are measured,
+ * as the young generation is nearly empty after each minor collection and a survivor space may
+ * overflow at any time. These are the pools left out by the collectors that do not cover the whole
+ * heap (<i>i.e.</i> the young ones), whose notifications are ignored; under collectors that all
+ * cover the whole heap (<i>e.g.</i> G1, ZGC), every heap pool with a defined maximum is measured.
+ * 
+ * <p>This relies on the GC notifications of HotSpot-based JVMs. Where these are not available,
+ * heap pools are given a collection usage threshold instead, whose notifications only fire once
+ * per crossing (so the budgets are halved once, but never grown back). Any threshold set by this
+ * monitor is cleared again by {@link #stop()}.*/
+public class MemoryPressureMonitor implements NotificationListener {
+
+	private static final Logger LOG = LoggerFactory.getLogger(MemoryPressureMonitor.class);
+	// the type of 'com.sun.management.GarbageCollectionNotificationInfo', matched by name so as not
+	// to depend on a vendor-specific API
+	private static final String GC_NOTIFICATION = "com.sun.management.gc.notification";
+	private static final double SHRINK_FACTOR = 0.5;
+	private static final double GROW_STEP = 0.1;
+	private static final double LOW_WATERMARK = 0.5;
+
+	private ChainDataCache cache;
+	private double threshold;
+	private double fraction;
+	private List<MemoryPoolMXBean> pools;
+	private List<MemoryPoolMXBean> thresholdPools;
+	private Map<String, List<String>> collectedPools;
+	private List<NotificationEmitter> emitters;
+
+
+	public MemoryPressureMonitor(ChainDataCache cache, double threshold) {
+		this.cache = cache;
+		this.threshold = threshold;
+		this.fraction = 1.0;
+		this.pools = new ArrayList<MemoryPoolMXBean>();
+		this.thresholdPools = new ArrayList<MemoryPoolMXBean>();
+		this.collectedPools = new HashMap<String, List<String>>();
+		this.emitters = new ArrayList<NotificationEmitter>();
+	}
+
+	public synchronized void start() {
+		List<MemoryPoolMXBean> heapPools = new ArrayList<MemoryPoolMXBean>();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if ((pool.getType() == MemoryType.HEAP) && pool.isCollectionUsageThresholdSupported()
+					&& (pool.getUsage().getMax() > 0)) {
+				heapPools.add(pool);
+			}
+		}
+		List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+		pools.addAll(getLongLivedPools(heapPools, collectors));
+		for (GarbageCollectorMXBean collector : collectors) {
+			List<String> poolNames = new ArrayList<String>();
+			for (MemoryPoolMXBean pool : pools) {
+				if (Arrays.asList(collector.getMemoryPoolNames()).contains(pool.getName())) {
+					poolNames.add(pool.getName());
+				}
+			}
+			if (!poolNames.isEmpty() && subscribe(collector)) {
+				collectedPools.put(collector.getName(), poolNames);
+			}
+		}
+		if (collectedPools.isEmpty()) {
+			for (MemoryPoolMXBean pool : pools) {
+				// respect a threshold that has already been set up by someone else
+				if (pool.getCollectionUsageThreshold() == 0) {
+					pool.setCollectionUsageThreshold((long)(pool.getUsage().getMax() * threshold));
+					thresholdPools.add(pool);
+				}
+			}
+			subscribe(ManagementFactory.getMemoryMXBean());
+		}
+		LOG.info(">> start(..): monitoring {} long-lived heap pool(s) for memory pressure "
+				+ "(threshold: '{}', GC notifications: '{}')", pools.size(), threshold,
+				!collectedPools.isEmpty());
+	}
+
+	public synchronized void stop() {
+		for (NotificationEmitter emitter : emitters) {
+			try {
+				emitter.removeNotificationListener(this);
+			} catch (ListenerNotFoundException e) {
+				LOG.debug("-- stop(..): listener already removed (message: '{}')", e.getMessage());
+			}
+		}
+		for (MemoryPoolMXBean pool : thresholdPools) {
+			pool.setCollectionUsageThreshold(0);
+		}
+		emitters.clear();
+		pools.clear();
+		thresholdPools.clear();
+		collectedPools.clear();
+	}
+
+	public synchronized double getFraction() {
+		return fraction;
+	}
+
+	@Override
+	public void handleNotification(Notification notification, Object handback) {
+		String type = notification.getType();
+		if (GC_NOTIFICATION.equals(type)) {
+			double occupancy = getOccupancy(getGcName(notification));
+			if (occupancy < 0) {
+				return;
+			}
+			if (occupancy >= threshold) {
+				LOG.debug("-- handleNotification(..): heap occupancy after GC is at {}% of the "
+						+ "maximum", (int)(occupancy * 100));
+				adjust(SHRINK_FACTOR, 0);
+			} else if (occupancy < (threshold * LOW_WATERMARK)) {
+				adjust(1.0, GROW_STEP);
+			}
+		} else if (MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(type)) {
+			LOG.debug("-- handleNotification(..): heap occupancy after GC exceeded {}% of the "
+					+ "maximum", (int)(threshold * 100));
+			adjust(SHRINK_FACTOR, 0);
+		}
+	}
+
+	private void adjust(double factor, double step) {
+		double newFraction;
+		synchronized (this) {
+			newFraction = Math.max(0, Math.min(1.0, fraction * factor + step));
+			if (Math.abs(newFraction - fraction) < 0.01) {
+				return;
+			}
+			fraction = newFraction;
+		}
+		cache.resize(newFraction);
+	}
+
+	/**Returns the pools among {@code heapPools} that no young collector (<i>i.e.</i> one leaving
+	 * some of {@code heapPools} out) covers, or all of {@code heapPools} if there are none such.*/
+	private List<MemoryPoolMXBean> getLongLivedPools(List<MemoryPoolMXBean> heapPools,
+			List<GarbageCollectorMXBean> collectors) {
+		Set<String> youngPoolNames = new HashSet<String>();
+		for (GarbageCollectorMXBean collector : collectors) {
+			List<String> poolNames = Arrays.asList(collector.getMemoryPoolNames());
+			for (MemoryPoolMXBean pool : heapPools) {
+				if (!poolNames.contains(pool.getName())) {
+					youngPoolNames.addAll(poolNames);
+					break;
+				}
+			}
+		}
+		List<MemoryPoolMXBean> longLivedPools = new ArrayList<MemoryPoolMXBean>();
+		for (MemoryPoolMXBean pool : heapPools) {
+			if (!youngPoolNames.contains(pool.getName())) {
+				longLivedPools.add(pool);
+			}
+		}
+		return longLivedPools.isEmpty() ? heapPools : longLivedPools;
+	}
+
+	/**Returns the highest collection usage (as a fraction of the maximum) among the long-lived
+	 * pools covered by the collector {@code gcName}, or {@code -1} if it covers none of them.*/
+	private synchronized double getOccupancy(String gcName) {
+		List<String> poolNames = collectedPools.get(gcName);
+		if (poolNames == null) {
+			return -1;
+		}
+		double occupancy = 0;
+		for (MemoryPoolMXBean pool : pools) {
+			if (!poolNames.contains(pool.getName())) {
+				continue;
+			}
+			MemoryUsage usage = pool.getCollectionUsage();
+			if ((usage != null) && (usage.getMax() > 0)) {
+				occupancy = Math.max(occupancy, (double)usage.getUsed() / usage.getMax());
+			}
+		}
+		return occupancy;
+	}
+
+	private String getGcName(Notification notification) {
+		Object userData = notification.getUserData();
+		if ((userData instanceof CompositeData)
+				&& ((CompositeData)userData).containsKey("gcName")) {
+			return (String)((CompositeData)userData).get("gcName");
+		}
+		return null;
+	}
+
+	private boolean subscribe(Object bean) {
+		if (bean instanceof NotificationEmitter) {
+			NotificationEmitter emitter = (NotificationEmitter)bean;
+			emitter.addNotificationListener(this, null, null);
+			emitters.add(emitter);
+			return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,109 @@
+package com.neemre.btcdcli4j.core.cache;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.neemre.btcdcli4j.core.BitcoindException;
+
+/**A small, time-decayed set of lookups that <i>bitcoind</i> has recently answered with "not
+ * found" (error code {@code -5}), keyed by command &amp; id (<i>e.g.</i> txid or block hash).
+ * Repeated lookups of a remembered id fail fast with an equivalent {@code BitcoindException}
+ * instead of costing a round-trip. The number of remembered ids is bounded (the oldest are
+ * dropped first) and entries expire after a short TTL, as well as whenever a {@code BLOCK} or
+ * {@code WALLET} notification mentions the id. A capacity of {@code 0} disables the cache.*/
+public class NegativeLookupCache {
+
+	public static final int NOT_FOUND_CODE = -5;
+
+	private Map<String, Map<String, NotFoundEntry>> entries;
+	private int capacity;
+	private long ttl;
+	private long hitCount;
+	private long missCount;
+
+
+	public NegativeLookupCache(final int capacity, long ttl) {
+		this.entries = new LinkedHashMap<String, Map<String, NotFoundEntry>>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<String, Map<String, NotFoundEntry>> eldest) {
+				return size() > capacity;
+			}
+		};
+		this.capacity = capacity;
+		this.ttl = ttl;
+	}
+
+	public boolean isEnabled() {
+		return capacity > 0;
+	}
+
+	/**Throws a {@code BitcoindException} equivalent to the one last seen for {@code id} if the
+	 * lookup is still remembered as "not found".*/
+	public void check(String command, String id) throws BitcoindException {
+		if (!isEnabled() || (id == null)) {
+			return;
+		}
+		NotFoundEntry entry;
+		synchronized (this) {
+			Map<String, NotFoundEntry> commandEntries = entries.get(id);
+			entry = (commandEntries == null) ? null : commandEntries.get(command);
+			if ((entry == null) || (entry.expiresAt < System.currentTimeMillis())) {
+				missCount++;
+				return;
+			}
+			hitCount++;
+		}
+		throw new BitcoindException(entry.code, entry.message);
+	}
+
+	public void put(String command, String id, BitcoindException cause) {
+		if (!isEnabled() || (id == null) || (cause.getCode() != NOT_FOUND_CODE)) {
+			return;
+		}
+		NotFoundEntry entry = new NotFoundEntry(cause.getCode(), cause.getMessage(),
+				System.currentTimeMillis() + ttl);
+		synchronized (this) {
+			Map<String, NotFoundEntry> commandEntries = entries.get(id);
+			if (commandEntries == null) {
+				commandEntries = new HashMap<String, NotFoundEntry>(4);
+				entries.put(id, commandEntries);
+			}
+			commandEntries.put(command, entry);
+		}
+	}
+
+	public void invalidate(String id) {
+		if (!isEnabled() || (id == null)) {
+			return;
+		}
+		synchronized (this) {
+			entries.remove(id);
+		}
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	public synchronized CacheStats getStats() {
+		return new CacheStats(hitCount, missCount, 0, entries.size(), entries.size(), capacity);
+	}
+
+	private static final class NotFoundEntry {
+
+		private final int code;
+		private final String message;
+		private final long expiresAt;
+
+
+		private NotFoundEntry(int code, String message, long expiresAt) {
+			this.code = code;
+			this.message = message;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
@@ -0,0 +1,219 @@
+package com.neemre.btcdcli4j.core.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**A log-structured, off-heap byte store. Serialized entries are appended to fixed-size slabs of
+ * direct memory and, once the configured capacity has been reached, the oldest slab is dropped
+ * as a whole (together with every entry still living in it) and recycled. Entries may optionally
+ * be deflated before being stored. Removed or overwritten entries leave their bytes behind until
+ * their slab is recycled, so the weight reported by {@link #getStats()} only counts the bytes of
+ * live entries. Note that the total capacity counts against the JVM's
+ * {@code -XX:MaxDirectMemorySize} limit rather than the heap.*/
+public class OffHeapStore<K> {
+
+	private Map<K, Location> index;
+	private Deque<Slab> slabs;
+	private long capacity;
+	private int slabSize;
+	private int maxSlabs;
+	private boolean isCompressed;
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+
+
+	public OffHeapStore(long capacity, int slabSize, boolean isCompressed) {
+		this.index = new HashMap<K, Location>();
+		this.slabs = new ArrayDeque<Slab>();
+		this.capacity = capacity;
+		this.slabSize = (int)Math.min(slabSize, capacity);
+		this.maxSlabs = (capacity > 0) ? (int)(capacity / this.slabSize) : 0;
+		this.isCompressed = isCompressed;
+	}
+
+	public boolean isEnabled() {
+		return maxSlabs > 0;
+	}
+
+	public synchronized boolean contains(K key) {
+		return index.containsKey(key);
+	}
+
+	public boolean put(K key, byte[] payload) {
+		if (!isEnabled()) {
+			return false;
+		}
+		byte[] storedPayload = isCompressed ? deflate(payload) : payload;
+		synchronized (this) {
+			if (storedPayload.length > slabSize) {
+				return false;
+			}
+			Slab slab = slabs.peekLast();
+			if ((slab == null) || (slab.buffer.remaining() < storedPayload.length)) {
+				slab = allocateSlab();
+			}
+			int offset = slab.buffer.position();
+			slab.buffer.put(storedPayload);
+			slab.keys.add(key);
+			slab.liveBytes += storedPayload.length;
+			release(index.put(key, new Location(slab, offset, storedPayload.length,
+					payload.length)));
+			return true;
+		}
+	}
+
+	public byte[] get(K key) {
+		return read(key, true);
+	}
+
+	/**Like {@link #get(Object)}, but without affecting the hit &amp; miss counters.*/
+	public byte[] peek(K key) {
+		return read(key, false);
+	}
+
+	public synchronized List<K> getKeys() {
+		return new ArrayList<K>(index.keySet());
+	}
+
+	public synchronized void remove(K key) {
+		release(index.remove(key));
+	}
+
+	public synchronized void clear() {
+		index.clear();
+		slabs.clear();
+	}
+
+	public synchronized CacheStats getStats() {
+		long weight = 0;
+		for (Slab slab : slabs) {
+			weight += slab.liveBytes;
+		}
+		return new CacheStats(hitCount, missCount, evictionCount, index.size(), weight, capacity);
+	}
+
+	private byte[] read(K key, boolean isCounted) {
+		Location location;
+		byte[] storedPayload;
+		synchronized (this) {
+			location = index.get(key);
+			if (location == null) {
+				if (isCounted) {
+					missCount++;
+				}
+				return null;
+			}
+			if (isCounted) {
+				hitCount++;
+			}
+			storedPayload = new byte[location.length];
+			ByteBuffer view = location.slab.buffer.duplicate();
+			view.position(location.offset);
+			view.get(storedPayload);
+		}
+		return isCompressed ? inflate(storedPayload, location.rawLength) : storedPayload;
+	}
+
+	private void release(Location location) {
+		if (location != null) {
+			location.slab.liveBytes -= location.length;
+		}
+	}
+
+	private Slab allocateSlab() {
+		ByteBuffer buffer;
+		if (slabs.size() >= maxSlabs) {
+			Slab eldestSlab = slabs.pollFirst();
+			for (K key : eldestSlab.keys) {
+				Location location = index.get(key);
+				if ((location != null) && (location.slab == eldestSlab)) {
+					index.remove(key);
+					evictionCount++;
+				}
+			}
+			buffer = eldestSlab.buffer;
+			buffer.clear();
+		} else {
+			buffer = ByteBuffer.allocateDirect(slabSize);
+		}
+		Slab slab = new Slab(buffer);
+		slabs.addLast(slab);
+		return slab;
+	}
+
+	private byte[] deflate(byte[] payload) {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(payload);
+			deflater.finish();
+			ByteArrayOutputStream output = new ByteArrayOutputStream(payload.length / 2);
+			byte[] chunk = new byte[8192];
+			while (!deflater.finished()) {
+				output.write(chunk, 0, deflater.deflate(chunk));
+			}
+			return output.toByteArray();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private byte[] inflate(byte[] storedPayload, int rawLength) {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(storedPayload);
+			byte[] payload = new byte[rawLength];
+			int offset = 0;
+			while (offset < rawLength) {
+				int inflatedCount = inflater.inflate(payload, offset, rawLength - offset);
+				if ((inflatedCount == 0) && (inflater.finished() || inflater.needsInput())) {
+					break;
+				}
+				offset += inflatedCount;
+			}
+			return payload;
+		} catch (DataFormatException e) {
+			throw new IllegalStateException(e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	private final class Slab {
+
+		private final ByteBuffer buffer;
+		private final List<K> keys;
+		private long liveBytes;
+
+
+		private Slab(ByteBuffer buffer) {
+			this.buffer = buffer;
+			this.keys = new ArrayList<K>();
+		}
+	}
+
+	private final class Location {
+
+		private final Slab slab;
+		private final int offset;
+		private final int length;
+		private final int rawLength;
+
+
+		private Location(Slab slab, int offset, int length, int rawLength) {
+			this.slab = slab;
+			this.offset = offset;
+			this.length = length;
+			this.rawLength = rawLength;
+		}
+	}
+}
@@ -0,0 +1,525 @@
+package com.neemre.btcdcli4j.core.cache;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.neemre.btcdcli4j.core.BitcoindException;
+import com.neemre.btcdcli4j.core.CommunicationException;
+import com.neemre.btcdcli4j.core.client.BtcdClient;
+import com.neemre.btcdcli4j.core.domain.AddressInfo;
+import com.neemre.btcdcli4j.core.domain.Output;
+import com.neemre.btcdcli4j.core.domain.Payment;
+import com.neemre.btcdcli4j.core.domain.PaymentOverview;
+import com.neemre.btcdcli4j.core.domain.PubKeyScript;
+import com.neemre.btcdcli4j.core.domain.RawInput;
+import com.neemre.btcdcli4j.core.domain.RawOutput;
+import com.neemre.btcdcli4j.core.domain.RawTransactionOverview;
+import com.neemre.btcdcli4j.core.domain.SinceBlock;
+import com.neemre.btcdcli4j.core.domain.Transaction;
+import com.neemre.btcdcli4j.core.domain.enums.PaymentCategories;
+
+/**A client-side view of the wallet's unspent outputs, answering {@code listunspent}-style queries
+ * (by confirmations, address &amp; amount) without a round-trip. The view is seeded once from
+ * {@code listunspent} and then kept current incrementally: from wallet transactions pushed via
+ * {@link #transactionChanged(Transaction)} (<i>e.g.</i> by a {@code WALLET} notification
+ * listener) and from {@code listsinceblock} deltas pulled via {@link #sync()}. A periodic full
+ * {@link #reconcile()} replaces the view with a fresh {@code listunspent} snapshot and reports any
+ * drift it finds. Confirmations are derived from the height each output was mined at &amp; the
+ * tip height tracked by the client's {@link ChainDataCache}, so they advance with the chain
+ * without any updates to the view.
+ * 
+ * <p>As the node leaves change outputs out of a transaction's details, the remaining outputs of
+ * transactions funded by the wallet are checked against the wallet's addresses (via
+ * {@code validateaddress}, with the answers cached). Spent outputs are remembered, so that a
+ * transaction applied after the one spending from it does not bring them back, until the
+ * spending transaction is buried past reorganization depth.*/
+public class WalletUtxoView {
+
+	private static final Logger LOG = LoggerFactory.getLogger(WalletUtxoView.class);
+	private static final int UNCONFIRMED = -1;
+	private static final int MAX_CONFIRMATIONS = 9999999;
+	private static final int OWNED_ADDRESS_CAPACITY = 10000;
+	private static final int MAX_SNAPSHOT_ATTEMPTS = 3;
+
+	private BtcdClient client;
+	private Map<String, Entry> entries;
+	private Map<String, Set<String>> outpointsByAddress;
+	private TreeMap<BigDecimal, Set<String>> outpointsByAmount;
+	private Map<String, Integer> spentOutpoints;
+	private LruCache<String, Boolean> ownedAddresses;
+	private int prunedTipHeight;
+	private List<Transaction> pendingTransactions;
+	private boolean isReconciling;
+	private boolean isSeeded;
+	private String lastBlock;
+	private long driftCount;
+	private ScheduledExecutorService reconciliationTimer;
+
+
+	public WalletUtxoView(BtcdClient client) {
+		this.client = client;
+		this.entries = new HashMap<String, Entry>();
+		this.outpointsByAddress = new HashMap<String, Set<String>>();
+		this.outpointsByAmount = new TreeMap<BigDecimal, Set<String>>();
+		this.spentOutpoints = new HashMap<String, Integer>();
+		this.ownedAddresses = new LruCache<String, Boolean>(OWNED_ADDRESS_CAPACITY);
+		this.pendingTransactions = new ArrayList<Transaction>();
+	}
+
+	/**Seeds the view and, if {@code reconciliationInterval} is positive, schedules a full
+	 * reconciliation at that interval (in milliseconds).*/
+	public void start(long reconciliationInterval) throws BitcoindException,
+			CommunicationException {
+		reconcile();
+		if (reconciliationInterval > 0) {
+			reconciliationTimer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable task) {
+					Thread thread = new Thread(task, "btcdcli4j-utxo-reconciliation");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			reconciliationTimer.scheduleWithFixedDelay(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						reconcile();
+					} catch (BitcoindException | CommunicationException e) {
+						LOG.warn("-- run(..): failed to reconcile the wallet UTXO view (message: "
+								+ "'{}')", e.getMessage());
+					}
+				}
+			}, reconciliationInterval, reconciliationInterval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	public void close() {
+		if (reconciliationTimer != null) {
+			reconciliationTimer.shutdownNow();
+		}
+	}
+
+	public List<Output> getUnspent() throws BitcoindException, CommunicationException {
+		return getUnspent(null, null, null, null, null);
+	}
+
+	public List<Output> getUnspent(Integer minConfirmations, Integer maxConfirmations)
+			throws BitcoindException, CommunicationException {
+		return getUnspent(minConfirmations, maxConfirmations, null, null, null);
+	}
+
+	/**Returns copies of the matching unspent outputs; {@code null} arguments impose no
+	 * restriction.*/
+	public List<Output> getUnspent(Integer minConfirmations, Integer maxConfirmations,
+			List<String> addresses, BigDecimal minAmount, BigDecimal maxAmount)
+			throws BitcoindException, CommunicationException {
+		int tipHeight = client.getChainDataCache().getTipHeight();
+		List<Output> unspentOutputs = new ArrayList<Output>();
+		synchronized (this) {
+			for (Entry entry : getCandidates(addresses, minAmount, maxAmount)) {
+				int confirmations = (entry.height == UNCONFIRMED) ? 0 : tipHeight - entry.height + 1;
+				if (((minConfirmations != null) && (confirmations < minConfirmations))
+						|| ((maxConfirmations != null) && (confirmations > maxConfirmations))
+						|| ((minAmount != null) && (entry.output.getAmount().compareTo(minAmount) < 0))
+						|| ((maxAmount != null) && (entry.output.getAmount().compareTo(maxAmount) > 0))) {
+					continue;
+				}
+				unspentOutputs.add(copyOf(entry.output, confirmations));
+			}
+		}
+		return unspentOutputs;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**Returns the total number of outputs found missing from, or unexpectedly present in, the
+	 * view by reconciliations so far.*/
+	public synchronized long getDriftCount() {
+		return driftCount;
+	}
+
+	/**Applies a wallet transaction (as returned by {@code gettransaction}): the outputs it spends
+	 * are removed from the view and the outputs it pays to the wallet (change included) are added
+	 * (or have their confirmation height updated). Applying the same transaction more than once is
+	 * harmless.*/
+	public void transactionChanged(Transaction transaction) throws BitcoindException,
+			CommunicationException {
+		if ((transaction.getDetails() == null) && (transaction.getTxId() != null)) {
+			transaction = client.getTransaction(transaction.getTxId());
+		}
+		RawTransactionOverview rawTransaction = (transaction.getHex() == null) ? null
+				: client.decodeRawTransaction(transaction.getHex());
+		List<RawOutput> changeOutputs = getChangeOutputs(transaction, rawTransaction);
+		int tipHeight = client.getChainDataCache().getTipHeight();
+		int height = UNCONFIRMED;
+		if ((transaction.getConfirmations() != null) && (transaction.getConfirmations() > 0)
+				&& (transaction.getBlockHash() != null)) {
+			Integer blockHeight = client.getChainDataCache().getBlockHeight(transaction
+					.getBlockHash());
+			height = (blockHeight == null) ? UNCONFIRMED : blockHeight;
+		}
+		synchronized (this) {
+			if (isReconciling) {
+				pendingTransactions.add(transaction);
+			}
+			apply(transaction, rawTransaction, changeOutputs, height);
+			pruneSpent(tipHeight);
+		}
+	}
+
+	/**Pulls the wallet transactions since the last synced (or reconciled) block via
+	 * {@code listsinceblock} and applies them.*/
+	public void sync() throws BitcoindException, CommunicationException {
+		String fromBlock;
+		synchronized (this) {
+			fromBlock = lastBlock;
+		}
+		SinceBlock sinceBlock = (fromBlock == null) ? client.listSinceBlock()
+				: client.listSinceBlock(fromBlock);
+		Set<String> txIds = new LinkedHashSet<String>();
+		if (sinceBlock.getPayments() != null) {
+			for (Payment payment : sinceBlock.getPayments()) {
+				txIds.add(payment.getTxId());
+			}
+		}
+		for (String txId : txIds) {
+			transactionChanged(client.getTransaction(txId));
+		}
+		synchronized (this) {
+			lastBlock = sinceBlock.getLastBlock();
+		}
+		LOG.debug("-- sync(..): applied {} wallet transaction(s) up to block '{}'", txIds.size(),
+				sinceBlock.getLastBlock());
+	}
+
+	/**Replaces the view with a fresh {@code listunspent} snapshot. Transactions applied while
+	 * the snapshot was being taken are re-applied on top of it afterwards.*/
+	public void reconcile() throws BitcoindException, CommunicationException {
+		synchronized (this) {
+			isReconciling = true;
+			pendingTransactions.clear();
+		}
+		List<Output> unspentOutputs;
+		String bestBlockHash;
+		int tipHeight;
+		try {
+			// heights are derived from the snapshot's confirmations, so the tip is read afresh
+			// (bypassing the chain-state cache) and the snapshot retaken if a block arrived meanwhile
+			int attempts = 0;
+			do {
+				client.getChainStateCache().invalidate();
+				bestBlockHash = client.getBestBlockHash();
+				tipHeight = client.getBlockCount();
+				unspentOutputs = client.listUnspent(0, MAX_CONFIRMATIONS);
+				client.getChainStateCache().invalidate();
+			} while ((++attempts < MAX_SNAPSHOT_ATTEMPTS) && (client.getBlockCount() != tipHeight));
+		} catch (BitcoindException | CommunicationException e) {
+			synchronized (this) {
+				isReconciling = false;
+			}
+			throw e;
+		}
+		List<Transaction> reappliedTransactions;
+		synchronized (this) {
+			Set<String> staleOutpoints = new HashSet<String>(entries.keySet());
+			int unexpectedCount = 0;
+			entries.clear();
+			outpointsByAddress.clear();
+			outpointsByAmount.clear();
+			spentOutpoints.clear();
+			for (Output output : unspentOutputs) {
+				String outpoint = getOutpoint(output.getTxId(), output.getVOut());
+				if (!staleOutpoints.remove(outpoint)) {
+					unexpectedCount++;
+				}
+				int confirmations = (output.getConfirmations() == null) ? 0
+						: output.getConfirmations();
+				add(outpoint, output, (confirmations <= 0) ? UNCONFIRMED
+						: tipHeight - confirmations + 1);
+			}
+			if (isSeeded && ((unexpectedCount > 0) || !staleOutpoints.isEmpty())) {
+				driftCount += unexpectedCount + staleOutpoints.size();
+				LOG.warn("-- reconcile(..): wallet UTXO view had drifted ({} output(s) missing, {} "
+						+ "output(s) no longer unspent)", unexpectedCount, staleOutpoints.size());
+			}
+			isSeeded = true;
+			lastBlock = bestBlockHash;
+			isReconciling = false;
+			reappliedTransactions = new ArrayList<Transaction>(pendingTransactions);
+			pendingTransactions.clear();
+		}
+		for (Transaction transaction : reappliedTransactions) {
+			transactionChanged(transaction);
+		}
+		LOG.info("<< reconcile(..): wallet UTXO view holds {} unspent output(s) at block '{}'",
+				unspentOutputs.size(), bestBlockHash);
+	}
+
+	private Collection<Entry> getCandidates(List<String> addresses, BigDecimal minAmount,
+			BigDecimal maxAmount) {
+		if (addresses != null) {
+			List<Entry> candidates = new ArrayList<Entry>();
+			for (String address : addresses) {
+				Set<String> outpoints = outpointsByAddress.get(address);
+				if (outpoints != null) {
+					for (String outpoint : outpoints) {
+						candidates.add(entries.get(outpoint));
+					}
+				}
+			}
+			return candidates;
+		}
+		if ((minAmount != null) || (maxAmount != null)) {
+			Map<BigDecimal, Set<String>> amountRange = outpointsByAmount;
+			if ((minAmount != null) && (maxAmount != null)) {
+				if (minAmount.compareTo(maxAmount) > 0) {
+					return new ArrayList<Entry>();
+				}
+				amountRange = outpointsByAmount.subMap(minAmount, true, maxAmount, true);
+			} else if (minAmount != null) {
+				amountRange = outpointsByAmount.tailMap(minAmount, true);
+			} else {
+				amountRange = outpointsByAmount.headMap(maxAmount, true);
+			}
+			List<Entry> candidates = new ArrayList<Entry>();
+			for (Set<String> outpoints : amountRange.values()) {
+				for (String outpoint : outpoints) {
+					candidates.add(entries.get(outpoint));
+				}
+			}
+			return candidates;
+		}
+		return entries.values();
+	}
+
+	/**Returns the outputs of a transaction funded by the wallet (<i>i.e.</i> one the node reports
+	 * a fee for) that are not covered by its details, but pay to one of the wallet's addresses.*/
+	private List<RawOutput> getChangeOutputs(Transaction transaction,
+			RawTransactionOverview rawTransaction) throws BitcoindException, CommunicationException {
+		List<RawOutput> changeOutputs = new ArrayList<RawOutput>();
+		if ((transaction.getFee() == null) || (rawTransaction == null)
+				|| (rawTransaction.getVOut() == null)) {
+			return changeOutputs;
+		}
+		Set<Integer> coveredIndexes = new HashSet<Integer>();
+		if (transaction.getDetails() != null) {
+			for (PaymentOverview detail : transaction.getDetails()) {
+				coveredIndexes.add(detail.getVOut());
+			}
+		}
+		for (RawOutput rawOutput : rawTransaction.getVOut()) {
+			if ((rawOutput.getN() != null) && !coveredIndexes.contains(rawOutput.getN())
+					&& isOwned(getAddress(rawOutput))) {
+				changeOutputs.add(rawOutput);
+			}
+		}
+		return changeOutputs;
+	}
+
+	private boolean isOwned(String address) throws BitcoindException, CommunicationException {
+		if (address == null) {
+			return false;
+		}
+		Boolean isOwned = ownedAddresses.get(address);
+		if (isOwned == null) {
+			AddressInfo addressInfo = client.validateAddress(address);
+			isOwned = Boolean.TRUE.equals(addressInfo.getIsMine());
+			ownedAddresses.put(address, isOwned, 1);
+		}
+		return isOwned;
+	}
+
+	private void apply(Transaction transaction, RawTransactionOverview rawTransaction,
+			List<RawOutput> changeOutputs, int height) {
+		if ((transaction.getConfirmations() != null) && (transaction.getConfirmations() < 0)) {
+			// a conflicted transaction; anything it spent is restored by the next reconciliation
+			for (String outpoint : new ArrayList<String>(entries.keySet())) {
+				if (outpoint.startsWith(transaction.getTxId() + ":")) {
+					remove(outpoint);
+				}
+			}
+			if ((rawTransaction != null) && (rawTransaction.getVIn() != null)) {
+				for (RawInput input : rawTransaction.getVIn()) {
+					spentOutpoints.remove(getOutpoint(input.getTxId(), input.getVOut()));
+				}
+			}
+			return;
+		}
+		if ((rawTransaction != null) && (rawTransaction.getVIn() != null)) {
+			for (RawInput input : rawTransaction.getVIn()) {
+				if (input.getTxId() != null) {
+					String outpoint = getOutpoint(input.getTxId(), input.getVOut());
+					remove(outpoint);
+					spentOutpoints.put(outpoint, height);
+				}
+			}
+		}
+		if (transaction.getDetails() != null) {
+			for (PaymentOverview detail : transaction.getDetails()) {
+				PaymentCategories category = detail.getCategory();
+				if ((detail.getVOut() == null) || ((category != PaymentCategories.RECEIVE)
+						&& (category != PaymentCategories.GENERATE)
+						&& (category != PaymentCategories.IMMATURE))) {
+					continue;
+				}
+				put(transaction.getTxId(), detail.getVOut(), detail.getAddress(), detail
+						.getAccount(), getScriptPubKey(rawTransaction, detail.getVOut()), detail
+						.getAmount(), isSpendable(detail), height);
+			}
+		}
+		for (RawOutput changeOutput : changeOutputs) {
+			put(transaction.getTxId(), changeOutput.getN(), getAddress(changeOutput), null,
+					changeOutput.getScriptPubKey().getHex(), changeOutput.getValue(), true, height);
+		}
+	}
+
+	private void put(String txId, int index, String address, String account, String scriptPubKey,
+			BigDecimal amount, boolean isSpendable, int height) {
+		String outpoint = getOutpoint(txId, index);
+		if (spentOutpoints.containsKey(outpoint)) {
+			return;
+		}
+		Entry entry = entries.get(outpoint);
+		if (entry != null) {
+			entry.height = height;
+			entry.output.setSpendable(isSpendable);
+			return;
+		}
+		Output output = new Output(address, account, scriptPubKey, null, amount, null,
+				isSpendable);
+		output.setTxId(txId);
+		output.setVOut(index);
+		add(outpoint, output, height);
+	}
+
+	/**Forgets the spent outputs whose spending transaction is buried deep enough not to be
+	 * reorganized out of the chain (once per tip).*/
+	private void pruneSpent(int tipHeight) {
+		if (tipHeight == prunedTipHeight) {
+			return;
+		}
+		prunedTipHeight = tipHeight;
+		Iterator<Integer> heights = spentOutpoints.values().iterator();
+		while (heights.hasNext()) {
+			int height = heights.next();
+			if ((height != UNCONFIRMED)
+					&& (tipHeight - height + 1 >= ChainDataCache.REORG_SAFE_CONFIRMATIONS)) {
+				heights.remove();
+			}
+		}
+	}
+
+	private void add(String outpoint, Output output, int height) {
+		entries.put(outpoint, new Entry(output, height));
+		if (output.getAddress() != null) {
+			Set<String> outpoints = outpointsByAddress.get(output.getAddress());
+			if (outpoints == null) {
+				outpoints = new HashSet<String>();
+				outpointsByAddress.put(output.getAddress(), outpoints);
+			}
+			outpoints.add(outpoint);
+		}
+		Set<String> outpoints = outpointsByAmount.get(output.getAmount());
+		if (outpoints == null) {
+			outpoints = new HashSet<String>();
+			outpointsByAmount.put(output.getAmount(), outpoints);
+		}
+		outpoints.add(outpoint);
+	}
+
+	private void remove(String outpoint) {
+		Entry entry = entries.remove(outpoint);
+		if (entry == null) {
+			return;
+		}
+		removeIndexed(outpointsByAddress, entry.output.getAddress(), outpoint);
+		removeIndexed(outpointsByAmount, entry.output.getAmount(), outpoint);
+	}
+
+	private <T> void removeIndexed(Map<T, Set<String>> index, T key, String outpoint) {
+		if (key == null) {
+			return;
+		}
+		Set<String> outpoints = index.get(key);
+		if (outpoints != null) {
+			outpoints.remove(outpoint);
+			if (outpoints.isEmpty()) {
+				index.remove(key);
+			}
+		}
+	}
+
+	private boolean isSpendable(PaymentOverview detail) {
+		return !Boolean.TRUE.equals(detail.getInvolvesWatchOnly())
+				&& (detail.getCategory() != PaymentCategories.IMMATURE);
+	}
+
+	private String getAddress(RawOutput rawOutput) {
+		PubKeyScript scriptPubKey = rawOutput.getScriptPubKey();
+		if (scriptPubKey == null) {
+			return null;
+		}
+		if (scriptPubKey.getAddress() != null) {
+			return scriptPubKey.getAddress();
+		}
+		List<String> addresses = scriptPubKey.getAddresses();
+		return ((addresses != null) && (addresses.size() == 1)) ? addresses.get(0) : null;
+	}
+
+	private String getScriptPubKey(RawTransactionOverview rawTransaction, int index) {
+		if ((rawTransaction == null) || (rawTransaction.getVOut() == null)) {
+			return null;
+		}
+		for (RawOutput rawOutput : rawTransaction.getVOut()) {
+			if ((rawOutput.getN() != null) && (rawOutput.getN() == index)
+					&& (rawOutput.getScriptPubKey() != null)) {
+				return rawOutput.getScriptPubKey().getHex();
+			}
+		}
+		return null;
+	}
+
+	private Output copyOf(Output output, int confirmations) {
+		Output copy = new Output(output.getAddress(), output.getAccount(), output
+				.getScriptPubKey(), output.getRedeemScript(), output.getAmount(), confirmations,
+				output.getSpendable());
+		copy.setTxId(output.getTxId());
+		copy.setVOut(output.getVOut());
+		return copy;
+	}
+
+	private String getOutpoint(String txId, Integer index) {
+		return txId + ":" + index;
+	}
+
+	private static final class Entry {
+
+		private final Output output;
+		private int height;
+
+
+		private Entry(Output output, int height) {
+			this.output = output;
+			this.height = height;
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.neemre.btcdcli4j.core.client;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.neemre.btcdcli4j.core.CommunicationException;
+import com.neemre.btcdcli4j.core.common.Errors;
+import com.neemre.btcdcli4j.core.domain.RawBlock;
+import com.neemre.btcdcli4j.core.domain.RawTransaction;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonMapper;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonRpcLayerException;
+import com.neemre.btcdcli4j.core.jsonrpc.client.JsonRpcClient.ResultReader;
+
+/**Walks the {@code tx} array of a {@code getblock} (verbosity 2) result with a streaming parser,
+ * mapping one transaction at a time and handing it to a {@link TransactionConsumer}, so that no
+ * reference to it is kept afterwards. The other members are collected into a {@link RawBlock}
+ * whose {@code tx} is left {@code null}.*/
+class BlockTransactionReader implements ResultReader<RawBlock> {
+
+	private JsonMapper mapper;
+	private TransactionConsumer consumer;
+	private int transactionCount;
+
+
+	public BlockTransactionReader(JsonMapper mapper, TransactionConsumer consumer) {
+		this.mapper = mapper;
+		this.consumer = consumer;
+	}
+
+	public int getTransactionCount() {
+		return transactionCount;
+	}
+
+	@Override
+	public RawBlock read(JsonParser parser) throws IOException, CommunicationException {
+		if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+			throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED);
+		}
+		ObjectNode header = new ObjectNode(JsonNodeFactory.instance);
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+			if (field.equals("tx") && (token == JsonToken.START_ARRAY)) {
+				while (parser.nextToken() != JsonToken.END_ARRAY) {
+					consumer.accept(transactionCount++, mapper.mapToEntity(parser, 
+							RawTransaction.class));
+				}
+			} else {
+				header.set(field, mapper.mapToEntity(parser, JsonNode.class));
+			}
+		}
+		return mapper.mapToEntity(header.toString(), RawBlock.class);
+	}
+}
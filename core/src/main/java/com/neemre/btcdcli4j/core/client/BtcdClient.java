@@ -2,10 +2,17 @@ package com.neemre.btcdcli4j.core.client;
 
 import com.neemre.btcdcli4j.core.BitcoindException;
 import com.neemre.btcdcli4j.core.CommunicationException;
+import com.neemre.btcdcli4j.core.cache.BlockArchive;
+import com.neemre.btcdcli4j.core.cache.ChainDataCache;
+import com.neemre.btcdcli4j.core.cache.ChainStateCache;
+import com.neemre.btcdcli4j.core.cache.NegativeLookupCache;
 import com.neemre.btcdcli4j.core.domain.*;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonProjection;
+import com.neemre.btcdcli4j.core.util.CloseableIterator;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -84,6 +91,10 @@ public interface BtcdClient {
 
     String getBestBlockHash() throws BitcoindException, CommunicationException;
 
+    /**Returns the hash of the best block as a {@link Sha256Hash}, decoded straight from the
+     * response.*/
+    Sha256Hash getBestBlockSha256Hash() throws BitcoindException, CommunicationException;
+
 
     /**
      * @param headerHash Hash of block   
@@ -96,16 +107,54 @@ public interface BtcdClient {
      */
     RawBlock getBlock(String headerHash, int verbosity) throws BitcoindException, CommunicationException;
 
+    /**Returns the block with verbosity 2, but with only the members selected by {@code projection}
+     * mapped (e.g. {@link JsonProjection#BLOCK_WITHOUT_SCRIPTS}); the others are skipped while the
+     * response is being received, without ever being decoded. A block already in the in-memory
+     * block cache is returned whole, while projected blocks are neither cached nor archived.*/
+    RawBlock getBlock(String headerHash, JsonProjection projection) throws BitcoindException,
+            CommunicationException;
+
+    /**Returns the block with verbosity 2, but with its transactions only mapped once accessed (see
+     * {@link com.neemre.btcdcli4j.core.domain.LazyRawBlock}); lazily mapped blocks are archived,
+     * but not put into the in-memory block cache, as that would map all of their transactions.*/
+    RawBlock getLazyBlock(String headerHash) throws BitcoindException, CommunicationException;
+
+    /**Streams the transactions of the block (with verbosity 2) to {@code consumer} while the
+     * response is being received, so that memory use is bounded by the largest transaction rather
+     * than by the block. Returns the block header, i.e. the block with a {@code null} tx list.*/
+    RawBlock streamBlockTransactions(String headerHash, TransactionConsumer consumer) 
+            throws BitcoindException, CommunicationException;
+
+    /**Returns the columnar view of the block (with verbosity 2), built while its transactions are
+     * being streamed (see {@link #streamBlockTransactions(String, TransactionConsumer)}), so that
+     * no graph of transaction objects is retained.*/
+    ColumnarBlock getColumnarBlock(String headerHash) throws BitcoindException,
+            CommunicationException;
+
     String getBlockHex(String headerHash) throws BitcoindException, CommunicationException;
 
+    ByteBuffer getBlockBytes(String headerHash) throws BitcoindException, CommunicationException;
+
+    /**Returns the serialized block, decoded from the response while it is being received. The
+     * bytes are written into {@code buffer} if it is large enough (so that callers can recycle
+     * their buffers), or else into a newly allocated one.*/
+    ByteBuffer getBlockBytes(String headerHash, ByteBuffer buffer) throws BitcoindException,
+            CommunicationException;
+
     ShallowBlock getShallowBlock(String headerHash) throws BitcoindException, CommunicationException;
 
+    /**Fetches the serialized block and decodes it locally, which is much cheaper than verbosity 2;
+     * the fields only known to the node (height, confirmations, chainwork etc.) are left null.*/
+    RawBlock getDecodedBlock(String headerHash) throws BitcoindException, CommunicationException;
+
     BlockChainInfo getBlockChainInfo() throws BitcoindException, CommunicationException;
 
     Integer getBlockCount() throws BitcoindException, CommunicationException;
 
     String getBlockHash(Integer blockHeight) throws BitcoindException, CommunicationException;
 
+    BlockHeader getBlockHeader(String headerHash) throws BitcoindException, CommunicationException;
+
     List<Tip> getChainTips() throws BitcoindException, CommunicationException;
 
     Integer getConnectionCount() throws BitcoindException, CommunicationException;
@@ -144,11 +193,26 @@ public interface BtcdClient {
     List<? extends Object> getRawMemPool(Boolean isDetailed) throws BitcoindException,
             CommunicationException;
 
+    /**Streaming variant of {@code getRawMemPool(true)}; the iterator must be closed unless it has
+     * been exhausted.*/
+    CloseableIterator<MemPoolTransaction> iterateRawMemPool() throws BitcoindException,
+            CommunicationException;
+
     String getRawTransaction(String txId) throws BitcoindException, CommunicationException;
 
     Object getRawTransaction(String txId, Integer verbosity) throws BitcoindException,
             CommunicationException;
 
+    /**Returns the transaction (with verbosity 1), with only the members selected by
+     * {@code projection} mapped; see {@link #getBlock(String, JsonProjection)}.*/
+    RawTransaction getRawTransaction(String txId, JsonProjection projection)
+            throws BitcoindException, CommunicationException;
+
+    ByteBuffer getRawTransactionBytes(String txId) throws BitcoindException, CommunicationException;
+
+    RawTransaction getDecodedRawTransaction(String txId) throws BitcoindException,
+            CommunicationException;
+
     BigDecimal getReceivedByAccount(String account) throws BitcoindException,
             CommunicationException;
 
@@ -234,6 +298,9 @@ public interface BtcdClient {
     List<Address> listReceivedByAddress(Integer confirmations, Boolean withUnused,
                                         Boolean withWatchOnly) throws BitcoindException, CommunicationException;
 
+    CloseableIterator<Address> iterateReceivedByAddress(Integer confirmations, Boolean withUnused,
+            Boolean withWatchOnly) throws BitcoindException, CommunicationException;
+
     SinceBlock listSinceBlock() throws BitcoindException, CommunicationException;
 
     SinceBlock listSinceBlock(String headerHash) throws BitcoindException, CommunicationException;
@@ -244,6 +311,9 @@ public interface BtcdClient {
     SinceBlock listSinceBlock(String headerHash, Integer confirmations, Boolean withWatchOnly)
             throws BitcoindException, CommunicationException;
 
+    SinceBlockIterator iterateSinceBlock(String headerHash, Integer confirmations,
+            Boolean withWatchOnly) throws BitcoindException, CommunicationException;
+
     List<Payment> listTransactions() throws BitcoindException, CommunicationException;
 
     List<Payment> listTransactions(String account) throws BitcoindException, CommunicationException;
@@ -257,6 +327,11 @@ public interface BtcdClient {
     List<Payment> listTransactions(String account, Integer count, Integer offset,
                                    Boolean withWatchOnly) throws BitcoindException, CommunicationException;
 
+    /**Streaming variant of {@code listTransactions}, mapping one payment at a time as the response
+     * is being received; the iterator must be closed unless it has been exhausted.*/
+    CloseableIterator<Payment> iterateTransactions(String account, Integer count, Integer offset,
+            Boolean withWatchOnly) throws BitcoindException, CommunicationException;
+
     List<Output> listUnspent() throws BitcoindException, CommunicationException;
 
     List<Output> listUnspent(Integer minConfirmations) throws BitcoindException,
@@ -268,6 +343,9 @@ public interface BtcdClient {
     List<Output> listUnspent(Integer minConfirmations, Integer maxConfirmations,
                              List<String> addresses) throws BitcoindException, CommunicationException;
 
+    CloseableIterator<Output> iterateUnspent(Integer minConfirmations, Integer maxConfirmations,
+            List<String> addresses) throws BitcoindException, CommunicationException;
+
     Boolean lockUnspent(Boolean isUnlocked) throws BitcoindException, CommunicationException;
 
     Boolean lockUnspent(Boolean isUnlocked, List<OutputOverview> outputs) throws BitcoindException,
@@ -296,6 +374,9 @@ public interface BtcdClient {
     String sendFrom(String fromAccount, String toAddress, BigDecimal amount, Integer confirmations,
                     String comment, String commentTo) throws BitcoindException, CommunicationException;
 
+    String sendFromSat(String fromAccount, String toAddress, long amount) throws BitcoindException,
+            CommunicationException;
+
     String sendMany(String fromAccount, Map<String, BigDecimal> toAddresses)
             throws BitcoindException, CommunicationException;
 
@@ -305,6 +386,9 @@ public interface BtcdClient {
     String sendMany(String fromAccount, Map<String, BigDecimal> toAddresses, Integer confirmations,
                     String comment) throws BitcoindException, CommunicationException;
 
+    String sendManySat(String fromAccount, Map<String, Long> toAddresses) throws BitcoindException,
+            CommunicationException;
+
     String sendRawTransaction(String hexTransaction) throws BitcoindException,
             CommunicationException;
 
@@ -320,6 +404,9 @@ public interface BtcdClient {
     String sendToAddress(String toAddress, BigDecimal amount, String comment, String commentTo)
             throws BitcoindException, CommunicationException;
 
+    String sendToAddressSat(String toAddress, long amount) throws BitcoindException,
+            CommunicationException;
+
     void setAccount(String address, String account) throws BitcoindException,
             CommunicationException;
 
@@ -380,6 +467,16 @@ public interface BtcdClient {
 
     Properties getNodeConfig();
 
+    ChainDataCache getChainDataCache();
+
+    ChainStateCache getChainStateCache();
+
+    NegativeLookupCache getNegativeLookupCache();
+
+    BlockArchive getBlockArchive();
+
+    PrevoutResolver getPrevoutResolver();
+
     String getNodeVersion();
 
     void close();
@@ -3,23 +3,46 @@ package com.neemre.btcdcli4j.core.client;
 import com.neemre.btcdcli4j.core.BitcoindException;
 import com.neemre.btcdcli4j.core.Commands;
 import com.neemre.btcdcli4j.core.CommunicationException;
+import com.neemre.btcdcli4j.core.NodeProperties;
+import com.neemre.btcdcli4j.core.cache.BlockArchive;
+import com.neemre.btcdcli4j.core.cache.ChainDataCache;
+import com.neemre.btcdcli4j.core.cache.ChainStateCache;
+import com.neemre.btcdcli4j.core.cache.MemoryPressureMonitor;
+import com.neemre.btcdcli4j.core.cache.NegativeLookupCache;
+import com.neemre.btcdcli4j.core.codec.WireDecoder;
 import com.neemre.btcdcli4j.core.common.DataFormats;
 import com.neemre.btcdcli4j.core.common.Defaults;
+import com.neemre.btcdcli4j.core.common.Errors;
 import com.neemre.btcdcli4j.core.domain.*;
+import com.neemre.btcdcli4j.core.http.HandshakeMetrics;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonPrimitiveParser;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonProjection;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonRpcLayerException;
 import com.neemre.btcdcli4j.core.jsonrpc.client.JsonRpcClient;
 import com.neemre.btcdcli4j.core.jsonrpc.client.JsonRpcClientImpl;
+import com.neemre.btcdcli4j.core.jsonrpc.client.JsonRpcClient.ResultReader;
+import com.neemre.btcdcli4j.core.jsonrpc.client.JsonRpcResultIterator;
+import com.neemre.btcdcli4j.core.util.CloseableIterator;
 import com.neemre.btcdcli4j.core.util.CollectionUtils;
+import com.neemre.btcdcli4j.core.util.HexUtils;
 import com.neemre.btcdcli4j.core.util.NumberUtils;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 public class BtcdClientImpl implements BtcdClient {
 
@@ -27,6 +50,14 @@ public class BtcdClientImpl implements BtcdClient {
 
 	private ClientConfigurator configurator;
 	private JsonRpcClient rpcClient;
+	private ChainDataCache dataCache;
+	private ChainStateCache stateCache;
+	private BlockArchive blockArchive;
+	private NegativeLookupCache lookupCache;
+	private MemoryPressureMonitor memoryMonitor;
+	private PrevoutResolver prevoutResolver;
+	private ForkJoinPool blockParserPool;
+	private WireDecoder wireDecoder;
 
 
 	public BtcdClientImpl(Properties nodeConfig) throws BitcoindException, CommunicationException {
@@ -36,8 +67,47 @@ public class BtcdClientImpl implements BtcdClient {
 	public BtcdClientImpl(CloseableHttpClient httpProvider, Properties nodeConfig)
 			throws BitcoindException, CommunicationException {
 		initialize();
-		rpcClient = new JsonRpcClientImpl(configurator.checkHttpProvider(httpProvider), 
-				configurator.checkNodeConfig(nodeConfig));
+		nodeConfig = configurator.checkNodeConfig(nodeConfig);
+		rpcClient = new JsonRpcClientImpl(configurator.checkHttpProvider(httpProvider), nodeConfig);
+		stateCache = new ChainStateCache(Long.parseLong(configurator.getNodeProperty(
+				NodeProperties.CACHE_CHAIN_STATE_TTL)), Long.parseLong(configurator.getNodeProperty(
+				NodeProperties.CACHE_CHAIN_STATE_ATTACHED_TTL)));
+		dataCache = new ChainDataCache(this, Long.parseLong(configurator.getNodeProperty(
+				NodeProperties.CACHE_BLOCK_CAPACITY)), Long.parseLong(configurator.getNodeProperty(
+				NodeProperties.CACHE_TRANSACTION_CAPACITY)), Long.parseLong(configurator
+				.getNodeProperty(NodeProperties.CACHE_TIP_TTL)));
+		dataCache.enableOffHeapTier(Long.parseLong(configurator.getNodeProperty(
+				NodeProperties.CACHE_OFFHEAP_BLOCK_CAPACITY)), Long.parseLong(configurator
+				.getNodeProperty(NodeProperties.CACHE_OFFHEAP_TRANSACTION_CAPACITY)), 
+				Integer.parseInt(configurator.getNodeProperty(NodeProperties.CACHE_OFFHEAP_SLAB_SIZE)), 
+				Boolean.parseBoolean(configurator.getNodeProperty(
+				NodeProperties.CACHE_OFFHEAP_COMPRESSION)));
+		if (dataCache.enableAdaptiveSizing(Long.parseLong(configurator.getNodeProperty(
+				NodeProperties.CACHE_BLOCK_MIN_CAPACITY)), Long.parseLong(configurator
+				.getNodeProperty(NodeProperties.CACHE_TRANSACTION_MIN_CAPACITY)))) {
+			memoryMonitor = new MemoryPressureMonitor(dataCache, Double.parseDouble(configurator
+					.getNodeProperty(NodeProperties.CACHE_MEMORY_THRESHOLD)));
+			memoryMonitor.start();
+		}
+		dataCache.enableHashIndex(Integer.parseInt(configurator.getNodeProperty(
+				NodeProperties.CACHE_HASH_INDEX_CAPACITY)), Integer.parseInt(configurator
+				.getNodeProperty(NodeProperties.CACHE_HASH_INDEX_MIN_CONFIRMATIONS)));
+		prevoutResolver = new PrevoutResolver(rpcClient, dataCache, Long.parseLong(configurator
+				.getNodeProperty(NodeProperties.RESOLVER_OUTPUT_CAPACITY)), Integer.parseInt(
+				configurator.getNodeProperty(NodeProperties.RESOLVER_BATCH_SIZE)), Integer.parseInt(
+				configurator.getNodeProperty(NodeProperties.RESOLVER_PARALLELISM)));
+		wireDecoder = new WireDecoder();
+		lookupCache = new NegativeLookupCache(Integer.parseInt(configurator.getNodeProperty(
+				NodeProperties.CACHE_NEGATIVE_CAPACITY)), Long.parseLong(configurator.getNodeProperty(
+				NodeProperties.CACHE_NEGATIVE_TTL)));
+		blockParserPool = createBlockParserPool(Integer.parseInt(configurator.getNodeProperty(
+				NodeProperties.JSON_BLOCK_PARALLELISM)));
+		blockArchive = new BlockArchive(rpcClient, configurator.getNodeProperty(
+				NodeProperties.ARCHIVE_DIR), Long.parseLong(configurator.getNodeProperty(
+				NodeProperties.ARCHIVE_SEGMENT_SIZE)), Integer.parseInt(configurator.getNodeProperty(
+				NodeProperties.ARCHIVE_MIN_CONFIRMATIONS)));
+		dataCache.enableSnapshots(configurator.getNodeProperty(NodeProperties.CACHE_SNAPSHOT_FILE),
+				Long.parseLong(configurator.getNodeProperty(NodeProperties.CACHE_SNAPSHOT_INTERVAL)));
 		try {
 			configurator.checkNodeHealth(getBlock(getBestBlockHash(), 2));
 		} catch (BitcoindException e) {
@@ -235,8 +305,15 @@ public class BtcdClientImpl implements BtcdClient {
 	@Override
 	public BigDecimal estimateFee(Integer maxBlocks) throws BitcoindException, 
 			CommunicationException {
+		String cacheKey = Commands.ESTIMATE_FEE.getName() + ":" + maxBlocks;
+		BigDecimal estimatedFee = (BigDecimal)stateCache.get(cacheKey);
+		if (estimatedFee != null) {
+			return estimatedFee;
+		}
+		long generation = stateCache.getGeneration();
 		String estimatedFeeJson = rpcClient.execute(Commands.ESTIMATE_FEE.getName(), maxBlocks);
-		BigDecimal estimatedFee = rpcClient.getParser().parseBigDecimal(estimatedFeeJson);
+		estimatedFee = rpcClient.getParser().parseBigDecimal(estimatedFeeJson);
+		stateCache.put(cacheKey, estimatedFee, generation);
 		return estimatedFee;
 	}
 
@@ -295,15 +372,14 @@ public class BtcdClientImpl implements BtcdClient {
 
 	@Override
 	public BigDecimal getBalance() throws BitcoindException, CommunicationException {
-		String balanceJson = rpcClient.execute(Commands.GET_BALANCE.getName());
-		BigDecimal balance = rpcClient.getParser().parseBigDecimal(balanceJson);
+		BigDecimal balance = executeForBigDecimal(Commands.GET_BALANCE.getName(), null);
 		return balance;
 	}
 
 	@Override
 	public BigDecimal getBalance(String account) throws BitcoindException, CommunicationException {
-		String balanceJson = rpcClient.execute(Commands.GET_BALANCE.getName(), account);
-		BigDecimal balance = rpcClient.getParser().parseBigDecimal(balanceJson);
+		BigDecimal balance = executeForBigDecimal(Commands.GET_BALANCE.getName(), 
+				CollectionUtils.asList(account));
 		return balance;
 	}
 
@@ -311,8 +387,7 @@ public class BtcdClientImpl implements BtcdClient {
 	public BigDecimal getBalance(String account, Integer confirmations) throws BitcoindException, 
 			CommunicationException {
 		List<Object> params = CollectionUtils.asList(account, confirmations);
-		String balanceJson = rpcClient.execute(Commands.GET_BALANCE.getName(), params);
-		BigDecimal balance = rpcClient.getParser().parseBigDecimal(balanceJson);
+		BigDecimal balance = executeForBigDecimal(Commands.GET_BALANCE.getName(), params);
 		return balance;
 	}
 
@@ -320,65 +395,271 @@ public class BtcdClientImpl implements BtcdClient {
 	public BigDecimal getBalance(String account, Integer confirmations, Boolean withWatchOnly)
 			throws BitcoindException, CommunicationException {
 		List<Object> params = CollectionUtils.asList(account, confirmations, withWatchOnly);
-		String balanceJson = rpcClient.execute(Commands.GET_BALANCE.getName(), params);
-		BigDecimal balance = rpcClient.getParser().parseBigDecimal(balanceJson);
+		BigDecimal balance = executeForBigDecimal(Commands.GET_BALANCE.getName(), params);
 		return balance;
 	}
 
 	@Override
 	public String getBestBlockHash() throws BitcoindException, CommunicationException {
-		String headerHashJson = rpcClient.execute(Commands.GET_BEST_BLOCK_HASH.getName());
-		String headerHash = rpcClient.getParser().parseString(headerHashJson);
+		String headerHash = (String)stateCache.get(Commands.GET_BEST_BLOCK_HASH.getName());
+		if (headerHash != null) {
+			return headerHash;
+		}
+		long generation = stateCache.getGeneration();
+		headerHash = executeForString(Commands.GET_BEST_BLOCK_HASH.getName(), null);
+		stateCache.put(Commands.GET_BEST_BLOCK_HASH.getName(), headerHash, generation);
 		return headerHash;
 	}
 
+	/**Served from the state cache if {@link #getBestBlockHash()} has cached the hash; otherwise, the
+	 * hash is decoded straight from the response, without an intermediate string (and is not
+	 * cached).*/
+	@Override
+	public Sha256Hash getBestBlockSha256Hash() throws BitcoindException, CommunicationException {
+		String headerHash = (String)stateCache.get(Commands.GET_BEST_BLOCK_HASH.getName());
+		if (headerHash != null) {
+			return Sha256Hash.parse(headerHash);
+		}
+		return rpcClient.executeForStream(Commands.GET_BEST_BLOCK_HASH.getName(), null, 
+				new ResultReader<Sha256Hash>() {
+			@Override
+			public Sha256Hash read(JsonParser parser) throws IOException {
+				return rpcClient.getParser().readSha256Hash(parser);
+			}
+		});
+	}
+
 	@Override
 	public RawBlock getBlock(String headerHash, int verbosity) throws BitcoindException, CommunicationException {
-		List<Object> params = CollectionUtils.asList(headerHash, verbosity);
-		String blockJson = rpcClient.execute(Commands.GET_BLOCK.getName(), params);
-		RawBlock rawBlock = rpcClient.getMapper().mapToEntity(blockJson, RawBlock.class);
+		RawBlock rawBlock = dataCache.getBlock(headerHash, verbosity);
+		if (rawBlock != null) {
+			return rawBlock;
+		}
+		String blockJson = blockArchive.getBlock(headerHash, verbosity);
+		if (blockJson != null) {
+			rawBlock = mapToBlock(blockJson, verbosity);
+			rawBlock.setConfirmations(dataCache.getConfirmations(rawBlock.getHeight()));
+		} else {
+			List<Object> params = CollectionUtils.asList(headerHash, verbosity);
+			blockJson = lookup(Commands.GET_BLOCK.getName(), headerHash, params);
+			rawBlock = mapToBlock(blockJson, verbosity);
+			blockArchive.putBlock(headerHash, verbosity, rawBlock.getHeight(), 
+					rawBlock.getConfirmations(), blockJson);
+		}
+		dataCache.putBlock(headerHash, verbosity, rawBlock);
+		return rawBlock;
+	}
+
+	@Override
+	public RawBlock getBlock(String headerHash, JsonProjection projection) 
+			throws BitcoindException, CommunicationException {
+		RawBlock rawBlock = dataCache.getBlock(headerHash, 2);
+		if (rawBlock != null) {
+			return rawBlock;
+		}
+		String blockJson = blockArchive.getBlock(headerHash, 2);
+		if (blockJson != null) {
+			rawBlock = rpcClient.getMapper().mapToEntity(blockJson, RawBlock.class, projection);
+			if ((rawBlock.getHeight() != null) && (rawBlock.getConfirmations() != null)) {
+				rawBlock.setConfirmations(dataCache.getConfirmations(rawBlock.getHeight()));
+			}
+			return rawBlock;
+		}
+		List<Object> params = CollectionUtils.asList(headerHash, 2);
+		return lookupProjected(Commands.GET_BLOCK.getName(), headerHash, params, RawBlock.class, 
+				projection);
+	}
+
+	@Override
+	public RawBlock getLazyBlock(String headerHash) throws BitcoindException, 
+			CommunicationException {
+		RawBlock rawBlock = dataCache.getBlock(headerHash, 2);
+		if (rawBlock != null) {
+			return rawBlock;
+		}
+		String blockJson = blockArchive.getBlock(headerHash, 2);
+		if (blockJson != null) {
+			rawBlock = rpcClient.getMapper().mapToLazyBlock(blockJson);
+			rawBlock.setConfirmations(dataCache.getConfirmations(rawBlock.getHeight()));
+		} else {
+			List<Object> params = CollectionUtils.asList(headerHash, 2);
+			blockJson = lookup(Commands.GET_BLOCK.getName(), headerHash, params);
+			rawBlock = rpcClient.getMapper().mapToLazyBlock(blockJson);
+			blockArchive.putBlock(headerHash, 2, rawBlock.getHeight(), rawBlock.getConfirmations(), 
+					blockJson);
+		}
 		return rawBlock;
 	}
 
+	@Override
+	public RawBlock streamBlockTransactions(String headerHash, TransactionConsumer consumer) 
+			throws BitcoindException, CommunicationException {
+		RawBlock rawBlock = dataCache.getBlock(headerHash, 2);
+		if (rawBlock != null) {
+			for (int i = 0; i < rawBlock.getTx().size(); i++) {
+				consumer.accept(i, rawBlock.getTx().get(i));
+			}
+			return new RawBlock(rawBlock.getHash(), rawBlock.getConfirmations(), rawBlock.getSize(), 
+					rawBlock.getHeight(), rawBlock.getVersion(), rawBlock.getMerkleRoot(), null, 
+					rawBlock.getTime(), rawBlock.getNonce(), rawBlock.getBits(), 
+					rawBlock.getDifficulty(), rawBlock.getChainWork(), 
+					rawBlock.getPreviousBlockHash(), rawBlock.getNextBlockHash());
+		}
+		String blockJson = blockArchive.getBlock(headerHash, 2);
+		BlockTransactionReader blockReader = new BlockTransactionReader(rpcClient.getMapper(), 
+				consumer);
+		if (blockJson != null) {
+			JsonParser parser = rpcClient.getMapper().createParser(blockJson);
+			try {
+				parser.nextToken();
+				rawBlock = blockReader.read(parser);
+				parser.close();
+			} catch (IOException e) {
+				throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED, e);
+			}
+			rawBlock.setConfirmations(dataCache.getConfirmations(rawBlock.getHeight()));
+		} else {
+			lookupCache.check(Commands.GET_BLOCK.getName(), headerHash);
+			try {
+				rawBlock = rpcClient.executeForStream(Commands.GET_BLOCK.getName(), 
+						CollectionUtils.asList(headerHash, 2), blockReader);
+			} catch (BitcoindException e) {
+				lookupCache.put(Commands.GET_BLOCK.getName(), headerHash, e);
+				throw e;
+			}
+		}
+		LOG.debug("-- streamBlockTransactions(..): streamed {} transaction(s) of block '{}'", 
+				blockReader.getTransactionCount(), headerHash);
+		return rawBlock;
+	}
+
+	@Override
+	public ColumnarBlock getColumnarBlock(String headerHash) throws BitcoindException, 
+			CommunicationException {
+		final ColumnarBlock.Builder builder = new ColumnarBlock.Builder();
+		RawBlock header = streamBlockTransactions(headerHash, new TransactionConsumer() {
+			@Override
+			public void accept(int index, RawTransaction transaction) {
+				builder.addTransaction(transaction);
+			}
+		});
+		return builder.build(Sha256Hash.parse(header.getHash()), header.getHeight(),
+				header.getTime());
+	}
+
 	@Override
 	public String getBlockHex(String headerHash) throws BitcoindException, CommunicationException {
+		String blockHex = dataCache.getBlockHex(headerHash);
+		if (blockHex != null) {
+			return blockHex;
+		}
 		List<Object> params = CollectionUtils.asList(headerHash, false);
-		String blockJson = rpcClient.execute(Commands.GET_BLOCK.getName(), params);
-		String blockHex = rpcClient.getMapper().mapToEntity(blockJson, String.class);
+		String blockJson = lookup(Commands.GET_BLOCK.getName(), headerHash, params);
+		blockHex = rpcClient.getMapper().mapToEntity(blockJson, String.class);
+		dataCache.putBlockHex(headerHash, blockHex);
 		return blockHex;
 	}
 
+	@Override
+	public ByteBuffer getBlockBytes(String headerHash) throws BitcoindException, 
+			CommunicationException {
+		return getBlockBytes(headerHash, null);
+	}
+
+	@Override
+	public ByteBuffer getBlockBytes(String headerHash, ByteBuffer buffer) throws BitcoindException, 
+			CommunicationException {
+		String blockHex = dataCache.getBlockHex(headerHash);
+		if (blockHex != null) {
+			return ByteBuffer.wrap(HexUtils.fromHex(blockHex));
+		}
+		List<Object> params = CollectionUtils.asList(headerHash, false);
+		return lookupBytes(Commands.GET_BLOCK.getName(), headerHash, params, buffer);
+	}
+
+	@Override
+	public RawBlock getDecodedBlock(String headerHash) throws BitcoindException, 
+			CommunicationException {
+		return wireDecoder.decodeBlock(getBlockBytes(headerHash));
+	}
+
 	@Override
 	public ShallowBlock getShallowBlock(String headerHash) throws BitcoindException, CommunicationException {
-		List<Object> params = CollectionUtils.asList(headerHash, true);
-		String blockJson = rpcClient.execute(Commands.GET_BLOCK.getName(), params);
-		ShallowBlock shallowBlock = rpcClient.getMapper().mapToEntity(blockJson, ShallowBlock.class);
+		ShallowBlock shallowBlock = dataCache.getShallowBlock(headerHash);
+		if (shallowBlock != null) {
+			return shallowBlock;
+		}
+		// 'getblock <hash> true' yields the same JSON as verbosity 1, so both share archive entries
+		String blockJson = blockArchive.getBlock(headerHash, 1);
+		if (blockJson != null) {
+			shallowBlock = rpcClient.getMapper().mapToEntity(blockJson, ShallowBlock.class);
+			shallowBlock.setConfirmations(dataCache.getConfirmations(shallowBlock.getHeight()));
+		} else {
+			List<Object> params = CollectionUtils.asList(headerHash, true);
+			blockJson = lookup(Commands.GET_BLOCK.getName(), headerHash, params);
+			shallowBlock = rpcClient.getMapper().mapToEntity(blockJson, ShallowBlock.class);
+			blockArchive.putBlock(headerHash, 1, shallowBlock.getHeight(), 
+					shallowBlock.getConfirmations(), blockJson);
+		}
+		dataCache.putShallowBlock(headerHash, shallowBlock);
 		return shallowBlock;
 	}
 
 	@Override
 	public BlockChainInfo getBlockChainInfo() throws BitcoindException, CommunicationException {
+		BlockChainInfo blockChainInfo = (BlockChainInfo)stateCache.get(
+				Commands.GET_BLOCK_CHAIN_INFO.getName());
+		if (blockChainInfo != null) {
+			return blockChainInfo;
+		}
+		long generation = stateCache.getGeneration();
 		String blockChainInfoJson = rpcClient.execute(Commands.GET_BLOCK_CHAIN_INFO.getName());
-		BlockChainInfo blockChainInfo = rpcClient.getMapper().mapToEntity(blockChainInfoJson, 
+		blockChainInfo = rpcClient.getMapper().mapToEntity(blockChainInfoJson, 
 				BlockChainInfo.class);
-		return blockChainInfo;		
+		stateCache.put(Commands.GET_BLOCK_CHAIN_INFO.getName(), blockChainInfo, generation);
+		return blockChainInfo;
 	}
 
 	@Override
 	public Integer getBlockCount() throws BitcoindException, CommunicationException {
-		String blockHeightJson = rpcClient.execute(Commands.GET_BLOCK_COUNT.getName());
-		Integer blockHeight = rpcClient.getParser().parseInteger(blockHeightJson);
+		Integer blockHeight = (Integer)stateCache.get(Commands.GET_BLOCK_COUNT.getName());
+		if (blockHeight != null) {
+			return blockHeight;
+		}
+		long generation = stateCache.getGeneration();
+		blockHeight = executeForInteger(Commands.GET_BLOCK_COUNT.getName(), null);
+		stateCache.put(Commands.GET_BLOCK_COUNT.getName(), blockHeight, generation);
 		return blockHeight;
 	}
 
 	@Override
 	public String getBlockHash(Integer blockHeight) throws BitcoindException, 
 			CommunicationException {
+		String headerHash = blockArchive.getBlockHash(blockHeight);
+		if ((headerHash == null) && (blockHeight != null)) {
+			headerHash = dataCache.getBlockHash(blockHeight);
+		}
+		if (headerHash != null) {
+			return headerHash;
+		}
 		String headerHashJson = rpcClient.execute(Commands.GET_BLOCK_HASH.getName(), blockHeight);
-		String headerHash = rpcClient.getParser().parseString(headerHashJson);
+		headerHash = rpcClient.getParser().parseString(headerHashJson);
+		if (blockHeight != null) {
+			dataCache.putBlockHash(blockHeight, headerHash);
+		}
 		return headerHash;
 	}
 
+	@Override
+	public BlockHeader getBlockHeader(String headerHash) throws BitcoindException,
+			CommunicationException {
+		List<Object> params = CollectionUtils.asList(headerHash, true);
+		String blockHeaderJson = lookup(Commands.GET_BLOCK_HEADER.getName(), headerHash, params);
+		BlockHeader blockHeader = rpcClient.getMapper().mapToEntity(blockHeaderJson,
+				BlockHeader.class);
+		return blockHeader;
+	}
+
 	@Override
 	public List<Tip> getChainTips() throws BitcoindException, CommunicationException {
 		String chainTipsJson = rpcClient.execute(Commands.GET_CHAIN_TIPS.getName());
@@ -388,15 +669,20 @@ public class BtcdClientImpl implements BtcdClient {
 
 	@Override
 	public Integer getConnectionCount() throws BitcoindException, CommunicationException {
-		String connectionCountJson = rpcClient.execute(Commands.GET_CONNECTION_COUNT.getName());
-		Integer connectionCount = rpcClient.getParser().parseInteger(connectionCountJson);
+		Integer connectionCount = executeForInteger(Commands.GET_CONNECTION_COUNT.getName(), 
+				null);
 		return connectionCount;
 	}
 
 	@Override
 	public BigDecimal getDifficulty() throws BitcoindException, CommunicationException {
-		String difficultyJson = rpcClient.execute(Commands.GET_DIFFICULTY.getName());
-		BigDecimal difficulty = rpcClient.getParser().parseBigDecimal(difficultyJson);
+		BigDecimal difficulty = (BigDecimal)stateCache.get(Commands.GET_DIFFICULTY.getName());
+		if (difficulty != null) {
+			return difficulty;
+		}
+		long generation = stateCache.getGeneration();
+		difficulty = executeForBigDecimal(Commands.GET_DIFFICULTY.getName(), null);
+		stateCache.put(Commands.GET_DIFFICULTY.getName(), difficulty, generation);
 		return difficulty;
 	}
 
@@ -424,8 +710,14 @@ public class BtcdClientImpl implements BtcdClient {
 
 	@Override
 	public MiningInfo getMiningInfo() throws BitcoindException, CommunicationException {
+		MiningInfo miningInfo = (MiningInfo)stateCache.get(Commands.GET_MINING_INFO.getName());
+		if (miningInfo != null) {
+			return miningInfo;
+		}
+		long generation = stateCache.getGeneration();
 		String miningInfoJson = rpcClient.execute(Commands.GET_MINING_INFO.getName());
-		MiningInfo miningInfo = rpcClient.getMapper().mapToEntity(miningInfoJson, MiningInfo.class);
+		miningInfo = rpcClient.getMapper().mapToEntity(miningInfoJson, MiningInfo.class);
+		stateCache.put(Commands.GET_MINING_INFO.getName(), miningInfo, generation);
 		return miningInfo;
 	}
 
@@ -522,26 +814,88 @@ public class BtcdClientImpl implements BtcdClient {
 		}
 	}
 
+	@Override
+	public CloseableIterator<MemPoolTransaction> iterateRawMemPool() throws BitcoindException, 
+			CommunicationException {
+		final JsonRpcResultIterator<MemPoolTransaction> memPoolTxns = rpcClient.executeForIterator(
+				Commands.GET_RAW_MEM_POOL.getName(), CollectionUtils.asList(true), null, 
+				MemPoolTransaction.class);
+		return new CloseableIterator<MemPoolTransaction>() {
+			@Override
+			public boolean hasNext() throws BitcoindException, CommunicationException {
+				return memPoolTxns.hasNext();
+			}
+
+			@Override
+			public MemPoolTransaction next() throws BitcoindException, CommunicationException {
+				MemPoolTransaction memPoolTxn = memPoolTxns.next();
+				memPoolTxn.setTxId(memPoolTxns.getKey());
+				return memPoolTxn;
+			}
+
+			@Override
+			public void close() {
+				memPoolTxns.close();
+			}
+		};
+	}
+
 	@Override
 	public String getRawTransaction(String txId) throws BitcoindException, CommunicationException {
-		String hexTransactionJson = rpcClient.execute(Commands.GET_RAW_TRANSACTION.getName(), txId);
-		String hexTransaction = rpcClient.getParser().parseString(hexTransactionJson);
+		String hexTransaction = dataCache.getRawTransactionHex(txId);
+		if (hexTransaction != null) {
+			return hexTransaction;
+		}
+		String hexTransactionJson = lookup(Commands.GET_RAW_TRANSACTION.getName(), txId, 
+				CollectionUtils.asList(txId));
+		hexTransaction = rpcClient.getParser().parseString(hexTransactionJson);
 		return hexTransaction;
 	}
 
+	@Override
+	public ByteBuffer getRawTransactionBytes(String txId) throws BitcoindException, 
+			CommunicationException {
+		String hexTransaction = dataCache.getRawTransactionHex(txId);
+		if (hexTransaction != null) {
+			return ByteBuffer.wrap(HexUtils.fromHex(hexTransaction));
+		}
+		return lookupBytes(Commands.GET_RAW_TRANSACTION.getName(), txId, 
+				CollectionUtils.asList(txId), null);
+	}
+
+	@Override
+	public RawTransaction getDecodedRawTransaction(String txId) throws BitcoindException, 
+			CommunicationException {
+		return wireDecoder.decodeTransaction(getRawTransactionBytes(txId));
+	}
+
 	@Override
 	public Object getRawTransaction(String txId, Integer verbosity) throws BitcoindException, 
 			CommunicationException {
-		List<Object> params = CollectionUtils.asList(txId, verbosity);
-		String transactionJson = rpcClient.execute(Commands.GET_RAW_TRANSACTION.getName(), params);
 		if (verbosity == DataFormats.HEX.getCode()) {
-			String hexTransaction = rpcClient.getParser().parseString(transactionJson);
-			return hexTransaction;
-		} else {
-			RawTransaction rawTransaction = rpcClient.getMapper().mapToEntity(transactionJson, 
-					RawTransaction.class);
+			return getRawTransaction(txId);
+		}
+		RawTransaction rawTransaction = dataCache.getRawTransaction(txId);
+		if (rawTransaction != null) {
+			return rawTransaction;
+		}
+		List<Object> params = CollectionUtils.asList(txId, verbosity);
+		String transactionJson = lookup(Commands.GET_RAW_TRANSACTION.getName(), txId, params);
+		rawTransaction = rpcClient.getMapper().mapToEntity(transactionJson, RawTransaction.class);
+		dataCache.putRawTransaction(rawTransaction);
+		return rawTransaction;
+	}
+
+	@Override
+	public RawTransaction getRawTransaction(String txId, JsonProjection projection) 
+			throws BitcoindException, CommunicationException {
+		RawTransaction rawTransaction = dataCache.getRawTransaction(txId);
+		if (rawTransaction != null) {
 			return rawTransaction;
 		}
+		List<Object> params = CollectionUtils.asList(txId, DataFormats.JSON.getCode());
+		return lookupProjected(Commands.GET_RAW_TRANSACTION.getName(), txId, params, 
+				RawTransaction.class, projection);
 	}
 
 	@Override
@@ -585,7 +939,8 @@ public class BtcdClientImpl implements BtcdClient {
 	@Override
 	public Transaction getTransaction(String txId) throws BitcoindException, 
 			CommunicationException {
-		String transactionJson = rpcClient.execute(Commands.GET_TRANSACTION.getName(), txId);
+		String transactionJson = lookup(Commands.GET_TRANSACTION.getName(), txId, 
+				CollectionUtils.asList(txId));
 		Transaction transaction = rpcClient.getMapper().mapToEntity(transactionJson,
 				Transaction.class);
 		return transaction;
@@ -815,6 +1170,15 @@ public class BtcdClientImpl implements BtcdClient {
 		return addresses;
 	}
 
+	@Override
+	public CloseableIterator<Address> iterateReceivedByAddress(Integer confirmations, 
+			Boolean withUnused, Boolean withWatchOnly) throws BitcoindException, 
+			CommunicationException {
+		List<Object> params = CollectionUtils.asList(confirmations, withUnused, withWatchOnly);
+		return rpcClient.executeForIterator(Commands.LIST_RECEIVED_BY_ADDRESS.getName(), params, 
+				null, Address.class);
+	}
+
 	@Override
 	public SinceBlock listSinceBlock() throws BitcoindException, CommunicationException {
 		String sinceBlockJson = rpcClient.execute(Commands.LIST_SINCE_BLOCK.getName());
@@ -848,6 +1212,36 @@ public class BtcdClientImpl implements BtcdClient {
 		return sinceBlock;
 	}
 
+	@Override
+	public SinceBlockIterator iterateSinceBlock(String headerHash, Integer confirmations, 
+			Boolean withWatchOnly) throws BitcoindException, CommunicationException {
+		List<Object> params = CollectionUtils.asList(headerHash, confirmations, withWatchOnly);
+		final JsonRpcResultIterator<Payment> payments = rpcClient.executeForIterator(
+				Commands.LIST_SINCE_BLOCK.getName(), params, "transactions", Payment.class);
+		return new SinceBlockIterator() {
+			@Override
+			public boolean hasNext() throws BitcoindException, CommunicationException {
+				return payments.hasNext();
+			}
+
+			@Override
+			public Payment next() throws BitcoindException, CommunicationException {
+				return payments.next();
+			}
+
+			@Override
+			public String getLastBlock() {
+				JsonNode lastBlock = payments.getMember("lastblock");
+				return (lastBlock == null) ? null : lastBlock.asText();
+			}
+
+			@Override
+			public void close() {
+				payments.close();
+			}
+		};
+	}
+
 	@Override
 	public List<Payment> listTransactions() throws BitcoindException, CommunicationException {
 		String paymentsJson = rpcClient.execute(Commands.LIST_TRANSACTIONS.getName());
@@ -890,6 +1284,14 @@ public class BtcdClientImpl implements BtcdClient {
 		return payments;
 	}
 
+	@Override
+	public CloseableIterator<Payment> iterateTransactions(String account, Integer count, 
+			Integer offset, Boolean withWatchOnly) throws BitcoindException, CommunicationException {
+		List<Object> params = CollectionUtils.asList(account, count, offset, withWatchOnly);
+		return rpcClient.executeForIterator(Commands.LIST_TRANSACTIONS.getName(), params, null, 
+				Payment.class);
+	}
+
 	@Override
 	public List<Output> listUnspent() throws BitcoindException, CommunicationException {
 		String unspentOutputsJson = rpcClient.execute(Commands.LIST_UNSPENT.getName());
@@ -928,6 +1330,15 @@ public class BtcdClientImpl implements BtcdClient {
 		return unspentOutputs;
 	}
 
+	@Override
+	public CloseableIterator<Output> iterateUnspent(Integer minConfirmations, 
+			Integer maxConfirmations, List<String> addresses) throws BitcoindException, 
+			CommunicationException {
+		List<Object> params = CollectionUtils.asList(minConfirmations, maxConfirmations, addresses);
+		return rpcClient.executeForIterator(Commands.LIST_UNSPENT.getName(), params, null, 
+				Output.class);
+	}
+
 	@Override
 	public Boolean lockUnspent(Boolean isUnlocked) throws BitcoindException, 
 			CommunicationException {
@@ -1024,6 +1435,12 @@ public class BtcdClientImpl implements BtcdClient {
 		return transactionId;
 	}
 
+	@Override
+	public String sendFromSat(String fromAccount, String toAddress, long amount) 
+			throws BitcoindException, CommunicationException {
+		return sendFrom(fromAccount, toAddress, NumberUtils.fromSatoshis(amount));
+	}
+
 	@Override
 	public String sendMany(String fromAccount, Map<String, BigDecimal> toAddresses) 
 			throws BitcoindException, CommunicationException {
@@ -1056,6 +1473,16 @@ public class BtcdClientImpl implements BtcdClient {
 		return transactionId;
 	}
 
+	@Override
+	public String sendManySat(String fromAccount, Map<String, Long> toAddresses) 
+			throws BitcoindException, CommunicationException {
+		Map<String, BigDecimal> amounts = new LinkedHashMap<String, BigDecimal>();
+		for (Map.Entry<String, Long> toAddress : toAddresses.entrySet()) {
+			amounts.put(toAddress.getKey(), NumberUtils.fromSatoshis(toAddress.getValue()));
+		}
+		return sendMany(fromAccount, amounts);
+	}
+
 	@Override
 	public String sendRawTransaction(String hexTransaction) throws BitcoindException, 
 			CommunicationException {
@@ -1105,6 +1532,12 @@ public class BtcdClientImpl implements BtcdClient {
 		return transactionId;
 	}
 
+	@Override
+	public String sendToAddressSat(String toAddress, long amount) throws BitcoindException, 
+			CommunicationException {
+		return sendToAddress(toAddress, NumberUtils.fromSatoshis(amount));
+	}
+
 	@Override
 	public void setAccount(String address, String account) throws BitcoindException, 
 			CommunicationException {
@@ -1287,6 +1720,37 @@ public class BtcdClientImpl implements BtcdClient {
 		return configurator.getNodeConfig();
 	}
 
+	/**Returns the TLS handshake counters of the default HTTP provider (which stay at zero if a
+	 * preconfigured provider was passed in).*/
+	public HandshakeMetrics getHandshakeMetrics() {
+		return configurator.getHandshakeMetrics();
+	}
+
+	@Override
+	public ChainDataCache getChainDataCache() {
+		return dataCache;
+	}
+
+	@Override
+	public ChainStateCache getChainStateCache() {
+		return stateCache;
+	}
+
+	@Override
+	public NegativeLookupCache getNegativeLookupCache() {
+		return lookupCache;
+	}
+
+	@Override
+	public PrevoutResolver getPrevoutResolver() {
+		return prevoutResolver;
+	}
+
+	@Override
+	public BlockArchive getBlockArchive() {
+		return blockArchive;
+	}
+
 	@Override
 	public String getNodeVersion() {
 		return "0.0.0";
@@ -1295,9 +1759,117 @@ public class BtcdClientImpl implements BtcdClient {
 	@Override
 	public synchronized void close() {
 		LOG.info(">> close(..): closing the 'bitcoind' core wrapper");
+		if (memoryMonitor != null) {
+			memoryMonitor.stop();
+		}
+		prevoutResolver.close();
+		if (blockParserPool != null) {
+			blockParserPool.shutdownNow();
+		}
+		dataCache.close();
+		blockArchive.close();
 		rpcClient.close();
 	}
 
+	/**Maps the transactions of a verbosity 2 block in parallel, if so configured.*/
+	private RawBlock mapToBlock(String blockJson, int verbosity) throws CommunicationException {
+		if ((verbosity == 2) && (blockParserPool != null)) {
+			return rpcClient.getMapper().mapToBlock(blockJson, blockParserPool);
+		}
+		return rpcClient.getMapper().mapToEntity(blockJson, RawBlock.class);
+	}
+
+	private ForkJoinPool createBlockParserPool(int parallelism) {
+		if (parallelism <= 1) {
+			return null;
+		}
+		LOG.info("-- createBlockParserPool(..): mapping the transactions of blocks on {} threads", 
+				parallelism);
+		return new ForkJoinPool(parallelism, new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+			@Override
+			public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+				ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory
+						.newThread(pool);
+				thread.setName("btcdcli4j-block-parser-" + thread.getPoolIndex());
+				thread.setDaemon(true);
+				return thread;
+			}
+		}, null, false);
+	}
+
+	private String lookup(String command, String id, List<Object> params) 
+			throws BitcoindException, CommunicationException {
+		lookupCache.check(command, id);
+		try {
+			return rpcClient.execute(command, params);
+		} catch (BitcoindException e) {
+			lookupCache.put(command, id, e);
+			throw e;
+		}
+	}
+
+	private ByteBuffer lookupBytes(String command, String id, List<Object> params, ByteBuffer buffer) 
+			throws BitcoindException, CommunicationException {
+		lookupCache.check(command, id);
+		try {
+			return rpcClient.executeForBytes(command, params, buffer);
+		} catch (BitcoindException e) {
+			lookupCache.put(command, id, e);
+			throw e;
+		}
+	}
+
+	/**Maps the result straight off the response stream, so that the members left out of
+	 * {@code projection} are never materialized (not even as part of the response body).*/
+	private <T> T lookupProjected(String command, String id, List<Object> params, 
+			final Class<T> entityClass, final JsonProjection projection) 
+			throws BitcoindException, CommunicationException {
+		lookupCache.check(command, id);
+		try {
+			return rpcClient.executeForStream(command, params, new ResultReader<T>() {
+				@Override
+				public T read(JsonParser parser) throws IOException, CommunicationException {
+					return rpcClient.getMapper().mapToEntity(parser, entityClass, projection);
+				}
+			});
+		} catch (BitcoindException e) {
+			lookupCache.put(command, id, e);
+			throw e;
+		}
+	}
+
+	/**Invokes a command with a scalar result, which is read straight off the response (see
+	 * {@link JsonPrimitiveParser#readInteger(JsonParser)}).*/
+	private Integer executeForInteger(String command, List<Object> params) 
+			throws BitcoindException, CommunicationException {
+		return rpcClient.executeForStream(command, params, new ResultReader<Integer>() {
+			@Override
+			public Integer read(JsonParser parser) throws IOException {
+				return rpcClient.getParser().readInteger(parser);
+			}
+		});
+	}
+
+	private BigDecimal executeForBigDecimal(String command, List<Object> params) 
+			throws BitcoindException, CommunicationException {
+		return rpcClient.executeForStream(command, params, new ResultReader<BigDecimal>() {
+			@Override
+			public BigDecimal read(JsonParser parser) throws IOException {
+				return rpcClient.getParser().readBigDecimal(parser);
+			}
+		});
+	}
+
+	private String executeForString(String command, List<Object> params) 
+			throws BitcoindException, CommunicationException {
+		return rpcClient.executeForStream(command, params, new ResultReader<String>() {
+			@Override
+			public String read(JsonParser parser) throws IOException {
+				return rpcClient.getParser().readString(parser);
+			}
+		});
+	}
+
 	private void initialize() {
 		LOG.info(">> initialize(..): initiating the 'bitcoind' core wrapper");
 		configurator = new ClientConfigurator();
@@ -6,36 +6,108 @@ import com.neemre.btcdcli4j.core.common.Defaults;
 import com.neemre.btcdcli4j.core.common.Errors;
 import com.neemre.btcdcli4j.core.domain.RawBlock;
 import com.neemre.btcdcli4j.core.domain.ShallowBlock;
+import com.neemre.btcdcli4j.core.http.HandshakeMetrics;
+import com.neemre.btcdcli4j.core.http.client.MeteredSslSocketFactory;
 import com.neemre.btcdcli4j.core.util.CollectionUtils;
 import com.neemre.btcdcli4j.core.util.StringUtils;
 import lombok.Getter;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponse;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 public class ClientConfigurator extends AgentConfigurator {
 
 	private static final Logger LOG = LoggerFactory.getLogger(ClientConfigurator.class);
-	
+	private static final int PREWARM_TIMEOUT = 5000;
+
+	private static final Set<NodeProperties> INTEGER_PROPERTIES = EnumSet.of(
+			NodeProperties.RPC_PORT, NodeProperties.HTTP_MAX_CONNECTIONS,
+			NodeProperties.HTTP_PREWARM_CONNECTIONS, NodeProperties.TLS_SESSION_CACHE_SIZE,
+			NodeProperties.TLS_SESSION_TIMEOUT, NodeProperties.CACHE_OFFHEAP_SLAB_SIZE,
+			NodeProperties.CACHE_HASH_INDEX_CAPACITY,
+			NodeProperties.CACHE_HASH_INDEX_MIN_CONFIRMATIONS, NodeProperties.CACHE_NEGATIVE_CAPACITY,
+			NodeProperties.JSON_STRING_TABLE_CAPACITY, NodeProperties.JSON_BLOCK_PARALLELISM,
+			NodeProperties.ARCHIVE_MIN_CONFIRMATIONS, NodeProperties.RESOLVER_BATCH_SIZE,
+			NodeProperties.RESOLVER_PARALLELISM);
+	private static final Set<NodeProperties> LONG_PROPERTIES = EnumSet.of(
+			NodeProperties.HTTP_KEEP_ALIVE, NodeProperties.CACHE_BLOCK_CAPACITY,
+			NodeProperties.CACHE_TRANSACTION_CAPACITY, NodeProperties.CACHE_BLOCK_MIN_CAPACITY,
+			NodeProperties.CACHE_TRANSACTION_MIN_CAPACITY,
+			NodeProperties.CACHE_OFFHEAP_BLOCK_CAPACITY,
+			NodeProperties.CACHE_OFFHEAP_TRANSACTION_CAPACITY, NodeProperties.CACHE_TIP_TTL,
+			NodeProperties.CACHE_CHAIN_STATE_TTL, NodeProperties.CACHE_CHAIN_STATE_ATTACHED_TTL,
+			NodeProperties.CACHE_NEGATIVE_TTL, NodeProperties.CACHE_SNAPSHOT_INTERVAL,
+			NodeProperties.ARCHIVE_SEGMENT_SIZE, NodeProperties.RESOLVER_OUTPUT_CAPACITY);
+	private static final Set<NodeProperties> DECIMAL_PROPERTIES = EnumSet.of(
+			NodeProperties.CACHE_MEMORY_THRESHOLD);
+
+	@Getter
+	private HandshakeMetrics handshakeMetrics = new HandshakeMetrics();
+
 	@Override
 	public Set<NodeProperties> getRequiredProperties() {
 		return EnumSet.of(NodeProperties.RPC_PROTOCOL, NodeProperties.RPC_HOST, 
 				NodeProperties.RPC_PORT, NodeProperties.RPC_USER, NodeProperties.RPC_PASSWORD, 
 				NodeProperties.HTTP_AUTH_SCHEME);
 	}
+
+	/**Also verifies that every numeric property set by the caller parses as the type it is read
+	 * as, so that a malformed value is reported by name here, rather than surfacing as a bare
+	 * {@code NumberFormatException} from somewhere within the client's construction.*/
+	@Override
+	public Properties checkNodeConfig(Properties nodeConfig) {
+		nodeConfig = super.checkNodeConfig(nodeConfig);
+		for (NodeProperties property : NodeProperties.values()) {
+			String value = nodeConfig.getProperty(property.getKey());
+			if ((value != null) && !isNumeric(property, value)) {
+				throw new IllegalArgumentException(String.format("%s Property: '%s', value: '%s'",
+						Errors.ARGS_PROPERTY_NOT_NUMERIC.getDescription(), property.getKey(), 
+						value));
+			}
+		}
+		return nodeConfig;
+	}
 	
 	public CloseableHttpClient checkHttpProvider(CloseableHttpClient httpProvider) {
 		if (httpProvider == null) {
 			LOG.warn("-- checkHttpProvider(..): no preconfigured HTTP provider detected; reverting "
 					+ "to library default settings");
 			httpProvider = getDefaultHttpProvider();
+			LOG.info("-- checkHttpProvider(..): TLS session cache sized to '{}' entries, idle "
+					+ "connections kept alive for {}ms", getNodeProperty(
+					NodeProperties.TLS_SESSION_CACHE_SIZE), getNodeProperty(
+					NodeProperties.HTTP_KEEP_ALIVE));
 		}
 		return httpProvider;
 	}
@@ -60,12 +132,122 @@ public class ClientConfigurator extends AgentConfigurator {
 		return true;
 	}
 
+	private boolean isNumeric(NodeProperties property, String value) {
+		try {
+			if (INTEGER_PROPERTIES.contains(property)) {
+				Integer.parseInt(value);
+			} else if (LONG_PROPERTIES.contains(property)) {
+				Long.parseLong(value);
+			} else if (DECIMAL_PROPERTIES.contains(property)) {
+				Double.parseDouble(value);
+			}
+			return true;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
 	private CloseableHttpClient getDefaultHttpProvider() {
-		PoolingHttpClientConnectionManager connManager = new PoolingHttpClientConnectionManager();
+		Registry<ConnectionSocketFactory> socketFactories = RegistryBuilder
+				.<ConnectionSocketFactory>create()
+				.register("http", PlainConnectionSocketFactory.getSocketFactory())
+				.register("https", new MeteredSslSocketFactory(getSslContext(), handshakeMetrics))
+				.build();
+		PoolingHttpClientConnectionManager connManager = new PoolingHttpClientConnectionManager(
+				socketFactories);
+		int maxConnections = Integer.parseInt(getNodeProperty(NodeProperties.HTTP_MAX_CONNECTIONS));
+		connManager.setMaxTotal(maxConnections);
+		connManager.setDefaultMaxPerRoute(maxConnections);
+		final long keepAlive = Long.parseLong(getNodeProperty(NodeProperties.HTTP_KEEP_ALIVE));
 		CloseableHttpClient httpProvider = HttpClients.custom().setConnectionManager(connManager)
+				.setKeepAliveStrategy(new DefaultConnectionKeepAliveStrategy() {
+					@Override
+					public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+						long serverKeepAlive = super.getKeepAliveDuration(response, context);
+						return (serverKeepAlive > 0) ? serverKeepAlive : keepAlive;
+					}
+				})
+				.addInterceptorFirst(new HttpRequestInterceptor() {
+					@Override
+					public void process(HttpRequest request, HttpContext context) {
+						handshakeMetrics.recordRequest();
+					}
+				})
 				.build();
+		prewarmConnections(connManager, keepAlive);
 		return httpProvider;
 	}
+
+	private SSLContext getSslContext() {
+		SSLContext sslContext;
+		String trustStorePath = getNodeProperty(NodeProperties.TLS_TRUST_STORE);
+		try {
+			TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(
+					TrustManagerFactory.getDefaultAlgorithm());
+			trustManagerFactory.init(trustStorePath.isEmpty() ? null : loadTrustStore(
+					trustStorePath));
+			sslContext = SSLContext.getInstance("TLS");
+			sslContext.init(null, MeteredSslSocketFactory.meter(trustManagerFactory
+					.getTrustManagers()), null);
+		} catch (GeneralSecurityException | IOException e) {
+			throw new IllegalArgumentException(Errors.ARGS_TLS_TRUSTSTORE_INVALID
+					.getDescription(), e);
+		}
+		SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+		sessionContext.setSessionCacheSize(Integer.parseInt(getNodeProperty(
+				NodeProperties.TLS_SESSION_CACHE_SIZE)));
+		sessionContext.setSessionTimeout(Integer.parseInt(getNodeProperty(
+				NodeProperties.TLS_SESSION_TIMEOUT)));
+		return sslContext;
+	}
+
+	private KeyStore loadTrustStore(String trustStorePath) throws GeneralSecurityException, 
+			IOException {
+		KeyStore trustStore = KeyStore.getInstance(KeyStore.getDefaultType());
+		InputStream trustStoreStream = new FileInputStream(trustStorePath);
+		try {
+			trustStore.load(trustStoreStream, getNodeProperty(
+					NodeProperties.TLS_TRUST_STORE_PASSWORD).toCharArray());
+		} finally {
+			trustStoreStream.close();
+		}
+		return trustStore;
+	}
+
+	private void prewarmConnections(PoolingHttpClientConnectionManager connManager, 
+			long keepAlive) {
+		int connectionCount = Integer.parseInt(getNodeProperty(
+				NodeProperties.HTTP_PREWARM_CONNECTIONS));
+		String protocol = getNodeProperty(NodeProperties.RPC_PROTOCOL);
+		HttpRoute route = new HttpRoute(new HttpHost(getNodeProperty(NodeProperties.RPC_HOST),
+				Integer.parseInt(getNodeProperty(NodeProperties.RPC_PORT)), protocol), null, 
+				protocol.equalsIgnoreCase("https"));
+		List<HttpClientConnection> connections = new ArrayList<HttpClientConnection>();
+		try {
+			for (int i = 0; i < connectionCount; i++) {
+				HttpClientConnection connection = connManager.requestConnection(route, null)
+						.get(PREWARM_TIMEOUT, TimeUnit.MILLISECONDS);
+				connections.add(connection);
+				HttpContext context = new BasicHttpContext();
+				connManager.connect(connection, route, PREWARM_TIMEOUT, context);
+				connManager.routeComplete(connection, route, context);
+				// binds the session buffers, otherwise the first stale check on a never-used
+				// connection fails
+				connection.flush();
+			}
+			LOG.info("-- prewarmConnections(..): opened {} connection(s) to '{}' ahead of first use",
+					connections.size(), route.getTargetHost());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException | IOException e) {
+			LOG.warn("-- prewarmConnections(..): failed to open connection(s) to '{}' ahead of "
+					+ "first use, message was: '{}'", route.getTargetHost(), e.getMessage());
+		} finally {
+			for (HttpClientConnection connection : connections) {
+				connManager.releaseConnection(connection, null, keepAlive, TimeUnit.MILLISECONDS);
+			}
+		}
+	}
 	
 	private String decodeNodeVersion(Integer extendedFormat) {
 		if (extendedFormat == null) {
@@ -0,0 +1,259 @@
+package com.neemre.btcdcli4j.core.client;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.neemre.btcdcli4j.core.BitcoindException;
+import com.neemre.btcdcli4j.core.Commands;
+import com.neemre.btcdcli4j.core.CommunicationException;
+import com.neemre.btcdcli4j.core.cache.CacheStats;
+import com.neemre.btcdcli4j.core.cache.ChainDataCache;
+import com.neemre.btcdcli4j.core.cache.LruCache;
+import com.neemre.btcdcli4j.core.cache.NegativeLookupCache;
+import com.neemre.btcdcli4j.core.common.Errors;
+import com.neemre.btcdcli4j.core.domain.RawBlock;
+import com.neemre.btcdcli4j.core.domain.RawInput;
+import com.neemre.btcdcli4j.core.domain.RawOutput;
+import com.neemre.btcdcli4j.core.domain.RawTransaction;
+import com.neemre.btcdcli4j.core.http.HttpLayerException;
+import com.neemre.btcdcli4j.core.jsonrpc.client.JsonRpcClient;
+import com.neemre.btcdcli4j.core.jsonrpc.domain.JsonRpcError;
+import com.neemre.btcdcli4j.core.jsonrpc.domain.JsonRpcResponse;
+
+/**Fills in the {@code prevout} (the spent output's value &amp; script) of every input of a block or
+ * a list of transactions. Outputs are looked up, in this order, among the transactions being
+ * resolved (so that chains of transactions within the same block need no lookups at all), in a
+ * size-bounded LRU of recently created outputs, in the client's transaction cache, and finally
+ * via batched {@code getrawtransaction} calls that are spread over a bounded number of threads.
+ * Only the outputs actually being spent are retained from fetched transactions. Note that the
+ * latter requires {@code -txindex} for transactions not belonging to the node's wallet; inputs
+ * whose previous transaction cannot be found are left unresolved.*/
+public class PrevoutResolver {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PrevoutResolver.class);
+	private static final int OUTPOINT_WEIGHT = 128;
+
+	private JsonRpcClient rpcClient;
+	private ChainDataCache dataCache;
+	private LruCache<String, RawOutput> outputs;
+	private int batchSize;
+	private ExecutorService executor;
+
+
+	public PrevoutResolver(JsonRpcClient rpcClient, ChainDataCache dataCache, long outputCapacity,
+			int batchSize, int parallelism) {
+		this.rpcClient = rpcClient;
+		this.dataCache = dataCache;
+		this.outputs = new LruCache<String, RawOutput>(outputCapacity);
+		this.batchSize = Math.max(batchSize, 1);
+		this.executor = Executors.newFixedThreadPool(Math.max(parallelism, 1), new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable task) {
+				Thread thread = new Thread(task, "btcdcli4j-prevout-resolver");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	public int resolve(RawBlock block) throws BitcoindException, CommunicationException {
+		return resolve(block.getTx());
+	}
+
+	/**Resolves the prevouts of the given transactions in place, and returns the number of inputs
+	 * that could not be resolved (coinbase inputs are not counted).*/
+	public int resolve(List<RawTransaction> transactions) throws BitcoindException,
+			CommunicationException {
+		Map<String, RawTransaction> localTransactions = new HashMap<String, RawTransaction>(
+				transactions.size() * 2);
+		for (RawTransaction transaction : transactions) {
+			localTransactions.put(transaction.getTxId(), transaction);
+		}
+		Map<String, RawOutput> resolvedOutputs = new HashMap<String, RawOutput>();
+		Map<String, Set<Integer>> missingOutputs = new HashMap<String, Set<Integer>>();
+		for (RawTransaction transaction : transactions) {
+			for (RawInput input : getInputs(transaction)) {
+				if ((input.getTxId() == null) || (input.getPrevout() != null)) {
+					continue;
+				}
+				String outpoint = getOutpoint(input.getTxId(), input.getVOut());
+				RawOutput output = findOutput(localTransactions.get(input.getTxId()),
+						input.getVOut());
+				if (output == null) {
+					output = outputs.get(outpoint);
+				}
+				if (output == null) {
+					output = findOutput(dataCache.getRawTransaction(input.getTxId()),
+							input.getVOut());
+				}
+				if (output != null) {
+					resolvedOutputs.put(outpoint, output);
+				} else {
+					Set<Integer> indices = missingOutputs.get(input.getTxId());
+					if (indices == null) {
+						indices = new LinkedHashSet<Integer>();
+						missingOutputs.put(input.getTxId(), indices);
+					}
+					indices.add(input.getVOut());
+				}
+			}
+		}
+		LOG.debug("-- resolve(..): {} prevout(s) resolved locally, fetching {} transaction(s)",
+				resolvedOutputs.size(), missingOutputs.size());
+		resolvedOutputs.putAll(fetchOutputs(missingOutputs));
+		int unresolvedCount = 0;
+		for (RawTransaction transaction : transactions) {
+			for (RawInput input : getInputs(transaction)) {
+				if ((input.getTxId() == null) || (input.getPrevout() != null)) {
+					continue;
+				}
+				String outpoint = getOutpoint(input.getTxId(), input.getVOut());
+				RawOutput output = resolvedOutputs.get(outpoint);
+				if (output == null) {
+					unresolvedCount++;
+				} else {
+					input.setPrevout(output);
+					// a spent output will not be spent again, so there is no point in keeping it
+					outputs.remove(outpoint);
+				}
+			}
+			if (transaction.getVOut() != null) {
+				for (RawOutput output : transaction.getVOut()) {
+					outputs.put(getOutpoint(transaction.getTxId(), output.getN()), output,
+							getWeight(output));
+				}
+			}
+		}
+		if (unresolvedCount > 0) {
+			LOG.warn("-- resolve(..): {} input(s) left unresolved (is '-txindex' enabled?)",
+					unresolvedCount);
+		}
+		return unresolvedCount;
+	}
+
+	public CacheStats getOutputStats() {
+		return outputs.getStats();
+	}
+
+	public void close() {
+		executor.shutdownNow();
+	}
+
+	private Map<String, RawOutput> fetchOutputs(final Map<String, Set<Integer>> missingOutputs)
+			throws BitcoindException, CommunicationException {
+		List<Future<Map<String, RawOutput>>> futures = new ArrayList<Future<Map<String,
+				RawOutput>>>();
+		List<String> txIds = new ArrayList<String>(missingOutputs.keySet());
+		for (int i = 0; i < txIds.size(); i += batchSize) {
+			final List<String> batch = txIds.subList(i, Math.min(i + batchSize, txIds.size()));
+			futures.add(executor.submit(new Callable<Map<String, RawOutput>>() {
+				@Override
+				public Map<String, RawOutput> call() throws Exception {
+					return fetchBatch(batch, missingOutputs);
+				}
+			}));
+		}
+		Map<String, RawOutput> fetchedOutputs = new HashMap<String, RawOutput>();
+		try {
+			for (Future<Map<String, RawOutput>> future : futures) {
+				fetchedOutputs.putAll(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new HttpLayerException(Errors.IO_UNKNOWN, e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof BitcoindException) {
+				throw (BitcoindException)e.getCause();
+			} else if (e.getCause() instanceof CommunicationException) {
+				throw (CommunicationException)e.getCause();
+			}
+			throw new HttpLayerException(Errors.IO_UNKNOWN, e);
+		} finally {
+			for (Future<Map<String, RawOutput>> future : futures) {
+				future.cancel(true);
+			}
+		}
+		return fetchedOutputs;
+	}
+
+	private Map<String, RawOutput> fetchBatch(List<String> txIds,
+			Map<String, Set<Integer>> missingOutputs) throws BitcoindException,
+			CommunicationException {
+		List<List<Object>> paramsList = new ArrayList<List<Object>>(txIds.size());
+		for (String txId : txIds) {
+			List<Object> params = new ArrayList<Object>(2);
+			params.add(txId);
+			params.add(1);
+			paramsList.add(params);
+		}
+		List<JsonRpcResponse> responses = rpcClient.executeBatch(
+				Commands.GET_RAW_TRANSACTION.getName(), paramsList);
+		Map<String, RawOutput> fetchedOutputs = new HashMap<String, RawOutput>();
+		for (int i = 0; i < txIds.size(); i++) {
+			JsonRpcError error = responses.get(i).getError();
+			if (error != null) {
+				if (error.getCode() == NegativeLookupCache.NOT_FOUND_CODE) {
+					continue;
+				}
+				throw new BitcoindException(error.getCode(), String.format("Error #%s: %s",
+						error.getCode(), error.getMessage()));
+			}
+			RawTransaction transaction = rpcClient.getMapper().mapToEntity(responses.get(i)
+					.getResult(), RawTransaction.class);
+			for (Integer index : missingOutputs.get(txIds.get(i))) {
+				RawOutput output = findOutput(transaction, index);
+				if (output != null) {
+					fetchedOutputs.put(getOutpoint(txIds.get(i), index), output);
+				}
+			}
+		}
+		return fetchedOutputs;
+	}
+
+	private List<RawInput> getInputs(RawTransaction transaction) {
+		List<RawInput> inputs = transaction.getVIn();
+		return (inputs == null) ? new ArrayList<RawInput>() : inputs;
+	}
+
+	private RawOutput findOutput(RawTransaction transaction, Integer index) {
+		if ((transaction == null) || (transaction.getVOut() == null) || (index == null)) {
+			return null;
+		}
+		List<RawOutput> transactionOutputs = transaction.getVOut();
+		// outputs are normally listed in order, so try the direct position first
+		if ((index < transactionOutputs.size()) && index.equals(transactionOutputs.get(index)
+				.getN())) {
+			return transactionOutputs.get(index);
+		}
+		for (RawOutput output : transactionOutputs) {
+			if (index.equals(output.getN())) {
+				return output;
+			}
+		}
+		return null;
+	}
+
+	private String getOutpoint(String txId, Integer index) {
+		return txId + ":" + index;
+	}
+
+	private int getWeight(RawOutput output) {
+		if ((output.getScriptPubKey() == null) || (output.getScriptPubKey().getHex() == null)) {
+			return OUTPOINT_WEIGHT;
+		}
+		return OUTPOINT_WEIGHT + output.getScriptPubKey().getHex().length() * 2;
+	}
+}
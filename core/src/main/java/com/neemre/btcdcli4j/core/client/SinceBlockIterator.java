@@ -0,0 +1,12 @@
+package com.neemre.btcdcli4j.core.client;
+
+import com.neemre.btcdcli4j.core.domain.Payment;
+import com.neemre.btcdcli4j.core.util.CloseableIterator;
+
+/**Iterates over the payments of a {@code listsinceblock} result as they are being received.*/
+public interface SinceBlockIterator extends CloseableIterator<Payment> {
+
+	/**Returns the hash of the last block of the result, which is only known once the iterator has
+	 * been exhausted ({@code null} before that).*/
+	String getLastBlock();
+}
@@ -0,0 +1,11 @@
+package com.neemre.btcdcli4j.core.client;
+
+import com.neemre.btcdcli4j.core.domain.RawTransaction;
+
+/**Receives the transactions of a block one at a time, in block order, as they are being streamed
+ * (see {@link BtcdClient#streamBlockTransactions(String, TransactionConsumer)}). Throwing a runtime
+ * exception aborts the stream.*/
+public interface TransactionConsumer {
+
+	void accept(int index, RawTransaction transaction);
+}
@@ -0,0 +1,124 @@
+package com.neemre.btcdcli4j.core.codec;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+
+import com.neemre.btcdcli4j.core.common.Constants;
+import com.neemre.btcdcli4j.core.common.Defaults;
+import com.neemre.btcdcli4j.core.common.Errors;
+import com.neemre.btcdcli4j.core.util.HexUtils;
+
+/**The counterpart of {@link BinaryWriter}, reading primitive encodings from a {@code ByteBuffer}
+ * (starting at its current position). Hex strings are spelled out into a scratch buffer held by
+ * the reader, so that each one only allocates the resulting {@code String}. It is not
+ * thread-safe.*/
+public class BinaryReader {
+
+	private ByteBuffer source;
+	private char[] hexScratch;
+
+
+	public BinaryReader(ByteBuffer source) {
+		this.source = source;
+		this.hexScratch = new char[2 * BinaryWriter.HASH_SIZE];
+	}
+
+	public byte readByte() {
+		return source.get();
+	}
+
+	public boolean readBoolean() {
+		return source.get() != 0;
+	}
+
+	public long readUnsignedVarLong() {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = source.get();
+			value |= (long)(b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IllegalArgumentException(Errors.PARSE_BINARY_MALFORMED.getDescription());
+	}
+
+	public long readVarLong() {
+		long value = readUnsignedVarLong();
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	public int readLength() {
+		long length = readUnsignedVarLong();
+		if ((length < 0) || (length > source.remaining())) {
+			throw new IllegalArgumentException(Errors.PARSE_BINARY_MALFORMED.getDescription());
+		}
+		return (int)length;
+	}
+
+	public byte[] readBytes() {
+		byte[] bytes = new byte[readLength()];
+		source.get(bytes);
+		return bytes;
+	}
+
+	/**Reads a length-prefixed byte sequence as a view of the underlying buffer, without copying.*/
+	public ByteBuffer readSlice() {
+		int length = readLength();
+		ByteBuffer slice = source.slice();
+		slice.limit(length);
+		source.position(source.position() + length);
+		return slice;
+	}
+
+	public String readString() {
+		int length = readLength();
+		if (source.hasArray()) {
+			String value = new String(source.array(), source.arrayOffset() + source.position(),
+					length, Constants.UTF_8);
+			source.position(source.position() + length);
+			return value;
+		}
+		byte[] bytes = new byte[length];
+		source.get(bytes);
+		return new String(bytes, Constants.UTF_8);
+	}
+
+	public String readHash() {
+		if (source.get() == BinaryWriter.FORM_STRING) {
+			return readString();
+		}
+		return readHexDigits(BinaryWriter.HASH_SIZE);
+	}
+
+	public String readHex() {
+		if (source.get() == BinaryWriter.FORM_STRING) {
+			return readString();
+		}
+		return readHexDigits(readLength());
+	}
+
+	public BigDecimal readAmount() {
+		return BigDecimal.valueOf(readVarLong(), Defaults.DECIMAL_SCALE);
+	}
+
+	public BigDecimal readDecimal() {
+		int scale = (int)readVarLong();
+		return new BigDecimal(new BigInteger(readBytes()), scale);
+	}
+
+	private String readHexDigits(int byteCount) {
+		int length = 2 * byteCount;
+		if (hexScratch.length < length) {
+			hexScratch = new char[Math.max(length, 2 * hexScratch.length)];
+		}
+		char[] hex = hexScratch;
+		for (int i = 0; i < length; i += 2) {
+			byte b = source.get();
+			hex[i] = HexUtils.toDigit(b >> 4);
+			hex[i + 1] = HexUtils.toDigit(b);
+		}
+		return new String(hex, 0, length);
+	}
+}
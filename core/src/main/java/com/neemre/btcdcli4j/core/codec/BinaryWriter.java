@@ -0,0 +1,173 @@
+package com.neemre.btcdcli4j.core.codec;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import com.neemre.btcdcli4j.core.common.Defaults;
+import com.neemre.btcdcli4j.core.util.HexUtils;
+
+/**A growable byte sink implementing the primitive encodings used by {@link EntityCodec}. An
+ * instance may be {@link #reset()} &amp; reused across entities to avoid reallocating its
+ * buffer; it is not thread-safe.*/
+public class BinaryWriter {
+
+	static final int HASH_SIZE = 32;
+	static final byte FORM_RAW = 0;
+	static final byte FORM_STRING = 1;
+
+	private byte[] buffer;
+	private int size;
+
+
+	public BinaryWriter() {
+		this(256);
+	}
+
+	public BinaryWriter(int initialCapacity) {
+		buffer = new byte[Math.max(initialCapacity, 16)];
+	}
+
+	public void reset() {
+		size = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public byte[] toByteArray() {
+		return Arrays.copyOf(buffer, size);
+	}
+
+	public void writeTo(ByteBuffer target) {
+		target.put(buffer, 0, size);
+	}
+
+	public void writeByte(int value) {
+		ensureCapacity(1);
+		buffer[size++] = (byte)value;
+	}
+
+	public void writeBoolean(boolean value) {
+		writeByte(value ? 1 : 0);
+	}
+
+	/**Writes an unsigned LEB128 varint (counts, lengths &amp; field masks).*/
+	public void writeUnsignedVarLong(long value) {
+		ensureCapacity(10);
+		while ((value & ~0x7FL) != 0) {
+			buffer[size++] = (byte)((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buffer[size++] = (byte)value;
+	}
+
+	/**Writes a zigzag-encoded varint, so that small negative values stay small as well.*/
+	public void writeVarLong(long value) {
+		writeUnsignedVarLong((value << 1) ^ (value >> 63));
+	}
+
+	public void writeBytes(byte[] bytes) {
+		writeUnsignedVarLong(bytes.length);
+		ensureCapacity(bytes.length);
+		System.arraycopy(bytes, 0, buffer, size, bytes.length);
+		size += bytes.length;
+	}
+
+	public void writeString(String value) {
+		int length = getUtf8Length(value);
+		writeUnsignedVarLong(length);
+		ensureCapacity(length);
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c < 0x80) {
+				buffer[size++] = (byte)c;
+			} else if (c < 0x800) {
+				buffer[size++] = (byte)(0xC0 | (c >> 6));
+				buffer[size++] = (byte)(0x80 | (c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && (i + 1 < value.length())
+					&& Character.isLowSurrogate(value.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, value.charAt(++i));
+				buffer[size++] = (byte)(0xF0 | (codePoint >> 18));
+				buffer[size++] = (byte)(0x80 | ((codePoint >> 12) & 0x3F));
+				buffer[size++] = (byte)(0x80 | ((codePoint >> 6) & 0x3F));
+				buffer[size++] = (byte)(0x80 | (codePoint & 0x3F));
+			} else {
+				buffer[size++] = (byte)(0xE0 | (c >> 12));
+				buffer[size++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+				buffer[size++] = (byte)(0x80 | (c & 0x3F));
+			}
+		}
+	}
+
+	/**Writes a 256-bit hash as 32 raw bytes, falling back to a plain string for values that are
+	 * not 64 lower-case hex digits (so that decoding is always lossless).*/
+	public void writeHash(String hash) {
+		if ((hash.length() != 2 * HASH_SIZE) || !HexUtils.isLowerHex(hash)) {
+			writeByte(FORM_STRING);
+			writeString(hash);
+			return;
+		}
+		writeByte(FORM_RAW);
+		writeHexDigits(hash);
+	}
+
+	/**Writes hex-encoded binary data (scripts, serialized transactions) at half its textual size,
+	 * falling back to a plain string for values that are not lower-case hex.*/
+	public void writeHex(String hex) {
+		if (((hex.length() & 1) != 0) || !HexUtils.isLowerHex(hex)) {
+			writeByte(FORM_STRING);
+			writeString(hex);
+			return;
+		}
+		writeByte(FORM_RAW);
+		writeUnsignedVarLong(hex.length() / 2);
+		writeHexDigits(hex);
+	}
+
+	/**Writes a BTC amount as a (zigzag varint) number of satoshis.*/
+	public void writeAmount(BigDecimal amount) {
+		writeVarLong(amount.setScale(Defaults.DECIMAL_SCALE, Defaults.ROUNDING_MODE)
+				.movePointRight(Defaults.DECIMAL_SCALE).longValueExact());
+	}
+
+	/**Writes an arbitrary-precision decimal (<i>e.g.</i> difficulty) as scale &amp; unscaled
+	 * two's-complement bytes.*/
+	public void writeDecimal(BigDecimal value) {
+		writeVarLong(value.scale());
+		writeBytes(value.unscaledValue().toByteArray());
+	}
+
+	private void writeHexDigits(String hex) {
+		int length = hex.length() / 2;
+		ensureCapacity(length);
+		HexUtils.fromHex(hex, buffer, size);
+		size += length;
+	}
+
+	private int getUtf8Length(String value) {
+		int length = 0;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c < 0x80) {
+				length += 1;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(c) && (i + 1 < value.length())
+					&& Character.isLowSurrogate(value.charAt(i + 1))) {
+				length += 4;
+				i++;
+			} else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+	private void ensureCapacity(int extraBytes) {
+		if (size + extraBytes > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extraBytes));
+		}
+	}
+}
@@ -0,0 +1,956 @@
+package com.neemre.btcdcli4j.core.codec;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.neemre.btcdcli4j.core.common.Errors;
+import com.neemre.btcdcli4j.core.domain.Entity;
+import com.neemre.btcdcli4j.core.domain.Output;
+import com.neemre.btcdcli4j.core.domain.Payment;
+import com.neemre.btcdcli4j.core.domain.PaymentOverview;
+import com.neemre.btcdcli4j.core.domain.PubKeyScript;
+import com.neemre.btcdcli4j.core.domain.RawBlock;
+import com.neemre.btcdcli4j.core.domain.RawInput;
+import com.neemre.btcdcli4j.core.domain.RawOutput;
+import com.neemre.btcdcli4j.core.domain.RawTransaction;
+import com.neemre.btcdcli4j.core.domain.ShallowBlock;
+import com.neemre.btcdcli4j.core.domain.SignatureScript;
+import com.neemre.btcdcli4j.core.domain.Transaction;
+import com.neemre.btcdcli4j.core.domain.enums.PaymentCategories;
+import com.neemre.btcdcli4j.core.domain.enums.ScriptTypes;
+
+/**A compact, versioned binary codec for the core domain entities, meant for caching, journaling
+ * or passing entities between processes where re-serializing to JSON would be too slow or too
+ * large. Every encoded entity starts with a format version &amp; type tag, followed by a bit mask
+ * of its non-null fields and the fields themselves; hashes are stored as 32 raw bytes, other hex
+ * data at half its textual size and BTC amounts as satoshi varints. The field order of every
+ * entity is part of the format, so any change to it requires bumping {@link #FORMAT_VERSION}.
+ * Instances are stateless and thread-safe.*/
+public class EntityCodec {
+
+	public static final byte FORMAT_VERSION = 3;
+
+	private static final byte TYPE_RAW_BLOCK = 1;
+	private static final byte TYPE_SHALLOW_BLOCK = 2;
+	private static final byte TYPE_RAW_TRANSACTION = 3;
+	private static final byte TYPE_RAW_INPUT = 4;
+	private static final byte TYPE_RAW_OUTPUT = 5;
+	private static final byte TYPE_TRANSACTION = 6;
+	private static final byte TYPE_PAYMENT = 7;
+	private static final byte TYPE_OUTPUT = 8;
+
+
+	public byte[] encode(Entity entity) {
+		BinaryWriter writer = new BinaryWriter();
+		encode(entity, writer);
+		return writer.toByteArray();
+	}
+
+	public void encode(Entity entity, BinaryWriter writer) {
+		writer.writeByte(FORMAT_VERSION);
+		if (entity instanceof RawBlock) {
+			writer.writeByte(TYPE_RAW_BLOCK);
+			writeRawBlock((RawBlock)entity, writer);
+		} else if (entity instanceof ShallowBlock) {
+			writer.writeByte(TYPE_SHALLOW_BLOCK);
+			writeShallowBlock((ShallowBlock)entity, writer);
+		} else if (entity instanceof RawTransaction) {
+			writer.writeByte(TYPE_RAW_TRANSACTION);
+			writeRawTransaction((RawTransaction)entity, writer);
+		} else if (entity instanceof RawInput) {
+			writer.writeByte(TYPE_RAW_INPUT);
+			writeRawInput((RawInput)entity, writer);
+		} else if (entity instanceof RawOutput) {
+			writer.writeByte(TYPE_RAW_OUTPUT);
+			writeRawOutput((RawOutput)entity, writer);
+		} else if (entity instanceof Transaction) {
+			writer.writeByte(TYPE_TRANSACTION);
+			writeTransaction((Transaction)entity, writer);
+		} else if (entity instanceof Payment) {
+			writer.writeByte(TYPE_PAYMENT);
+			writePayment((Payment)entity, writer);
+		} else if (entity instanceof Output) {
+			writer.writeByte(TYPE_OUTPUT);
+			writeOutput((Output)entity, writer);
+		} else {
+			throw new IllegalArgumentException(Errors.ARGS_CODEC_ENTITY_UNSUPPORTED.getDescription());
+		}
+	}
+
+	public <T extends Entity> T decode(byte[] bytes, Class<T> entityClass) {
+		return decode(ByteBuffer.wrap(bytes), entityClass);
+	}
+
+	public <T extends Entity> T decode(ByteBuffer source, Class<T> entityClass) {
+		try {
+			BinaryReader reader = new BinaryReader(source);
+			if (reader.readByte() != FORMAT_VERSION) {
+				throw new IllegalArgumentException(Errors.PARSE_BINARY_VERSION_UNSUPPORTED
+						.getDescription());
+			}
+			Entity entity;
+			byte type = reader.readByte();
+			if (type == TYPE_RAW_BLOCK) {
+				entity = readRawBlock(reader);
+			} else if (type == TYPE_SHALLOW_BLOCK) {
+				entity = readShallowBlock(reader);
+			} else if (type == TYPE_RAW_TRANSACTION) {
+				entity = readRawTransaction(reader);
+			} else if (type == TYPE_RAW_INPUT) {
+				entity = readRawInput(reader);
+			} else if (type == TYPE_RAW_OUTPUT) {
+				entity = readRawOutput(reader);
+			} else if (type == TYPE_TRANSACTION) {
+				entity = readTransaction(reader);
+			} else if (type == TYPE_PAYMENT) {
+				entity = readPayment(reader);
+			} else if (type == TYPE_OUTPUT) {
+				entity = readOutput(reader);
+			} else {
+				throw new IllegalArgumentException(Errors.PARSE_BINARY_MALFORMED.getDescription());
+			}
+			return entityClass.cast(entity);
+		} catch (BufferUnderflowException | ClassCastException e) {
+			throw new IllegalArgumentException(Errors.PARSE_BINARY_MALFORMED.getDescription(), e);
+		}
+	}
+
+	private void writeRawBlock(RawBlock block, BinaryWriter writer) {
+		writer.writeUnsignedVarLong(bit(0, block.getHash()) | bit(1, block.getConfirmations())
+				| bit(2, block.getSize()) | bit(3, block.getHeight()) | bit(4, block.getVersion())
+				| bit(5, block.getMerkleRoot()) | bit(6, block.getTx()) | bit(7, block.getTime())
+				| bit(8, block.getNonce()) | bit(9, block.getBits()) | bit(10, block.getDifficulty())
+				| bit(11, block.getChainWork()) | bit(12, block.getPreviousBlockHash())
+				| bit(13, block.getNextBlockHash()));
+		if (block.getHash() != null) {
+			writer.writeHash(block.getHash());
+		}
+		if (block.getConfirmations() != null) {
+			writer.writeVarLong(block.getConfirmations());
+		}
+		if (block.getSize() != null) {
+			writer.writeVarLong(block.getSize());
+		}
+		if (block.getHeight() != null) {
+			writer.writeVarLong(block.getHeight());
+		}
+		if (block.getVersion() != null) {
+			writer.writeVarLong(block.getVersion());
+		}
+		if (block.getMerkleRoot() != null) {
+			writer.writeHash(block.getMerkleRoot());
+		}
+		if (block.getTx() != null) {
+			writer.writeUnsignedVarLong(block.getTx().size());
+			for (RawTransaction transaction : block.getTx()) {
+				writeRawTransaction(transaction, writer);
+			}
+		}
+		if (block.getTime() != null) {
+			writer.writeVarLong(block.getTime());
+		}
+		if (block.getNonce() != null) {
+			writer.writeVarLong(block.getNonce());
+		}
+		if (block.getBits() != null) {
+			writer.writeString(block.getBits());
+		}
+		if (block.getDifficulty() != null) {
+			writer.writeDecimal(block.getDifficulty());
+		}
+		if (block.getChainWork() != null) {
+			writer.writeHash(block.getChainWork());
+		}
+		if (block.getPreviousBlockHash() != null) {
+			writer.writeHash(block.getPreviousBlockHash());
+		}
+		if (block.getNextBlockHash() != null) {
+			writer.writeHash(block.getNextBlockHash());
+		}
+	}
+
+	private RawBlock readRawBlock(BinaryReader reader) {
+		RawBlock block = new RawBlock();
+		long mask = reader.readUnsignedVarLong();
+		if (has(mask, 0)) {
+			block.setHash(reader.readHash());
+		}
+		if (has(mask, 1)) {
+			block.setConfirmations((int)reader.readVarLong());
+		}
+		if (has(mask, 2)) {
+			block.setSize((int)reader.readVarLong());
+		}
+		if (has(mask, 3)) {
+			block.setHeight((int)reader.readVarLong());
+		}
+		if (has(mask, 4)) {
+			block.setVersion((int)reader.readVarLong());
+		}
+		if (has(mask, 5)) {
+			block.setMerkleRoot(reader.readHash());
+		}
+		if (has(mask, 6)) {
+			int count = reader.readLength();
+			List<RawTransaction> transactions = new ArrayList<RawTransaction>(count);
+			for (int i = 0; i < count; i++) {
+				transactions.add(readRawTransaction(reader));
+			}
+			block.setTx(transactions);
+		}
+		if (has(mask, 7)) {
+			block.setTime(reader.readVarLong());
+		}
+		if (has(mask, 8)) {
+			block.setNonce(reader.readVarLong());
+		}
+		if (has(mask, 9)) {
+			block.setBits(reader.readString());
+		}
+		if (has(mask, 10)) {
+			block.setDifficulty(reader.readDecimal());
+		}
+		if (has(mask, 11)) {
+			block.setChainWork(reader.readHash());
+		}
+		if (has(mask, 12)) {
+			block.setPreviousBlockHash(reader.readHash());
+		}
+		if (has(mask, 13)) {
+			block.setNextBlockHash(reader.readHash());
+		}
+		return block;
+	}
+
+	private void writeShallowBlock(ShallowBlock block, BinaryWriter writer) {
+		writer.writeUnsignedVarLong(bit(0, block.getHash()) | bit(1, block.getConfirmations())
+				| bit(2, block.getSize()) | bit(3, block.getHeight()) | bit(4, block.getVersion())
+				| bit(5, block.getMerkleRoot()) | bit(6, block.getTx()) | bit(7, block.getTime())
+				| bit(8, block.getNonce()) | bit(9, block.getBits()) | bit(10, block.getDifficulty())
+				| bit(11, block.getChainWork()) | bit(12, block.getPreviousBlockHash())
+				| bit(13, block.getNextBlockHash()));
+		if (block.getHash() != null) {
+			writer.writeHash(block.getHash());
+		}
+		if (block.getConfirmations() != null) {
+			writer.writeVarLong(block.getConfirmations());
+		}
+		if (block.getSize() != null) {
+			writer.writeVarLong(block.getSize());
+		}
+		if (block.getHeight() != null) {
+			writer.writeVarLong(block.getHeight());
+		}
+		if (block.getVersion() != null) {
+			writer.writeVarLong(block.getVersion());
+		}
+		if (block.getMerkleRoot() != null) {
+			writer.writeHash(block.getMerkleRoot());
+		}
+		if (block.getTx() != null) {
+			writeHashes(block.getTx(), writer);
+		}
+		if (block.getTime() != null) {
+			writer.writeVarLong(block.getTime());
+		}
+		if (block.getNonce() != null) {
+			writer.writeVarLong(block.getNonce());
+		}
+		if (block.getBits() != null) {
+			writer.writeString(block.getBits());
+		}
+		if (block.getDifficulty() != null) {
+			writer.writeDecimal(block.getDifficulty());
+		}
+		if (block.getChainWork() != null) {
+			writer.writeHash(block.getChainWork());
+		}
+		if (block.getPreviousBlockHash() != null) {
+			writer.writeHash(block.getPreviousBlockHash());
+		}
+		if (block.getNextBlockHash() != null) {
+			writer.writeHash(block.getNextBlockHash());
+		}
+	}
+
+	private ShallowBlock readShallowBlock(BinaryReader reader) {
+		ShallowBlock block = new ShallowBlock();
+		long mask = reader.readUnsignedVarLong();
+		if (has(mask, 0)) {
+			block.setHash(reader.readHash());
+		}
+		if (has(mask, 1)) {
+			block.setConfirmations((int)reader.readVarLong());
+		}
+		if (has(mask, 2)) {
+			block.setSize((int)reader.readVarLong());
+		}
+		if (has(mask, 3)) {
+			block.setHeight((int)reader.readVarLong());
+		}
+		if (has(mask, 4)) {
+			block.setVersion((int)reader.readVarLong());
+		}
+		if (has(mask, 5)) {
+			block.setMerkleRoot(reader.readHash());
+		}
+		if (has(mask, 6)) {
+			block.setTx(readHashes(reader));
+		}
+		if (has(mask, 7)) {
+			block.setTime(reader.readVarLong());
+		}
+		if (has(mask, 8)) {
+			block.setNonce(reader.readVarLong());
+		}
+		if (has(mask, 9)) {
+			block.setBits(reader.readString());
+		}
+		if (has(mask, 10)) {
+			block.setDifficulty(reader.readDecimal());
+		}
+		if (has(mask, 11)) {
+			block.setChainWork(reader.readHash());
+		}
+		if (has(mask, 12)) {
+			block.setPreviousBlockHash(reader.readHash());
+		}
+		if (has(mask, 13)) {
+			block.setNextBlockHash(reader.readHash());
+		}
+		return block;
+	}
+
+	private void writeRawTransaction(RawTransaction transaction, BinaryWriter writer) {
+		writer.writeUnsignedVarLong(bit(0, transaction.getTxId()) | bit(1, transaction.getVersion())
+				| bit(2, transaction.getLockTime()) | bit(3, transaction.getVIn())
+				| bit(4, transaction.getVOut()) | bit(5, transaction.getBlockHash())
+				| bit(6, transaction.getConfirmations()) | bit(7, transaction.getTime())
+				| bit(8, transaction.getBlockTime()) | bit(9, transaction.getHex())
+				| bit(10, transaction.getHash()) | bit(11, transaction.getSize())
+				| bit(12, transaction.getVSize()) | bit(13, transaction.getWeight()));
+		if (transaction.getTxId() != null) {
+			writer.writeHash(transaction.getTxId());
+		}
+		if (transaction.getVersion() != null) {
+			writer.writeVarLong(transaction.getVersion());
+		}
+		if (transaction.getLockTime() != null) {
+			writer.writeVarLong(transaction.getLockTime());
+		}
+		if (transaction.getVIn() != null) {
+			writer.writeUnsignedVarLong(transaction.getVIn().size());
+			for (RawInput input : transaction.getVIn()) {
+				writeRawInput(input, writer);
+			}
+		}
+		if (transaction.getVOut() != null) {
+			writer.writeUnsignedVarLong(transaction.getVOut().size());
+			for (RawOutput output : transaction.getVOut()) {
+				writeRawOutput(output, writer);
+			}
+		}
+		if (transaction.getBlockHash() != null) {
+			writer.writeHash(transaction.getBlockHash());
+		}
+		if (transaction.getConfirmations() != null) {
+			writer.writeVarLong(transaction.getConfirmations());
+		}
+		if (transaction.getTime() != null) {
+			writer.writeVarLong(transaction.getTime());
+		}
+		if (transaction.getBlockTime() != null) {
+			writer.writeVarLong(transaction.getBlockTime());
+		}
+		if (transaction.getHex() != null) {
+			writer.writeHex(transaction.getHex());
+		}
+		if (transaction.getHash() != null) {
+			writer.writeHash(transaction.getHash());
+		}
+		if (transaction.getSize() != null) {
+			writer.writeVarLong(transaction.getSize());
+		}
+		if (transaction.getVSize() != null) {
+			writer.writeVarLong(transaction.getVSize());
+		}
+		if (transaction.getWeight() != null) {
+			writer.writeVarLong(transaction.getWeight());
+		}
+	}
+
+	private RawTransaction readRawTransaction(BinaryReader reader) {
+		RawTransaction transaction = new RawTransaction();
+		long mask = reader.readUnsignedVarLong();
+		if (has(mask, 0)) {
+			transaction.setTxId(reader.readHash());
+		}
+		if (has(mask, 1)) {
+			transaction.setVersion((int)reader.readVarLong());
+		}
+		if (has(mask, 2)) {
+			transaction.setLockTime(reader.readVarLong());
+		}
+		if (has(mask, 3)) {
+			int count = reader.readLength();
+			List<RawInput> inputs = new ArrayList<RawInput>(count);
+			for (int i = 0; i < count; i++) {
+				inputs.add(readRawInput(reader));
+			}
+			transaction.setVIn(inputs);
+		}
+		if (has(mask, 4)) {
+			int count = reader.readLength();
+			List<RawOutput> outputs = new ArrayList<RawOutput>(count);
+			for (int i = 0; i < count; i++) {
+				outputs.add(readRawOutput(reader));
+			}
+			transaction.setVOut(outputs);
+		}
+		if (has(mask, 5)) {
+			transaction.setBlockHash(reader.readHash());
+		}
+		if (has(mask, 6)) {
+			transaction.setConfirmations((int)reader.readVarLong());
+		}
+		if (has(mask, 7)) {
+			transaction.setTime(reader.readVarLong());
+		}
+		if (has(mask, 8)) {
+			transaction.setBlockTime(reader.readVarLong());
+		}
+		if (has(mask, 9)) {
+			transaction.setHex(reader.readHex());
+		}
+		if (has(mask, 10)) {
+			transaction.setHash(reader.readHash());
+		}
+		if (has(mask, 11)) {
+			transaction.setSize((int)reader.readVarLong());
+		}
+		if (has(mask, 12)) {
+			transaction.setVSize((int)reader.readVarLong());
+		}
+		if (has(mask, 13)) {
+			transaction.setWeight((int)reader.readVarLong());
+		}
+		return transaction;
+	}
+
+	private void writeRawInput(RawInput input, BinaryWriter writer) {
+		SignatureScript scriptSig = input.getScriptSig();
+		writer.writeUnsignedVarLong(bit(0, input.getTxId()) | bit(1, input.getVOut())
+				| bit(2, scriptSig) | bit(3, input.getTxinwitness()) | bit(4, input.getCoinbase())
+				| bit(5, input.getSequence()) | bit(6, input.getPrevout()));
+		if (input.getTxId() != null) {
+			writer.writeHash(input.getTxId());
+		}
+		if (input.getVOut() != null) {
+			writer.writeVarLong(input.getVOut());
+		}
+		if (scriptSig != null) {
+			writer.writeUnsignedVarLong(bit(0, scriptSig.getAsm()) | bit(1, scriptSig.getHex()));
+			if (scriptSig.getAsm() != null) {
+				writer.writeString(scriptSig.getAsm());
+			}
+			if (scriptSig.getHex() != null) {
+				writer.writeHex(scriptSig.getHex());
+			}
+		}
+		if (input.getTxinwitness() != null) {
+			writer.writeUnsignedVarLong(input.getTxinwitness().size());
+			for (String witnessItem : input.getTxinwitness()) {
+				writer.writeHex(witnessItem);
+			}
+		}
+		if (input.getCoinbase() != null) {
+			writer.writeHex(input.getCoinbase());
+		}
+		if (input.getSequence() != null) {
+			writer.writeVarLong(input.getSequence());
+		}
+		if (input.getPrevout() != null) {
+			writeRawOutput(input.getPrevout(), writer);
+		}
+	}
+
+	private RawInput readRawInput(BinaryReader reader) {
+		RawInput input = new RawInput();
+		long mask = reader.readUnsignedVarLong();
+		if (has(mask, 0)) {
+			input.setTxId(reader.readHash());
+		}
+		if (has(mask, 1)) {
+			input.setVOut((int)reader.readVarLong());
+		}
+		if (has(mask, 2)) {
+			SignatureScript scriptSig = new SignatureScript();
+			long scriptMask = reader.readUnsignedVarLong();
+			if (has(scriptMask, 0)) {
+				scriptSig.setAsm(reader.readString());
+			}
+			if (has(scriptMask, 1)) {
+				scriptSig.setHex(reader.readHex());
+			}
+			input.setScriptSig(scriptSig);
+		}
+		if (has(mask, 3)) {
+			int count = reader.readLength();
+			List<String> witness = new ArrayList<String>(count);
+			for (int i = 0; i < count; i++) {
+				witness.add(reader.readHex());
+			}
+			input.setTxinwitness(witness);
+		}
+		if (has(mask, 4)) {
+			input.setCoinbase(reader.readHex());
+		}
+		if (has(mask, 5)) {
+			input.setSequence(reader.readVarLong());
+		}
+		if (has(mask, 6)) {
+			input.setPrevout(readRawOutput(reader));
+		}
+		return input;
+	}
+
+	private void writeRawOutput(RawOutput output, BinaryWriter writer) {
+		PubKeyScript scriptPubKey = output.getScriptPubKey();
+		writer.writeUnsignedVarLong(bit(0, output.getValue()) | bit(1, output.getN())
+				| bit(2, scriptPubKey));
+		if (output.getValue() != null) {
+			writer.writeVarLong(output.getValueSat());
+		}
+		if (output.getN() != null) {
+			writer.writeVarLong(output.getN());
+		}
+		if (scriptPubKey != null) {
+			writer.writeUnsignedVarLong(bit(0, scriptPubKey.getAsm()) | bit(1, scriptPubKey.getHex())
+					| bit(2, scriptPubKey.getReqSigs()) | bit(3, scriptPubKey.getType())
+					| bit(4, scriptPubKey.getAddresses()) | bit(5, scriptPubKey.getAddress()));
+			if (scriptPubKey.getAsm() != null) {
+				writer.writeString(scriptPubKey.getAsm());
+			}
+			if (scriptPubKey.getHex() != null) {
+				writer.writeHex(scriptPubKey.getHex());
+			}
+			if (scriptPubKey.getReqSigs() != null) {
+				writer.writeVarLong(scriptPubKey.getReqSigs());
+			}
+			if (scriptPubKey.getType() != null) {
+				writer.writeString(scriptPubKey.getType().getName());
+			}
+			if (scriptPubKey.getAddresses() != null) {
+				writeStrings(scriptPubKey.getAddresses(), writer);
+			}
+			if (scriptPubKey.getAddress() != null) {
+				writer.writeString(scriptPubKey.getAddress());
+			}
+		}
+	}
+
+	private RawOutput readRawOutput(BinaryReader reader) {
+		RawOutput output = new RawOutput();
+		long mask = reader.readUnsignedVarLong();
+		if (has(mask, 0)) {
+			output.setValueSat(reader.readVarLong());
+		}
+		if (has(mask, 1)) {
+			output.setN((int)reader.readVarLong());
+		}
+		if (has(mask, 2)) {
+			PubKeyScript scriptPubKey = new PubKeyScript();
+			long scriptMask = reader.readUnsignedVarLong();
+			if (has(scriptMask, 0)) {
+				scriptPubKey.setAsm(reader.readString());
+			}
+			if (has(scriptMask, 1)) {
+				scriptPubKey.setHex(reader.readHex());
+			}
+			if (has(scriptMask, 2)) {
+				scriptPubKey.setReqSigs((int)reader.readVarLong());
+			}
+			if (has(scriptMask, 3)) {
+				scriptPubKey.setType(ScriptTypes.forName(reader.readString()));
+			}
+			if (has(scriptMask, 4)) {
+				scriptPubKey.setAddresses(readStrings(reader));
+			}
+			if (has(scriptMask, 5)) {
+				scriptPubKey.setAddress(reader.readString());
+			}
+			output.setScriptPubKey(scriptPubKey);
+		}
+		return output;
+	}
+
+	private void writeTransaction(Transaction transaction, BinaryWriter writer) {
+		writer.writeUnsignedVarLong(bit(0, transaction.getAmount()) | bit(1, transaction.getFee())
+				| bit(2, transaction.getConfirmations()) | bit(3, transaction.getGenerated())
+				| bit(4, transaction.getBlockHash()) | bit(5, transaction.getBlockIndex())
+				| bit(6, transaction.getBlockTime()) | bit(7, transaction.getTxId())
+				| bit(8, transaction.getWalletConflicts()) | bit(9, transaction.getTime())
+				| bit(10, transaction.getTimeReceived()) | bit(11, transaction.getComment())
+				| bit(12, transaction.getTo()) | bit(13, transaction.getDetails())
+				| bit(14, transaction.getHex()));
+		if (transaction.getAmount() != null) {
+			writer.writeVarLong(transaction.getAmountSat());
+		}
+		if (transaction.getFee() != null) {
+			writer.writeVarLong(transaction.getFeeSat());
+		}
+		if (transaction.getConfirmations() != null) {
+			writer.writeVarLong(transaction.getConfirmations());
+		}
+		if (transaction.getGenerated() != null) {
+			writer.writeBoolean(transaction.getGenerated());
+		}
+		if (transaction.getBlockHash() != null) {
+			writer.writeHash(transaction.getBlockHash());
+		}
+		if (transaction.getBlockIndex() != null) {
+			writer.writeVarLong(transaction.getBlockIndex());
+		}
+		if (transaction.getBlockTime() != null) {
+			writer.writeVarLong(transaction.getBlockTime());
+		}
+		if (transaction.getTxId() != null) {
+			writer.writeHash(transaction.getTxId());
+		}
+		if (transaction.getWalletConflicts() != null) {
+			writeHashes(transaction.getWalletConflicts(), writer);
+		}
+		if (transaction.getTime() != null) {
+			writer.writeVarLong(transaction.getTime());
+		}
+		if (transaction.getTimeReceived() != null) {
+			writer.writeVarLong(transaction.getTimeReceived());
+		}
+		if (transaction.getComment() != null) {
+			writer.writeString(transaction.getComment());
+		}
+		if (transaction.getTo() != null) {
+			writer.writeString(transaction.getTo());
+		}
+		if (transaction.getDetails() != null) {
+			writer.writeUnsignedVarLong(transaction.getDetails().size());
+			for (PaymentOverview detail : transaction.getDetails()) {
+				writePaymentOverview(detail, writer);
+			}
+		}
+		if (transaction.getHex() != null) {
+			writer.writeHex(transaction.getHex());
+		}
+	}
+
+	private Transaction readTransaction(BinaryReader reader) {
+		Transaction transaction = new Transaction();
+		long mask = reader.readUnsignedVarLong();
+		if (has(mask, 0)) {
+			transaction.setAmountSat(reader.readVarLong());
+		}
+		if (has(mask, 1)) {
+			transaction.setFeeSat(reader.readVarLong());
+		}
+		if (has(mask, 2)) {
+			transaction.setConfirmations((int)reader.readVarLong());
+		}
+		if (has(mask, 3)) {
+			transaction.setGenerated(reader.readBoolean());
+		}
+		if (has(mask, 4)) {
+			transaction.setBlockHash(reader.readHash());
+		}
+		if (has(mask, 5)) {
+			transaction.setBlockIndex((int)reader.readVarLong());
+		}
+		if (has(mask, 6)) {
+			transaction.setBlockTime(reader.readVarLong());
+		}
+		if (has(mask, 7)) {
+			transaction.setTxId(reader.readHash());
+		}
+		if (has(mask, 8)) {
+			transaction.setWalletConflicts(readHashes(reader));
+		}
+		if (has(mask, 9)) {
+			transaction.setTime(reader.readVarLong());
+		}
+		if (has(mask, 10)) {
+			transaction.setTimeReceived(reader.readVarLong());
+		}
+		if (has(mask, 11)) {
+			transaction.setComment(reader.readString());
+		}
+		if (has(mask, 12)) {
+			transaction.setTo(reader.readString());
+		}
+		if (has(mask, 13)) {
+			int count = reader.readLength();
+			List<PaymentOverview> details = new ArrayList<PaymentOverview>(count);
+			for (int i = 0; i < count; i++) {
+				PaymentOverview detail = new PaymentOverview();
+				readPaymentOverview(detail, reader);
+				details.add(detail);
+			}
+			transaction.setDetails(details);
+		}
+		if (has(mask, 14)) {
+			transaction.setHex(reader.readHex());
+		}
+		return transaction;
+	}
+
+	private void writePaymentOverview(PaymentOverview payment, BinaryWriter writer) {
+		writer.writeUnsignedVarLong(bit(0, payment.getInvolvesWatchOnly())
+				| bit(1, payment.getAccount()) | bit(2, payment.getAddress())
+				| bit(3, payment.getCategory()) | bit(4, payment.getAmount())
+				| bit(5, payment.getVOut()) | bit(6, payment.getFee()));
+		if (payment.getInvolvesWatchOnly() != null) {
+			writer.writeBoolean(payment.getInvolvesWatchOnly());
+		}
+		if (payment.getAccount() != null) {
+			writer.writeString(payment.getAccount());
+		}
+		if (payment.getAddress() != null) {
+			writer.writeString(payment.getAddress());
+		}
+		if (payment.getCategory() != null) {
+			writer.writeString(payment.getCategory().getName());
+		}
+		if (payment.getAmount() != null) {
+			writer.writeVarLong(payment.getAmountSat());
+		}
+		if (payment.getVOut() != null) {
+			writer.writeVarLong(payment.getVOut());
+		}
+		if (payment.getFee() != null) {
+			writer.writeVarLong(payment.getFeeSat());
+		}
+	}
+
+	private void readPaymentOverview(PaymentOverview payment, BinaryReader reader) {
+		long mask = reader.readUnsignedVarLong();
+		if (has(mask, 0)) {
+			payment.setInvolvesWatchOnly(reader.readBoolean());
+		}
+		if (has(mask, 1)) {
+			payment.setAccount(reader.readString());
+		}
+		if (has(mask, 2)) {
+			payment.setAddress(reader.readString());
+		}
+		if (has(mask, 3)) {
+			payment.setCategory(PaymentCategories.forName(reader.readString()));
+		}
+		if (has(mask, 4)) {
+			payment.setAmountSat(reader.readVarLong());
+		}
+		if (has(mask, 5)) {
+			payment.setVOut((int)reader.readVarLong());
+		}
+		if (has(mask, 6)) {
+			payment.setFeeSat(reader.readVarLong());
+		}
+	}
+
+	private void writePayment(Payment payment, BinaryWriter writer) {
+		writePaymentOverview(payment, writer);
+		writer.writeUnsignedVarLong(bit(0, payment.getConfirmations())
+				| bit(1, payment.getGenerated()) | bit(2, payment.getBlockHash())
+				| bit(3, payment.getBlockIndex()) | bit(4, payment.getBlockTime())
+				| bit(5, payment.getTxId()) | bit(6, payment.getWalletConflicts())
+				| bit(7, payment.getTime()) | bit(8, payment.getTimeReceived())
+				| bit(9, payment.getComment()) | bit(10, payment.getTo())
+				| bit(11, payment.getOtherAccount()));
+		if (payment.getConfirmations() != null) {
+			writer.writeVarLong(payment.getConfirmations());
+		}
+		if (payment.getGenerated() != null) {
+			writer.writeBoolean(payment.getGenerated());
+		}
+		if (payment.getBlockHash() != null) {
+			writer.writeHash(payment.getBlockHash());
+		}
+		if (payment.getBlockIndex() != null) {
+			writer.writeVarLong(payment.getBlockIndex());
+		}
+		if (payment.getBlockTime() != null) {
+			writer.writeVarLong(payment.getBlockTime());
+		}
+		if (payment.getTxId() != null) {
+			writer.writeHash(payment.getTxId());
+		}
+		if (payment.getWalletConflicts() != null) {
+			writeHashes(payment.getWalletConflicts(), writer);
+		}
+		if (payment.getTime() != null) {
+			writer.writeVarLong(payment.getTime());
+		}
+		if (payment.getTimeReceived() != null) {
+			writer.writeVarLong(payment.getTimeReceived());
+		}
+		if (payment.getComment() != null) {
+			writer.writeString(payment.getComment());
+		}
+		if (payment.getTo() != null) {
+			writer.writeString(payment.getTo());
+		}
+		if (payment.getOtherAccount() != null) {
+			writer.writeString(payment.getOtherAccount());
+		}
+	}
+
+	private Payment readPayment(BinaryReader reader) {
+		Payment payment = new Payment();
+		readPaymentOverview(payment, reader);
+		long mask = reader.readUnsignedVarLong();
+		if (has(mask, 0)) {
+			payment.setConfirmations((int)reader.readVarLong());
+		}
+		if (has(mask, 1)) {
+			payment.setGenerated(reader.readBoolean());
+		}
+		if (has(mask, 2)) {
+			payment.setBlockHash(reader.readHash());
+		}
+		if (has(mask, 3)) {
+			payment.setBlockIndex((int)reader.readVarLong());
+		}
+		if (has(mask, 4)) {
+			payment.setBlockTime(reader.readVarLong());
+		}
+		if (has(mask, 5)) {
+			payment.setTxId(reader.readHash());
+		}
+		if (has(mask, 6)) {
+			payment.setWalletConflicts(readHashes(reader));
+		}
+		if (has(mask, 7)) {
+			payment.setTime(reader.readVarLong());
+		}
+		if (has(mask, 8)) {
+			payment.setTimeReceived(reader.readVarLong());
+		}
+		if (has(mask, 9)) {
+			payment.setComment(reader.readString());
+		}
+		if (has(mask, 10)) {
+			payment.setTo(reader.readString());
+		}
+		if (has(mask, 11)) {
+			payment.setOtherAccount(reader.readString());
+		}
+		return payment;
+	}
+
+	private void writeOutput(Output output, BinaryWriter writer) {
+		writer.writeUnsignedVarLong(bit(0, output.getTxId()) | bit(1, output.getVOut())
+				| bit(2, output.getAddress()) | bit(3, output.getAccount())
+				| bit(4, output.getScriptPubKey()) | bit(5, output.getRedeemScript())
+				| bit(6, output.getAmount()) | bit(7, output.getConfirmations())
+				| bit(8, output.getSpendable()));
+		if (output.getTxId() != null) {
+			writer.writeHash(output.getTxId());
+		}
+		if (output.getVOut() != null) {
+			writer.writeVarLong(output.getVOut());
+		}
+		if (output.getAddress() != null) {
+			writer.writeString(output.getAddress());
+		}
+		if (output.getAccount() != null) {
+			writer.writeString(output.getAccount());
+		}
+		if (output.getScriptPubKey() != null) {
+			writer.writeHex(output.getScriptPubKey());
+		}
+		if (output.getRedeemScript() != null) {
+			writer.writeHex(output.getRedeemScript());
+		}
+		if (output.getAmount() != null) {
+			writer.writeVarLong(output.getAmountSat());
+		}
+		if (output.getConfirmations() != null) {
+			writer.writeVarLong(output.getConfirmations());
+		}
+		if (output.getSpendable() != null) {
+			writer.writeBoolean(output.getSpendable());
+		}
+	}
+
+	private Output readOutput(BinaryReader reader) {
+		Output output = new Output();
+		long mask = reader.readUnsignedVarLong();
+		if (has(mask, 0)) {
+			output.setTxId(reader.readHash());
+		}
+		if (has(mask, 1)) {
+			output.setVOut((int)reader.readVarLong());
+		}
+		if (has(mask, 2)) {
+			output.setAddress(reader.readString());
+		}
+		if (has(mask, 3)) {
+			output.setAccount(reader.readString());
+		}
+		if (has(mask, 4)) {
+			output.setScriptPubKey(reader.readHex());
+		}
+		if (has(mask, 5)) {
+			output.setRedeemScript(reader.readHex());
+		}
+		if (has(mask, 6)) {
+			output.setAmountSat(reader.readVarLong());
+		}
+		if (has(mask, 7)) {
+			output.setConfirmations((int)reader.readVarLong());
+		}
+		if (has(mask, 8)) {
+			output.setSpendable(reader.readBoolean());
+		}
+		return output;
+	}
+
+	private void writeHashes(List<String> hashes, BinaryWriter writer) {
+		writer.writeUnsignedVarLong(hashes.size());
+		for (String hash : hashes) {
+			writer.writeHash(hash);
+		}
+	}
+
+	private List<String> readHashes(BinaryReader reader) {
+		int count = reader.readLength();
+		List<String> hashes = new ArrayList<String>(count);
+		for (int i = 0; i < count; i++) {
+			hashes.add(reader.readHash());
+		}
+		return hashes;
+	}
+
+	private void writeStrings(List<String> values, BinaryWriter writer) {
+		writer.writeUnsignedVarLong(values.size());
+		for (String value : values) {
+			writer.writeString(value);
+		}
+	}
+
+	private List<String> readStrings(BinaryReader reader) {
+		int count = reader.readLength();
+		List<String> values = new ArrayList<String>(count);
+		for (int i = 0; i < count; i++) {
+			values.add(reader.readString());
+		}
+		return values;
+	}
+
+	private static long bit(int index, Object value) {
+		return (value == null) ? 0 : (1L << index);
+	}
+
+	private static boolean has(long mask, int index) {
+		return (mask & (1L << index)) != 0;
+	}
+}
@@ -0,0 +1,572 @@
+package com.neemre.btcdcli4j.core.codec;
+
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.neemre.btcdcli4j.core.common.Errors;
+import com.neemre.btcdcli4j.core.domain.ColumnarBlock;
+import com.neemre.btcdcli4j.core.domain.LazyRawBlock;
+import com.neemre.btcdcli4j.core.domain.PubKeyScript;
+import com.neemre.btcdcli4j.core.domain.RawBlock;
+import com.neemre.btcdcli4j.core.domain.RawInput;
+import com.neemre.btcdcli4j.core.domain.RawOutput;
+import com.neemre.btcdcli4j.core.domain.RawTransaction;
+import com.neemre.btcdcli4j.core.domain.Sha256Hash;
+import com.neemre.btcdcli4j.core.domain.SignatureScript;
+import com.neemre.btcdcli4j.core.domain.enums.ScriptTypes;
+import com.neemre.btcdcli4j.core.util.HexUtils;
+
+/**Decodes blocks &amp; transactions in the Bitcoin wire format (as returned by {@code getblock} with
+ * verbosity 0 and by {@code getrawtransaction}) directly into the core domain entities, including
+ * segwit witness data, without calling the node. The txid, wtxid (as {@code hash}), size, virtual
+ * size and weight of every transaction are computed locally, as are the hash and difficulty of a
+ * block, and output scripts are classified by their template. Fields that only the node can know
+ * (the block height, confirmations, chainwork, the addresses &amp; the {@code asm} form of scripts)
+ * are left {@code null}. Instances are stateless and thread-safe.*/
+public class WireDecoder {
+
+	private static final int HEADER_SIZE = 80;
+	private static final int HASH_SIZE = 32;
+	private static final long COINBASE_INDEX = 0xFFFFFFFFL;
+
+	private static final int OP_0 = 0x00;
+	private static final int OP_PUSHDATA4 = 0x4E;
+	private static final int OP_1 = 0x51;
+	private static final int OP_16 = 0x60;
+	private static final int OP_RETURN = 0x6A;
+	private static final int OP_DUP = 0x76;
+	private static final int OP_EQUAL = 0x87;
+	private static final int OP_EQUALVERIFY = 0x88;
+	private static final int OP_HASH160 = 0xA9;
+	private static final int OP_CHECKSIG = 0xAC;
+	private static final int OP_CHECKMULTISIG = 0xAE;
+
+	private boolean includeHex;
+
+
+	public WireDecoder() {
+		this(true);
+	}
+
+	/**@param includeHex whether to set the {@code hex} field of decoded transactions (copying the
+	 * serialized form into a string roughly triples the cost of decoding a block)*/
+	public WireDecoder(boolean includeHex) {
+		this.includeHex = includeHex;
+	}
+
+	public RawBlock decodeBlock(String hexBlock) {
+		return decodeBlock(HexUtils.fromHex(hexBlock));
+	}
+
+	public RawBlock decodeBlock(byte[] block) {
+		return decodeBlock(ByteBuffer.wrap(block));
+	}
+
+	/**Decodes a serialized block, starting at the current position of {@code source} and leaving
+	 * it right after the last transaction.*/
+	public RawBlock decodeBlock(ByteBuffer source) {
+		try {
+			ByteBuffer buffer = toHeapBuffer(source);
+			MessageDigest digest = getDigest();
+			RawBlock block = new RawBlock();
+			readHeader(buffer, digest, block);
+			int transactionCount = readCount(buffer);
+			List<RawTransaction> transactions = new ArrayList<RawTransaction>(transactionCount);
+			for (int i = 0; i < transactionCount; i++) {
+				transactions.add(readTransaction(buffer, digest));
+			}
+			block.setTx(transactions);
+			block.setSize(buffer.position());
+			source.position(source.position() + buffer.position());
+			return block;
+		} catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+			throw new IllegalArgumentException(Errors.PARSE_BINARY_MALFORMED.getDescription(), e);
+		}
+	}
+
+	/**Like {@link #decodeBlock(ByteBuffer)}, but only decodes the header right away; transactions
+	 * are merely delimited (which is an order of magnitude cheaper than decoding them) and decoded
+	 * on first access. The returned block keeps referring to the content of {@code source}, which
+	 * must thus not be modified afterwards.*/
+	public LazyRawBlock decodeLazyBlock(ByteBuffer source) {
+		try {
+			final ByteBuffer buffer = toHeapBuffer(source);
+			LazyRawBlock block = new LazyRawBlock();
+			readHeader(buffer, getDigest(), block);
+			final int transactionCount = readCount(buffer);
+			final int[] offsets = new int[transactionCount + 1];
+			for (int i = 0; i < transactionCount; i++) {
+				offsets[i] = buffer.position();
+				skipTransaction(buffer);
+			}
+			offsets[transactionCount] = buffer.position();
+			block.setSource(new LazyRawBlock.TransactionSource() {
+				@Override
+				public int getCount() {
+					return transactionCount;
+				}
+
+				@Override
+				public RawTransaction decode(int index) {
+					ByteBuffer transaction = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+					transaction.position(offsets[index]);
+					transaction.limit(offsets[index + 1]);
+					return readTransaction(transaction.slice().order(ByteOrder.LITTLE_ENDIAN),
+							getDigest());
+				}
+			});
+			block.setSize(buffer.position());
+			source.position(source.position() + buffer.position());
+			return block;
+		} catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+			throw new IllegalArgumentException(Errors.PARSE_BINARY_MALFORMED.getDescription(), e);
+		}
+	}
+
+	/**Decodes a serialized block straight into a {@link ColumnarBlock}, without creating any
+	 * objects per transaction or per output (save for a copy of each output script, which is
+	 * classified like in {@link #decodeBlock(ByteBuffer)}). As the wire format lacks it, the
+	 * height of the block is left {@code null}.*/
+	public ColumnarBlock decodeColumnarBlock(ByteBuffer source) {
+		try {
+			ByteBuffer buffer = toHeapBuffer(source);
+			MessageDigest digest = getDigest();
+			RawBlock header = new RawBlock();
+			Sha256Hash hash = readHeader(buffer, digest, header);
+			int transactionCount = readCount(buffer);
+			ColumnarBlock.Builder builder = new ColumnarBlock.Builder();
+			for (int i = 0; i < transactionCount; i++) {
+				readColumnarTransaction(buffer, digest, builder);
+			}
+			source.position(source.position() + buffer.position());
+			return builder.build(hash, null, header.getTime());
+		} catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+			throw new IllegalArgumentException(Errors.PARSE_BINARY_MALFORMED.getDescription(), e);
+		}
+	}
+
+	public RawTransaction decodeTransaction(String hexTransaction) {
+		return decodeTransaction(HexUtils.fromHex(hexTransaction));
+	}
+
+	public RawTransaction decodeTransaction(byte[] transaction) {
+		return decodeTransaction(ByteBuffer.wrap(transaction));
+	}
+
+	/**Decodes a serialized transaction, starting at the current position of {@code source} and
+	 * leaving it right after the transaction.*/
+	public RawTransaction decodeTransaction(ByteBuffer source) {
+		try {
+			ByteBuffer buffer = toHeapBuffer(source);
+			RawTransaction transaction = readTransaction(buffer, getDigest());
+			source.position(source.position() + buffer.position());
+			return transaction;
+		} catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+			throw new IllegalArgumentException(Errors.PARSE_BINARY_MALFORMED.getDescription(), e);
+		}
+	}
+
+	/**Classifies an output script by its standard template, following the node's own solver.*/
+	public static ScriptTypes getScriptType(byte[] script) {
+		int length = script.length;
+		if ((length == 25) && (u8(script, 0) == OP_DUP) && (u8(script, 1) == OP_HASH160)
+				&& (script[2] == 20) && (u8(script, 23) == OP_EQUALVERIFY)
+				&& (u8(script, 24) == OP_CHECKSIG)) {
+			return ScriptTypes.PUB_KEY_HASH;
+		}
+		if ((length == 23) && (u8(script, 0) == OP_HASH160) && (script[1] == 20)
+				&& (u8(script, 22) == OP_EQUAL)) {
+			return ScriptTypes.SCRIPT_HASH;
+		}
+		if ((length >= 4) && (length <= 42) && ((u8(script, 0) == OP_0) || ((u8(script, 0) >= OP_1)
+				&& (u8(script, 0) <= OP_16))) && (script[1] == length - 2)) {
+			int version = (u8(script, 0) == OP_0) ? 0 : u8(script, 0) - OP_1 + 1;
+			if ((version == 0) && (length == 22)) {
+				return ScriptTypes.WITNESS_V0_KEYHASH;
+			} else if ((version == 0) && (length == 34)) {
+				return ScriptTypes.WITNESS_V0_SCRIPTHASH;
+			} else if ((version == 1) && (length == 34)) {
+				return ScriptTypes.WITNESS_V1_TAPROOT;
+			} else if ((version == 1) && (length == 4) && (script[2] == 0x4E) && (script[3] == 0x73)) {
+				return ScriptTypes.ANCHOR;
+			} else if (version != 0) {
+				return ScriptTypes.WITNESS_UNKNOWN;
+			}
+			return ScriptTypes.NONSTANDARD;
+		}
+		if ((length >= 1) && (u8(script, 0) == OP_RETURN) && isPushOnly(script, 1)) {
+			return ScriptTypes.NULL_DATA;
+		}
+		if ((((length == 35) && (script[0] == 33)) || ((length == 67) && (script[0] == 65)))
+				&& (u8(script, length - 1) == OP_CHECKSIG)) {
+			return ScriptTypes.PUB_KEY;
+		}
+		if (isMultisig(script)) {
+			return ScriptTypes.MULTISIG;
+		}
+		return ScriptTypes.NONSTANDARD;
+	}
+
+	/**Reads the block header into {@code block} and returns the hash of the block; the number of
+	 * transactions follows.*/
+	private Sha256Hash readHeader(ByteBuffer buffer, MessageDigest digest, RawBlock block) {
+		if (buffer.remaining() < HEADER_SIZE) {
+			throw new BufferUnderflowException();
+		}
+		digest.update(buffer.array(), buffer.arrayOffset(), HEADER_SIZE);
+		Sha256Hash hash = doubleDigest(digest);
+		block.setHash(hash.toHex());
+		block.setVersion(buffer.getInt());
+		block.setPreviousBlockHash(readHash(buffer).toHex());
+		block.setMerkleRoot(readHash(buffer).toHex());
+		block.setTime(buffer.getInt() & 0xFFFFFFFFL);
+		int bits = buffer.getInt();
+		block.setBits(String.format("%08x", bits));
+		block.setDifficulty(getDifficulty(bits));
+		block.setNonce(buffer.getInt() & 0xFFFFFFFFL);
+		return hash;
+	}
+
+	private void skipTransaction(ByteBuffer buffer) {
+		skip(buffer, 4);
+		boolean hasWitness = (buffer.get(buffer.position()) == 0)
+				&& (buffer.get(buffer.position() + 1) != 0);
+		if (hasWitness) {
+			buffer.position(buffer.position() + 2);
+		}
+		int inputCount = readCount(buffer);
+		for (int i = 0; i < inputCount; i++) {
+			skip(buffer, HASH_SIZE + 4);
+			skip(buffer, readCount(buffer) + 4);
+		}
+		int outputCount = readCount(buffer);
+		for (int i = 0; i < outputCount; i++) {
+			skip(buffer, 8);
+			skip(buffer, readCount(buffer));
+		}
+		if (hasWitness) {
+			for (int i = 0; i < inputCount; i++) {
+				int itemCount = readCount(buffer);
+				for (int j = 0; j < itemCount; j++) {
+					skip(buffer, readCount(buffer));
+				}
+			}
+		}
+		skip(buffer, 4);
+	}
+
+	/**Like {@link #skipTransaction(ByteBuffer)}, but hashes the transaction &amp; adds its outputs
+	 * to {@code builder} along the way.*/
+	private void readColumnarTransaction(ByteBuffer buffer, MessageDigest digest,
+			ColumnarBlock.Builder builder) {
+		int start = buffer.position();
+		skip(buffer, 4);
+		boolean hasWitness = (buffer.get(buffer.position()) == 0)
+				&& (buffer.get(buffer.position() + 1) != 0);
+		if (hasWitness) {
+			buffer.position(buffer.position() + 2);
+		}
+		int bodyStart = buffer.position();
+		int inputCount = readCount(buffer);
+		for (int i = 0; i < inputCount; i++) {
+			skip(buffer, HASH_SIZE + 4);
+			skip(buffer, readCount(buffer) + 4);
+		}
+		int outputCount = readCount(buffer);
+		int outputsStart = buffer.position();
+		for (int i = 0; i < outputCount; i++) {
+			skip(buffer, 8);
+			skip(buffer, readCount(buffer));
+		}
+		int bodyEnd = buffer.position();
+		if (hasWitness) {
+			for (int i = 0; i < inputCount; i++) {
+				int itemCount = readCount(buffer);
+				for (int j = 0; j < itemCount; j++) {
+					skip(buffer, readCount(buffer));
+				}
+			}
+		}
+		skip(buffer, 4);
+		int end = buffer.position();
+
+		byte[] array = buffer.array();
+		int offset = buffer.arrayOffset();
+		digest.update(array, offset + start, 4);
+		digest.update(array, offset + bodyStart, bodyEnd - bodyStart);
+		digest.update(array, offset + end - 4, 4);
+		builder.startTransaction(doubleDigest(digest), inputCount);
+		// the outputs were already bounds-checked while skipping them
+		buffer.position(outputsStart);
+		for (int i = 0; i < outputCount; i++) {
+			long value = buffer.getLong();
+			int scriptLength = readCount(buffer);
+			byte[] script = toArray(buffer, buffer.position(), scriptLength);
+			buffer.position(buffer.position() + scriptLength);
+			builder.addOutput(value, getScriptType(script), script, 0, scriptLength);
+		}
+		buffer.position(end);
+	}
+
+	private void skip(ByteBuffer buffer, int length) {
+		// position(..) would throw an IllegalArgumentException instead
+		if (buffer.remaining() < length) {
+			throw new BufferUnderflowException();
+		}
+		buffer.position(buffer.position() + length);
+	}
+
+	private RawTransaction readTransaction(ByteBuffer buffer, MessageDigest digest) {
+		int start = buffer.position();
+		RawTransaction transaction = new RawTransaction();
+		transaction.setVersion(buffer.getInt());
+		// segwit transactions carry a zero marker byte where the input count would be, followed by
+		// a non-zero flag byte
+		boolean hasWitness = (buffer.get(buffer.position()) == 0)
+				&& (buffer.get(buffer.position() + 1) != 0);
+		if (hasWitness) {
+			buffer.position(buffer.position() + 2);
+		}
+		int bodyStart = buffer.position();
+		int inputCount = readCount(buffer);
+		List<RawInput> inputs = new ArrayList<RawInput>(inputCount);
+		for (int i = 0; i < inputCount; i++) {
+			inputs.add(readInput(buffer));
+		}
+		int outputCount = readCount(buffer);
+		List<RawOutput> outputs = new ArrayList<RawOutput>(outputCount);
+		for (int i = 0; i < outputCount; i++) {
+			outputs.add(readOutput(buffer, i));
+		}
+		int bodyEnd = buffer.position();
+		if (hasWitness) {
+			for (RawInput input : inputs) {
+				int itemCount = readCount(buffer);
+				List<String> witness = new ArrayList<String>(itemCount);
+				for (int i = 0; i < itemCount; i++) {
+					witness.add(readHex(buffer, readCount(buffer)));
+				}
+				input.setTxinwitness(witness);
+			}
+		}
+		transaction.setLockTime(buffer.getInt() & 0xFFFFFFFFL);
+		int end = buffer.position();
+		transaction.setVIn(inputs);
+		transaction.setVOut(outputs);
+
+		byte[] array = buffer.array();
+		int offset = buffer.arrayOffset();
+		// the txid commits to the serialization without the marker, flag & witness data
+		digest.update(array, offset + start, 4);
+		digest.update(array, offset + bodyStart, bodyEnd - bodyStart);
+		digest.update(array, offset + end - 4, 4);
+		transaction.setTxId(doubleDigest(digest).toHex());
+		if (hasWitness) {
+			digest.update(array, offset + start, end - start);
+			transaction.setHash(doubleDigest(digest).toHex());
+		} else {
+			transaction.setHash(transaction.getTxId());
+		}
+		int size = end - start;
+		int strippedSize = 8 + (bodyEnd - bodyStart);
+		int weight = 3 * strippedSize + size;
+		transaction.setSize(size);
+		transaction.setVSize((weight + 3) / 4);
+		transaction.setWeight(weight);
+		if (includeHex) {
+			transaction.setHex(HexUtils.toHex(array, offset + start, size));
+		}
+		return transaction;
+	}
+
+	private RawInput readInput(ByteBuffer buffer) {
+		RawInput input = new RawInput();
+		Sha256Hash previousHash = readHash(buffer);
+		long index = buffer.getInt() & 0xFFFFFFFFL;
+		int scriptLength = readCount(buffer);
+		if ((index == COINBASE_INDEX) && previousHash.equals(Sha256Hash.ZERO)) {
+			input.setCoinbase(readHex(buffer, scriptLength));
+		} else {
+			input.setTxId(previousHash.toHex());
+			input.setVOut((int)index);
+			input.setScriptSig(new SignatureScript(null, readHex(buffer, scriptLength)));
+		}
+		input.setSequence(buffer.getInt() & 0xFFFFFFFFL);
+		return input;
+	}
+
+	private RawOutput readOutput(ByteBuffer buffer, int n) {
+		long value = buffer.getLong();
+		int scriptLength = readCount(buffer);
+		byte[] script = toArray(buffer, buffer.position(), scriptLength);
+		buffer.position(buffer.position() + script.length);
+		PubKeyScript scriptPubKey = new PubKeyScript();
+		scriptPubKey.setHex(HexUtils.toHex(script));
+		scriptPubKey.setType(getScriptType(script));
+		RawOutput output = new RawOutput();
+		output.setValueSat(value);
+		output.setN(n);
+		output.setScriptPubKey(scriptPubKey);
+		return output;
+	}
+
+	private int readCount(ByteBuffer buffer) {
+		int first = buffer.get() & 0xFF;
+		long count;
+		if (first < 0xFD) {
+			count = first;
+		} else if (first == 0xFD) {
+			count = buffer.getShort() & 0xFFFFL;
+		} else if (first == 0xFE) {
+			count = buffer.getInt() & 0xFFFFFFFFL;
+		} else {
+			count = buffer.getLong();
+		}
+		if ((count < 0) || (count > buffer.remaining())) {
+			throw new IllegalArgumentException(Errors.PARSE_BINARY_MALFORMED.getDescription());
+		}
+		return (int)count;
+	}
+
+	private Sha256Hash readHash(ByteBuffer buffer) {
+		if (buffer.remaining() < HASH_SIZE) {
+			throw new BufferUnderflowException();
+		}
+		Sha256Hash hash = Sha256Hash.fromReversedBytes(buffer.array(), buffer.arrayOffset()
+				+ buffer.position());
+		buffer.position(buffer.position() + HASH_SIZE);
+		return hash;
+	}
+
+	private String readHex(ByteBuffer buffer, int length) {
+		if (buffer.remaining() < length) {
+			throw new BufferUnderflowException();
+		}
+		String hex = HexUtils.toHex(buffer.array(), buffer.arrayOffset() + buffer.position(),
+				length);
+		buffer.position(buffer.position() + length);
+		return hex;
+	}
+
+	/**Returns the remaining content of {@code source} as a little-endian buffer starting at position
+	 * 0 and backed by an accessible array (copying it only if it is direct or read-only).*/
+	private ByteBuffer toHeapBuffer(ByteBuffer source) {
+		ByteBuffer buffer;
+		if (source.hasArray()) {
+			buffer = source.slice();
+		} else {
+			byte[] bytes = new byte[source.remaining()];
+			source.duplicate().get(bytes);
+			buffer = ByteBuffer.wrap(bytes);
+		}
+		return buffer.order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+	private byte[] toArray(ByteBuffer buffer, int position, int length) {
+		if (position + length > buffer.limit()) {
+			throw new BufferUnderflowException();
+		}
+		byte[] bytes = new byte[length];
+		System.arraycopy(buffer.array(), buffer.arrayOffset() + position, bytes, 0, length);
+		return bytes;
+	}
+
+	/**Returns the double SHA-256 of the data fed to {@code digest}, which (unlike the digest
+	 * itself) reads in the byte order used by the RPC interface.*/
+	private Sha256Hash doubleDigest(MessageDigest digest) {
+		byte[] firstPass = digest.digest();
+		return Sha256Hash.fromReversedBytes(digest.digest(firstPass), 0);
+	}
+
+	private MessageDigest getDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**Mirrors the node's {@code GetDifficulty}, i.e. the ratio of the genesis block target to the
+	 * target encoded in {@code bits}.*/
+	private BigDecimal getDifficulty(int bits) {
+		int shift = (bits >>> 24) & 0xFF;
+		double difficulty = (double)0x0000FFFF / (double)(bits & 0x00FFFFFF);
+		while (shift < 29) {
+			difficulty *= 256.0;
+			shift++;
+		}
+		while (shift > 29) {
+			difficulty /= 256.0;
+			shift--;
+		}
+		return BigDecimal.valueOf(difficulty);
+	}
+
+	private static int u8(byte[] script, int index) {
+		return script[index] & 0xFF;
+	}
+
+	/**Returns the position right after the operation starting at {@code position}, or -1 if the
+	 * operation is truncated.*/
+	private static int skipOperation(byte[] script, int position) {
+		int opcode = u8(script, position++);
+		long length = 0;
+		if (opcode < 0x4C) {
+			length = opcode;
+		} else if ((opcode == 0x4C) && (position + 1 <= script.length)) {
+			length = u8(script, position);
+			position += 1;
+		} else if ((opcode == 0x4D) && (position + 2 <= script.length)) {
+			length = u8(script, position) | (u8(script, position + 1) << 8);
+			position += 2;
+		} else if ((opcode == OP_PUSHDATA4) && (position + 4 <= script.length)) {
+			length = (u8(script, position) | (u8(script, position + 1) << 8)
+					| (u8(script, position + 2) << 16) | ((long)u8(script, position + 3) << 24));
+			position += 4;
+		} else if (opcode <= OP_PUSHDATA4) {
+			return -1;
+		}
+		return (position + length <= script.length) ? (int)(position + length) : -1;
+	}
+
+	private static boolean isPushOnly(byte[] script, int position) {
+		while (position < script.length) {
+			if (u8(script, position) > OP_16) {
+				return false;
+			}
+			position = skipOperation(script, position);
+			if (position < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isMultisig(byte[] script) {
+		int length = script.length;
+		if ((length < 3) || (u8(script, length - 1) != OP_CHECKMULTISIG)
+				|| (u8(script, 0) < OP_1) || (u8(script, 0) > OP_16)
+				|| (u8(script, length - 2) < OP_1) || (u8(script, length - 2) > OP_16)) {
+			return false;
+		}
+		int required = u8(script, 0) - OP_1 + 1;
+		int total = u8(script, length - 2) - OP_1 + 1;
+		int keyCount = 0;
+		int position = 1;
+		while (position < length - 2) {
+			int keyLength = script[position];
+			if (((keyLength != 33) && (keyLength != 65)) || (position + 1 + keyLength > length - 2)) {
+				return false;
+			}
+			position += 1 + keyLength;
+			keyCount++;
+		}
+		return (keyCount == total) && (required <= total);
+	}
+}
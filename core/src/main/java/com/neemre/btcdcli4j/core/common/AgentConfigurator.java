@@ -37,6 +37,10 @@ public abstract class AgentConfigurator {
 		return nodeConfig;
 	}
 	
+	public String getNodeProperty(NodeProperties property) {
+		return nodeConfig.getProperty(property.getKey(), property.getDefaultValue());
+	}
+
 	public Properties toProperties(Object... values) {
 		Properties properties = new Properties();
 		List<NodeProperties> requiredProperties = new ArrayList<NodeProperties>(
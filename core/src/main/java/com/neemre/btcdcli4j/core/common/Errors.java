@@ -44,6 +44,18 @@ public enum Errors {
 			+ "type, but was invalid/unsupported instead."),
 	ARGS_BTCD_PROVIDER_NULL(1001019, "Expected a preconfigured 'bitcoind' JSON-RPC API provider, but got "
 			+ "'null' instead."),
+	ARGS_TLS_TRUSTSTORE_INVALID(1001020, "Expected the argument to point to a readable TLS trust store, "
+			+ "but was invalid/unreadable instead."),
+	ARGS_ARCHIVE_DIR_INVALID(1001021, "Expected the argument to point to a writable block archive "
+			+ "directory, but was invalid/unwritable instead."),
+	ARGS_CODEC_ENTITY_UNSUPPORTED(1001022, "Expected the argument to be an entity supported by the binary "
+			+ "codec, but was unsupported instead."),
+	ARGS_HASH_MALFORMED(1001023, "Expected the argument to be a 32-byte hash (64 hex digits), but was "
+			+ "malformed instead."),
+	ARGS_PROJECTION_PATH_MALFORMED(1001024, "Expected the argument to be a dot-separated path of JSON "
+			+ "member names, but was malformed instead."),
+	ARGS_PROPERTY_NOT_NUMERIC(1001025, "Expected the node property to be a number of the supported "
+			+ "range, but was malformed instead."),
 	REQUEST_HTTP_FAULT(1002001, "Request execution failed due an error in the HTTP protocol."),
 	RESPONSE_HTTP_CLIENT_FAULT(1003001, "The server responded with a non-OK (4xx) HTTP status code. "
 			+ "Status line: "),
@@ -60,6 +72,10 @@ public enum Errors {
 	PARSE_URI_FAILED(1005001, "Unable to parse the specified URI."),
 	PARSE_JSON_UNKNOWN(1005002, "An unknown exception occurred while parsing/generating JSON content."),
 	PARSE_JSON_MALFORMED(1005003, "Unable to parse the specified JSON content (malformed syntax detected)."),
+	PARSE_BINARY_MALFORMED(1005004, "Unable to decode the specified binary content (malformed or truncated "
+			+ "input detected)."),
+	PARSE_BINARY_VERSION_UNSUPPORTED(1005005, "Expected binary content in a supported format version, but "
+			+ "was in an unsupported version instead."),
 	MAP_JSON_UNKNOWN(1006001, "An unknown exception ocurred while mapping the JSON content.");
 
 	private final int code;
@@ -6,15 +6,20 @@ import java.util.List;
 import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.neemre.btcdcli4j.core.common.Defaults;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonCodec;
+import com.neemre.btcdcli4j.core.jsonrpc.deserialization.SatoshiDeserializer;
+import com.neemre.btcdcli4j.core.util.NumberUtils;
 
 @Data
 @NoArgsConstructor
@@ -22,14 +27,16 @@ import com.neemre.btcdcli4j.core.common.Defaults;
 @EqualsAndHashCode(callSuper = false)
 @JsonInclude(Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonCodec
 public class Address extends Entity {
 
 	@JsonProperty("involvesWatchonly")
 	private Boolean involvesWatchOnly;
 	private String address;
 	private String account;
+	@Getter(AccessLevel.NONE)
 	@Setter(AccessLevel.NONE)
-	private BigDecimal amount;
+	private Long amountSat;
 	private Integer confirmations;
 	@JsonProperty("txids")
 	private List<String> txIds;
@@ -45,7 +52,26 @@ public class Address extends Entity {
 		setTxIds(txIds);
 	}
 
+	public BigDecimal getAmount() {
+		return NumberUtils.fromSatoshis(amountSat);
+	}
+
 	public void setAmount(BigDecimal amount) {
-		this.amount = amount.setScale(Defaults.DECIMAL_SCALE, Defaults.ROUNDING_MODE);
+		this.amountSat = NumberUtils.toSatoshis(amount);
+	}
+
+	@JsonIgnore
+	public long getAmountSat() {
+		return (amountSat == null) ? 0 : amountSat;
+	}
+
+	public void setAmountSat(long amountSat) {
+		this.amountSat = amountSat;
+	}
+
+	@JsonProperty("amount")
+	@JsonDeserialize(using = SatoshiDeserializer.class)
+	void setAmountJson(Long amountSat) {
+		this.amountSat = amountSat;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.neemre.btcdcli4j.core.domain;
+
+import java.math.BigDecimal;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.neemre.btcdcli4j.core.common.Defaults;
+
+@Data
+@NoArgsConstructor
+@ToString(callSuper = true)
+@EqualsAndHashCode(callSuper = false)
+@JsonInclude(Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class BlockHeader extends Entity {
+
+	private String hash;
+	private Integer confirmations;
+	private Integer height;
+	private Integer version;
+	@JsonProperty("merkleroot")
+	private String merkleRoot;
+	private Long time;
+	@JsonProperty("mediantime")
+	private Long medianTime;
+	private Long nonce;
+	private String bits;
+	@Setter(AccessLevel.NONE)
+	private BigDecimal difficulty;
+	@JsonProperty("chainwork")
+	private String chainWork;
+	@JsonProperty("previousblockhash")
+	private String previousBlockHash;
+	@JsonProperty("nextblockhash")
+	private String nextBlockHash;
+
+
+	public BlockHeader(String hash, Integer confirmations, Integer height, Integer version,
+			String merkleRoot, Long time, Long medianTime, Long nonce, String bits,
+			BigDecimal difficulty, String chainWork, String previousBlockHash,
+			String nextBlockHash) {
+		setHash(hash);
+		setConfirmations(confirmations);
+		setHeight(height);
+		setVersion(version);
+		setMerkleRoot(merkleRoot);
+		setTime(time);
+		setMedianTime(medianTime);
+		setNonce(nonce);
+		setBits(bits);
+		setDifficulty(difficulty);
+		setChainWork(chainWork);
+		setPreviousBlockHash(previousBlockHash);
+		setNextBlockHash(nextBlockHash);
+	}
+
+	public void setDifficulty(BigDecimal difficulty) {
+		this.difficulty = difficulty.setScale(Defaults.DECIMAL_SCALE, Defaults.ROUNDING_MODE);
+	}
+}
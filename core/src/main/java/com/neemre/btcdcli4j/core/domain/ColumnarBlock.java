@@ -0,0 +1,284 @@
+package com.neemre.btcdcli4j.core.domain;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.neemre.btcdcli4j.core.codec.WireDecoder;
+import com.neemre.btcdcli4j.core.domain.enums.ScriptTypes;
+import com.neemre.btcdcli4j.core.util.HexUtils;
+
+/**A read-only, columnar (struct-of-arrays) view of the transactions &amp; outputs of a block, meant
+ * for analytics over large numbers of outputs: rather than a graph of {@link RawOutput}s, each
+ * with its own script, the outputs of all transactions are laid out in flat primitive arrays,
+ * indexed by their position in the block. The outputs of transaction {@code t} are those in
+ * {@code [getOutputStart(t), getOutputStart(t + 1))}; their values are held in satoshis, their
+ * script types as byte codes (the ordinal of the {@link ScriptTypes} constant, or {@code -1} if
+ * unknown) and their scripts packed back to back into a single byte array. The aggregate
+ * operations are plain loops over these arrays, which the JIT compiler can unroll &amp; vectorize.
+ * Instances are built with a {@link Builder}, e.g. by {@link WireDecoder#decodeColumnarBlock} or
+ * from mapped transactions, and are thread-safe once built.*/
+public final class ColumnarBlock {
+
+	private static final ScriptTypes[] SCRIPT_TYPES = ScriptTypes.values();
+
+	private final Sha256Hash hash;
+	private final Integer height;
+	private final Long time;
+	private final int transactionCount;
+	private final Sha256Hash[] txIds;
+	private final int[] inputCounts;
+	private final int[] outputStarts;
+	private final int outputCount;
+	private final long[] values;
+	private final byte[] scriptTypes;
+	private final int[] scriptStarts;
+	private final byte[] scripts;
+
+
+	private ColumnarBlock(Sha256Hash hash, Integer height, Long time, Builder builder) {
+		this.hash = hash;
+		this.height = height;
+		this.time = time;
+		this.transactionCount = builder.transactionCount;
+		this.txIds = Arrays.copyOf(builder.txIds, transactionCount);
+		this.inputCounts = Arrays.copyOf(builder.inputCounts, transactionCount);
+		this.outputStarts = Arrays.copyOf(builder.outputStarts, transactionCount + 1);
+		this.outputCount = builder.outputCount;
+		this.values = Arrays.copyOf(builder.values, outputCount);
+		this.scriptTypes = Arrays.copyOf(builder.scriptTypes, outputCount);
+		this.scriptStarts = Arrays.copyOf(builder.scriptStarts, outputCount + 1);
+		this.scripts = Arrays.copyOf(builder.scripts, scriptStarts[outputCount]);
+	}
+
+	/**Returns the columnar view of an already mapped block.*/
+	public static ColumnarBlock of(RawBlock block) {
+		Builder builder = new Builder();
+		if (block.getTx() != null) {
+			for (RawTransaction transaction : block.getTx()) {
+				builder.addTransaction(transaction);
+			}
+		}
+		return builder.build(Sha256Hash.parse(block.getHash()), block.getHeight(),
+				block.getTime());
+	}
+
+	public Sha256Hash getHash() {
+		return hash;
+	}
+
+	public Integer getHeight() {
+		return height;
+	}
+
+	public Long getTime() {
+		return time;
+	}
+
+	public int getTransactionCount() {
+		return transactionCount;
+	}
+
+	/**Returns the txid of transaction {@code tx}, or {@code null} if it was not known.*/
+	public Sha256Hash getTxId(int tx) {
+		checkIndex(tx, transactionCount);
+		return txIds[tx];
+	}
+
+	public int getInputCount(int tx) {
+		checkIndex(tx, transactionCount);
+		return inputCounts[tx];
+	}
+
+	/**Returns the index of the first output of transaction {@code tx}; for {@code tx} equal to the
+	 * transaction count, returns the output count.*/
+	public int getOutputStart(int tx) {
+		checkIndex(tx, transactionCount + 1);
+		return outputStarts[tx];
+	}
+
+	public int getOutputCount(int tx) {
+		checkIndex(tx, transactionCount);
+		return outputStarts[tx + 1] - outputStarts[tx];
+	}
+
+	public int getOutputCount() {
+		return outputCount;
+	}
+
+	public long getValueSat(int output) {
+		checkIndex(output, outputCount);
+		return values[output];
+	}
+
+	/**Returns the script type of an output, or {@code null} if it was not known.*/
+	public ScriptTypes getScriptType(int output) {
+		checkIndex(output, outputCount);
+		return (scriptTypes[output] < 0) ? null : SCRIPT_TYPES[scriptTypes[output]];
+	}
+
+	/**Returns a copy of the script of an output.*/
+	public byte[] getScript(int output) {
+		checkIndex(output, outputCount);
+		return Arrays.copyOfRange(scripts, scriptStarts[output], scriptStarts[output + 1]);
+	}
+
+	public int getScriptLength(int output) {
+		checkIndex(output, outputCount);
+		return scriptStarts[output + 1] - scriptStarts[output];
+	}
+
+	/**Returns the total value (in satoshis) of all outputs of the block.*/
+	public long getTotalValueSat() {
+		long total = 0;
+		for (int i = 0; i < outputCount; i++) {
+			total += values[i];
+		}
+		return total;
+	}
+
+	/**Returns the total value (in satoshis) of the outputs of transaction {@code tx}.*/
+	public long getTotalValueSat(int tx) {
+		checkIndex(tx, transactionCount);
+		long total = 0;
+		for (int i = outputStarts[tx]; i < outputStarts[tx + 1]; i++) {
+			total += values[i];
+		}
+		return total;
+	}
+
+	/**Returns the total value (in satoshis) of the outputs of type {@code scriptType}.*/
+	public long getTotalValueSat(ScriptTypes scriptType) {
+		byte code = (byte)scriptType.ordinal();
+		long total = 0;
+		for (int i = 0; i < outputCount; i++) {
+			// branch-free (the mask is all ones for a match, else zero), so that the loop stays
+			// vectorizable
+			total += values[i] & ((((scriptTypes[i] ^ code) & 0xFF) - 1) >> 31);
+		}
+		return total;
+	}
+
+	/**Returns the number of outputs of each script type, indexed by the type's ordinal; outputs of
+	 * unknown type are not counted.*/
+	public int[] getScriptTypeHistogram() {
+		int[] histogram = new int[SCRIPT_TYPES.length];
+		for (int i = 0; i < outputCount; i++) {
+			if (scriptTypes[i] >= 0) {
+				histogram[scriptTypes[i]]++;
+			}
+		}
+		return histogram;
+	}
+
+	/**Returns the total value (in satoshis) of the outputs of each script type, indexed by the
+	 * type's ordinal.*/
+	public long[] getValueSatByScriptType() {
+		long[] totals = new long[SCRIPT_TYPES.length];
+		for (int i = 0; i < outputCount; i++) {
+			if (scriptTypes[i] >= 0) {
+				totals[scriptTypes[i]] += values[i];
+			}
+		}
+		return totals;
+	}
+
+	/**Like {@link #getScriptTypeHistogram()}, but keyed by the script types that occur.*/
+	public Map<ScriptTypes, Integer> getScriptTypeCounts() {
+		int[] histogram = getScriptTypeHistogram();
+		Map<ScriptTypes, Integer> counts = new EnumMap<ScriptTypes, Integer>(ScriptTypes.class);
+		for (int i = 0; i < histogram.length; i++) {
+			if (histogram[i] > 0) {
+				counts.put(SCRIPT_TYPES[i], histogram[i]);
+			}
+		}
+		return counts;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("ColumnarBlock(hash=%s, height=%s, transactionCount=%s, outputCount=%s, "
+				+ "scriptBytes=%s)", hash, height, transactionCount, outputCount, scripts.length);
+	}
+
+	private void checkIndex(int index, int size) {
+		if ((index < 0) || (index >= size)) {
+			throw new IndexOutOfBoundsException(String.valueOf(index));
+		}
+	}
+
+	/**Accumulates the columns of a block, one transaction at a time: each transaction is opened
+	 * with {@code startTransaction(..)} and followed by {@code addOutput(..)} for each of its
+	 * outputs. Builders are not thread-safe.*/
+	public static final class Builder {
+
+		private static final int INITIAL_CAPACITY = 256;
+
+		private int transactionCount;
+		private Sha256Hash[] txIds = new Sha256Hash[INITIAL_CAPACITY];
+		private int[] inputCounts = new int[INITIAL_CAPACITY];
+		private int[] outputStarts = new int[INITIAL_CAPACITY + 1];
+		private int outputCount;
+		private long[] values = new long[INITIAL_CAPACITY];
+		private byte[] scriptTypes = new byte[INITIAL_CAPACITY];
+		private int[] scriptStarts = new int[INITIAL_CAPACITY + 1];
+		private byte[] scripts = new byte[32 * INITIAL_CAPACITY];
+
+
+		/**@param txId the txid of the transaction, or {@code null} if it is not known*/
+		public Builder startTransaction(Sha256Hash txId, int inputCount) {
+			if (transactionCount == inputCounts.length) {
+				int capacity = 2 * transactionCount;
+				txIds = Arrays.copyOf(txIds, capacity);
+				inputCounts = Arrays.copyOf(inputCounts, capacity);
+				outputStarts = Arrays.copyOf(outputStarts, capacity + 1);
+			}
+			txIds[transactionCount] = txId;
+			inputCounts[transactionCount++] = inputCount;
+			outputStarts[transactionCount] = outputCount;
+			return this;
+		}
+
+		/**Adds an output to the last started transaction (one must have been started).*/
+		public Builder addOutput(long valueSat, ScriptTypes scriptType, byte[] script, int offset,
+				int length) {
+			if (outputCount == values.length) {
+				int capacity = 2 * outputCount;
+				values = Arrays.copyOf(values, capacity);
+				scriptTypes = Arrays.copyOf(scriptTypes, capacity);
+				scriptStarts = Arrays.copyOf(scriptStarts, capacity + 1);
+			}
+			int scriptStart = scriptStarts[outputCount];
+			if (scriptStart + length > scripts.length) {
+				scripts = Arrays.copyOf(scripts, Math.max(2 * scripts.length, scriptStart + length));
+			}
+			System.arraycopy(script, offset, scripts, scriptStart, length);
+			values[outputCount] = valueSat;
+			scriptTypes[outputCount] = (scriptType == null) ? -1 : (byte)scriptType.ordinal();
+			scriptStarts[++outputCount] = scriptStart + length;
+			outputStarts[transactionCount] = outputCount;
+			return this;
+		}
+
+		/**Adds a mapped transaction, decoding the hex form of its output scripts.*/
+		public Builder addTransaction(RawTransaction transaction) {
+			startTransaction(Sha256Hash.parse(transaction.getTxId()), (transaction.getVIn() == null)
+					? 0 : transaction.getVIn().size());
+			if (transaction.getVOut() == null) {
+				return this;
+			}
+			for (RawOutput output : transaction.getVOut()) {
+				PubKeyScript scriptPubKey = output.getScriptPubKey();
+				byte[] script = ((scriptPubKey == null) || (scriptPubKey.getHex() == null))
+						? new byte[0] : HexUtils.fromHex(scriptPubKey.getHex());
+				addOutput(output.getValueSat(), (scriptPubKey == null) ? null
+						: scriptPubKey.getType(), script, 0, script.length);
+			}
+			return this;
+		}
+
+		public ColumnarBlock build(Sha256Hash hash, Integer height, Long time) {
+			return new ColumnarBlock(hash, height, time, this);
+		}
+	}
+}
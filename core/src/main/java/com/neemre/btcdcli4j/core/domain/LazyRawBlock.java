@@ -0,0 +1,88 @@
+package com.neemre.btcdcli4j.core.domain;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**A {@link RawBlock} whose header fields are populated eagerly, but whose transactions are kept
+ * in their serialized form and only decoded the first time they are accessed through
+ * {@link #getTx()} (which returns a read-only, random-access view). Decoded transactions are
+ * retained, so every transaction is decoded at most once. Note that {@code toString()},
+ * {@code equals(..)} and {@code hashCode()} decode all of them.*/
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class LazyRawBlock extends RawBlock {
+
+	private TransactionSource source;
+	private RawTransaction[] decoded;
+	private List<RawTransaction> lazyTx;
+
+
+	public LazyRawBlock() {}
+
+	/**Supplies the serialized transactions of a block, one at a time.*/
+	public interface TransactionSource {
+
+		int getCount();
+
+		RawTransaction decode(int index);
+	}
+
+	public void setSource(TransactionSource source) {
+		this.source = source;
+		this.decoded = new RawTransaction[source.getCount()];
+		this.lazyTx = new TransactionList();
+	}
+
+	public boolean isDecoded(int index) {
+		synchronized (this) {
+			return (source == null) || (decoded[index] != null);
+		}
+	}
+
+	@Override
+	public List<RawTransaction> getTx() {
+		return (lazyTx != null) ? lazyTx : super.getTx();
+	}
+
+	@Override
+	public void setTx(List<RawTransaction> tx) {
+		source = null;
+		decoded = null;
+		lazyTx = null;
+		super.setTx(tx);
+	}
+
+	private RawTransaction getTransaction(int index) {
+		synchronized (this) {
+			if (decoded[index] != null) {
+				return decoded[index];
+			}
+		}
+		// decode outside of the lock; racing threads may both decode, but either result will do
+		RawTransaction transaction = source.decode(index);
+		synchronized (this) {
+			if (decoded[index] == null) {
+				decoded[index] = transaction;
+			}
+			return decoded[index];
+		}
+	}
+
+	private class TransactionList extends AbstractList<RawTransaction> implements RandomAccess {
+
+		@Override
+		public RawTransaction get(int index) {
+			if ((index < 0) || (index >= decoded.length)) {
+				throw new IndexOutOfBoundsException(String.valueOf(index));
+			}
+			return getTransaction(index);
+		}
+
+		@Override
+		public int size() {
+			return decoded.length;
+		}
+	}
+}
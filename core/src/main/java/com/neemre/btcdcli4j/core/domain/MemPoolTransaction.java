@@ -6,15 +6,21 @@ import java.util.List;
 import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.neemre.btcdcli4j.core.common.Defaults;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonCodec;
+import com.neemre.btcdcli4j.core.jsonrpc.deserialization.SatoshiDeserializer;
+import com.neemre.btcdcli4j.core.util.NumberUtils;
 
 @Data
 @NoArgsConstructor
@@ -22,12 +28,14 @@ import com.neemre.btcdcli4j.core.common.Defaults;
 @EqualsAndHashCode(callSuper = false)
 @JsonInclude(Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonCodec
 public class MemPoolTransaction extends Entity {
 
 	private String txId;
 	private Integer size;
+	@Getter(AccessLevel.NONE)
 	@Setter(AccessLevel.NONE)
-	private BigDecimal fee;
+	private Long feeSat;
 	private Long time;
 	private Integer height;
 	@Setter(AccessLevel.NONE)
@@ -51,8 +59,27 @@ public class MemPoolTransaction extends Entity {
 		setDepends(depends);
 	}
 
+	public BigDecimal getFee() {
+		return NumberUtils.fromSatoshis(feeSat);
+	}
+
 	public void setFee(BigDecimal fee) {
-		this.fee = fee.setScale(Defaults.DECIMAL_SCALE, Defaults.ROUNDING_MODE);
+		this.feeSat = NumberUtils.toSatoshis(fee);
+	}
+
+	@JsonIgnore
+	public long getFeeSat() {
+		return (feeSat == null) ? 0 : feeSat;
+	}
+
+	public void setFeeSat(long feeSat) {
+		this.feeSat = feeSat;
+	}
+
+	@JsonProperty("fee")
+	@JsonDeserialize(using = SatoshiDeserializer.class)
+	void setFeeJson(Long feeSat) {
+		this.feeSat = feeSat;
 	}
 
 	public void setStartingPriority(BigDecimal startingPriority) {
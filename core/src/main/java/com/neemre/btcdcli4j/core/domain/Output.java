@@ -4,15 +4,21 @@ import java.math.BigDecimal;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.AccessLevel;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.neemre.btcdcli4j.core.common.Defaults;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonCodec;
+import com.neemre.btcdcli4j.core.jsonrpc.deserialization.SatoshiDeserializer;
+import com.neemre.btcdcli4j.core.util.NumberUtils;
 
 @Data
 @NoArgsConstructor
@@ -20,14 +26,16 @@ import com.neemre.btcdcli4j.core.common.Defaults;
 @EqualsAndHashCode(callSuper = false)
 @JsonInclude(Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonCodec
 public class Output extends OutputOverview {
 
 	private String address;
 	private String account;
 	private String scriptPubKey;
 	private String redeemScript;
+	@Getter(AccessLevel.NONE)
 	@Setter(AccessLevel.NONE)
-	private BigDecimal amount;
+	private Long amountSat;
 	private Integer confirmations;
 	private Boolean spendable;
 
@@ -49,7 +57,26 @@ public class Output extends OutputOverview {
 		setSpendable(spendable);
 	}
 
+	public BigDecimal getAmount() {
+		return NumberUtils.fromSatoshis(amountSat);
+	}
+
 	public void setAmount(BigDecimal amount) {
-		this.amount = amount.setScale(Defaults.DECIMAL_SCALE, Defaults.ROUNDING_MODE);
+		this.amountSat = NumberUtils.toSatoshis(amount);
+	}
+
+	@JsonIgnore
+	public long getAmountSat() {
+		return (amountSat == null) ? 0 : amountSat;
+	}
+
+	public void setAmountSat(long amountSat) {
+		this.amountSat = amountSat;
+	}
+
+	@JsonProperty("amount")
+	@JsonDeserialize(using = SatoshiDeserializer.class)
+	void setAmountJson(Long amountSat) {
+		this.amountSat = amountSat;
 	}
 }
\ No newline at end of file
@@ -4,17 +4,22 @@ import java.math.BigDecimal;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import lombok.AccessLevel;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.neemre.btcdcli4j.core.common.Defaults;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.neemre.btcdcli4j.core.domain.enums.PaymentCategories;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonCodec;
+import com.neemre.btcdcli4j.core.jsonrpc.deserialization.SatoshiDeserializer;
+import com.neemre.btcdcli4j.core.util.NumberUtils;
 
 @Data
 @NoArgsConstructor
@@ -22,6 +27,7 @@ import com.neemre.btcdcli4j.core.domain.enums.PaymentCategories;
 @EqualsAndHashCode(callSuper = false)
 @JsonInclude(Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonCodec
 public class PaymentOverview extends Entity {
 
 	@JsonProperty("involvesWatchonly")
@@ -29,12 +35,14 @@ public class PaymentOverview extends Entity {
 	private String account;
 	private String address;
 	private PaymentCategories category;
+	@Getter(AccessLevel.NONE)
 	@Setter(AccessLevel.NONE)
-	private BigDecimal amount;
+	private Long amountSat;
 	@JsonProperty("vout")
 	private Integer vOut;
+	@Getter(AccessLevel.NONE)
 	@Setter(AccessLevel.NONE)
-	private BigDecimal fee;
+	private Long feeSat;
 
 
 	public PaymentOverview(Boolean involvesWatchOnly, String account, String address, 
@@ -48,11 +56,49 @@ public class PaymentOverview extends Entity {
 		setFee(fee);
 	}
 
+	public BigDecimal getAmount() {
+		return NumberUtils.fromSatoshis(amountSat);
+	}
+
 	public void setAmount(BigDecimal amount) {
-		this.amount = amount.setScale(Defaults.DECIMAL_SCALE, Defaults.ROUNDING_MODE);
+		this.amountSat = NumberUtils.toSatoshis(amount);
+	}
+
+	@JsonIgnore
+	public long getAmountSat() {
+		return (amountSat == null) ? 0 : amountSat;
+	}
+
+	public void setAmountSat(long amountSat) {
+		this.amountSat = amountSat;
+	}
+
+	@JsonProperty("amount")
+	@JsonDeserialize(using = SatoshiDeserializer.class)
+	void setAmountJson(Long amountSat) {
+		this.amountSat = amountSat;
+	}
+
+	public BigDecimal getFee() {
+		return NumberUtils.fromSatoshis(feeSat);
 	}
 
 	public void setFee(BigDecimal fee) {
-		this.fee = fee.setScale(Defaults.DECIMAL_SCALE, Defaults.ROUNDING_MODE);
+		this.feeSat = NumberUtils.toSatoshis(fee);
+	}
+
+	@JsonIgnore
+	public long getFeeSat() {
+		return (feeSat == null) ? 0 : feeSat;
+	}
+
+	public void setFeeSat(long feeSat) {
+		this.feeSat = feeSat;
+	}
+
+	@JsonProperty("fee")
+	@JsonDeserialize(using = SatoshiDeserializer.class)
+	void setFeeJson(Long feeSat) {
+		this.feeSat = feeSat;
 	}
 }
\ No newline at end of file
@@ -12,6 +12,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.neemre.btcdcli4j.core.domain.enums.ScriptTypes;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonCodec;
 
 @Data
 @NoArgsConstructor
@@ -20,6 +21,7 @@ import com.neemre.btcdcli4j.core.domain.enums.ScriptTypes;
 @EqualsAndHashCode(callSuper = false)
 @JsonInclude(Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonCodec
 public class PubKeyScript extends SignatureScript {
 	
 	private Integer reqSigs;
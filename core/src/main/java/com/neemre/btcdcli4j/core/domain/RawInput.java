@@ -10,6 +10,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonCodec;
 
 import java.util.List;
 
@@ -20,6 +21,7 @@ import java.util.List;
 @EqualsAndHashCode(callSuper = false)
 @JsonInclude(Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonCodec
 public class RawInput extends Entity {
 	
 	@JsonProperty("txid")
@@ -30,4 +32,5 @@ public class RawInput extends Entity {
 	private List<String> txinwitness;
 	private String coinbase;
 	private Long sequence;
+	private RawOutput prevout;
 }
\ No newline at end of file
@@ -5,14 +5,20 @@ import java.math.BigDecimal;
 import lombok.AccessLevel;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.neemre.btcdcli4j.core.common.Defaults;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonCodec;
+import com.neemre.btcdcli4j.core.jsonrpc.deserialization.SatoshiDeserializer;
+import com.neemre.btcdcli4j.core.util.NumberUtils;
 
 @Data
 @NoArgsConstructor
@@ -20,10 +26,12 @@ import com.neemre.btcdcli4j.core.common.Defaults;
 @EqualsAndHashCode(callSuper = false)
 @JsonInclude(Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonCodec
 public class RawOutput extends Entity {
 
+	@Getter(AccessLevel.NONE)
 	@Setter(AccessLevel.NONE)
-	private BigDecimal value;
+	private Long valueSat;
 	private Integer n;
 	private PubKeyScript scriptPubKey;
 
@@ -34,7 +42,26 @@ public class RawOutput extends Entity {
 		setScriptPubKey(scriptPubKey);
 	}
 
+	public BigDecimal getValue() {
+		return NumberUtils.fromSatoshis(valueSat);
+	}
+
 	public void setValue(BigDecimal value) {
-		this.value = value.setScale(Defaults.DECIMAL_SCALE, Defaults.ROUNDING_MODE);
+		this.valueSat = NumberUtils.toSatoshis(value);
+	}
+
+	@JsonIgnore
+	public long getValueSat() {
+		return (valueSat == null) ? 0 : valueSat;
+	}
+
+	public void setValueSat(long valueSat) {
+		this.valueSat = valueSat;
+	}
+
+	@JsonProperty("value")
+	@JsonDeserialize(using = SatoshiDeserializer.class)
+	void setValueJson(Long valueSat) {
+		this.valueSat = valueSat;
 	}
 }
\ No newline at end of file
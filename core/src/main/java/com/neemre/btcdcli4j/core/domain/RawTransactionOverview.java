@@ -12,6 +12,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonCodec;
 
 @Data
 @NoArgsConstructor
@@ -20,10 +21,16 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 @EqualsAndHashCode(callSuper = false)
 @JsonInclude(Include.NON_NULL)
 @JsonIgnoreProperties(ignoreUnknown = true)
+@JsonCodec
 public class RawTransactionOverview extends Entity {
 	
 	@JsonProperty("txid")
 	private String txId;
+	private String hash;
+	private Integer size;
+	@JsonProperty("vsize")
+	private Integer vSize;
+	private Integer weight;
 	private Integer version;
 	@JsonProperty("locktime")
 	private Long lockTime;
@@ -0,0 +1,204 @@
+package com.neemre.btcdcli4j.core.domain;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.neemre.btcdcli4j.core.common.Errors;
+import com.neemre.btcdcli4j.core.util.HexUtils;
+
+/**An immutable 32-byte hash (<i>e.g.</i> a block hash, txid or merkle root), held as four
+ * {@code long}s in the byte order of its usual hex representation. Compared to the equivalent
+ * 64-character {@code String}, it takes up about a third of the heap and compares in four steps,
+ * which makes it a cheap key for indexes &amp; caches. Note that the hex form of a hash is the
+ * reverse of the byte order it has on the wire (and as computed by SHA-256); the
+ * {@code *Reversed*} methods convert from &amp; to the latter.*/
+public final class Sha256Hash implements Comparable<Sha256Hash>, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final int SIZE = 32;
+	public static final Sha256Hash ZERO = new Sha256Hash(0, 0, 0, 0);
+
+	private final long word0;
+	private final long word1;
+	private final long word2;
+	private final long word3;
+
+
+	private Sha256Hash(long word0, long word1, long word2, long word3) {
+		this.word0 = word0;
+		this.word1 = word1;
+		this.word2 = word2;
+		this.word3 = word3;
+	}
+
+	@JsonCreator
+	public static Sha256Hash fromHex(CharSequence hex) {
+		Sha256Hash hash = parse(hex);
+		if (hash == null) {
+			throw new IllegalArgumentException(Errors.ARGS_HASH_MALFORMED.getDescription());
+		}
+		return hash;
+	}
+
+	/**Returns the hash represented by {@code hex} (in either case), or {@code null} if it is not
+	 * a well-formed hash, which spares callers that merely probe an identifier an exception.*/
+	public static Sha256Hash parse(CharSequence hex) {
+		if ((hex == null) || (hex.length() != 2 * SIZE)) {
+			return null;
+		}
+		if (!HexUtils.isHex(hex)) {
+			return null;
+		}
+		return new Sha256Hash(getLong(hex, 0), getLong(hex, 16), getLong(hex, 32),
+				getLong(hex, 48));
+	}
+
+	/**Like {@link #parse(CharSequence)}, but reads the hex digits in
+	 * {@code chars[offset, offset + length)}, e.g. straight from a JSON parser's text buffer.*/
+	public static Sha256Hash parse(char[] chars, int offset, int length) {
+		if ((chars == null) || (length != 2 * SIZE) || (offset < 0)
+				|| (chars.length - offset < length)) {
+			return null;
+		}
+		for (int i = offset; i < offset + length; i++) {
+			if (HexUtils.toNibble(chars[i]) < 0) {
+				return null;
+			}
+		}
+		return new Sha256Hash(getLong(chars, offset), getLong(chars, offset + 16),
+				getLong(chars, offset + 32), getLong(chars, offset + 48));
+	}
+
+	public static Sha256Hash fromBytes(byte[] bytes) {
+		checkLength(bytes, 0);
+		return new Sha256Hash(getLong(bytes, 0), getLong(bytes, 8), getLong(bytes, 16),
+				getLong(bytes, 24));
+	}
+
+	/**Reads a hash in wire (little-endian) byte order, as found in serialized blocks &amp;
+	 * transactions and as output by SHA-256.*/
+	public static Sha256Hash fromReversedBytes(byte[] bytes, int offset) {
+		checkLength(bytes, offset);
+		return new Sha256Hash(Long.reverseBytes(getLong(bytes, offset + 24)),
+				Long.reverseBytes(getLong(bytes, offset + 16)),
+				Long.reverseBytes(getLong(bytes, offset + 8)), Long.reverseBytes(getLong(bytes,
+				offset)));
+	}
+
+	public byte[] getBytes() {
+		byte[] bytes = new byte[SIZE];
+		putLong(bytes, 0, word0);
+		putLong(bytes, 8, word1);
+		putLong(bytes, 16, word2);
+		putLong(bytes, 24, word3);
+		return bytes;
+	}
+
+	public byte[] getReversedBytes() {
+		byte[] bytes = new byte[SIZE];
+		putLong(bytes, 0, Long.reverseBytes(word3));
+		putLong(bytes, 8, Long.reverseBytes(word2));
+		putLong(bytes, 16, Long.reverseBytes(word1));
+		putLong(bytes, 24, Long.reverseBytes(word0));
+		return bytes;
+	}
+
+	@JsonValue
+	public String toHex() {
+		char[] hex = new char[2 * SIZE];
+		putHex(hex, 0, word0);
+		putHex(hex, 16, word1);
+		putHex(hex, 32, word2);
+		putHex(hex, 48, word3);
+		return new String(hex);
+	}
+
+	@Override
+	public boolean equals(Object object) {
+		if (this == object) {
+			return true;
+		}
+		if (!(object instanceof Sha256Hash)) {
+			return false;
+		}
+		Sha256Hash other = (Sha256Hash)object;
+		return (word3 == other.word3) && (word2 == other.word2) && (word1 == other.word1)
+				&& (word0 == other.word0);
+	}
+
+	@Override
+	public int hashCode() {
+		// the digest bits are uniformly distributed already, so any 32 of them will do
+		return (int)word3;
+	}
+
+	@Override
+	public int compareTo(Sha256Hash other) {
+		int result = compareUnsigned(word0, other.word0);
+		if (result == 0) {
+			result = compareUnsigned(word1, other.word1);
+		}
+		if (result == 0) {
+			result = compareUnsigned(word2, other.word2);
+		}
+		if (result == 0) {
+			result = compareUnsigned(word3, other.word3);
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return toHex();
+	}
+
+	private static void checkLength(byte[] bytes, int offset) {
+		if ((offset < 0) || (bytes.length - offset < SIZE)) {
+			throw new IllegalArgumentException(Errors.ARGS_HASH_MALFORMED.getDescription());
+		}
+	}
+
+	private static long getLong(CharSequence hex, int offset) {
+		long value = 0;
+		for (int i = offset; i < offset + 16; i++) {
+			value = (value << 4) | HexUtils.toNibble(hex.charAt(i));
+		}
+		return value;
+	}
+
+	private static long getLong(char[] hex, int offset) {
+		long value = 0;
+		for (int i = offset; i < offset + 16; i++) {
+			value = (value << 4) | HexUtils.toNibble(hex[i]);
+		}
+		return value;
+	}
+
+	private static long getLong(byte[] bytes, int offset) {
+		long value = 0;
+		for (int i = offset; i < offset + 8; i++) {
+			value = (value << 8) | (bytes[i] & 0xFF);
+		}
+		return value;
+	}
+
+	private static void putLong(byte[] bytes, int offset, long value) {
+		for (int i = offset + 7; i >= offset; i--) {
+			bytes[i] = (byte)value;
+			value >>>= 8;
+		}
+	}
+
+	private static void putHex(char[] hex, int offset, long value) {
+		for (int i = offset + 15; i >= offset; i--) {
+			hex[i] = HexUtils.toDigit((int)value);
+			value >>>= 4;
+		}
+	}
+
+	private static int compareUnsigned(long value, long otherValue) {
+		return Long.compare(value + Long.MIN_VALUE, otherValue + Long.MIN_VALUE);
+	}
+}
@@ -0,0 +1,77 @@
+package com.neemre.btcdcli4j.core.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.ToString;
+
+/**A set of thread-safe counters describing the TLS handshakes (full &amp; resumed) performed by
+ * the default HTTP provider, relative to the number of HTTP requests sent through it.*/
+@ToString
+public class HandshakeMetrics {
+
+	private final AtomicLong requestCount = new AtomicLong();
+	private final AtomicLong fullHandshakeCount = new AtomicLong();
+	private final AtomicLong resumedHandshakeCount = new AtomicLong();
+	private final AtomicLong failedHandshakeCount = new AtomicLong();
+	private final AtomicLong totalHandshakeNanos = new AtomicLong();
+	private final AtomicLong maxHandshakeNanos = new AtomicLong();
+
+
+	public void recordRequest() {
+		requestCount.incrementAndGet();
+	}
+
+	public void recordHandshake(long elapsedNanos, boolean isResumed) {
+		if (isResumed) {
+			resumedHandshakeCount.incrementAndGet();
+		} else {
+			fullHandshakeCount.incrementAndGet();
+		}
+		totalHandshakeNanos.addAndGet(elapsedNanos);
+		long maxNanos = maxHandshakeNanos.get();
+		while ((elapsedNanos > maxNanos) && !maxHandshakeNanos.compareAndSet(maxNanos,
+				elapsedNanos)) {
+			maxNanos = maxHandshakeNanos.get();
+		}
+	}
+
+	public void recordFailure() {
+		failedHandshakeCount.incrementAndGet();
+	}
+
+	public long getRequestCount() {
+		return requestCount.get();
+	}
+
+	public long getHandshakeCount() {
+		return fullHandshakeCount.get() + resumedHandshakeCount.get();
+	}
+
+	public long getFullHandshakeCount() {
+		return fullHandshakeCount.get();
+	}
+
+	public long getResumedHandshakeCount() {
+		return resumedHandshakeCount.get();
+	}
+
+	public long getFailedHandshakeCount() {
+		return failedHandshakeCount.get();
+	}
+
+	public double getHandshakesPerRequest() {
+		long requests = requestCount.get();
+		return (requests == 0) ? 0 : ((double)getHandshakeCount() / requests);
+	}
+
+	public double getAverageHandshakeMillis() {
+		long handshakes = getHandshakeCount();
+		return (handshakes == 0) ? 0 : ((double)totalHandshakeNanos.get() / handshakes
+				/ TimeUnit.MILLISECONDS.toNanos(1));
+	}
+
+	public double getMaxHandshakeMillis() {
+		return (double)maxHandshakeNanos.get() / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+}
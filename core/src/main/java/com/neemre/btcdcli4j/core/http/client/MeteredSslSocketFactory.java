@@ -0,0 +1,137 @@
+package com.neemre.btcdcli4j.core.http.client;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.protocol.HttpContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.neemre.btcdcli4j.core.http.HandshakeMetrics;
+
+/**A TLS socket factory that times every handshake performed on behalf of the HTTP provider and
+ * tells abbreviated (<i>i.e.</i> resumed) handshakes apart from full ones. The server's
+ * certificate chain is only checked during a full handshake (with any protocol version), so a
+ * handshake is treated as resumed if the trust managers of the context (as wrapped by
+ * {@link #meter(TrustManager[])}) were not consulted on the handshaking thread while it ran.*/
+public class MeteredSslSocketFactory extends SSLConnectionSocketFactory {
+
+	private static final Logger LOG = LoggerFactory.getLogger(MeteredSslSocketFactory.class);
+
+	private static final ThreadLocal<long[]> TRUST_CHECK_COUNTS = new ThreadLocal<long[]>() {
+		@Override
+		protected long[] initialValue() {
+			return new long[1];
+		}
+	};
+
+	private HandshakeMetrics metrics;
+
+
+	/**@param sslContext a context initialized with trust managers wrapped by
+	 * {@link #meter(TrustManager[])}; otherwise, every handshake is counted as resumed*/
+	public MeteredSslSocketFactory(SSLContext sslContext, HandshakeMetrics metrics) {
+		super(sslContext, BROWSER_COMPATIBLE_HOSTNAME_VERIFIER);
+		this.metrics = metrics;
+	}
+
+	/**Wraps the X.509 trust managers among {@code trustManagers}, so that the checks they perform
+	 * are counted; the others are returned as is.*/
+	public static TrustManager[] meter(TrustManager[] trustManagers) {
+		TrustManager[] meteredManagers = new TrustManager[trustManagers.length];
+		for (int i = 0; i < trustManagers.length; i++) {
+			meteredManagers[i] = (trustManagers[i] instanceof X509ExtendedTrustManager)
+					? new MeteredTrustManager((X509ExtendedTrustManager)trustManagers[i])
+					: trustManagers[i];
+		}
+		return meteredManagers;
+	}
+
+	@Override
+	public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context)
+			throws IOException {
+		long[] trustCheckCount = TRUST_CHECK_COUNTS.get();
+		long trustChecksBefore = trustCheckCount[0];
+		long startNanos = System.nanoTime();
+		Socket sslSocket;
+		try {
+			sslSocket = super.createLayeredSocket(socket, target, port, context);
+		} catch (IOException e) {
+			metrics.recordFailure();
+			throw e;
+		}
+		long elapsedNanos = System.nanoTime() - startNanos;
+		SSLSession session = ((SSLSocket)sslSocket).getSession();
+		boolean isResumed = (trustCheckCount[0] == trustChecksBefore);
+		metrics.recordHandshake(elapsedNanos, isResumed);
+		LOG.debug("-- createLayeredSocket(..): completed {} TLS handshake with '{}:{}' in {}us "
+				+ "(protocol: '{}', cipher suite: '{}')", (isResumed ? "abbreviated" : "full"),
+				target, port, (elapsedNanos / 1000), session.getProtocol(),
+				session.getCipherSuite());
+		return sslSocket;
+	}
+
+	private static class MeteredTrustManager extends X509ExtendedTrustManager {
+
+		private X509ExtendedTrustManager delegate;
+
+
+		public MeteredTrustManager(X509ExtendedTrustManager delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket)
+				throws CertificateException {
+			TRUST_CHECK_COUNTS.get()[0]++;
+			delegate.checkServerTrusted(chain, authType, socket);
+		}
+
+		@Override
+		public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+				throws CertificateException {
+			TRUST_CHECK_COUNTS.get()[0]++;
+			delegate.checkServerTrusted(chain, authType, engine);
+		}
+
+		@Override
+		public void checkServerTrusted(X509Certificate[] chain, String authType)
+				throws CertificateException {
+			TRUST_CHECK_COUNTS.get()[0]++;
+			delegate.checkServerTrusted(chain, authType);
+		}
+
+		@Override
+		public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket)
+				throws CertificateException {
+			delegate.checkClientTrusted(chain, authType, socket);
+		}
+
+		@Override
+		public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine)
+				throws CertificateException {
+			delegate.checkClientTrusted(chain, authType, engine);
+		}
+
+		@Override
+		public void checkClientTrusted(X509Certificate[] chain, String authType)
+				throws CertificateException {
+			delegate.checkClientTrusted(chain, authType);
+		}
+
+		@Override
+		public X509Certificate[] getAcceptedIssuers() {
+			return delegate.getAcceptedIssuers();
+		}
+	}
+}
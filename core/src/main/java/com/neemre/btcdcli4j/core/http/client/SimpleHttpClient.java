@@ -1,10 +1,28 @@
 package com.neemre.btcdcli4j.core.http.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.neemre.btcdcli4j.core.CommunicationException;
 import com.neemre.btcdcli4j.core.http.HttpLayerException;
 
 public interface SimpleHttpClient {
 	
 	String execute(String reqMethod, String reqPayload) throws HttpLayerException;
+
+	<T> T execute(String reqMethod, String reqPayload, PayloadReader<T> payloadReader) 
+			throws CommunicationException;
+
+	InputStream open(String reqMethod, String reqPayload) throws HttpLayerException;
 	
 	void close();
-}
\ No newline at end of file
+
+
+	/**Consumes a response payload as it is being received, instead of buffering it as a whole.*/
+	interface PayloadReader<T> {
+
+		/**@param contentLength the declared length of the payload in bytes, or -1 if unknown*/
+		T read(InputStream respPayload, long contentLength) throws IOException, 
+				CommunicationException;
+	}
+}
@@ -1,6 +1,9 @@
 package com.neemre.btcdcli4j.core.http.client;
 
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -23,6 +26,7 @@ import org.apache.http.util.EntityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.neemre.btcdcli4j.core.CommunicationException;
 import com.neemre.btcdcli4j.core.NodeProperties;
 import com.neemre.btcdcli4j.core.common.Constants;
 import com.neemre.btcdcli4j.core.common.DataFormats;
@@ -67,20 +71,81 @@ public class SimpleHttpClientImpl implements SimpleHttpClient {
 		} catch (URISyntaxException e) {
 			throw new HttpLayerException(Errors.PARSE_URI_FAILED, e);
 		} finally {
-			if (response != null) {
-				try {
-					LOG.debug("-- execute(..): attempting to recycle old HTTP response (reply to a "
-							+ "'{}' request) with status line '{}'", reqMethod, response
-							.getStatusLine());
-					response.close();
-				} catch (IOException e) {
-					LOG.warn("<< execute(..): failed to recycle old HTTP response, message was: "
-							+ "'{}'", e.getMessage());
-				}
+			recycle(response, reqMethod);
+		}
+	}
+
+	/**Streams the response payload to {@code payloadReader}, so that large payloads are never held
+	 * in memory as a whole (an empty payload is passed as an empty stream).*/
+	@Override
+	public <T> T execute(String reqMethod, String reqPayload, PayloadReader<T> payloadReader) 
+			throws CommunicationException {
+		CloseableHttpResponse response = null;
+		try {
+			response = provider.execute(getNewRequest(reqMethod, reqPayload), new BasicHttpContext());
+			response = checkResponse(response);
+			HttpEntity respPayloadEntity = response.getEntity();
+			LOG.debug("-- execute(..): streaming '{}' response payload for HTTP '{}' request with "
+					+ "status line '{}'", ((respPayloadEntity == null) ? "null" : "non-null"), 
+					reqMethod, response.getStatusLine());
+			if (respPayloadEntity == null) {
+				return payloadReader.read(new ByteArrayInputStream(new byte[0]), 0);
 			}
+			InputStream respPayload = respPayloadEntity.getContent();
+			T result = payloadReader.read(respPayload, respPayloadEntity.getContentLength());
+			// consumes any trailing content so that the connection can be reused; if the reader
+			// failed instead, the connection is simply discarded along with the response
+			respPayload.close();
+			return result;
+		} catch (ClientProtocolException e) {
+			throw new HttpLayerException(Errors.REQUEST_HTTP_FAULT, e);
+		} catch (IOException e) {
+			throw new HttpLayerException(Errors.IO_UNKNOWN, e);
+		} catch (URISyntaxException e) {
+			throw new HttpLayerException(Errors.PARSE_URI_FAILED, e);
+		} finally {
+			recycle(response, reqMethod);
 		}
 	}
 	
+	/**Sends the request and returns the response payload as an open stream, for callers that pull
+	 * the payload at their own pace. Closing the stream releases the response; the connection is
+	 * only reused if the payload has been read to its end by then.*/
+	@Override
+	public InputStream open(String reqMethod, String reqPayload) throws HttpLayerException {
+		CloseableHttpResponse response = null;
+		try {
+			response = provider.execute(getNewRequest(reqMethod, reqPayload), new BasicHttpContext());
+			response = checkResponse(response);
+			HttpEntity respPayloadEntity = response.getEntity();
+			LOG.debug("-- open(..): opened '{}' response payload for HTTP '{}' request with status "
+					+ "line '{}'", ((respPayloadEntity == null) ? "null" : "non-null"), reqMethod, 
+					response.getStatusLine());
+			if (respPayloadEntity == null) {
+				return new ByteArrayInputStream(new byte[0]);
+			}
+			final CloseableHttpResponse openResponse = response;
+			final String openReqMethod = reqMethod;
+			InputStream respPayload = new FilterInputStream(respPayloadEntity.getContent()) {
+				@Override
+				public void close() {
+					recycle(openResponse, openReqMethod);
+				}
+			};
+			// the response is now owned by the returned stream
+			response = null;
+			return respPayload;
+		} catch (ClientProtocolException e) {
+			throw new HttpLayerException(Errors.REQUEST_HTTP_FAULT, e);
+		} catch (IOException e) {
+			throw new HttpLayerException(Errors.IO_UNKNOWN, e);
+		} catch (URISyntaxException e) {
+			throw new HttpLayerException(Errors.PARSE_URI_FAILED, e);
+		} finally {
+			recycle(response, reqMethod);
+		}
+	}
+
 	@Override
 	public void close() {
 		try {
@@ -92,6 +157,20 @@ public class SimpleHttpClientImpl implements SimpleHttpClient {
 		}
 	}
 
+	private void recycle(CloseableHttpResponse response, String reqMethod) {
+		if (response != null) {
+			try {
+				LOG.debug("-- execute(..): attempting to recycle old HTTP response (reply to a "
+						+ "'{}' request) with status line '{}'", reqMethod, response
+						.getStatusLine());
+				response.close();
+			} catch (IOException e) {
+				LOG.warn("<< execute(..): failed to recycle old HTTP response, message was: "
+						+ "'{}'", e.getMessage());
+			}
+		}
+	}
+
 	private HttpRequestBase getNewRequest(String reqMethod, String reqPayload) 
 			throws URISyntaxException, UnsupportedEncodingException {
 		HttpRequestBase request;
@@ -0,0 +1,255 @@
+package com.neemre.btcdcli4j.core.jsonrpc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+import com.neemre.btcdcli4j.core.CommunicationException;
+import com.neemre.btcdcli4j.core.common.Constants;
+import com.neemre.btcdcli4j.core.common.Errors;
+import com.neemre.btcdcli4j.core.http.client.SimpleHttpClient.PayloadReader;
+import com.neemre.btcdcli4j.core.jsonrpc.domain.JsonRpcError;
+import com.neemre.btcdcli4j.core.jsonrpc.domain.JsonRpcResponse;
+import com.neemre.btcdcli4j.core.util.HexUtils;
+
+/**Reads a JSON-RPC response whose result is a hex string (e.g. a serialized block), decoding the
+ * hex digits straight into a byte buffer as they arrive from the socket, so that neither the
+ * response body nor the result is ever materialized as a {@code String}. The returned response
+ * carries a {@code null} result; the decoded bytes are available from {@link #getBytes()}. The
+ * bytes are written into the buffer passed to the constructor whenever it is large enough, which
+ * lets callers recycle their buffers across calls. Instances are single-use.*/
+public class HexResultReader implements PayloadReader<JsonRpcResponse> {
+
+	private static final int READ_BUFFER_SIZE = 8192;
+	private static final int MIN_CAPACITY = 1024;
+
+	private JsonMapper mapper;
+	private ByteBuffer buffer;
+	private ByteBuffer bytes;
+	private InputStream source;
+	private byte[] readBuffer;
+	private int position;
+	private int limit;
+
+
+	public HexResultReader(JsonMapper mapper, ByteBuffer buffer) {
+		this.mapper = mapper;
+		this.buffer = buffer;
+		this.readBuffer = new byte[READ_BUFFER_SIZE];
+	}
+
+	/**Returns the decoded result, flipped for reading, or {@code null} if the result was null.*/
+	public ByteBuffer getBytes() {
+		return bytes;
+	}
+
+	@Override
+	public JsonRpcResponse read(InputStream respPayload, long contentLength) throws IOException,
+			CommunicationException {
+		source = respPayload;
+		JsonRpcResponse response = new JsonRpcResponse();
+		expect(nextToken(), '{');
+		int c = nextToken();
+		while (c != '}') {
+			expect(c, '"');
+			String key = readString();
+			expect(nextToken(), ':');
+			c = nextToken();
+			if (key.equals("result") && (c == '"')) {
+				readHex(contentLength);
+			} else if (key.equals("error") && (c == '{')) {
+				ByteArrayOutputStream errorJson = new ByteArrayOutputStream();
+				readValue(c, errorJson);
+				response.setError(mapper.mapToEntity(new String(errorJson.toByteArray(),
+						Constants.UTF_8), JsonRpcError.class));
+			} else if ((key.equals("id") || key.equals("jsonrpc")) && (c == '"')) {
+				String value = readString();
+				if (key.equals("id")) {
+					response.setId(value);
+				} else {
+					response.setJsonrpc(value);
+				}
+			} else if (key.equals("result") && (c != 'n')) {
+				throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED, "the result of the "
+						+ "response is not a hex string");
+			} else {
+				readValue(c, null);
+			}
+			c = nextToken();
+			if (c == ',') {
+				c = nextToken();
+			} else if (c != '}') {
+				throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED);
+			}
+		}
+		return response;
+	}
+
+	private void readHex(long contentLength) throws IOException, CommunicationException {
+		// the result makes up nearly all of the payload, so its length is a tight upper bound
+		int capacity = (contentLength > 0) ? (int)Math.min(contentLength / 2, Integer.MAX_VALUE)
+				: MIN_CAPACITY;
+		if ((buffer != null) && (buffer.capacity() >= capacity) && buffer.hasArray()) {
+			bytes = buffer;
+			bytes.clear();
+		} else {
+			bytes = ByteBuffer.allocate(Math.max(capacity, MIN_CAPACITY));
+		}
+		// the buffer may be a slice of a larger array, so writes are bounded by its own capacity
+		byte[] target = bytes.array();
+		int offset = bytes.arrayOffset();
+		int end = bytes.capacity();
+		int size = 0;
+		int high = -1;
+		while (true) {
+			if (position == limit) {
+				fill();
+			}
+			// decode the whole read buffer in one go
+			while (position < limit) {
+				int c = readBuffer[position++];
+				if (c == '"') {
+					if (high >= 0) {
+						throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED, "odd number "
+								+ "of hex digits");
+					}
+					bytes.position(size);
+					bytes.flip();
+					return;
+				}
+				int nibble = HexUtils.toNibble(c);
+				if (nibble < 0) {
+					throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED, "invalid hex digit");
+				}
+				if (high < 0) {
+					high = nibble;
+				} else {
+					if (size == end) {
+						grow(size);
+						target = bytes.array();
+						offset = bytes.arrayOffset();
+						end = bytes.capacity();
+					}
+					target[offset + size++] = (byte)((high << 4) | nibble);
+					high = -1;
+				}
+			}
+		}
+	}
+
+	private void grow(int size) {
+		ByteBuffer grown = ByteBuffer.allocate(Math.max(2 * size, MIN_CAPACITY));
+		grown.put(bytes.array(), bytes.arrayOffset(), size);
+		bytes = grown;
+	}
+
+	/**Reads a string whose opening quote has already been consumed. Only the escapes that can
+	 * occur in ids &amp; keys are expected here, so they are decoded by the object mapper.*/
+	private String readString() throws IOException, CommunicationException {
+		ByteArrayOutputStream value = new ByteArrayOutputStream();
+		value.write('"');
+		boolean isEscaped = readStringBody(value);
+		String json = new String(value.toByteArray(), Constants.UTF_8);
+		if (!isEscaped) {
+			return json.substring(1, json.length() - 1);
+		}
+		return mapper.mapToEntity(json, String.class);
+	}
+
+	private boolean readStringBody(ByteArrayOutputStream sink) throws IOException,
+			CommunicationException {
+		boolean isEscaped = false;
+		while (true) {
+			int c = next();
+			if (sink != null) {
+				sink.write(c);
+			}
+			if (c == '"') {
+				return isEscaped;
+			} else if (c == '\\') {
+				isEscaped = true;
+				int escaped = next();
+				if (sink != null) {
+					sink.write(escaped);
+				}
+			}
+		}
+	}
+
+	/**Reads (and optionally copies) an arbitrary JSON value whose first character is {@code c}.*/
+	private void readValue(int c, ByteArrayOutputStream sink) throws IOException,
+			CommunicationException {
+		if (sink != null) {
+			sink.write(c);
+		}
+		if (c == '"') {
+			readStringBody(sink);
+			return;
+		}
+		if ((c != '{') && (c != '[')) {
+			// a literal or number runs up to the next delimiter, which is left unread
+			while ((peek() != ',') && (peek() != '}') && (peek() != ']')
+					&& !Character.isWhitespace(peek())) {
+				c = next();
+				if (sink != null) {
+					sink.write(c);
+				}
+			}
+			return;
+		}
+		int depth = 1;
+		while (depth > 0) {
+			c = next();
+			if (sink != null) {
+				sink.write(c);
+			}
+			if (c == '"') {
+				readStringBody(sink);
+			} else if ((c == '{') || (c == '[')) {
+				depth++;
+			} else if ((c == '}') || (c == ']')) {
+				depth--;
+			}
+		}
+	}
+
+	private int nextToken() throws IOException, CommunicationException {
+		int c = next();
+		while (Character.isWhitespace(c)) {
+			c = next();
+		}
+		return c;
+	}
+
+	private int next() throws IOException, CommunicationException {
+		if (position == limit) {
+			fill();
+		}
+		return readBuffer[position++] & 0xFF;
+	}
+
+	private int peek() throws IOException, CommunicationException {
+		if (position == limit) {
+			fill();
+		}
+		return readBuffer[position] & 0xFF;
+	}
+
+	private void fill() throws IOException, CommunicationException {
+		int count = source.read(readBuffer, 0, readBuffer.length);
+		if (count <= 0) {
+			throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED, "unexpected end of the "
+					+ "response");
+		}
+		position = 0;
+		limit = count;
+	}
+
+	private void expect(int actual, char expected) throws CommunicationException {
+		if (actual != expected) {
+			throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED, String.format("expected "
+					+ "'%s', but found '%s'", expected, (char)actual));
+		}
+	}
+}
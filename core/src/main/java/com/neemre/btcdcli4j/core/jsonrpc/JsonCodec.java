@@ -0,0 +1,18 @@
+package com.neemre.btcdcli4j.core.jsonrpc;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**Marks a domain entity for which the {@code btcd-cli4j-codegen} annotation processor generates a
+ * streaming reader ({@code <Entity>JsonReader}) &amp; writer ({@code <Entity>JsonWriter}) at
+ * compile time, based on the same Jackson &amp; Lombok annotations that drive the reflective
+ * mapping. {@link JsonMapper} picks the generated codecs up automatically (see
+ * {@link JsonCodecs}); entities whose codecs are missing are mapped reflectively as before.
+ * 
+ * <p>Generated codecs are only used for the exact entity class they were generated for; i.e.
+ * subclasses of an annotated entity are mapped reflectively, unless annotated themselves.*/
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface JsonCodec {}
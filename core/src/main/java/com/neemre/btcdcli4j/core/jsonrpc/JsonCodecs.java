@@ -0,0 +1,238 @@
+package com.neemre.btcdcli4j.core.jsonrpc;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.module.SimpleSerializers;
+import com.neemre.btcdcli4j.core.common.Constants;
+
+/**Loads the codecs generated for {@link JsonCodec} entities and provides the helpers that the
+ * generated code shares. The annotation processor lists every entity it generated codecs for in
+ * {@value #CODEC_INDEX} (one fully qualified class name per line).*/
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class JsonCodecs {
+
+	private static final Logger LOG = LoggerFactory.getLogger(JsonCodecs.class);
+
+	public static final String CODEC_INDEX = "META-INF/btcdcli4j/json-codecs";
+	public static final String READER_SUFFIX = "JsonReader";
+	public static final String WRITER_SUFFIX = "JsonWriter";
+
+
+	/**Returns a module registering all generated codecs visible to {@code classLoader}. Writers
+	 * are only used for their exact entity class (and never for a subclass, whose additional
+	 * properties they would miss).*/
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	public static SimpleModule createModule(ClassLoader classLoader) {
+		SimpleModule module = new SimpleModule("btcd-cli4j-codecs");
+		final Map<Class<?>, JsonSerializer<?>> writers = new HashMap<Class<?>, JsonSerializer<?>>();
+		try {
+			Enumeration<URL> indexes = classLoader.getResources(CODEC_INDEX);
+			while (indexes.hasMoreElements()) {
+				for (String entityName : readIndex(indexes.nextElement())) {
+					Class entityClass = Class.forName(entityName, true, classLoader);
+					module.addDeserializer(entityClass, (JsonDeserializer)newInstance(entityName
+							+ READER_SUFFIX, classLoader));
+					writers.put(entityClass, (JsonSerializer<?>)newInstance(entityName
+							+ WRITER_SUFFIX, classLoader));
+				}
+			}
+		} catch (IOException | ReflectiveOperationException | ClassCastException e) {
+			LOG.warn("-- createModule(..): failed to load the generated JSON codecs, falling back "
+					+ "to reflective mapping (message: '{}')", e.getMessage());
+			return new SimpleModule("btcd-cli4j-codecs");
+		}
+		module.setSerializers(new ExactSerializers(writers));
+		LOG.info("-- createModule(..): loaded generated JSON codecs for {} domain entities",
+				writers.size());
+		return module;
+	}
+
+	/**Reads a {@code String} property, resolving it through the mapper's {@link StringTable} (if
+	 * any); tokens other than strings are left to the context, so that they are coerced (or
+	 * rejected) exactly as by the reflective mapping.*/
+	public static String readString(JsonParser parser, DeserializationContext context)
+			throws IOException {
+		if (parser.getCurrentToken() == JsonToken.VALUE_STRING) {
+			StringTable stringTable = (StringTable)context.getAttribute(StringTable.class);
+			if (stringTable != null) {
+				return stringTable.canonicalize(parser.getTextCharacters(), parser.getTextOffset(),
+						parser.getTextLength());
+			}
+			return parser.getText();
+		}
+		return context.readValue(parser, String.class);
+	}
+
+	public static Integer readInteger(JsonParser parser, DeserializationContext context)
+			throws IOException {
+		if (parser.getCurrentToken() == JsonToken.VALUE_NUMBER_INT) {
+			return parser.getIntValue();
+		}
+		return context.readValue(parser, Integer.class);
+	}
+
+	public static Long readLong(JsonParser parser, DeserializationContext context)
+			throws IOException {
+		if (parser.getCurrentToken() == JsonToken.VALUE_NUMBER_INT) {
+			return parser.getLongValue();
+		}
+		return context.readValue(parser, Long.class);
+	}
+
+	public static Boolean readBoolean(JsonParser parser, DeserializationContext context)
+			throws IOException {
+		JsonToken token = parser.getCurrentToken();
+		if ((token == JsonToken.VALUE_TRUE) || (token == JsonToken.VALUE_FALSE)) {
+			return (token == JsonToken.VALUE_TRUE);
+		}
+		return context.readValue(parser, Boolean.class);
+	}
+
+	public static Double readDouble(JsonParser parser, DeserializationContext context)
+			throws IOException {
+		JsonToken token = parser.getCurrentToken();
+		if ((token == JsonToken.VALUE_NUMBER_FLOAT) || (token == JsonToken.VALUE_NUMBER_INT)) {
+			return parser.getDoubleValue();
+		}
+		return context.readValue(parser, Double.class);
+	}
+
+	public static BigDecimal readDecimal(JsonParser parser, DeserializationContext context)
+			throws IOException {
+		JsonToken token = parser.getCurrentToken();
+		if ((token == JsonToken.VALUE_NUMBER_FLOAT) || (token == JsonToken.VALUE_NUMBER_INT)) {
+			return parser.getDecimalValue();
+		}
+		return context.readValue(parser, BigDecimal.class);
+	}
+
+	public static List<String> readStringList(JsonParser parser, DeserializationContext context)
+			throws IOException {
+		if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+			throw context.mappingException(List.class, parser.getCurrentToken());
+		}
+		List<String> values = new ArrayList<String>();
+		for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; 
+				token = parser.nextToken()) {
+			values.add((token == JsonToken.VALUE_NULL) ? null : readString(parser, context));
+		}
+		return values;
+	}
+
+	public static <T> List<T> readList(JsonParser parser, DeserializationContext context,
+			JsonDeserializer<Object> elementReader, Class<T> elementClass) throws IOException {
+		if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+			throw context.mappingException(List.class, parser.getCurrentToken());
+		}
+		List<T> values = new ArrayList<T>();
+		for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; 
+				token = parser.nextToken()) {
+			values.add((token == JsonToken.VALUE_NULL) ? null : elementClass.cast(
+					elementReader.deserialize(parser, context)));
+		}
+		return values;
+	}
+
+	/**Writes a nested entity with its generated writer, unless it is an instance of a subclass
+	 * (whose own serializer is then looked up, as the reflective mapping would do).*/
+	public static void writeEntity(JsonGenerator generator, SerializerProvider provider,
+			Object value, Class<?> entityClass, JsonSerializer<Object> entityWriter) 
+					throws IOException {
+		if (value.getClass() == entityClass) {
+			entityWriter.serialize(value, generator, provider);
+		} else {
+			provider.defaultSerializeValue(value, generator);
+		}
+	}
+
+	public static void writeStringList(JsonGenerator generator, List<String> values) 
+			throws IOException {
+		generator.writeStartArray();
+		for (String value : values) {
+			generator.writeString(value);
+		}
+		generator.writeEndArray();
+	}
+
+	public static void writeList(JsonGenerator generator, SerializerProvider provider,
+			List<?> values, Class<?> elementClass, JsonSerializer<Object> elementWriter) 
+					throws IOException {
+		generator.writeStartArray();
+		for (Object value : values) {
+			if (value == null) {
+				generator.writeNull();
+			} else {
+				writeEntity(generator, provider, value, elementClass, elementWriter);
+			}
+		}
+		generator.writeEndArray();
+	}
+
+	/**Instantiates a generated codec through its no-arg constructor; unlike
+	 * {@code Class.newInstance()}, any exception thrown by the constructor is wrapped (in an
+	 * {@code InvocationTargetException}) rather than rethrown as is.*/
+	private static Object newInstance(String className, ClassLoader classLoader)
+			throws ReflectiveOperationException {
+		return Class.forName(className, true, classLoader).getDeclaredConstructor().newInstance();
+	}
+
+	private static List<String> readIndex(URL index) throws IOException {
+		List<String> entityNames = new ArrayList<String>();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(),
+				Constants.UTF_8));
+		try {
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				if (!line.trim().isEmpty()) {
+					entityNames.add(line.trim());
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		return entityNames;
+	}
+
+	private static class ExactSerializers extends SimpleSerializers {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Map<Class<?>, JsonSerializer<?>> writers;
+
+
+		private ExactSerializers(Map<Class<?>, JsonSerializer<?>> writers) {
+			this.writers = writers;
+		}
+
+		@Override
+		public JsonSerializer<?> findSerializer(SerializationConfig config, JavaType type,
+				BeanDescription beanDesc) {
+			return writers.get(type.getRawClass());
+		}
+	}
+}
@@ -1,45 +1,87 @@
 package com.neemre.btcdcli4j.core.jsonrpc;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.cfg.ContextAttributes;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.type.CollectionType;
 import com.fasterxml.jackson.databind.type.MapType;
 import com.neemre.btcdcli4j.core.common.Errors;
+import com.neemre.btcdcli4j.core.domain.LazyRawBlock;
+import com.neemre.btcdcli4j.core.domain.RawBlock;
+import com.neemre.btcdcli4j.core.domain.RawTransaction;
+import com.neemre.btcdcli4j.core.jsonrpc.deserialization.CanonicalStringDeserializer;
 
 public class JsonMapper {
 	
 	private static final Logger LOG = LoggerFactory.getLogger(JsonMapper.class);
+
+	/**The least number of transactions of a block worth mapping in parallel.*/
+	public static final int PARALLEL_MIN_TRANSACTIONS = 64;
 	
 	private ObjectMapper rawMapper;
 	private ObjectWriter rawWriter;
+	private StringTable stringTable;
 
 
 	public JsonMapper() {
+		this(true);
+	}
+
+	/**@param withGeneratedCodecs whether to map the {@link JsonCodec} entities with the streaming
+	 * codecs generated for them at compile time (rather than reflectively)*/
+	public JsonMapper(boolean withGeneratedCodecs) {
+		this(withGeneratedCodecs, null);
+	}
+
+	/**@param stringTable the table through which all string values get canonicalized while
+	 * mapping, or {@code null} to map every value to a string of its own*/
+	public JsonMapper(boolean withGeneratedCodecs, StringTable stringTable) {
 		LOG.info("** JsonMapper(): initiating & configuring external JSON processor (Jackson"
 				+ " ObjectMapper)");
 		rawMapper = new ObjectMapper();
+		this.stringTable = stringTable;
+		configureMappingProvider(withGeneratedCodecs, stringTable);
 		rawWriter = rawMapper.writer();
-		configureMappingProvider();
 	}
 	
-	private void configureMappingProvider() {
+	private void configureMappingProvider(boolean withGeneratedCodecs, StringTable stringTable) {
 		rawMapper.configure(SerializationFeature.INDENT_OUTPUT, true);
 		rawMapper.configure(DeserializationFeature.FAIL_ON_NUMBERS_FOR_ENUMS, true);
 		rawMapper.configure(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS, true);
+		if (withGeneratedCodecs) {
+			rawMapper.registerModule(JsonCodecs.createModule(JsonMapper.class.getClassLoader()));
+		}
+		if (stringTable != null) {
+			SimpleModule module = new SimpleModule("btcd-cli4j-strings");
+			module.addDeserializer(String.class, new CanonicalStringDeserializer());
+			rawMapper.registerModule(module);
+			rawMapper.setConfig(rawMapper.getDeserializationConfig().with(ContextAttributes
+					.getEmpty().withSharedAttribute(StringTable.class, stringTable)));
+		}
+	}
+
+	public StringTable getStringTable() {
+		return stringTable;
 	}
 
 	public <T> String mapToJson(T entity) throws JsonRpcLayerException {
@@ -51,6 +93,15 @@ public class JsonMapper {
 		}
 	}
 
+	public <T> byte[] mapToBytes(T entity) throws JsonRpcLayerException {
+		try {
+			byte[] entityJson = rawWriter.writeValueAsBytes(entity);
+			return entityJson;
+		} catch (JsonProcessingException e) {
+			throw new JsonRpcLayerException(Errors.PARSE_JSON_UNKNOWN, e);
+		}
+	}
+
 	public <T> List<String> mapToJson(List<T> entities) throws JsonRpcLayerException {
 		try {
 			List<String> entitiesJson = new ArrayList<String>();
@@ -76,6 +127,77 @@ public class JsonMapper {
 		}
 	}
 
+	public <T> T mapToEntity(byte[] entityJson, Class<T> entityClass) throws JsonRpcLayerException {
+		try {
+			T entity = rawMapper.readValue(entityJson, entityClass);
+			return entity;
+		} catch (JsonParseException e) {
+			throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED, e);
+		} catch (JsonMappingException e) {
+			throw new JsonRpcLayerException(Errors.MAP_JSON_UNKNOWN, e);
+		} catch (IOException e) {
+			throw new JsonRpcLayerException(Errors.IO_UNKNOWN, e);
+		}
+	}
+
+	/**Reads the value at the current token of {@code parser} (and no further), which allows large
+	 * documents to be mapped piece by piece while they are being streamed.*/
+	public <T> T mapToEntity(JsonParser parser, Class<T> entityClass) throws JsonRpcLayerException {
+		try {
+			T entity = rawMapper.readValue(parser, entityClass);
+			return entity;
+		} catch (JsonParseException e) {
+			throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED, e);
+		} catch (JsonMappingException e) {
+			throw new JsonRpcLayerException(Errors.MAP_JSON_UNKNOWN, e);
+		} catch (IOException e) {
+			throw new JsonRpcLayerException(Errors.IO_UNKNOWN, e);
+		}
+	}
+
+	/**Maps {@code entityJson} like {@link #mapToEntity(String, Class)}, but leaves every member
+	 * outside of {@code projection} unset, skipping its value without decoding it.*/
+	public <T> T mapToEntity(String entityJson, Class<T> entityClass, JsonProjection projection)
+			throws JsonRpcLayerException {
+		JsonParser parser = createParser(entityJson);
+		try {
+			return mapToEntity(parser, entityClass, projection);
+		} finally {
+			try {
+				parser.close();
+			} catch (IOException e) {
+				LOG.warn("-- mapToEntity(..): failed to close the JSON parser (message: '{}')",
+						e.getMessage());
+			}
+		}
+	}
+
+	/**Streaming variant of {@link #mapToEntity(String, Class, JsonProjection)}, reading the value
+	 * at the current token of {@code parser} (and no further).*/
+	public <T> T mapToEntity(JsonParser parser, Class<T> entityClass, JsonProjection projection)
+			throws JsonRpcLayerException {
+		if (projection.isAll()) {
+			return mapToEntity(parser, entityClass);
+		}
+		return mapToEntity(new ProjectingJsonParser(parser, projection), entityClass);
+	}
+
+	public JsonParser createParser(InputStream entityJson) throws JsonRpcLayerException {
+		try {
+			return rawMapper.getFactory().createParser(entityJson);
+		} catch (IOException e) {
+			throw new JsonRpcLayerException(Errors.IO_UNKNOWN, e);
+		}
+	}
+
+	public JsonParser createParser(String entityJson) throws JsonRpcLayerException {
+		try {
+			return rawMapper.getFactory().createParser(entityJson);
+		} catch (IOException e) {
+			throw new JsonRpcLayerException(Errors.IO_UNKNOWN, e);
+		}
+	}
+
 	public <T> List<T> mapToList(String entitiesJson, Class<T> entityClass)	
 			throws JsonRpcLayerException {
 		try {
@@ -127,4 +249,235 @@ public class JsonMapper {
 			throw new JsonRpcLayerException(Errors.IO_UNKNOWN, e);
 		}
 	}
-}
\ No newline at end of file
+
+	/**Maps a {@code getblock} (verbosity 2) response to a {@link LazyRawBlock}. The header fields are
+	 * mapped right away, while the transactions are only delimited by a plain character scan (which
+	 * is several times cheaper than tokenizing them) and mapped one by one on first access; thus
+	 * syntax errors within a transaction only surface once it is accessed.*/
+	public LazyRawBlock mapToLazyBlock(final String blockJson) throws JsonRpcLayerException {
+		try {
+			final TransactionBounds txBounds = scanTransactions(blockJson);
+			LazyRawBlock block = rawMapper.readerForUpdating(new LazyRawBlock()).readValue(
+					txBounds.toHeaderJson(blockJson));
+			block.setSource(new LazyRawBlock.TransactionSource() {
+				@Override
+				public int getCount() {
+					return txBounds.count;
+				}
+
+				@Override
+				public RawTransaction decode(int index) {
+					try {
+						return mapToEntity(blockJson.substring(txBounds.getStart(index), 
+								txBounds.getEnd(index)), RawTransaction.class);
+					} catch (JsonRpcLayerException e) {
+						throw new IllegalArgumentException(Errors.MAP_JSON_UNKNOWN.getDescription(), 
+								e);
+					}
+				}
+			});
+			return block;
+		} catch (IndexOutOfBoundsException e) {
+			throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED, e);
+		} catch (JsonParseException e) {
+			throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED, e);
+		} catch (JsonMappingException e) {
+			throw new JsonRpcLayerException(Errors.MAP_JSON_UNKNOWN, e);
+		} catch (IOException e) {
+			throw new JsonRpcLayerException(Errors.IO_UNKNOWN, e);
+		}
+	}
+
+	/**Maps a {@code getblock} (verbosity 2) response to a plain {@link RawBlock}, with its
+	 * transactions mapped in parallel on {@code pool}: they are delimited by the same character
+	 * scan as in {@link #mapToLazyBlock(String)}, after which disjoint runs of them are mapped by
+	 * separate fork-join tasks, each into its own slots of the (ordered) transaction list. Blocks
+	 * of fewer than {@value #PARALLEL_MIN_TRANSACTIONS} transactions are mapped on the calling
+	 * thread.*/
+	public RawBlock mapToBlock(String blockJson, ForkJoinPool pool) throws JsonRpcLayerException {
+		TransactionBounds txBounds;
+		try {
+			txBounds = scanTransactions(blockJson);
+		} catch (IndexOutOfBoundsException e) {
+			throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED, e);
+		}
+		if (txBounds.count < PARALLEL_MIN_TRANSACTIONS) {
+			return mapToEntity(blockJson, RawBlock.class);
+		}
+		RawBlock block = mapToEntity(txBounds.toHeaderJson(blockJson), RawBlock.class);
+		RawTransaction[] transactions = new RawTransaction[txBounds.count];
+		int leafSize = Math.max(txBounds.count / (4 * pool.getParallelism()), 
+				PARALLEL_MIN_TRANSACTIONS / 4);
+		try {
+			pool.invoke(new TransactionMappingTask(blockJson.toCharArray(), txBounds, transactions, 
+					0, txBounds.count, leafSize));
+		} catch (RuntimeException e) {
+			for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+				if (cause instanceof JsonRpcLayerException) {
+					throw (JsonRpcLayerException)cause;
+				}
+			}
+			throw e;
+		}
+		block.setTx(new ArrayList<RawTransaction>(Arrays.asList(transactions)));
+		return block;
+	}
+
+	/**Delimits the elements of the {@code tx} array of a block with a plain character scan.*/
+	private TransactionBounds scanTransactions(String blockJson) throws JsonRpcLayerException {
+		TransactionBounds txBounds = new TransactionBounds();
+		int position = skipWhitespace(blockJson, 0);
+		if (blockJson.charAt(position) != '{') {
+			throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED);
+		}
+		position = skipWhitespace(blockJson, position + 1);
+		while (blockJson.charAt(position) == '"') {
+			int keyEnd = skipValue(blockJson, position);
+			boolean isTx = blockJson.startsWith("\"tx\"", position) && (keyEnd == position + 4);
+			position = skipWhitespace(blockJson, keyEnd);
+			if (blockJson.charAt(position) != ':') {
+				throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED);
+			}
+			position = skipWhitespace(blockJson, position + 1);
+			if (isTx && (blockJson.charAt(position) == '[')) {
+				txBounds.arrayStart = position;
+				position = skipWhitespace(blockJson, position + 1);
+				while (blockJson.charAt(position) != ']') {
+					int start = position;
+					position = skipValue(blockJson, position);
+					txBounds.add(start, position);
+					position = skipWhitespace(blockJson, position);
+					if (blockJson.charAt(position) == ',') {
+						position = skipWhitespace(blockJson, position + 1);
+					}
+				}
+				txBounds.arrayEnd = position + 1;
+			}
+			position = skipWhitespace(blockJson, skipValue(blockJson, position));
+			if (blockJson.charAt(position) == ',') {
+				position = skipWhitespace(blockJson, position + 1);
+			}
+		}
+		return txBounds;
+	}
+
+	private int skipWhitespace(String json, int position) {
+		while (Character.isWhitespace(json.charAt(position))) {
+			position++;
+		}
+		return position;
+	}
+
+	/**Returns the position right after the JSON value starting at {@code position}.*/
+	private int skipValue(String json, int position) {
+		char c = json.charAt(position);
+		if ((c != '{') && (c != '[') && (c != '"')) {
+			while ((c != ',') && (c != '}') && (c != ']') && !Character.isWhitespace(c)) {
+				c = json.charAt(++position);
+			}
+			return position;
+		}
+		int depth = 0;
+		do {
+			c = json.charAt(position++);
+			if (c == '"') {
+				c = json.charAt(position++);
+				while (c != '"') {
+					if (c == '\\') {
+						position++;
+					}
+					c = json.charAt(position++);
+				}
+			} else if ((c == '{') || (c == '[')) {
+				depth++;
+			} else if ((c == '}') || (c == ']')) {
+				depth--;
+			}
+		} while (depth > 0);
+		return position;
+	}
+
+	/**The positions of the {@code tx} array of a block &amp; of each of its elements.*/
+	private static final class TransactionBounds {
+
+		private int arrayStart = -1;
+		private int arrayEnd = -1;
+		private int[] bounds = new int[128];
+		private int count;
+
+
+		private void add(int start, int end) {
+			if (2 * count == bounds.length) {
+				bounds = Arrays.copyOf(bounds, 2 * bounds.length);
+			}
+			bounds[2 * count] = start;
+			bounds[2 * count + 1] = end;
+			count++;
+		}
+
+		private int getStart(int index) {
+			return bounds[2 * index];
+		}
+
+		private int getEnd(int index) {
+			return bounds[2 * index + 1];
+		}
+
+		/**Returns the block with an empty {@code tx} array.*/
+		private String toHeaderJson(String blockJson) {
+			if (arrayStart < 0) {
+				return blockJson;
+			}
+			return blockJson.substring(0, arrayStart) + "[]" + blockJson.substring(arrayEnd);
+		}
+	}
+
+	/**Maps the transactions {@code [from, to)} of a block, splitting the range in halves for as
+	 * long as it is larger than {@code leafSize}.*/
+	private final class TransactionMappingTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final char[] blockJson;
+		private final TransactionBounds txBounds;
+		private final RawTransaction[] transactions;
+		private final int from;
+		private final int to;
+		private final int leafSize;
+
+
+		private TransactionMappingTask(char[] blockJson, TransactionBounds txBounds, 
+				RawTransaction[] transactions, int from, int to, int leafSize) {
+			this.blockJson = blockJson;
+			this.txBounds = txBounds;
+			this.transactions = transactions;
+			this.from = from;
+			this.to = to;
+			this.leafSize = leafSize;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > leafSize) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new TransactionMappingTask(blockJson, txBounds, transactions, from, 
+						middle, leafSize), new TransactionMappingTask(blockJson, txBounds, 
+						transactions, middle, to, leafSize));
+				return;
+			}
+			try {
+				for (int i = from; i < to; i++) {
+					int start = txBounds.getStart(i);
+					JsonParser parser = rawMapper.getFactory().createParser(blockJson, start, 
+							txBounds.getEnd(i) - start);
+					transactions[i] = mapToEntity(parser, RawTransaction.class);
+					parser.close();
+				}
+			} catch (IOException e) {
+				throw new IllegalStateException(new JsonRpcLayerException(Errors.IO_UNKNOWN, e));
+			} catch (JsonRpcLayerException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+}
@@ -1,26 +1,52 @@
 package com.neemre.btcdcli4j.core.jsonrpc;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 
 import org.apache.commons.lang3.StringEscapeUtils;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParser.NumberType;
+import com.fasterxml.jackson.core.JsonToken;
 import com.neemre.btcdcli4j.core.common.Constants;
 import com.neemre.btcdcli4j.core.common.Defaults;
+import com.neemre.btcdcli4j.core.domain.Sha256Hash;
 
+/**Parses the scalar results of commands, either from their JSON text (the {@code parse*()}
+ * methods) or straight off a streamed response (the {@code read*()} methods, for use by a
+ * {@link com.neemre.btcdcli4j.core.jsonrpc.client.JsonRpcClient.ResultReader}), in which case the
+ * value is decoded from the parser's buffer without building an intermediate string. Plain
+ * decimal integers are parsed by hand, so that the common case neither allocates nor throws.*/
 public class JsonPrimitiveParser {
 
+	private static final int MAX_INT_DIGITS = 9;
+	private static final int MAX_LONG_DIGITS = 18;
+
+
 	public Integer parseInteger(String integerJson) {
+		if (isPlainInteger(integerJson, MAX_INT_DIGITS)) {
+			return (int)parsePlainInteger(integerJson);
+		}
+		if ((integerJson == null) || integerJson.equals(Constants.STRING_NULL)) {
+			return null;
+		}
 		try {
-			return Integer.valueOf(integerJson);		
+			return Integer.valueOf(integerJson);
 		} catch (NumberFormatException e) {
 			return null;
 		}
 	}
 
 	public Long parseLong(String longJson) {
+		if (isPlainInteger(longJson, MAX_LONG_DIGITS)) {
+			return parsePlainInteger(longJson);
+		}
+		if ((longJson == null) || longJson.equals(Constants.STRING_NULL)) {
+			return null;
+		}
 		try {
-			return Long.valueOf(longJson);		
+			return Long.valueOf(longJson);
 		} catch (NumberFormatException e) {
 			return null;
 		}
@@ -36,7 +62,7 @@ public class JsonPrimitiveParser {
 
 	public BigDecimal parseBigDecimal(String bigDecimalJson) {
 		try {
-			return new BigDecimal(bigDecimalJson).setScale(Defaults.DECIMAL_SCALE, 
+			return new BigDecimal(bigDecimalJson).setScale(Defaults.DECIMAL_SCALE,
 					Defaults.ROUNDING_MODE);
 		} catch (NumberFormatException e) {
 			return null;
@@ -53,7 +79,13 @@ public class JsonPrimitiveParser {
 
 	public String parseString(String stringJson) {
 		if (!stringJson.equals(Constants.STRING_NULL)) {
-			return unescapeJson(stringJson.replaceAll("^\"|\"$", ""));
+			int start = stringJson.startsWith("\"") ? 1 : 0;
+			int end = stringJson.length();
+			if ((end > start) && (stringJson.charAt(end - 1) == '"')) {
+				end--;
+			}
+			String string = stringJson.substring(start, end);
+			return (string.indexOf('\\') < 0) ? string : unescapeJson(string);
 		} else {
 			return null;
 		}
@@ -62,4 +94,93 @@ public class JsonPrimitiveParser {
 	public String unescapeJson(String json) {
 		return StringEscapeUtils.unescapeJson(json);
 	}
-}
\ No newline at end of file
+
+	/**Reads an integer result, or returns {@code null} if the result is not a JSON number that
+	 * fits into an {@code int}.*/
+	public Integer readInteger(JsonParser parser) throws IOException {
+		if ((parser.getCurrentToken() == JsonToken.VALUE_NUMBER_INT)
+				&& (parser.getNumberType() == NumberType.INT)) {
+			return parser.getIntValue();
+		}
+		parser.skipChildren();
+		return null;
+	}
+
+	/**Reads an integer result, or returns {@code null} if the result is not a JSON number that
+	 * fits into a {@code long}.*/
+	public Long readLong(JsonParser parser) throws IOException {
+		if ((parser.getCurrentToken() == JsonToken.VALUE_NUMBER_INT)
+				&& (parser.getNumberType() != NumberType.BIG_INTEGER)) {
+			return parser.getLongValue();
+		}
+		parser.skipChildren();
+		return null;
+	}
+
+	/**Reads a decimal result (scaled like {@link #parseBigDecimal(String)}), or returns
+	 * {@code null} if the result is not a JSON number.*/
+	public BigDecimal readBigDecimal(JsonParser parser) throws IOException {
+		JsonToken token = parser.getCurrentToken();
+		if ((token == JsonToken.VALUE_NUMBER_INT) || (token == JsonToken.VALUE_NUMBER_FLOAT)) {
+			return parser.getDecimalValue().setScale(Defaults.DECIMAL_SCALE,
+					Defaults.ROUNDING_MODE);
+		}
+		parser.skipChildren();
+		return null;
+	}
+
+	/**Reads a string result, already unescaped by the parser. Any other scalar result is returned
+	 * as its JSON text, like {@link #parseString(String)} does; a {@code null}, array or object
+	 * result yields {@code null}.*/
+	public String readString(JsonParser parser) throws IOException {
+		JsonToken token = parser.getCurrentToken();
+		if (token == JsonToken.VALUE_NULL) {
+			return null;
+		}
+		if (token.isScalarValue()) {
+			return parser.getText();
+		}
+		parser.skipChildren();
+		return null;
+	}
+
+	/**Reads a hex string result straight into a hash, or returns {@code null} if the result is not
+	 * a well-formed hash.*/
+	public Sha256Hash readSha256Hash(JsonParser parser) throws IOException {
+		if (parser.getCurrentToken() == JsonToken.VALUE_STRING) {
+			return Sha256Hash.parse(parser.getTextCharacters(), parser.getTextOffset(),
+					parser.getTextLength());
+		}
+		parser.skipChildren();
+		return null;
+	}
+
+	/**Returns {@code true} if {@code json} is an optional minus sign, followed by 1 to
+	 * {@code maxDigits} ASCII digits (which cannot overflow the type being parsed).*/
+	private boolean isPlainInteger(String json, int maxDigits) {
+		if (json == null) {
+			return false;
+		}
+		int start = ((json.length() > 0) && (json.charAt(0) == '-')) ? 1 : 0;
+		int length = json.length() - start;
+		if ((length == 0) || (length > maxDigits)) {
+			return false;
+		}
+		for (int i = start; i < json.length(); i++) {
+			char digit = json.charAt(i);
+			if ((digit < '0') || (digit > '9')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private long parsePlainInteger(String json) {
+		boolean isNegative = (json.charAt(0) == '-');
+		long value = 0;
+		for (int i = isNegative ? 1 : 0; i < json.length(); i++) {
+			value = 10 * value + (json.charAt(i) - '0');
+		}
+		return isNegative ? -value : value;
+	}
+}
@@ -0,0 +1,111 @@
+package com.neemre.btcdcli4j.core.jsonrpc;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.neemre.btcdcli4j.core.common.Errors;
+
+/**Selects which members of a JSON document get mapped, by dot-separated paths of member names
+ * relative to the document root (e.g. {@code tx.vin.scriptSig.asm} for a {@code getblock}
+ * result); arrays are transparent, so a path applies to every element of the arrays along it. A
+ * path selects the whole subtree below it. The members left out of a projection are skipped by
+ * {@link ProjectingJsonParser} before they reach the mapper, so that their values are never
+ * materialized. Projections are immutable.*/
+public final class JsonProjection {
+
+	private static final Map<String, JsonProjection> LEAF = Collections.emptyMap();
+
+	/**Selects every member.*/
+	public static final JsonProjection ALL = new JsonProjection(false);
+
+	/**Leaves out the script assemblies, witnesses &amp; serialized transactions of a block (or of a
+	 * transaction, via {@link #getMember(String) getMember("tx")}), which make up most of its
+	 * JSON, but are seldom used by callers interested in amounts &amp; addresses.*/
+	public static final JsonProjection BLOCK_WITHOUT_SCRIPTS = excluding("tx.hex",
+			"tx.vin.scriptSig", "tx.vin.txinwitness", "tx.vout.scriptPubKey.asm",
+			"tx.vout.scriptPubKey.hex");
+
+	/**Selects the block header only, i.e. leaves its {@code tx} list {@code null}.*/
+	public static final JsonProjection BLOCK_HEADER = excluding("tx");
+
+	private final boolean isIncluding;
+	private final Map<String, JsonProjection> members;
+
+
+	private JsonProjection(boolean isIncluding) {
+		this(isIncluding, new HashMap<String, JsonProjection>());
+	}
+
+	private JsonProjection(boolean isIncluding, Map<String, JsonProjection> members) {
+		this.isIncluding = isIncluding;
+		this.members = members;
+	}
+
+	/**Returns a projection selecting only the members on {@code paths} (and their ancestors).*/
+	public static JsonProjection including(String... paths) {
+		return create(true, paths);
+	}
+
+	/**Returns a projection selecting every member, except for the ones on {@code paths}.*/
+	public static JsonProjection excluding(String... paths) {
+		return create(false, paths);
+	}
+
+	/**Returns the projection to apply to the value of member {@code name}, or {@code null} if the
+	 * member is left out altogether.*/
+	public JsonProjection getMember(String name) {
+		JsonProjection member = members.get(name);
+		if (member == null) {
+			return isIncluding ? null : ALL;
+		}
+		if (member.isLeaf()) {
+			return isIncluding ? ALL : null;
+		}
+		return member;
+	}
+
+	/**Returns {@code true} if the projection selects every member (at every depth).*/
+	public boolean isAll() {
+		return (!isIncluding && members.isEmpty());
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s%s", isIncluding ? "including" : "excluding",
+				isLeaf() ? "" : members);
+	}
+
+	private boolean isLeaf() {
+		return (members == LEAF);
+	}
+
+	private static JsonProjection create(boolean isIncluding, String... paths) {
+		if (paths == null) {
+			throw new IllegalArgumentException(Errors.ARGS_NULL.getDescription());
+		}
+		JsonProjection root = new JsonProjection(isIncluding);
+		for (String path : paths) {
+			if ((path == null) || !path.matches("[^.]+(\\.[^.]+)*")) {
+				throw new IllegalArgumentException(String.format("%s Path: '%s'",
+						Errors.ARGS_PROJECTION_PATH_MALFORMED.getDescription(), path));
+			}
+			root.add(path.split("\\."), 0);
+		}
+		return root;
+	}
+
+	private void add(String[] names, int index) {
+		JsonProjection member = members.get(names[index]);
+		if (index == names.length - 1) {
+			// a whole subtree supersedes any of the paths below it
+			members.put(names[index], new JsonProjection(isIncluding, LEAF));
+		} else if (member == null) {
+			member = new JsonProjection(isIncluding);
+			members.put(names[index], member);
+			member.add(names, index + 1);
+		} else if (!member.isLeaf()) {
+			member.add(names, index + 1);
+		}
+	}
+}
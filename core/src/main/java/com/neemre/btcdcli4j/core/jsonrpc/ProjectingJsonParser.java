@@ -0,0 +1,111 @@
+package com.neemre.btcdcli4j.core.jsonrpc;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
+
+/**Hides the object members left out of a {@link JsonProjection} from its consumers: the value of
+ * such a member is passed over with {@link JsonParser#skipChildren()} (and a string value is never
+ * even decoded), so to the mapper reading from this parser, the member looks absent. The parser
+ * may be wrapped around one that is already positioned at the start of the projected value (e.g.
+ * at the result of a streamed response). Only {@link #nextToken()}, {@link #nextValue()} &amp;
+ * {@link #skipChildren()} advance the underlying parser; the other {@code next*()} methods of
+ * {@link JsonParser} are implemented in terms of them.*/
+public class ProjectingJsonParser extends JsonParserDelegate {
+
+	private static final int INITIAL_DEPTH = 16;
+
+	private JsonProjection root;
+	private JsonProjection[] projections;
+	private boolean[] isArray;
+	private int depth;
+	private JsonProjection memberProjection;
+
+
+	public ProjectingJsonParser(JsonParser parser, JsonProjection projection) {
+		super(parser);
+		root = projection;
+		projections = new JsonProjection[INITIAL_DEPTH];
+		isArray = new boolean[INITIAL_DEPTH];
+		JsonToken token = parser.getCurrentToken();
+		if ((token == JsonToken.START_OBJECT) || (token == JsonToken.START_ARRAY)) {
+			push(root, token == JsonToken.START_ARRAY);
+		}
+	}
+
+	@Override
+	public JsonToken nextToken() throws IOException {
+		JsonToken token = delegate.nextToken();
+		if (token == null) {
+			return null;
+		}
+		switch (token) {
+		case FIELD_NAME:
+			JsonProjection parent = projections[depth - 1];
+			if (parent.isAll()) {
+				memberProjection = parent;
+				return token;
+			}
+			while ((memberProjection = parent.getMember(delegate.getCurrentName())) == null) {
+				delegate.nextToken();
+				delegate.skipChildren();
+				token = delegate.nextToken();
+				if (token != JsonToken.FIELD_NAME) {
+					depth--;
+					return token;
+				}
+			}
+			return token;
+		case START_OBJECT:
+		case START_ARRAY:
+			push(currentProjection(), token == JsonToken.START_ARRAY);
+			return token;
+		case END_OBJECT:
+		case END_ARRAY:
+			depth--;
+			return token;
+		default:
+			return token;
+		}
+	}
+
+	@Override
+	public JsonToken nextValue() throws IOException {
+		JsonToken token = nextToken();
+		if (token == JsonToken.FIELD_NAME) {
+			token = nextToken();
+		}
+		return token;
+	}
+
+	@Override
+	public JsonParser skipChildren() throws IOException {
+		JsonToken token = delegate.getCurrentToken();
+		if ((token == JsonToken.START_OBJECT) || (token == JsonToken.START_ARRAY)) {
+			delegate.skipChildren();
+			depth--;
+		}
+		return this;
+	}
+
+	/**Returns the projection of the value at the current token, which opens a new container.*/
+	private JsonProjection currentProjection() {
+		if (depth == 0) {
+			return root;
+		}
+		// the elements of an array are projected alike, like the array itself
+		return isArray[depth - 1] ? projections[depth - 1] : memberProjection;
+	}
+
+	private void push(JsonProjection projection, boolean isArrayStart) {
+		if (depth == projections.length) {
+			projections = Arrays.copyOf(projections, 2 * depth);
+			isArray = Arrays.copyOf(isArray, 2 * depth);
+		}
+		projections[depth] = projection;
+		isArray[depth++] = isArrayStart;
+	}
+}
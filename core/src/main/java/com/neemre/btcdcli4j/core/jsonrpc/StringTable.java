@@ -0,0 +1,84 @@
+package com.neemre.btcdcli4j.core.jsonrpc;
+
+import com.neemre.btcdcli4j.core.common.Errors;
+
+/**A bounded table of canonical string values, which lets the mapper hand out one shared instance
+ * for each of the strings that recur throughout responses (block hashes, addresses, accounts,
+ * categories etc.), so that long-lived cached entities do not each retain a copy of their own. A
+ * value is looked up straight from the parser's character buffer, so a value seen before costs no
+ * allocation at all. The table is direct-mapped: a value evicts whichever value shared its slot,
+ * which bounds its size without any bookkeeping. Values longer than {@link #MAX_LENGTH} (scripts,
+ * serialized transactions) seldom recur, so they bypass the table. Slots are read &amp; written
+ * without locking; a racing lookup at worst misses, as strings are immutable.*/
+public class StringTable {
+
+	public static final int MAX_LENGTH = 128;
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private final String[] values;
+	private final int mask;
+
+
+	/**@param capacity the number of slots of the table (rounded up to a power of two)*/
+	public StringTable(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException(Errors.ARGS_VALUE_NEGATIVE.getDescription());
+		}
+		int slotCount = 1;
+		while (slotCount < Math.min(capacity, MAX_CAPACITY)) {
+			slotCount <<= 1;
+		}
+		values = new String[slotCount];
+		mask = slotCount - 1;
+	}
+
+	/**Returns the canonical instance of the string held in {@code chars[offset, offset + length)},
+	 * creating it (&amp; putting it into the table) only if it is not there yet.*/
+	public String canonicalize(char[] chars, int offset, int length) {
+		if (length > MAX_LENGTH) {
+			return new String(chars, offset, length);
+		}
+		int hash = 0;
+		for (int i = offset; i < offset + length; i++) {
+			hash = 31 * hash + chars[i];
+		}
+		int slot = (hash ^ (hash >>> 16)) & mask;
+		String value = values[slot];
+		if ((value != null) && equals(value, chars, offset, length)) {
+			return value;
+		}
+		value = new String(chars, offset, length);
+		values[slot] = value;
+		return value;
+	}
+
+	public String canonicalize(String value) {
+		if ((value == null) || (value.length() > MAX_LENGTH)) {
+			return value;
+		}
+		int hash = value.hashCode();
+		int slot = (hash ^ (hash >>> 16)) & mask;
+		String canonical = values[slot];
+		if (value.equals(canonical)) {
+			return canonical;
+		}
+		values[slot] = value;
+		return value;
+	}
+
+	public int getCapacity() {
+		return values.length;
+	}
+
+	private boolean equals(String value, char[] chars, int offset, int length) {
+		if (value.length() != length) {
+			return false;
+		}
+		for (int i = 0; i < length; i++) {
+			if (value.charAt(i) != chars[offset + i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
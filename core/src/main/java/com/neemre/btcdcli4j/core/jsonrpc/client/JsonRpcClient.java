@@ -1,11 +1,15 @@
 package com.neemre.btcdcli4j.core.jsonrpc.client;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.List;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.neemre.btcdcli4j.core.BitcoindException;
 import com.neemre.btcdcli4j.core.CommunicationException;
 import com.neemre.btcdcli4j.core.jsonrpc.JsonMapper;
 import com.neemre.btcdcli4j.core.jsonrpc.JsonPrimitiveParser;
+import com.neemre.btcdcli4j.core.jsonrpc.domain.JsonRpcResponse;
 
 public interface JsonRpcClient {
 
@@ -15,10 +19,31 @@ public interface JsonRpcClient {
 	
 	<T> String execute(String method, List<T> params) throws BitcoindException, 
 			CommunicationException;
+
+	<T> ByteBuffer executeForBytes(String method, List<T> params, ByteBuffer buffer) 
+			throws BitcoindException, CommunicationException;
+
+	<T, R> R executeForStream(String method, List<T> params, ResultReader<R> resultReader) 
+			throws BitcoindException, CommunicationException;
+
+	<T, E> JsonRpcResultIterator<E> executeForIterator(String method, List<T> params, 
+			String arrayMember, Class<E> elementClass) throws BitcoindException, 
+			CommunicationException;
+
+	<T> List<JsonRpcResponse> executeBatch(String method, List<List<T>> paramsList) 
+			throws CommunicationException;
 	
 	JsonPrimitiveParser getParser();
 
 	JsonMapper getMapper();
 	
 	void close();
+
+
+	/**Maps the (non-null) result of a JSON-RPC response straight from the response stream.*/
+	interface ResultReader<R> {
+
+		/**@param parser positioned at the first token of the result, which must be fully consumed*/
+		R read(JsonParser parser) throws IOException, CommunicationException;
+	}
 }
\ No newline at end of file
@@ -1,7 +1,12 @@
 package com.neemre.btcdcli4j.core.jsonrpc.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
 
@@ -9,16 +14,23 @@ import org.apache.http.impl.client.CloseableHttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.neemre.btcdcli4j.core.BitcoindException;
 import com.neemre.btcdcli4j.core.CommunicationException;
+import com.neemre.btcdcli4j.core.NodeProperties;
 import com.neemre.btcdcli4j.core.common.Defaults;
 import com.neemre.btcdcli4j.core.common.Errors;
 import com.neemre.btcdcli4j.core.http.HttpConstants;
 import com.neemre.btcdcli4j.core.http.client.SimpleHttpClient;
+import com.neemre.btcdcli4j.core.http.client.SimpleHttpClient.PayloadReader;
 import com.neemre.btcdcli4j.core.http.client.SimpleHttpClientImpl;
 import com.neemre.btcdcli4j.core.jsonrpc.JsonMapper;
+import com.neemre.btcdcli4j.core.jsonrpc.HexResultReader;
 import com.neemre.btcdcli4j.core.jsonrpc.JsonPrimitiveParser;
 import com.neemre.btcdcli4j.core.jsonrpc.JsonRpcLayerException;
+import com.neemre.btcdcli4j.core.jsonrpc.StringTable;
 import com.neemre.btcdcli4j.core.jsonrpc.domain.JsonRpcError;
 import com.neemre.btcdcli4j.core.jsonrpc.domain.JsonRpcRequest;
 import com.neemre.btcdcli4j.core.jsonrpc.domain.JsonRpcResponse;
@@ -36,7 +48,11 @@ public class JsonRpcClientImpl implements JsonRpcClient {
 		LOG.info("** JsonRpcClientImpl(): initiating the JSON-RPC communication layer");
 		httpClient = new SimpleHttpClientImpl(httpProvider, nodeConfig);
 		parser = new JsonPrimitiveParser();
-		mapper = new JsonMapper();
+		int stringTableCapacity = Integer.parseInt(nodeConfig.getProperty(
+				NodeProperties.JSON_STRING_TABLE_CAPACITY.getKey(), 
+				NodeProperties.JSON_STRING_TABLE_CAPACITY.getDefaultValue()));
+		mapper = new JsonMapper(true, (stringTableCapacity > 0) ? new StringTable(
+				stringTableCapacity) : null);
 	}
 
 	@Override
@@ -71,6 +87,107 @@ public class JsonRpcClientImpl implements JsonRpcClient {
 		return response.getResult();
 	}
 
+	/**Invokes a command whose result is a hex string, and returns the result decoded to bytes. The
+	 * response is decoded while being streamed from the socket, so that no intermediate string is
+	 * ever built; {@code buffer} (which may be {@code null}) is filled if it is large enough, or
+	 * else a new buffer is allocated.*/
+	@Override
+	public <T> ByteBuffer executeForBytes(String method, List<T> params, ByteBuffer buffer) 
+			throws BitcoindException, CommunicationException {
+		LOG.info(">> executeForBytes(..): invoking 'bitcoind' JSON-RPC API command '{}' with "
+				+ "params: '{}'", method, params);
+		JsonRpcRequest<T> request = getNewRequest(method, params, getNewUuid());
+		String requestJson = mapper.mapToJson(request);
+		LOG.debug("-- executeForBytes(..): sending JSON-RPC request as (raw): '{}'", 
+				requestJson.trim());
+		HexResultReader resultReader = new HexResultReader(mapper, buffer);
+		JsonRpcResponse response = httpClient.execute(HttpConstants.REQ_METHOD_POST, requestJson, 
+				resultReader);
+		response = verifyResponse(request, response);
+		response = checkResponse(response);
+		ByteBuffer bytes = resultReader.getBytes();
+		LOG.info("<< executeForBytes(..): returning {} byte(s) for 'bitcoind' API command '{}'", 
+				((bytes == null) ? 0 : bytes.remaining()), method);
+		return bytes;
+	}
+
+	/**Invokes a command and hands its result to {@code resultReader} while the response is still
+	 * being received, so that large results can be processed without ever being held in memory as
+	 * a whole. Returns {@code null} if the result is null.*/
+	@Override
+	public <T, R> R executeForStream(String method, List<T> params, ResultReader<R> resultReader) 
+			throws BitcoindException, CommunicationException {
+		LOG.info(">> executeForStream(..): invoking 'bitcoind' JSON-RPC API command '{}' with "
+				+ "params: '{}'", method, params);
+		JsonRpcRequest<T> request = getNewRequest(method, params, getNewUuid());
+		String requestJson = mapper.mapToJson(request);
+		LOG.debug("-- executeForStream(..): sending JSON-RPC request as (raw): '{}'", 
+				requestJson.trim());
+		StreamingResponseReader<R> responseReader = new StreamingResponseReader<R>(mapper, 
+				resultReader);
+		JsonRpcResponse response = httpClient.execute(HttpConstants.REQ_METHOD_POST, requestJson, 
+				responseReader);
+		response = verifyResponse(request, response);
+		response = checkResponse(response);
+		LOG.info("<< executeForStream(..): returning streamed result for 'bitcoind' API command "
+				+ "'{}'", method);
+		return responseReader.result;
+	}
+
+	/**Invokes a command and returns an iterator that maps the elements of its result one at a time
+	 * as they arrive (see {@link JsonRpcResultIterator}), so that memory use stays flat regardless
+	 * of the size of the result. The iterator must be closed unless it is exhausted.*/
+	@Override
+	public <T, E> JsonRpcResultIterator<E> executeForIterator(String method, List<T> params, 
+			String arrayMember, Class<E> elementClass) throws BitcoindException, 
+			CommunicationException {
+		LOG.info(">> executeForIterator(..): invoking 'bitcoind' JSON-RPC API command '{}' with "
+				+ "params: '{}'", method, params);
+		JsonRpcRequest<T> request = getNewRequest(method, params, getNewUuid());
+		String requestJson = mapper.mapToJson(request);
+		LOG.debug("-- executeForIterator(..): sending JSON-RPC request as (raw): '{}'", 
+				requestJson.trim());
+		InputStream respPayload = httpClient.open(HttpConstants.REQ_METHOD_POST, requestJson);
+		return new JsonRpcResultIterator<E>(mapper, respPayload, request.getId(), arrayMember, 
+				elementClass).open();
+	}
+
+	/**Sends one JSON-RPC batch request invoking {@code method} once for every parameter list, and
+	 * returns the responses in request order. Errors raised by <i>bitcoind</i> for individual
+	 * calls are not thrown, but left in the {@code error} field of the corresponding response.*/
+	@Override
+	public <T> List<JsonRpcResponse> executeBatch(String method, List<List<T>> paramsList) 
+			throws CommunicationException {
+		LOG.info(">> executeBatch(..): invoking 'bitcoind' JSON-RPC API command '{}' in a batch of "
+				+ "{} call(s)", method, paramsList.size());
+		String batchUuid = getNewUuid();
+		List<JsonRpcRequest<T>> requests = new ArrayList<JsonRpcRequest<T>>(paramsList.size());
+		for (int i = 0; i < paramsList.size(); i++) {
+			requests.add(getNewRequest(method, paramsList.get(i), batchUuid + "-" + i));
+		}
+		// cast to pick the single-entity overload, as the batch is sent as a single JSON array
+		String requestJson = mapper.mapToJson((Object)requests);
+		LOG.debug("-- executeBatch(..): sending JSON-RPC batch request as (raw): '{}'", 
+				requestJson.trim());
+		String responseJson = httpClient.execute(HttpConstants.REQ_METHOD_POST, requestJson);
+		List<JsonRpcResponse> responses = mapper.mapToList(responseJson, JsonRpcResponse.class);
+		Map<String, JsonRpcResponse> responsesById = new HashMap<String, JsonRpcResponse>(
+				responses.size() * 2);
+		for (JsonRpcResponse response : responses) {
+			if ((response == null) || (response.getId() == null)) {
+				throw new JsonRpcLayerException(Errors.RESPONSE_JSONRPC_NULL_ID);
+			}
+			responsesById.put(response.getId(), response);
+		}
+		List<JsonRpcResponse> orderedResponses = new ArrayList<JsonRpcResponse>(requests.size());
+		for (JsonRpcRequest<T> request : requests) {
+			orderedResponses.add(verifyResponse(request, responsesById.get(request.getId())));
+		}
+		LOG.info("<< executeBatch(..): returning {} result(s) for 'bitcoind' API command '{}'", 
+				orderedResponses.size(), method);
+		return orderedResponses;
+	}
+
 	@Override
 	public JsonPrimitiveParser getParser() {
 		return parser;
@@ -137,4 +254,55 @@ public class JsonRpcClientImpl implements JsonRpcClient {
 		}
 		return response;
 	}
-}
\ No newline at end of file
+
+
+	/**Walks the JSON-RPC envelope of a streamed response, passing the result to a
+	 * {@link ResultReader} and collecting the remaining members into a result-less response.*/
+	private static class StreamingResponseReader<R> implements PayloadReader<JsonRpcResponse> {
+
+		private JsonMapper mapper;
+		private ResultReader<R> resultReader;
+		private R result;
+
+
+		public StreamingResponseReader(JsonMapper mapper, ResultReader<R> resultReader) {
+			this.mapper = mapper;
+			this.resultReader = resultReader;
+		}
+
+		@Override
+		public JsonRpcResponse read(InputStream respPayload, long contentLength) 
+				throws IOException, CommunicationException {
+			JsonParser parser = mapper.createParser(respPayload);
+			try {
+				JsonRpcResponse response = new JsonRpcResponse();
+				if (parser.nextToken() != JsonToken.START_OBJECT) {
+					throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED);
+				}
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String field = parser.getCurrentName();
+					JsonToken token = parser.nextToken();
+					if (token == JsonToken.VALUE_NULL) {
+						continue;
+					}
+					if (field.equals("result")) {
+						result = resultReader.read(parser);
+					} else if (field.equals("error")) {
+						response.setError(mapper.mapToEntity(parser, JsonRpcError.class));
+					} else if (field.equals("id")) {
+						response.setId(parser.getText());
+					} else if (field.equals("jsonrpc")) {
+						response.setJsonrpc(parser.getText());
+					} else {
+						parser.skipChildren();
+					}
+				}
+				return response;
+			} catch (JsonProcessingException e) {
+				throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED, e);
+			} finally {
+				parser.close();
+			}
+		}
+	}
+}
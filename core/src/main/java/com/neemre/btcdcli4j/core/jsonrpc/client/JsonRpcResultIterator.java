@@ -0,0 +1,237 @@
+package com.neemre.btcdcli4j.core.jsonrpc.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.neemre.btcdcli4j.core.BitcoindException;
+import com.neemre.btcdcli4j.core.CommunicationException;
+import com.neemre.btcdcli4j.core.common.Errors;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonMapper;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonRpcLayerException;
+import com.neemre.btcdcli4j.core.jsonrpc.domain.JsonRpcError;
+import com.neemre.btcdcli4j.core.util.CloseableIterator;
+
+/**Iterates over the elements of a JSON-RPC result while the response is being received, mapping
+ * one element at a time. The elements are taken from the result itself if it is an array, from
+ * the values of the result if it is an object (the current key being available from
+ * {@link #getKey()}), or from an array member of the result object; in the latter case, the other
+ * members of the result are retained and become available from {@link #getMember(String)} once
+ * the iterator is exhausted. The id &amp; error of the response are checked as soon as they have
+ * been read, i.e. either upfront or after the last element.*/
+public class JsonRpcResultIterator<E> implements CloseableIterator<E> {
+
+	private static final Logger LOG = LoggerFactory.getLogger(JsonRpcResultIterator.class);
+
+	private JsonMapper mapper;
+	private InputStream respPayload;
+	private JsonParser parser;
+	private String requestId;
+	private String arrayMember;
+	private Class<E> elementClass;
+	private Map<String, JsonNode> members;
+	private String responseId;
+	private JsonRpcError error;
+	private boolean isObject;
+	private boolean isExhausted;
+	private String key;
+	private E nextElement;
+	private int count;
+
+
+	public JsonRpcResultIterator(JsonMapper mapper, InputStream respPayload, String requestId,
+			String arrayMember, Class<E> elementClass) {
+		this.mapper = mapper;
+		this.respPayload = respPayload;
+		this.requestId = requestId;
+		this.arrayMember = arrayMember;
+		this.elementClass = elementClass;
+		this.members = new HashMap<String, JsonNode>();
+	}
+
+	/**Reads the response up to the first element, failing early if the response is an error.*/
+	public JsonRpcResultIterator<E> open() throws BitcoindException, CommunicationException {
+		try {
+			parser = mapper.createParser(respPayload);
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED);
+			}
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				JsonToken token = parser.nextToken();
+				if (field.equals("result") && (token != JsonToken.VALUE_NULL)) {
+					if (openResult(token)) {
+						return this;
+					}
+				} else {
+					readEnvelopeMember(field, token);
+				}
+			}
+			// the result was null or had no elements at all
+			finish();
+			return this;
+		} catch (IOException e) {
+			close();
+			throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED, e);
+		} catch (BitcoindException | CommunicationException | RuntimeException e) {
+			close();
+			throw e;
+		}
+	}
+
+	@Override
+	public boolean hasNext() throws BitcoindException, CommunicationException {
+		if (nextElement != null) {
+			return true;
+		}
+		if (isExhausted) {
+			return false;
+		}
+		try {
+			JsonToken token = parser.nextToken();
+			if ((token == JsonToken.END_ARRAY) || (token == JsonToken.END_OBJECT)) {
+				if (arrayMember != null) {
+					readResultMembers();
+				}
+				readEnvelope();
+				finish();
+				return false;
+			}
+			if (isObject) {
+				key = parser.getCurrentName();
+				parser.nextToken();
+			}
+			nextElement = mapper.mapToEntity(parser, elementClass);
+			count++;
+			return true;
+		} catch (IOException e) {
+			close();
+			throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED, e);
+		} catch (BitcoindException | CommunicationException | RuntimeException e) {
+			close();
+			throw e;
+		}
+	}
+
+	@Override
+	public E next() throws BitcoindException, CommunicationException {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		E element = nextElement;
+		nextElement = null;
+		return element;
+	}
+
+	/**Returns the key of the last returned element, if the result is an object.*/
+	public String getKey() {
+		return key;
+	}
+
+	/**Returns a member of the result object other than the iterated array, or {@code null} if it
+	 * is absent or has not been read yet.*/
+	public JsonNode getMember(String name) {
+		return members.get(name);
+	}
+
+	@Override
+	public void close() {
+		isExhausted = true;
+		nextElement = null;
+		try {
+			if (parser != null) {
+				parser.close();
+			}
+			respPayload.close();
+		} catch (IOException e) {
+			LOG.warn("-- close(..): failed to release the streamed JSON-RPC response, message was: "
+					+ "'{}'", e.getMessage());
+		}
+	}
+
+	/**Positions the parser right before the first element; returns false if there is none.*/
+	private boolean openResult(JsonToken token) throws IOException, CommunicationException {
+		if (arrayMember == null) {
+			isObject = (token == JsonToken.START_OBJECT);
+			if (!isObject && (token != JsonToken.START_ARRAY)) {
+				throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED);
+			}
+			return true;
+		}
+		if (token != JsonToken.START_OBJECT) {
+			throw new JsonRpcLayerException(Errors.PARSE_JSON_MALFORMED);
+		}
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			token = parser.nextToken();
+			if (field.equals(arrayMember) && (token == JsonToken.START_ARRAY)) {
+				return true;
+			}
+			members.put(field, mapper.mapToEntity(parser, JsonNode.class));
+		}
+		return false;
+	}
+
+	private void readResultMembers() throws IOException, CommunicationException {
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			parser.nextToken();
+			members.put(field, mapper.mapToEntity(parser, JsonNode.class));
+		}
+	}
+
+	private void readEnvelope() throws IOException, CommunicationException {
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			readEnvelopeMember(field, parser.nextToken());
+		}
+	}
+
+	private void readEnvelopeMember(String field, JsonToken token) throws IOException,
+			CommunicationException {
+		if (token == JsonToken.VALUE_NULL) {
+			return;
+		}
+		if (field.equals("error")) {
+			error = mapper.mapToEntity(parser, JsonRpcError.class);
+		} else if (field.equals("id")) {
+			responseId = parser.getText();
+		} else {
+			parser.skipChildren();
+		}
+	}
+
+	/**Checks the id &amp; error of the response, and releases the response for reuse.*/
+	private void finish() throws BitcoindException, CommunicationException {
+		isExhausted = true;
+		if (responseId == null) {
+			throw new JsonRpcLayerException(Errors.RESPONSE_JSONRPC_NULL_ID);
+		}
+		if (!responseId.equals(requestId)) {
+			throw new JsonRpcLayerException(Errors.RESPONSE_JSONRPC_UNEQUAL_IDS);
+		}
+		if (error != null) {
+			throw new BitcoindException(error.getCode(), String.format("Error #%s: %s",
+					error.getCode(), error.getMessage()));
+		}
+		try {
+			// reading to the end of the payload lets the connection be reused
+			byte[] trailer = new byte[256];
+			while (respPayload.read(trailer) >= 0) {}
+		} catch (IOException e) {
+			LOG.debug("-- finish(..): failed to read the end of the response (message: '{}')",
+					e.getMessage());
+		}
+		LOG.debug("-- finish(..): streamed {} result element(s) of JSON-RPC response '{}'", count,
+				responseId);
+		close();
+	}
+}
@@ -1,42 +1,52 @@
 package com.neemre.btcdcli4j.core.jsonrpc.deserialization;
 
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.neemre.btcdcli4j.core.domain.AddressOverview;
-import com.neemre.btcdcli4j.core.jsonrpc.JsonPrimitiveParser;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonCodecs;
 
+/**Reads an {@code [address, balance, account]} array straight off the token stream; a missing
+ * account (as returned by newer nodes for unlabelled addresses) is left {@code null}.*/
 public class AddressOverviewDeserializer extends JsonDeserializer<AddressOverview> {
-	
+
 	private static final int ADDRESS_INDEX = 0;
 	private static final int BALANCE_INDEX = 1;
 	private static final int ACCOUNT_INDEX = 2;
 
-	private JsonPrimitiveParser parser;
-	
-	
-	public AddressOverviewDeserializer() {
-		parser = new JsonPrimitiveParser();
-	}
-	
+
 	@Override
-	public AddressOverview deserialize(JsonParser parser, DeserializationContext context)	
+	public AddressOverview deserialize(JsonParser parser, DeserializationContext context)
 			throws IOException, JsonProcessingException {
-		List<Object> propertyList = context.readValue(parser, context.getTypeFactory()
-				.constructCollectionType(ArrayList.class, Object.class));
-		return toAddressOverview(propertyList);
-	}
-	
-	private AddressOverview toAddressOverview(List<Object> propertyList) {
+		if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+			throw context.mappingException(AddressOverview.class, parser.getCurrentToken());
+		}
 		AddressOverview addressOverview = new AddressOverview();
-		addressOverview.setAddress(parser.parseString(propertyList.get(ADDRESS_INDEX).toString()));
-		addressOverview.setBalance(parser.parseBigDecimal(propertyList.get(BALANCE_INDEX).toString()));
-		addressOverview.setAccount(parser.parseString(propertyList.get(ACCOUNT_INDEX).toString()));
+		int index = 0;
+		for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY;
+				token = parser.nextToken()) {
+			if (token == JsonToken.VALUE_NULL) {
+				index++;
+				continue;
+			}
+			switch (index++) {
+			case ADDRESS_INDEX:
+				addressOverview.setAddress(JsonCodecs.readString(parser, context));
+				break;
+			case BALANCE_INDEX:
+				addressOverview.setBalance(JsonCodecs.readDecimal(parser, context));
+				break;
+			case ACCOUNT_INDEX:
+				addressOverview.setAccount(JsonCodecs.readString(parser, context));
+				break;
+			default:
+				parser.skipChildren();
+			}
+		}
 		return addressOverview;
 	}
-}
\ No newline at end of file
+}
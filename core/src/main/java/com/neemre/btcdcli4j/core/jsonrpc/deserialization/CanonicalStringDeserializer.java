@@ -0,0 +1,25 @@
+package com.neemre.btcdcli4j.core.jsonrpc.deserialization;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonCodecs;
+
+/**Resolves string values through the mapper's {@link com.neemre.btcdcli4j.core.jsonrpc.StringTable}
+ * for the entities that are mapped reflectively; any other token is coerced as Jackson would.*/
+public class CanonicalStringDeserializer extends JsonDeserializer<String> {
+
+	@Override
+	public String deserialize(JsonParser parser, DeserializationContext context)
+			throws IOException, JsonProcessingException {
+		if (parser.getCurrentToken() == JsonToken.VALUE_STRING) {
+			return JsonCodecs.readString(parser, context);
+		}
+		return StringDeserializer.instance.deserialize(parser, context);
+	}
+}
@@ -0,0 +1,31 @@
+package com.neemre.btcdcli4j.core.jsonrpc.deserialization;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.neemre.btcdcli4j.core.util.NumberUtils;
+
+/**Reads a decimal amount (in BTC) straight from the characters of the current token into a
+ * satoshi count, so that no {@code BigDecimal} is created along the way.*/
+public class SatoshiDeserializer extends JsonDeserializer<Long> {
+
+	@Override
+	public Long deserialize(JsonParser parser, DeserializationContext context) 
+			throws IOException, JsonProcessingException {
+		JsonToken token = parser.getCurrentToken();
+		if ((token != JsonToken.VALUE_NUMBER_FLOAT) && (token != JsonToken.VALUE_NUMBER_INT)
+				&& (token != JsonToken.VALUE_STRING)) {
+			throw context.mappingException(Long.class, token);
+		}
+		try {
+			return NumberUtils.parseSatoshis(parser.getTextCharacters(), parser.getTextOffset(), 
+					parser.getTextLength());
+		} catch (NumberFormatException | ArithmeticException e) {
+			throw context.weirdStringException(parser.getText(), Long.class, "not a valid amount");
+		}
+	}
+}
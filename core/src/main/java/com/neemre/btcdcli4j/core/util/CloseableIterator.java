@@ -0,0 +1,22 @@
+package com.neemre.btcdcli4j.core.util;
+
+import java.io.Closeable;
+
+import com.neemre.btcdcli4j.core.BitcoindException;
+import com.neemre.btcdcli4j.core.CommunicationException;
+
+/**An iterator over a result that is still being received, and thus holds on to an open response
+ * until it has been exhausted or closed. Unlike {@link java.util.Iterator}, it reports the errors
+ * that may only surface mid-stream as checked exceptions. Instances are not thread-safe.*/
+public interface CloseableIterator<T> extends Closeable {
+
+	boolean hasNext() throws BitcoindException, CommunicationException;
+
+	/**@throws java.util.NoSuchElementException if the iteration has no more elements*/
+	T next() throws BitcoindException, CommunicationException;
+
+	/**Releases the underlying response; closing an iterator before it is exhausted discards the
+	 * connection instead of reading the rest of the response.*/
+	@Override
+	void close();
+}
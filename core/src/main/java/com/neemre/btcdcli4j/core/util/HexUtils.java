@@ -0,0 +1,104 @@
+package com.neemre.btcdcli4j.core.util;
+
+import java.util.Arrays;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import com.neemre.btcdcli4j.core.common.Errors;
+
+/**Table-driven hex encoding &amp; decoding, shared by the codecs, caches &amp; readers that deal in
+ * hex strings. Digits are decoded in either case (but only the ASCII ones, unlike
+ * {@code Character.digit}) and always encoded in lower case, as bitcoind does.*/
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class HexUtils {
+
+	private static final char[] DIGITS = "0123456789abcdefABCDEF".toCharArray();
+	private static final byte[] NIBBLES = new byte[128];
+
+	static {
+		Arrays.fill(NIBBLES, (byte)-1);
+		for (int i = 0; i < DIGITS.length; i++) {
+			NIBBLES[DIGITS[i]] = (byte)((i < 16) ? i : (i - 6));
+		}
+	}
+
+
+	/**Returns the value of the hex digit {@code c} (in either case), or {@code -1} if it is not
+	 * one; {@code c} may be any {@code int}, <i>e.g.</i> a signed byte read off a stream.*/
+	public static int toNibble(int c) {
+		return ((c >= 0) && (c < NIBBLES.length)) ? NIBBLES[c] : -1;
+	}
+
+	/**Returns the lower-case hex digit for the low four bits of {@code nibble}.*/
+	public static char toDigit(int nibble) {
+		return DIGITS[nibble & 0x0F];
+	}
+
+	public static boolean isHex(CharSequence value) {
+		for (int i = 0; i < value.length(); i++) {
+			if (toNibble(value.charAt(i)) < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**Returns {@code true} if {@code value} consists of lower-case hex digits only, i.e. if it is
+	 * exactly what {@link #toHex} would produce for its decoded bytes.*/
+	public static boolean isLowerHex(CharSequence value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if ((toNibble(c) < 0) || ((c >= 'A') && (c <= 'F'))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public static String toHex(byte[] bytes) {
+		return toHex(bytes, 0, bytes.length);
+	}
+
+	public static String toHex(byte[] bytes, int offset, int length) {
+		char[] hex = new char[2 * length];
+		toHex(bytes, offset, length, hex, 0);
+		return new String(hex);
+	}
+
+	/**Spells out {@code bytes[offset, offset + length)} into {@code 2 * length} characters of
+	 * {@code target}, starting at {@code targetOffset}.*/
+	public static void toHex(byte[] bytes, int offset, int length, char[] target,
+			int targetOffset) {
+		for (int i = 0; i < length; i++) {
+			int b = bytes[offset + i];
+			target[targetOffset++] = DIGITS[(b >> 4) & 0x0F];
+			target[targetOffset++] = DIGITS[b & 0x0F];
+		}
+	}
+
+	/**@throws IllegalArgumentException if {@code hex} has an odd length or a non-hex digit*/
+	public static byte[] fromHex(CharSequence hex) {
+		if ((hex.length() & 1) != 0) {
+			throw new IllegalArgumentException(Errors.PARSE_BINARY_MALFORMED.getDescription());
+		}
+		byte[] bytes = new byte[hex.length() / 2];
+		fromHex(hex, bytes, 0);
+		return bytes;
+	}
+
+	/**Decodes the hex digits of {@code hex} (of even length) into {@code target}, starting at
+	 * {@code targetOffset}.
+	 *
+	 * @throws IllegalArgumentException if {@code hex} has a non-hex digit*/
+	public static void fromHex(CharSequence hex, byte[] target, int targetOffset) {
+		for (int i = 0; i + 1 < hex.length(); i += 2) {
+			int high = toNibble(hex.charAt(i));
+			int low = toNibble(hex.charAt(i + 1));
+			if ((high < 0) || (low < 0)) {
+				throw new IllegalArgumentException(Errors.PARSE_BINARY_MALFORMED.getDescription());
+			}
+			target[targetOffset++] = (byte)((high << 4) | low);
+		}
+	}
+}
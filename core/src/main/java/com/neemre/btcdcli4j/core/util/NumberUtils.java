@@ -11,7 +11,12 @@ import com.neemre.btcdcli4j.core.common.Defaults;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public final class NumberUtils {
-	
+
+	private static final int MAX_EXACT_DIGITS = 10;
+	private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 
+			10000000L, 100000000L};
+
+
 	public static boolean isEven(int integer) {
 		if (integer % 2 == 0) {
 			return true;
@@ -28,4 +33,69 @@ public final class NumberUtils {
 		}
 		return pairs;
 	}
+
+	/**@throws ArithmeticException if the amount does not fit into a {@code long} of satoshis*/
+	public static Long toSatoshis(BigDecimal amount) {
+		if (amount == null) {
+			return null;
+		}
+		return amount.setScale(Defaults.DECIMAL_SCALE, Defaults.ROUNDING_MODE).movePointRight(
+				Defaults.DECIMAL_SCALE).longValueExact();
+	}
+
+	public static BigDecimal fromSatoshis(Long satoshis) {
+		if (satoshis == null) {
+			return null;
+		}
+		return BigDecimal.valueOf(satoshis, Defaults.DECIMAL_SCALE);
+	}
+
+	/**Parses a decimal amount (e.g. {@code "0.00050000"}) straight into satoshis, rounding any
+	 * excess fraction digits the same way as {@link Defaults#ROUNDING_MODE}. Plain decimals are
+	 * parsed without allocating; only the exponent notation, which the node itself never
+	 * produces, is handed over to {@code BigDecimal}.
+	 * 
+	 * @throws ArithmeticException if the amount does not fit into a {@code long} of satoshis*/
+	public static long parseSatoshis(char[] chars, int offset, int length) {
+		int index = offset;
+		int end = offset + length;
+		boolean isNegative = false;
+		if ((index < end) && ((chars[index] == '-') || (chars[index] == '+'))) {
+			isNegative = (chars[index++] == '-');
+		}
+		long units = 0;
+		int unitDigits = 0;
+		while ((index < end) && (chars[index] >= '0') && (chars[index] <= '9')) {
+			units = 10 * units + (chars[index++] - '0');
+			unitDigits++;
+		}
+		long fraction = 0;
+		int fractionDigits = 0;
+		boolean isRoundedUp = false;
+		if ((index < end) && (chars[index] == '.')) {
+			index++;
+			while ((index < end) && (chars[index] >= '0') && (chars[index] <= '9')) {
+				if (fractionDigits < Defaults.DECIMAL_SCALE) {
+					fraction = 10 * fraction + (chars[index] - '0');
+				} else if (fractionDigits == Defaults.DECIMAL_SCALE) {
+					isRoundedUp = (chars[index] >= '5');
+				}
+				fractionDigits++;
+				index++;
+			}
+		}
+		if ((index < end) || (unitDigits > MAX_EXACT_DIGITS) || (unitDigits + fractionDigits == 0)) {
+			return toSatoshis(new BigDecimal(chars, offset, length));
+		}
+		if (fractionDigits < Defaults.DECIMAL_SCALE) {
+			fraction *= POWERS_OF_TEN[Defaults.DECIMAL_SCALE - fractionDigits];
+		}
+		long satoshis = units * POWERS_OF_TEN[Defaults.DECIMAL_SCALE] + fraction 
+				+ (isRoundedUp ? 1 : 0);
+		return isNegative ? -satoshis : satoshis;
+	}
+
+	public static long parseSatoshis(String amount) {
+		return parseSatoshis(amount.toCharArray(), 0, amount.length());
+	}
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.neemre.btcdcli4j.core.BitcoindException;
 import com.neemre.btcdcli4j.core.CommunicationException;
 import com.neemre.btcdcli4j.core.NodeProperties;
 import com.neemre.btcdcli4j.core.client.BtcdClient;
+import com.neemre.btcdcli4j.daemon.cache.BlockCacheInvalidator;
 import com.neemre.btcdcli4j.daemon.event.AlertListener;
 import com.neemre.btcdcli4j.daemon.event.BlockListener;
 import com.neemre.btcdcli4j.daemon.event.WalletListener;
@@ -28,6 +29,7 @@ public class BtcdDaemonImpl implements BtcdDaemon {
 	private ExecutorService monitorPool;
 
 	private BtcdClient client;
+	private BlockCacheInvalidator cacheInvalidator;
 
 	
 	public BtcdDaemonImpl() {
@@ -39,6 +41,7 @@ public class BtcdDaemonImpl implements BtcdDaemon {
 		this.client = configurator.checkBtcdProvider(btcdProvider);
 		buildMonitors(configurator.checkNodeConfig(client.getNodeConfig()));
 		configurator.checkNodeLiveness(client.getNetworkInfo());
+		attachCacheInvalidator();
 		startMonitors();
 		configurator.checkMonitorStates(futures);
 	}
@@ -77,11 +80,13 @@ public class BtcdDaemonImpl implements BtcdDaemon {
 	@Override
 	public void addBlockListener(BlockListener listener) {
 		monitors.get(Notifications.BLOCK).addObserver(listener.getObserver());
+		promoteCacheInvalidator();
 	}
 	
 	@Override
 	public int countBlockListeners() {
-		return monitors.get(Notifications.BLOCK).countObservers();
+		int listenerCount = monitors.get(Notifications.BLOCK).countObservers();
+		return (cacheInvalidator == null) ? listenerCount : listenerCount - 1;
 	}
 	
 	@Override
@@ -92,6 +97,7 @@ public class BtcdDaemonImpl implements BtcdDaemon {
 	@Override
 	public void removeBlockListeners() {
 		monitors.get(Notifications.BLOCK).deleteObservers();
+		promoteCacheInvalidator();
 	}
 	
 	@Override
@@ -155,6 +161,9 @@ public class BtcdDaemonImpl implements BtcdDaemon {
 	public synchronized void shutdown() {
 		LOG.info(">> shutdown(..): shutting down the 'bitcoind' notification daemon");
 		monitorPool.shutdownNow();
+		if (cacheInvalidator != null) {
+			cacheInvalidator.detach();
+		}
 	}
 	
 	private void initialize() {
@@ -177,6 +186,23 @@ public class BtcdDaemonImpl implements BtcdDaemon {
 		monitorPool = Executors.newFixedThreadPool(monitors.size());
 	}
 
+	private void attachCacheInvalidator() {
+		cacheInvalidator = new BlockCacheInvalidator(client);
+		cacheInvalidator.attach();
+		promoteCacheInvalidator();
+	}
+
+	private void promoteCacheInvalidator() {
+		if (cacheInvalidator == null) {
+			return;
+		}
+		NotificationMonitor monitor = monitors.get(Notifications.BLOCK);
+		// 'Observable' notifies the most recently added observer first; re-adding the invalidator
+		// guarantees that user listeners querying the client never see pre-block chain state
+		monitor.deleteObserver(cacheInvalidator.getObserver());
+		monitor.addObserver(cacheInvalidator.getObserver());
+	}
+
 	private void startMonitors() {
 		for (Notifications notificationType : monitors.keySet()) {
 			NotificationMonitor monitor = monitors.get(notificationType);
@@ -0,0 +1,47 @@
+package com.neemre.btcdcli4j.daemon.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.neemre.btcdcli4j.core.client.BtcdClient;
+import com.neemre.btcdcli4j.core.cache.NegativeLookupCache;
+import com.neemre.btcdcli4j.core.domain.RawBlock;
+import com.neemre.btcdcli4j.core.domain.RawTransaction;
+import com.neemre.btcdcli4j.daemon.event.BlockListener;
+
+/**A {@code BLOCK} listener that keeps the client-side caches of a {@code BtcdClient} in sync
+ * with the chain tip, making its chain-state cache notification-driven for as long as the
+ * listener is attached, and forgetting "not found" lookups for every transaction mined.*/
+public class BlockCacheInvalidator extends BlockListener {
+
+	private static final Logger LOG = LoggerFactory.getLogger(BlockCacheInvalidator.class);
+
+	private BtcdClient client;
+
+
+	public BlockCacheInvalidator(BtcdClient client) {
+		this.client = client;
+	}
+
+	public void attach() {
+		client.getChainStateCache().attach();
+	}
+
+	public void detach() {
+		client.getChainStateCache().detach();
+	}
+
+	@Override
+	public void blockDetected(RawBlock rawBlock) {
+		LOG.debug("-- blockDetected(..): invalidating cached chain state (new block: '{}')",
+				rawBlock.getHash());
+		client.getChainStateCache().invalidate();
+		client.getChainDataCache().invalidateTip();
+		NegativeLookupCache lookupCache = client.getNegativeLookupCache();
+		if (lookupCache.isEnabled() && (rawBlock.getTx() != null)) {
+			for (RawTransaction rawTransaction : rawBlock.getTx()) {
+				lookupCache.invalidate(rawTransaction.getTxId());
+			}
+		}
+	}
+}
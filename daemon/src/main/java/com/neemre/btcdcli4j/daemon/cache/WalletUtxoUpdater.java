@@ -0,0 +1,35 @@
+package com.neemre.btcdcli4j.daemon.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.neemre.btcdcli4j.core.BitcoindException;
+import com.neemre.btcdcli4j.core.CommunicationException;
+import com.neemre.btcdcli4j.core.cache.WalletUtxoView;
+import com.neemre.btcdcli4j.core.domain.Transaction;
+import com.neemre.btcdcli4j.daemon.event.WalletListener;
+
+/**A {@code WALLET} listener that keeps a {@link WalletUtxoView} current by applying every
+ * notified wallet transaction to it. Failures are logged and left for the view's next
+ * reconciliation to repair.*/
+public class WalletUtxoUpdater extends WalletListener {
+
+	private static final Logger LOG = LoggerFactory.getLogger(WalletUtxoUpdater.class);
+
+	private WalletUtxoView utxoView;
+
+
+	public WalletUtxoUpdater(WalletUtxoView utxoView) {
+		this.utxoView = utxoView;
+	}
+
+	@Override
+	public void walletChanged(Transaction transaction) {
+		try {
+			utxoView.transactionChanged(transaction);
+		} catch (BitcoindException | CommunicationException e) {
+			LOG.warn("-- walletChanged(..): failed to apply wallet transaction '{}' to the UTXO view "
+					+ "(message: '{}')", transaction.getTxId(), e.getMessage());
+		}
+	}
+}
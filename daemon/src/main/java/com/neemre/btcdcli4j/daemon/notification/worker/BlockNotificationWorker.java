@@ -4,6 +4,7 @@ import com.neemre.btcdcli4j.core.BitcoindException;
 import com.neemre.btcdcli4j.core.CommunicationException;
 import com.neemre.btcdcli4j.core.client.BtcdClient;
 import com.neemre.btcdcli4j.core.domain.RawBlock;
+import com.neemre.btcdcli4j.core.domain.Sha256Hash;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,10 +23,16 @@ public class BlockNotificationWorker extends NotificationWorker {
 	protected Object getRelatedEntity(String headerHash) {
 		RawBlock rawBlock = new RawBlock();
 		rawBlock.setHash(headerHash);
+		if (Sha256Hash.parse(headerHash) == null) {
+			LOG.warn("-- getRelatedEntity(..): '{}' is not a well-formed block hash, skipping the "
+					+ "lookup", headerHash);
+			return rawBlock;
+		}
 		if (getClient() != null) {
 			try {
 				LOG.debug("-- getRelatedEntity(..): fetching related block data from 'bitcoind' "
 						+ "(via JSON-RPC API)");
+				getClient().getNegativeLookupCache().invalidate(headerHash);
 				rawBlock = getClient().getBlock(headerHash, 2);
 			} catch (BitcoindException | CommunicationException e) {
 				LOG.error("<< getRelatedEntity(..): failed to receive block data from 'bitcoind' "
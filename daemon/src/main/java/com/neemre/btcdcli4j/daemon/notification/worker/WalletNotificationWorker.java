@@ -8,6 +8,7 @@ import org.slf4j.LoggerFactory;
 import com.neemre.btcdcli4j.core.BitcoindException;
 import com.neemre.btcdcli4j.core.CommunicationException;
 import com.neemre.btcdcli4j.core.client.BtcdClient;
+import com.neemre.btcdcli4j.core.domain.Sha256Hash;
 import com.neemre.btcdcli4j.core.domain.Transaction;
 
 public class WalletNotificationWorker extends NotificationWorker {
@@ -23,10 +24,16 @@ public class WalletNotificationWorker extends NotificationWorker {
 	protected Object getRelatedEntity(String txId) {
 		Transaction transaction = new Transaction();
 		transaction.setTxId(txId);
+		if (Sha256Hash.parse(txId) == null) {
+			LOG.warn("-- getRelatedEntity(..): '{}' is not a well-formed txid, skipping the lookup",
+					txId);
+			return transaction;
+		}
 		if (getClient() != null) {
 			try {
 				LOG.debug("-- getRelatedEntity(..): fetching related transaction data from 'bitcoind' "
 						+ "(via JSON-RPC API)");
+				getClient().getNegativeLookupCache().invalidate(txId);
 				transaction = getClient().getTransaction(txId);
 			} catch (BitcoindException | CommunicationException e) {
 				LOG.error("<< getRelatedEntity(..): failed to receive transaction data from 'bitcoind' "
@@ -0,0 +1,95 @@
+package com.neemre.btcdcli4j.examples.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.neemre.btcdcli4j.core.domain.ColumnarBlock;
+import com.neemre.btcdcli4j.core.domain.RawBlock;
+import com.neemre.btcdcli4j.core.domain.RawOutput;
+import com.neemre.btcdcli4j.core.domain.RawTransaction;
+import com.neemre.btcdcli4j.core.domain.enums.ScriptTypes;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonMapper;
+
+/**A rough benchmark of the columnar block view, comparing the heap retained by a number of
+ * synthetic blocks held as {@link RawBlock}s against the same blocks held as
+ * {@link ColumnarBlock}s, as well as the time taken by a value sum &amp; a script type histogram
+ * over either. Run it with the number of blocks as an optional argument (defaults to 20, with 2000
+ * transactions each).*/
+public class ColumnarBlockBenchmark {
+
+	private static final int TX_COUNT = 2000;
+	private static final int MEASURED_ROUNDS = 200;
+
+
+	public static void main(String[] args) throws Exception {
+		int blockCount = (args.length > 0) ? Integer.parseInt(args[0]) : 20;
+		String blockJson = JsonMappingBenchmark.createBlockJson(TX_COUNT);
+		JsonMapper mapper = new JsonMapper();
+		System.out.printf("Holding %s blocks of %s transactions\n", blockCount, TX_COUNT);
+		long heapBefore = getUsedHeap();
+		List<RawBlock> blocks = new ArrayList<RawBlock>();
+		for (int i = 0; i < blockCount; i++) {
+			blocks.add(mapper.mapToEntity(blockJson, RawBlock.class));
+		}
+		long blocksHeap = getUsedHeap() - heapBefore;
+		List<ColumnarBlock> columnarBlocks = new ArrayList<ColumnarBlock>();
+		for (RawBlock block : blocks) {
+			columnarBlocks.add(ColumnarBlock.of(block));
+		}
+		long columnarHeap = getUsedHeap() - heapBefore - blocksHeap;
+		System.out.printf("%-9s retained: %7.2f MiB\n", "objects", blocksHeap / 1048576.0);
+		System.out.printf("%-9s retained: %7.2f MiB\n", "columnar", columnarHeap / 1048576.0);
+		for (int i = 0; i < 2; i++) {
+			long start = System.nanoTime();
+			long checksum = 0;
+			for (int j = 0; j < MEASURED_ROUNDS; j++) {
+				checksum += aggregate(blocks);
+			}
+			long objectNanos = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (int j = 0; j < MEASURED_ROUNDS; j++) {
+				checksum -= aggregateColumnar(columnarBlocks);
+			}
+			long columnarNanos = System.nanoTime() - start;
+			System.out.printf("aggregate objects: %6.2f ms, columnar: %6.2f ms (checksum %s)\n",
+					objectNanos / 1e6 / MEASURED_ROUNDS, columnarNanos / 1e6 / MEASURED_ROUNDS,
+					checksum);
+		}
+	}
+
+	private static long aggregate(List<RawBlock> blocks) {
+		long total = 0;
+		int[] histogram = new int[ScriptTypes.values().length];
+		for (RawBlock block : blocks) {
+			for (RawTransaction transaction : block.getTx()) {
+				for (RawOutput output : transaction.getVOut()) {
+					total += output.getValueSat();
+					histogram[output.getScriptPubKey().getType().ordinal()]++;
+				}
+			}
+		}
+		return total + histogram[ScriptTypes.WITNESS_V0_KEYHASH.ordinal()];
+	}
+
+	private static long aggregateColumnar(List<ColumnarBlock> blocks) {
+		long total = 0;
+		int[] histogram = new int[ScriptTypes.values().length];
+		for (ColumnarBlock block : blocks) {
+			total += block.getTotalValueSat();
+			int[] blockHistogram = block.getScriptTypeHistogram();
+			for (int i = 0; i < histogram.length; i++) {
+				histogram[i] += blockHistogram[i];
+			}
+		}
+		return total + histogram[ScriptTypes.WITNESS_V0_KEYHASH.ordinal()];
+	}
+
+	private static long getUsedHeap() throws InterruptedException {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			Thread.sleep(100);
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+}
@@ -0,0 +1,139 @@
+package com.neemre.btcdcli4j.examples.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import com.neemre.btcdcli4j.core.codec.EntityCodec;
+import com.neemre.btcdcli4j.core.domain.RawBlock;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonMapper;
+
+/**A rough benchmark of the binary entity codec, comparing the size of a synthetic
+ * {@code getblock} (verbosity 2) block when encoded by {@link EntityCodec} against its JSON form
+ * (as written by Jackson), as well as the time taken &amp; the heap allocated (as counted by
+ * HotSpot's per-thread allocation counter) by encoding &amp; decoding it either way. Run it with
+ * the number of transactions per block as an optional argument (defaults to 2000).*/
+public class EntityCodecBenchmark {
+
+	private static final int WARMUP_ROUNDS = 20;
+	private static final int MEASURED_ROUNDS = 50;
+
+
+	public static void main(String[] args) throws Exception {
+		int txCount = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+		JsonMapper mapper = new JsonMapper();
+		EntityCodec codec = new EntityCodec();
+		final RawBlock block = mapper.mapToEntity(JsonMappingBenchmark.createBlockJson(txCount),
+				RawBlock.class);
+		final byte[] blockJson = mapper.mapToBytes(block);
+		final byte[] blockBytes = codec.encode(block);
+		System.out.printf("Encoding a block of %s transactions (JSON: %s KiB, binary: %s KiB, "
+				+ "round trips intact: %s)\n", txCount, blockJson.length / 1024,
+				blockBytes.length / 1024, block.equals(codec.decode(blockBytes, RawBlock.class))
+				&& block.equals(mapper.mapToEntity(blockJson, RawBlock.class)));
+		for (int i = 0; i < 2; i++) {
+			measure("json/encode", new JsonEncodeTask(mapper, block));
+			measure("json/decode", new JsonDecodeTask(mapper, blockJson));
+			measure("binary/encode", new BinaryEncodeTask(codec, block));
+			measure("binary/decode", new BinaryDecodeTask(codec, blockBytes));
+		}
+	}
+
+	private static void measure(String name, Task task) throws Exception {
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			task.run();
+		}
+		long nanos = 0;
+		long bytes = 0;
+		for (int i = 0; i < MEASURED_ROUNDS; i++) {
+			long allocated = getAllocatedBytes();
+			long start = System.nanoTime();
+			task.run();
+			nanos += System.nanoTime() - start;
+			bytes += getAllocatedBytes() - allocated;
+		}
+		System.out.printf("%-13s %6.2f ms/block, allocated: %7.2f MiB/block\n", name,
+				nanos / 1e6 / MEASURED_ROUNDS, bytes / 1048576.0 / MEASURED_ROUNDS);
+	}
+
+	private static long getAllocatedBytes() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean)threads).getThreadAllocatedBytes(
+					Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	private interface Task {
+
+		Object run() throws Exception;
+	}
+
+	private static class JsonEncodeTask implements Task {
+
+		private JsonMapper mapper;
+		private RawBlock block;
+
+
+		public JsonEncodeTask(JsonMapper mapper, RawBlock block) {
+			this.mapper = mapper;
+			this.block = block;
+		}
+
+		@Override
+		public Object run() throws Exception {
+			return mapper.mapToBytes(block);
+		}
+	}
+
+	private static class JsonDecodeTask implements Task {
+
+		private JsonMapper mapper;
+		private byte[] blockJson;
+
+
+		public JsonDecodeTask(JsonMapper mapper, byte[] blockJson) {
+			this.mapper = mapper;
+			this.blockJson = blockJson;
+		}
+
+		@Override
+		public Object run() throws Exception {
+			return mapper.mapToEntity(blockJson, RawBlock.class);
+		}
+	}
+
+	private static class BinaryEncodeTask implements Task {
+
+		private EntityCodec codec;
+		private RawBlock block;
+
+
+		public BinaryEncodeTask(EntityCodec codec, RawBlock block) {
+			this.codec = codec;
+			this.block = block;
+		}
+
+		@Override
+		public Object run() throws Exception {
+			return codec.encode(block);
+		}
+	}
+
+	private static class BinaryDecodeTask implements Task {
+
+		private EntityCodec codec;
+		private byte[] blockBytes;
+
+
+		public BinaryDecodeTask(EntityCodec codec, byte[] blockBytes) {
+			this.codec = codec;
+			this.blockBytes = blockBytes;
+		}
+
+		@Override
+		public Object run() throws Exception {
+			return codec.decode(blockBytes, RawBlock.class);
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package com.neemre.btcdcli4j.examples.benchmark;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.security.KeyStore;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+
+import com.neemre.btcdcli4j.core.NodeProperties;
+import com.neemre.btcdcli4j.core.client.ClientConfigurator;
+import com.neemre.btcdcli4j.core.http.HandshakeMetrics;
+import com.neemre.btcdcli4j.core.jsonrpc.client.JsonRpcClient;
+import com.neemre.btcdcli4j.core.jsonrpc.client.JsonRpcClientImpl;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpsConfigurator;
+import com.sun.net.httpserver.HttpsParameters;
+import com.sun.net.httpserver.HttpsServer;
+
+/**Measures the TLS handshakes per request of the default HTTP provider against a local TLS
+ * stand-in for <i>bitcoind</i> (which answers every JSON-RPC call with a block count), and checks
+ * them against what session reuse should achieve, for each of TLS 1.2 &amp; 1.3:
+ * <ul>
+ * <li>with keep-alive, only the pre-warmed connections handshake at all;</li>
+ * <li>with the stand-in closing every connection, each request handshakes, but all handshakes
+ * after the first few are abbreviated (<i>i.e.</i> resume the cached session).</li>
+ * </ul>
+ * The stand-in's self-signed certificate is generated with the JDK's {@code keytool}. Run it with
+ * the number of requests per scenario as an optional argument (defaults to 200); it exits with
+ * status 1 if any expectation is not met.*/
+public class HandshakeBenchmark {
+
+	private static final String PASSWORD = "changeit";
+	private static final int PREWARM_CONNECTIONS = 2;
+	private static final Pattern ID_PATTERN = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]*)\"");
+
+	private static boolean isFailed;
+
+
+	public static void main(String[] args) throws Exception {
+		int requestCount = (args.length > 0) ? Integer.parseInt(args[0]) : 200;
+		// otherwise, Nagle's algorithm delays the stand-in's responses on kept-alive connections
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		File keyStoreFile = createKeyStore();
+		try {
+			for (String protocol : new String[] {"TLSv1.2", "TLSv1.3"}) {
+				measure(protocol, true, requestCount, keyStoreFile);
+				measure(protocol, false, requestCount, keyStoreFile);
+			}
+		} finally {
+			keyStoreFile.delete();
+		}
+		System.out.println(isFailed ? "FAILED" : "PASSED");
+		System.exit(isFailed ? 1 : 0);
+	}
+
+	private static void measure(String protocol, boolean isKeptAlive, int requestCount,
+			File keyStoreFile) throws Exception {
+		HttpsServer server = startServer(protocol, isKeptAlive, keyStoreFile);
+		try {
+			Properties nodeConfig = new Properties();
+			nodeConfig.setProperty(NodeProperties.RPC_PROTOCOL.getKey(), "https");
+			nodeConfig.setProperty(NodeProperties.RPC_HOST.getKey(), "127.0.0.1");
+			nodeConfig.setProperty(NodeProperties.RPC_PORT.getKey(), String.valueOf(server
+					.getAddress().getPort()));
+			nodeConfig.setProperty(NodeProperties.RPC_USER.getKey(), "user");
+			nodeConfig.setProperty(NodeProperties.RPC_PASSWORD.getKey(), PASSWORD);
+			nodeConfig.setProperty(NodeProperties.HTTP_AUTH_SCHEME.getKey(), "Basic");
+			nodeConfig.setProperty(NodeProperties.HTTP_PREWARM_CONNECTIONS.getKey(), String
+					.valueOf(PREWARM_CONNECTIONS));
+			nodeConfig.setProperty(NodeProperties.TLS_TRUST_STORE.getKey(), keyStoreFile
+					.getAbsolutePath());
+			nodeConfig.setProperty(NodeProperties.TLS_TRUST_STORE_PASSWORD.getKey(), PASSWORD);
+			ClientConfigurator configurator = new ClientConfigurator();
+			nodeConfig = configurator.checkNodeConfig(nodeConfig);
+			CloseableHttpClient httpProvider = configurator.checkHttpProvider(null);
+			JsonRpcClient rpcClient = new JsonRpcClientImpl(httpProvider, nodeConfig);
+			long start = System.nanoTime();
+			for (int i = 0; i < requestCount; i++) {
+				rpcClient.execute("getblockcount");
+			}
+			long nanos = System.nanoTime() - start;
+			httpProvider.close();
+			HandshakeMetrics metrics = configurator.getHandshakeMetrics();
+			String scenario = String.format("%s/%s", protocol, isKeptAlive ? "keep-alive"
+					: "close");
+			System.out.printf("%-18s requests: %4d, handshakes/request: %5.3f (full: %d, "
+					+ "abbreviated: %d, failed: %d), avg. handshake: %6.3f ms, avg. request: %6.3f "
+					+ "ms\n", scenario, metrics.getRequestCount(), metrics.getHandshakesPerRequest(),
+					metrics.getFullHandshakeCount(), metrics.getResumedHandshakeCount(),
+					metrics.getFailedHandshakeCount(), metrics.getAverageHandshakeMillis(),
+					nanos / 1e6 / requestCount);
+			// under TLS 1.3, the session ticket only arrives along with the first response, so
+			// the pre-warmed connections may all need a full handshake
+			check(scenario, "full handshakes", metrics.getFullHandshakeCount(), 1,
+					PREWARM_CONNECTIONS);
+			check(scenario, "failed handshakes", metrics.getFailedHandshakeCount(), 0, 0);
+			if (isKeptAlive) {
+				check(scenario, "handshakes", metrics.getHandshakeCount(), 1,
+						PREWARM_CONNECTIONS);
+			} else {
+				check(scenario, "handshakes", metrics.getHandshakeCount(), requestCount,
+						requestCount + PREWARM_CONNECTIONS);
+			}
+		} finally {
+			server.stop(0);
+		}
+	}
+
+	private static void check(String scenario, String name, long value, long min, long max) {
+		if ((value < min) || (value > max)) {
+			System.out.printf("%-18s expected %s in [%d, %d], but was %d\n", scenario, name, min,
+					max, value);
+			isFailed = true;
+		}
+	}
+
+	private static HttpsServer startServer(final String protocol, final boolean isKeptAlive,
+			File keyStoreFile) throws Exception {
+		KeyStore keyStore = KeyStore.getInstance("PKCS12");
+		InputStream keyStoreStream = new FileInputStream(keyStoreFile);
+		try {
+			keyStore.load(keyStoreStream, PASSWORD.toCharArray());
+		} finally {
+			keyStoreStream.close();
+		}
+		KeyManagerFactory keyManagerFactory = KeyManagerFactory.getInstance(KeyManagerFactory
+				.getDefaultAlgorithm());
+		keyManagerFactory.init(keyStore, PASSWORD.toCharArray());
+		final SSLContext sslContext = SSLContext.getInstance("TLS");
+		sslContext.init(keyManagerFactory.getKeyManagers(), null, null);
+		HttpsServer server = HttpsServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setHttpsConfigurator(new HttpsConfigurator(sslContext) {
+			@Override
+			public void configure(HttpsParameters params) {
+				SSLParameters sslParams = sslContext.getDefaultSSLParameters();
+				sslParams.setProtocols(new String[] {protocol});
+				params.setSSLParameters(sslParams);
+			}
+		});
+		server.createContext("/", new HttpHandler() {
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				String requestJson = readFully(exchange.getRequestBody());
+				Matcher idMatcher = ID_PATTERN.matcher(requestJson);
+				String id = idMatcher.find() ? idMatcher.group(1) : "";
+				byte[] responseJson = String.format("{\"result\":654321,\"error\":null,"
+						+ "\"id\":\"%s\"}", id).getBytes("UTF-8");
+				if (!isKeptAlive) {
+					exchange.getResponseHeaders().set("Connection", "close");
+				}
+				exchange.getResponseHeaders().set("Content-Type", "application/json");
+				exchange.sendResponseHeaders(200, responseJson.length);
+				OutputStream output = exchange.getResponseBody();
+				output.write(responseJson);
+				output.close();
+			}
+		});
+		server.setExecutor(Executors.newFixedThreadPool(4));
+		server.start();
+		return server;
+	}
+
+	private static File createKeyStore() throws Exception {
+		File keyStoreFile = File.createTempFile("standin", ".p12");
+		keyStoreFile.delete();
+		String keytool = new File(new File(System.getProperty("java.home"), "bin"), "keytool")
+				.getPath();
+		Process process = new ProcessBuilder(keytool, "-genkeypair", "-alias", "standin",
+				"-keyalg", "RSA", "-keysize", "2048", "-dname", "CN=127.0.0.1", "-ext",
+				"SAN=ip:127.0.0.1", "-validity", "1", "-storetype", "PKCS12", "-keystore",
+				keyStoreFile.getPath(), "-storepass", PASSWORD, "-keypass", PASSWORD)
+				.redirectErrorStream(true).start();
+		readFully(process.getInputStream());
+		if (process.waitFor() != 0) {
+			throw new IOException("keytool failed to generate the stand-in's certificate");
+		}
+		return keyStoreFile;
+	}
+
+	private static String readFully(InputStream input) throws IOException {
+		StringBuilder text = new StringBuilder();
+		byte[] buffer = new byte[4096];
+		int count;
+		while ((count = input.read(buffer)) != -1) {
+			text.append(new String(buffer, 0, count, "UTF-8"));
+		}
+		input.close();
+		return text.toString();
+	}
+}
@@ -0,0 +1,87 @@
+package com.neemre.btcdcli4j.examples.benchmark;
+
+import com.neemre.btcdcli4j.core.domain.RawBlock;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonMapper;
+
+/**A rough benchmark comparing the generated JSON codecs against the reflective (Jackson bean)
+ * mapping, by reading &amp; writing a synthetic {@code getblock} (verbosity 2) response. Run it with
+ * the number of transactions per block as an optional argument (defaults to 2000).*/
+public class JsonMappingBenchmark {
+
+	private static final int WARMUP_ROUNDS = 20;
+	private static final int MEASURED_ROUNDS = 50;
+
+
+	public static void main(String[] args) throws Exception {
+		int txCount = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+		String blockJson = createBlockJson(txCount);
+		System.out.printf("Mapping a block of %s transactions (%s KiB of JSON)\n", txCount,
+				blockJson.length() / 1024);
+		JsonMapper generated = new JsonMapper(true);
+		JsonMapper reflective = new JsonMapper(false);
+		for (int i = 0; i < 2; i++) {
+			measure("reflective", reflective, blockJson);
+			measure("generated", generated, blockJson);
+		}
+	}
+
+	private static void measure(String name, JsonMapper mapper, String blockJson)
+			throws Exception {
+		RawBlock block = null;
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			block = mapper.mapToEntity(blockJson, RawBlock.class);
+			mapper.mapToBytes(block);
+		}
+		long readNanos = 0;
+		long writeNanos = 0;
+		for (int i = 0; i < MEASURED_ROUNDS; i++) {
+			long start = System.nanoTime();
+			block = mapper.mapToEntity(blockJson, RawBlock.class);
+			long read = System.nanoTime();
+			mapper.mapToBytes(block);
+			readNanos += read - start;
+			writeNanos += System.nanoTime() - read;
+		}
+		System.out.printf("%-10s read: %6.2f ms/block, write: %6.2f ms/block\n", name,
+				readNanos / 1e6 / MEASURED_ROUNDS, writeNanos / 1e6 / MEASURED_ROUNDS);
+	}
+
+	static String createBlockJson(int txCount) {
+		StringBuilder json = new StringBuilder();
+		json.append("{\"hash\":\"000000000000000000024bead8df69990852c202db0e0097c1a12ea637d7e96d\",")
+				.append("\"confirmations\":12,\"size\":1234567,\"strippedsize\":890123,")
+				.append("\"weight\":3993000,\"height\":500000,\"version\":536870912,")
+				.append("\"merkleroot\":\"31951c69428a95a46b517ffb0de12fec1bd0b2392aec07b64573e03d")
+				.append("ed949621\",\"tx\":[");
+		for (int i = 0; i < txCount; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			String txId = String.format("%064x", i);
+			json.append("{\"txid\":\"").append(txId).append("\",\"hash\":\"").append(txId)
+					.append("\",\"version\":2,\"size\":225,\"vsize\":144,\"weight\":573,")
+					.append("\"locktime\":0,\"vin\":[{\"txid\":\"").append(txId)
+					.append("\",\"vout\":1,\"scriptSig\":{\"asm\":\"\",\"hex\":\"\"},")
+					.append("\"txinwitness\":[\"3044022036b8d3a3\",\"02a8e3b4c7\"],")
+					.append("\"sequence\":4294967295}],\"vout\":[");
+			for (int j = 0; j < 2; j++) {
+				if (j > 0) {
+					json.append(',');
+				}
+				json.append("{\"value\":0.").append(String.format("%08d", 1000 * i + j))
+						.append(",\"n\":").append(j).append(",\"scriptPubKey\":{\"asm\":")
+						.append("\"0 751e76e8199196d454941c45d1b3a323f1433bd6\",\"hex\":")
+						.append("\"0014751e76e8199196d454941c45d1b3a323f1433bd6\",\"reqSigs\":1,")
+						.append("\"type\":\"witness_v0_keyhash\",\"addresses\":[")
+						.append("\"bc1qw508d6qejxtdg4y5r3zarvary0c5xw7kv8f3t4\"]}}");
+			}
+			json.append("],\"hex\":\"0200000000010100\"}");
+		}
+		json.append("],\"time\":1513622125,\"mediantime\":1513620962,\"nonce\":1560058197,")
+				.append("\"bits\":\"18009645\",\"difficulty\":1873105475221.611,")
+				.append("\"chainwork\":\"000000000000000000000000000000000000000000f91c579d57cad4")
+				.append("bc5278cc\",\"previousblockhash\":\"0000000000000000007962066dcd6675830883")
+				.append("516bcf40047d42740a85eb2919\"}");
+		return json.toString();
+	}
+}
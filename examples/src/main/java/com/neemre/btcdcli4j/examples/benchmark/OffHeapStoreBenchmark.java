@@ -0,0 +1,126 @@
+package com.neemre.btcdcli4j.examples.benchmark;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.neemre.btcdcli4j.core.cache.CacheStats;
+import com.neemre.btcdcli4j.core.cache.OffHeapStore;
+import com.neemre.btcdcli4j.core.codec.EntityCodec;
+import com.neemre.btcdcli4j.core.domain.RawBlock;
+import com.neemre.btcdcli4j.core.domain.RawTransaction;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonMapper;
+
+/**A rough benchmark of the GC cost of caching transactions, comparing the heap retained by, and
+ * the pauses of full &amp; young collections with, a given number of cached transactions held as
+ * domain objects on-heap, as encoded payloads on-heap &amp; as encoded payloads in an
+ * {@link OffHeapStore}. The young collections are provoked by mapping a synthetic {@code getblock}
+ * (verbosity 2) response over &amp; over, as a busy client would. Finally, every other entry is
+ * removed from the off-heap store, to show that its reported weight only counts live bytes. Run
+ * it with the number of cached transactions as an optional argument (defaults to 50000) and a heap
+ * large enough to hold them as domain objects (<i>e.g.</i> {@code -Xmx1g}).*/
+public class OffHeapStoreBenchmark {
+
+	private static final int FULL_GC_ROUNDS = 5;
+	private static final int CHURN_ROUNDS = 200;
+	private static final int SLAB_SIZE = 1 << 20;
+
+	// keeps the cache being measured reachable, whatever the JIT makes of the local variables
+	private static Object cache;
+
+
+	public static void main(String[] args) throws Exception {
+		int entryCount = (args.length > 0) ? Integer.parseInt(args[0]) : 50000;
+		String blockJson = JsonMappingBenchmark.createBlockJson(2000);
+		JsonMapper mapper = new JsonMapper();
+		EntityCodec codec = new EntityCodec();
+		List<RawTransaction> transactions = mapper.mapToEntity(blockJson, RawBlock.class).getTx();
+		byte[][] payloads = new byte[transactions.size()][];
+		long payloadBytes = 0;
+		for (int i = 0; i < payloads.length; i++) {
+			payloads[i] = codec.encode(transactions.get(i));
+		}
+		for (int i = 0; i < entryCount; i++) {
+			payloadBytes += payloads[i % payloads.length].length;
+		}
+		System.out.printf("Caching %s transactions (%s KiB encoded)\n", entryCount,
+				payloadBytes / 1024);
+		long baseline = getRetainedHeap();
+
+		Map<Integer, RawTransaction> entities = new HashMap<Integer, RawTransaction>();
+		for (int i = 0; i < entryCount; i++) {
+			entities.put(i, codec.decode(payloads[i % payloads.length], RawTransaction.class));
+		}
+		cache = entities;
+		measure("heap/entities", baseline, mapper, blockJson);
+
+		Map<Integer, byte[]> heapPayloads = new HashMap<Integer, byte[]>();
+		for (int i = 0; i < entryCount; i++) {
+			heapPayloads.put(i, payloads[i % payloads.length].clone());
+		}
+		cache = heapPayloads;
+		measure("heap/payloads", baseline, mapper, blockJson);
+
+		OffHeapStore<Integer> store = new OffHeapStore<Integer>(payloadBytes + 2L * SLAB_SIZE,
+				SLAB_SIZE, false);
+		for (int i = 0; i < entryCount; i++) {
+			store.put(i, payloads[i % payloads.length]);
+		}
+		cache = store;
+		measure("off-heap", baseline, mapper, blockJson);
+		CacheStats stats = store.getStats();
+		System.out.printf("off-heap live weight: %8.2f MiB in %s entries\n", stats.getWeight()
+				/ 1048576.0, stats.getEntryCount());
+		for (int i = 0; i < entryCount; i += 2) {
+			store.remove(i);
+		}
+		stats = store.getStats();
+		System.out.printf("  after removing every other entry: %8.2f MiB in %s entries\n",
+				stats.getWeight() / 1048576.0, stats.getEntryCount());
+	}
+
+	private static void measure(String name, long baseline, JsonMapper mapper, String blockJson)
+			throws Exception {
+		long retained = getRetainedHeap() - baseline;
+		long fullNanos = 0;
+		for (int i = 0; i < FULL_GC_ROUNDS; i++) {
+			long start = System.nanoTime();
+			System.gc();
+			fullNanos += System.nanoTime() - start;
+		}
+		long gcCount = getCollectionCount();
+		long gcMillis = getCollectionTime();
+		for (int i = 0; i < CHURN_ROUNDS; i++) {
+			mapper.mapToEntity(blockJson, RawBlock.class);
+		}
+		gcCount = getCollectionCount() - gcCount;
+		gcMillis = getCollectionTime() - gcMillis;
+		System.out.printf("%-14s retained: %8.2f MiB, full GC: %7.2f ms, young GCs while mapping: "
+				+ "%4d (%5d ms in total)\n", name, retained / 1048576.0, fullNanos / 1e6
+				/ FULL_GC_ROUNDS, gcCount, gcMillis);
+	}
+
+	private static long getRetainedHeap() {
+		System.gc();
+		System.gc();
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	private static long getCollectionCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(collector.getCollectionCount(), 0);
+		}
+		return count;
+	}
+
+	private static long getCollectionTime() {
+		long millis = 0;
+		for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+			millis += Math.max(collector.getCollectionTime(), 0);
+		}
+		return millis;
+	}
+}
@@ -0,0 +1,60 @@
+package com.neemre.btcdcli4j.examples.benchmark;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.neemre.btcdcli4j.core.domain.RawBlock;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonMapper;
+
+/**A rough benchmark of parallel block mapping, comparing the latency of mapping a synthetic
+ * {@code getblock} (verbosity 2) response on the calling thread against mapping its transactions
+ * on fork-join pools of increasing parallelism (up to the number of available cores). Run it with
+ * the number of transactions per block as an optional argument (defaults to 2000).*/
+public class ParallelBlockBenchmark {
+
+	private static final int WARMUP_ROUNDS = 20;
+	private static final int MEASURED_ROUNDS = 50;
+
+
+	public static void main(String[] args) throws Exception {
+		int txCount = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+		String blockJson = JsonMappingBenchmark.createBlockJson(txCount);
+		System.out.printf("Mapping a block of %s transactions (%s KiB of JSON)\n", txCount,
+				blockJson.length() / 1024);
+		JsonMapper mapper = new JsonMapper();
+		RawBlock expected = mapper.mapToEntity(blockJson, RawBlock.class);
+		int cores = Math.max(Runtime.getRuntime().availableProcessors(), 2);
+		for (int i = 0; i < 2; i++) {
+			measure("sequential", mapper, blockJson, null, expected);
+			for (int parallelism = 2; parallelism <= cores; parallelism *= 2) {
+				ForkJoinPool pool = new ForkJoinPool(parallelism);
+				measure(parallelism + " threads", mapper, blockJson, pool, expected);
+				pool.shutdown();
+			}
+		}
+	}
+
+	private static void measure(String name, JsonMapper mapper, String blockJson,
+			ForkJoinPool pool, RawBlock expected) throws Exception {
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			map(mapper, blockJson, pool);
+		}
+		long nanos = 0;
+		for (int i = 0; i < MEASURED_ROUNDS; i++) {
+			long start = System.nanoTime();
+			RawBlock block = map(mapper, blockJson, pool);
+			nanos += System.nanoTime() - start;
+			if (!block.equals(expected)) {
+				throw new IllegalStateException("The blocks mapped by '" + name + "' differ");
+			}
+		}
+		System.out.printf("%-12s read: %6.2f ms/block\n", name, nanos / 1e6 / MEASURED_ROUNDS);
+	}
+
+	private static RawBlock map(JsonMapper mapper, String blockJson, ForkJoinPool pool)
+			throws Exception {
+		if (pool == null) {
+			return mapper.mapToEntity(blockJson, RawBlock.class);
+		}
+		return mapper.mapToBlock(blockJson, pool);
+	}
+}
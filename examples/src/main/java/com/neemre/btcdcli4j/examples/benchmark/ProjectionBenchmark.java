@@ -0,0 +1,61 @@
+package com.neemre.btcdcli4j.examples.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import com.neemre.btcdcli4j.core.domain.RawBlock;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonMapper;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonProjection;
+
+/**A rough benchmark of projected mapping, comparing the time taken &amp; the heap allocated (as
+ * counted by HotSpot's per-thread allocation counter) by mapping a synthetic {@code getblock}
+ * (verbosity 2) response in full against mapping it through a few typical projections. Run it
+ * with the number of transactions per block as an optional argument (defaults to 2000).*/
+public class ProjectionBenchmark {
+
+	private static final int WARMUP_ROUNDS = 20;
+	private static final int MEASURED_ROUNDS = 50;
+
+
+	public static void main(String[] args) throws Exception {
+		int txCount = (args.length > 0) ? Integer.parseInt(args[0]) : 2000;
+		String blockJson = JsonMappingBenchmark.createBlockJson(txCount);
+		System.out.printf("Mapping a block of %s transactions (%s KiB of JSON)\n", txCount,
+				blockJson.length() / 1024);
+		JsonMapper mapper = new JsonMapper();
+		for (int i = 0; i < 2; i++) {
+			measure("full", mapper, blockJson, JsonProjection.ALL);
+			measure("no scripts", mapper, blockJson, JsonProjection.BLOCK_WITHOUT_SCRIPTS);
+			measure("tx values", mapper, blockJson, JsonProjection.including("hash", "height",
+					"tx.txid", "tx.vout.value", "tx.vout.n"));
+			measure("header", mapper, blockJson, JsonProjection.BLOCK_HEADER);
+		}
+	}
+
+	private static void measure(String name, JsonMapper mapper, String blockJson,
+			JsonProjection projection) throws Exception {
+		for (int i = 0; i < WARMUP_ROUNDS; i++) {
+			mapper.mapToEntity(blockJson, RawBlock.class, projection);
+		}
+		long nanos = 0;
+		long bytes = 0;
+		for (int i = 0; i < MEASURED_ROUNDS; i++) {
+			long allocated = getAllocatedBytes();
+			long start = System.nanoTime();
+			mapper.mapToEntity(blockJson, RawBlock.class, projection);
+			nanos += System.nanoTime() - start;
+			bytes += getAllocatedBytes() - allocated;
+		}
+		System.out.printf("%-10s read: %6.2f ms/block, allocated: %7.2f MiB/block\n", name,
+				nanos / 1e6 / MEASURED_ROUNDS, bytes / 1048576.0 / MEASURED_ROUNDS);
+	}
+
+	private static long getAllocatedBytes() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean)threads).getThreadAllocatedBytes(
+					Thread.currentThread().getId());
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,162 @@
+package com.neemre.btcdcli4j.examples.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonMapper;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonPrimitiveParser;
+import com.neemre.btcdcli4j.core.jsonrpc.domain.JsonRpcResponse;
+
+/**A rough benchmark of scalar result parsing, comparing the time taken &amp; the heap allocated
+ * (as counted by HotSpot's per-thread allocation counter) by parsing synthetic
+ * {@code getblockcount}, {@code getdifficulty} &amp; {@code getbestblockhash} responses as the
+ * buffered {@code execute(..)} path does (mapping the whole response, then parsing the text of
+ * its result) against reading the result straight off the response, as the streamed path does.
+ * Run it with the number of responses per round as an optional argument (defaults to 100000).*/
+public class ScalarParsingBenchmark {
+
+	private static final int ROUNDS = 4;
+	private static final String UTF_8 = "UTF-8";
+
+	private static final String BLOCK_COUNT_JSON = "{\"result\":654321,\"error\":null,"
+			+ "\"id\":\"5f1c2a54-7d4e-4bc4-9b1a-1f1d3c0e1a2b\"}";
+	private static final String DIFFICULTY_JSON = "{\"result\":16787779609932.66,\"error\":null,"
+			+ "\"id\":\"5f1c2a54-7d4e-4bc4-9b1a-1f1d3c0e1a2b\"}";
+	private static final String BEST_BLOCK_HASH_JSON = "{\"result\":\"0000000000000000000"
+			+ "46a0f5e8b1a7c3d2e9f8a6b5c4d3e2f1a0b9c8d7e6f5a\",\"error\":null,"
+			+ "\"id\":\"5f1c2a54-7d4e-4bc4-9b1a-1f1d3c0e1a2b\"}";
+
+
+	public static void main(String[] args) throws Exception {
+		int count = (args.length > 0) ? Integer.parseInt(args[0]) : 100000;
+		JsonMapper mapper = new JsonMapper();
+		JsonPrimitiveParser parser = new JsonPrimitiveParser();
+		System.out.printf("Parsing %s responses of each kind per round\n", count);
+		for (int i = 0; i < ROUNDS; i++) {
+			boolean isPrinted = (i >= ROUNDS / 2);
+			measure("count/buffered", new BufferedTask(mapper, parser, BLOCK_COUNT_JSON, 0), count,
+					isPrinted);
+			measure("count/streamed", new StreamedTask(mapper, parser, BLOCK_COUNT_JSON, 0), count,
+					isPrinted);
+			measure("difficulty/buffered", new BufferedTask(mapper, parser, DIFFICULTY_JSON, 1),
+					count, isPrinted);
+			measure("difficulty/streamed", new StreamedTask(mapper, parser, DIFFICULTY_JSON, 1),
+					count, isPrinted);
+			measure("hash/buffered", new BufferedTask(mapper, parser, BEST_BLOCK_HASH_JSON, 2),
+					count, isPrinted);
+			measure("hash/streamed", new StreamedTask(mapper, parser, BEST_BLOCK_HASH_JSON, 2),
+					count, isPrinted);
+		}
+	}
+
+	private static void measure(String name, Task task, int count, boolean isPrinted)
+			throws Exception {
+		long allocated = getAllocatedBytes();
+		long start = System.nanoTime();
+		Object result = null;
+		for (int i = 0; i < count; i++) {
+			result = task.run();
+		}
+		long nanos = System.nanoTime() - start;
+		long bytes = getAllocatedBytes() - allocated;
+		if (isPrinted) {
+			System.out.printf("%-20s read: %7.1f ns/op, allocated: %6d B/op (%s)\n", name,
+					(double)nanos / count, bytes / count, result);
+		}
+	}
+
+	private static long getAllocatedBytes() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean)threads).getThreadAllocatedBytes(
+					Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	private interface Task {
+
+		Object run() throws Exception;
+	}
+
+	/**Parses a response the way {@code JsonRpcClient#execute(..)} &amp; the original scalar
+	 * commands did: from a string holding the whole response.*/
+	private static class BufferedTask implements Task {
+
+		private JsonMapper mapper;
+		private JsonPrimitiveParser parser;
+		private byte[] responseBytes;
+		private int kind;
+
+
+		public BufferedTask(JsonMapper mapper, JsonPrimitiveParser parser, String responseJson,
+				int kind) throws Exception {
+			this.mapper = mapper;
+			this.parser = parser;
+			this.responseBytes = responseJson.getBytes(UTF_8);
+			this.kind = kind;
+		}
+
+		@Override
+		public Object run() throws Exception {
+			String responseJson = new String(responseBytes, UTF_8);
+			String resultJson = mapper.mapToEntity(responseJson, JsonRpcResponse.class)
+					.getResult();
+			switch (kind) {
+			case 0:
+				return parser.parseInteger(resultJson);
+			case 1:
+				return parser.parseBigDecimal(resultJson);
+			default:
+				return parser.parseString(resultJson);
+			}
+		}
+	}
+
+	/**Parses a response the way {@code JsonRpcClient#executeForStream(..)} &amp; the scalar
+	 * fast paths do: reading the result straight from the response bytes.*/
+	private static class StreamedTask implements Task {
+
+		private JsonMapper mapper;
+		private JsonPrimitiveParser parser;
+		private byte[] responseBytes;
+		private int kind;
+
+
+		public StreamedTask(JsonMapper mapper, JsonPrimitiveParser parser, String responseJson,
+				int kind) throws Exception {
+			this.mapper = mapper;
+			this.parser = parser;
+			this.responseBytes = responseJson.getBytes(UTF_8);
+			this.kind = kind;
+		}
+
+		@Override
+		public Object run() throws Exception {
+			JsonParser jsonParser = mapper.createParser(new ByteArrayInputStream(responseBytes));
+			try {
+				Object result = null;
+				jsonParser.nextToken();
+				while (jsonParser.nextToken() == JsonToken.FIELD_NAME) {
+					String field = jsonParser.getCurrentName();
+					jsonParser.nextToken();
+					if (!field.equals("result")) {
+						jsonParser.skipChildren();
+					} else if (kind == 0) {
+						result = parser.readInteger(jsonParser);
+					} else if (kind == 1) {
+						result = parser.readBigDecimal(jsonParser);
+					} else {
+						result = parser.readSha256Hash(jsonParser);
+					}
+				}
+				return result;
+			} finally {
+				jsonParser.close();
+			}
+		}
+	}
+}
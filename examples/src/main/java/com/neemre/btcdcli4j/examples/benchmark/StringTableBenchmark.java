@@ -0,0 +1,81 @@
+package com.neemre.btcdcli4j.examples.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.neemre.btcdcli4j.core.domain.Payment;
+import com.neemre.btcdcli4j.core.jsonrpc.JsonMapper;
+import com.neemre.btcdcli4j.core.jsonrpc.StringTable;
+
+/**A rough benchmark of string canonicalization, comparing the heap retained by (&amp; the time
+ * taken to map) a long-lived list of wallet payments, mapped page by page from synthetic
+ * {@code listtransactions} responses, with &amp; without a {@link StringTable}. Run it with the
+ * number of payments as an optional argument (defaults to 100000).*/
+public class StringTableBenchmark {
+
+	private static final int PAGE_SIZE = 500;
+	private static final int ADDRESS_COUNT = 50;
+	private static final int PAYMENTS_PER_BLOCK = 40;
+	private static final int STRING_TABLE_CAPACITY = 8192;
+
+
+	public static void main(String[] args) throws Exception {
+		int paymentCount = (args.length > 0) ? Integer.parseInt(args[0]) : 100000;
+		List<String> pagesJson = new ArrayList<String>();
+		for (int i = 0; i < paymentCount; i += PAGE_SIZE) {
+			pagesJson.add(createPageJson(i, Math.min(PAGE_SIZE, paymentCount - i)));
+		}
+		System.out.printf("Mapping %s payments in pages of %s\n", paymentCount, PAGE_SIZE);
+		for (int i = 0; i < 2; i++) {
+			measure("plain", new JsonMapper(true), pagesJson);
+			measure("canonical", new JsonMapper(true, new StringTable(STRING_TABLE_CAPACITY)),
+					pagesJson);
+		}
+	}
+
+	private static void measure(String name, JsonMapper mapper, List<String> pagesJson)
+			throws Exception {
+		long heapBefore = getUsedHeap();
+		long start = System.nanoTime();
+		List<List<Payment>> pages = new ArrayList<List<Payment>>();
+		for (String pageJson : pagesJson) {
+			pages.add(mapper.mapToList(pageJson, Payment.class));
+		}
+		long nanos = System.nanoTime() - start;
+		long retained = getUsedHeap() - heapBefore;
+		System.out.printf("%-10s read: %7.2f ms, retained: %7.2f MiB (%s pages)\n", name,
+				nanos / 1e6, retained / 1048576.0, pages.size());
+	}
+
+	private static long getUsedHeap() throws InterruptedException {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			Thread.sleep(100);
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+
+	private static String createPageJson(int from, int count) {
+		StringBuilder json = new StringBuilder("[");
+		for (int i = from; i < from + count; i++) {
+			if (i > from) {
+				json.append(',');
+			}
+			int address = i % ADDRESS_COUNT;
+			int block = i / PAYMENTS_PER_BLOCK;
+			json.append("{\"account\":\"account-").append(address % 10)
+					.append("\",\"address\":\"1BvBMSEYstWetqTFn5Au4m4GFg7xJa").append(String.format(
+					"%04d", address)).append("\",\"category\":\"").append((i % 2 == 0) ? "receive" 
+					: "send").append("\",\"amount\":0.").append(String.format("%08d", i))
+					.append(",\"vout\":").append(i % 2).append(",\"confirmations\":")
+					.append(1000 - block).append(",\"blockhash\":\"").append(String.format("%064x", 
+					block)).append("\",\"blockindex\":").append(i % PAYMENTS_PER_BLOCK)
+					.append(",\"blocktime\":").append(1500000000 + 600 * block)
+					.append(",\"txid\":\"").append(String.format("%064x", i / 2))
+					.append("\",\"walletconflicts\":[],\"time\":").append(1500000000 + 600 * block)
+					.append(",\"timereceived\":").append(1500000000 + 600 * block).append('}');
+		}
+		return json.append(']').toString();
+	}
+}